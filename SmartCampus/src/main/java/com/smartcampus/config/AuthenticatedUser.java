@@ -0,0 +1,52 @@
+package com.smartcampus.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.security.core.AuthenticatedPrincipal;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.Serializable;
+import java.util.Optional;
+
+/**
+ * Principal set by {@link JwtAuthenticationFilter}. Holds the identifiers resolved when the
+ * token was issued, so ownership checks can compare ids without touching the database.
+ */
+@Getter
+@AllArgsConstructor
+public class AuthenticatedUser implements AuthenticatedPrincipal, Serializable {
+
+    private final String email;
+    private final Long userId;
+    private final Long studentId;
+    private final Long professorId;
+
+    @Override
+    public String getName() {
+        return email;
+    }
+
+    /**
+     * Tokens issued before the id claims were introduced only carry the email
+     */
+    public boolean hasIdentityClaims() {
+        return userId != null;
+    }
+
+    /**
+     * Get the principal of the current request, if it was authenticated with an access token
+     */
+    public static Optional<AuthenticatedUser> current() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser user) {
+            return Optional.of(user);
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public String toString() {
+        return email;
+    }
+}
@@ -0,0 +1,27 @@
+package com.smartcampus.config;
+
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+
+/**
+ * UserDetails that also carries the caller's database identifiers so they can be
+ * embedded as claims when the access token is generated.
+ */
+@Getter
+public class CampusUserDetails extends User {
+
+    private final Long userId;
+    private final Long studentId;   // null unless the user has a student record
+    private final Long professorId; // null unless the user has a professor record
+
+    public CampusUserDetails(String username, String password, Collection<? extends GrantedAuthority> authorities,
+                             Long userId, Long studentId, Long professorId) {
+        super(username, password, authorities);
+        this.userId = userId;
+        this.studentId = studentId;
+        this.professorId = professorId;
+    }
+}
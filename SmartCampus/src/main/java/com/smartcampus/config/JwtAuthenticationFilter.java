@@ -1,5 +1,7 @@
 package com.smartcampus.config;
 
+import com.smartcampus.entity.StreamTicket;
+import com.smartcampus.service.StreamTicketService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -15,7 +17,9 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Component
@@ -23,7 +27,10 @@ import java.util.stream.Collectors;
 @Slf4j
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    private static final String NOTIFICATION_STREAM_PATH = "/api/notifications/stream";
+
     private final JwtService jwtService;
+    private final StreamTicketService streamTicketService;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
@@ -31,9 +38,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = getJwtFromRequest(request);
 
-            if (StringUtils.hasText(jwt) && jwtService.validateAccessToken(jwt)) {
-                String email = jwtService.getEmailFromAccessToken(jwt);
-                List<String> authorities = jwtService.getAuthoritiesFromAccessToken(jwt);
+            VerifiedAccessToken verified = StringUtils.hasText(jwt) ? jwtService.verifyAccessToken(jwt) : null;
+
+            if (verified != null) {
+                String email = verified.getEmail();
+                List<String> authorities = verified.getAuthorities();
                 
                 // Convert string authorities to SimpleGrantedAuthority objects
                 // Ensure they have ROLE_ prefix for Spring Security
@@ -48,19 +57,23 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                         .collect(Collectors.toList());
                 
                 // Log authentication details for debugging
-                log.info("Authenticating user: {} with authorities: {} for request: {}", 
+                log.debug("Authenticating user: {} with authorities: {} for request: {}", 
                         email, authorities, request.getRequestURI());
                 
+                AuthenticatedUser principal = new AuthenticatedUser(
+                        email, verified.getUserId(), verified.getStudentId(), verified.getProfessorId());
                 UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                        email, null, grantedAuthorities);
+                        principal, null, grantedAuthorities);
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
                 SecurityContextHolder.getContext().setAuthentication(authentication);
                 
-                log.info("Authentication set in SecurityContext for user: {} with {} authorities for request: {}", 
+                log.debug("Authentication set in SecurityContext for user: {} with {} authorities for request: {}", 
                         email, grantedAuthorities.size(), request.getRequestURI());
             } else if (StringUtils.hasText(jwt)) {
                 log.warn("JWT token provided but validation failed for request: {}", request.getRequestURI());
+            } else if (isStreamRequestWithTicket(request)) {
+                authenticateWithStreamTicket(request);
             } else {
                 log.debug("No JWT token found in request: {}", request.getRequestURI());
             }
@@ -79,4 +92,29 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
         return null;
     }
+
+    // Browser EventSource can't set headers, so the notification stream accepts a single-use ticket instead
+    private boolean isStreamRequestWithTicket(HttpServletRequest request) {
+        return NOTIFICATION_STREAM_PATH.equals(request.getRequestURI())
+                && StringUtils.hasText(request.getParameter("ticket"));
+    }
+
+    private void authenticateWithStreamTicket(HttpServletRequest request) {
+        Optional<StreamTicket> redeemed = streamTicketService.redeem(request.getParameter("ticket"));
+        if (redeemed.isEmpty()) {
+            log.warn("Invalid, expired or reused stream ticket for request: {}", request.getRequestURI());
+            return;
+        }
+        StreamTicket ticket = redeemed.get();
+        List<SimpleGrantedAuthority> grantedAuthorities = Arrays.stream(ticket.getAuthorities().split(","))
+                .filter(StringUtils::hasText)
+                .map(SimpleGrantedAuthority::new)
+                .collect(Collectors.toList());
+        AuthenticatedUser principal = new AuthenticatedUser(ticket.getEmail(), ticket.getUserId(), null, null);
+        UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                principal, null, grantedAuthorities);
+        authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+        log.debug("Authenticated notification stream for user: {} with a stream ticket", ticket.getEmail());
+    }
 } 
\ No newline at end of file
@@ -44,6 +44,8 @@ public class JwtService {
     @Value("${jwt.cookie-secure:false}")
     private boolean cookieSecure;
 
+    private final VerifiedTokenCache verifiedTokenCache;
+
     private SecretKey cachedAccessSigningKey;
     private SecretKey cachedRefreshSigningKey;
 
@@ -78,14 +80,27 @@ public class JwtService {
         log.info("Generating {} token for user: {} with authorities: {} and roles: {}",
                 tokenType, userDetails.getUsername(), authorities, roles);
 
-        return Jwts.builder()
+        JwtBuilder builder = Jwts.builder()
                 .setSubject(userDetails.getUsername())
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
                 .setIssuer("smartcampus")
                 .claim("authorities", authorities)
                 .claim("roles", roles)
-                .claim("tokenType", tokenType)
+                .claim("tokenType", tokenType);
+
+        // Embed database identifiers so ownership checks don't need a lookup per request
+        if (userDetails instanceof CampusUserDetails campusUser) {
+            builder.claim("userId", campusUser.getUserId());
+            if (campusUser.getStudentId() != null) {
+                builder.claim("studentId", campusUser.getStudentId());
+            }
+            if (campusUser.getProfessorId() != null) {
+                builder.claim("professorId", campusUser.getProfessorId());
+            }
+        }
+
+        return builder
                 .signWith(signingKey, SignatureAlgorithm.HS512)
                 .compact();
     }
@@ -128,6 +143,60 @@ public class JwtService {
         }
     }
 
+    /**
+     * Verify an access token and extract its principal in a single parse.
+     * Tokens that already passed verification are served from the cache until their exp.
+     * Returns null if the token is invalid, expired or not an access token.
+     */
+    public VerifiedAccessToken verifyAccessToken(String token) {
+        VerifiedAccessToken cached = verifiedTokenCache.get(token);
+        if (cached != null) {
+            return cached;
+        }
+
+        try {
+            Claims claims = Jwts.parser()
+                    .verifyWith(getAccessSigningKey())
+                    .build()
+                    .parseSignedClaims(token)
+                    .getPayload();
+
+            String tokenType = claims.get("tokenType", String.class);
+            if (!"access".equals(tokenType)) {
+                log.warn("Token type mismatch. Expected: access, Got: {}", tokenType);
+                return null;
+            }
+
+            Date expiration = claims.getExpiration();
+            if (expiration == null || expiration.before(new Date())) {
+                return null;
+            }
+
+            @SuppressWarnings("unchecked")
+            List<String> authorities = claims.get("authorities", List.class);
+            VerifiedAccessToken verified = new VerifiedAccessToken(
+                    claims.getSubject(),
+                    authorities != null ? List.copyOf(authorities) : List.of(),
+                    getLongClaim(claims, "userId"),
+                    getLongClaim(claims, "studentId"),
+                    getLongClaim(claims, "professorId"),
+                    expiration.getTime());
+            verifiedTokenCache.put(token, verified);
+            return verified;
+        } catch (JwtException | IllegalArgumentException e) {
+            log.warn("Invalid JWT token: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Read a numeric claim; small values are deserialized as Integer, so normalize to Long
+     */
+    private Long getLongClaim(Claims claims, String name) {
+        Object value = claims.get(name);
+        return value instanceof Number number ? number.longValue() : null;
+    }
+
     /**
      * Extract email from access token
      */
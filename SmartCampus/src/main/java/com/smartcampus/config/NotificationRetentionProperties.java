@@ -0,0 +1,25 @@
+package com.smartcampus.config;
+
+import com.smartcampus.entity.NotificationType;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "notifications.retention")
+public class NotificationRetentionProperties {
+    private boolean enabled = false;
+    private int defaultDays = 365; // 0 or less keeps notifications forever
+    private Map<NotificationType, Integer> types = new EnumMap<>(NotificationType.class); // per-type overrides
+    private int chunkSize = 1000;
+    private long pauseMillis = 100; // between chunks, so purging never hogs the table
+
+    public int daysFor(NotificationType type) {
+        Integer days = types.get(type);
+        return days != null ? days : defaultDays;
+    }
+}
@@ -7,8 +7,9 @@ import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.HttpStatus;
 
+// Only springdoc's own endpoints; everything else is handled by GlobalExceptionHandler
 @Configuration
-@ControllerAdvice
+@ControllerAdvice(basePackages = "org.springdoc")
 public class OpenApiExceptionHandler {
 
     @ExceptionHandler(Exception.class)
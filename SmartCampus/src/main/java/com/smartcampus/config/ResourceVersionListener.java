@@ -0,0 +1,138 @@
+package com.smartcampus.config;
+
+import com.smartcampus.entity.Announcement;
+import com.smartcampus.entity.Course;
+import com.smartcampus.entity.Professor;
+import com.smartcampus.entity.User;
+import com.smartcampus.service.ResourceVersions;
+import com.smartcampus.service.ResourceVersions.Resource;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bumps {@link ResourceVersions} inside every transaction that inserts, updates or deletes an entity
+ * that appears in the versioned list responses, including entities that are only embedded in another
+ * collection's DTOs (a professor's name in a course, a course's code in an announcement).
+ * Changes are collected per session as they are flushed and written once, after the final flush
+ * and before the commit, so the version commits or rolls back with the data. User updates only
+ * count when they touch a field announcements show, so logins don't invalidate announcement lists.
+ * JPQL bulk updates and JDBC writes bypass Hibernate events and must bump explicitly.
+ */
+@Component
+@RequiredArgsConstructor
+public class ResourceVersionListener implements PostInsertEventListener,
+        PostUpdateEventListener, PostDeleteEventListener {
+
+    private static final Map<Class<?>, Resource[]> AFFECTED = Map.of(
+            Course.class, new Resource[]{Resource.COURSES, Resource.ANNOUNCEMENTS},
+            Professor.class, new Resource[]{Resource.PROFESSORS, Resource.COURSES, Resource.ANNOUNCEMENTS},
+            Announcement.class, new Resource[]{Resource.ANNOUNCEMENTS},
+            User.class, new Resource[]{Resource.ANNOUNCEMENTS});
+
+    // User properties copied into announcement responses (posted-by name, email and role)
+    private static final Set<String> LISTED_USER_PROPERTIES = Set.of("name", "email", "role");
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final ResourceVersions resourceVersions;
+
+    // Collections changed by each session's current transaction
+    private final Map<EventSource, Set<Resource>> pending = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        changed(event.getSession(), event.getPersister());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (event.getPersister().getMappedClass() == User.class && !touchesListedUserProperty(event)) {
+            return;
+        }
+        changed(event.getSession(), event.getPersister());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        changed(event.getSession(), event.getPersister());
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private void changed(EventSource session, EntityPersister persister) {
+        Resource[] resources = AFFECTED.get(persister.getMappedClass());
+        if (resources == null) {
+            return;
+        }
+        Set<Resource> changed = pending.get(session);
+        if (changed == null) {
+            changed = EnumSet.noneOf(Resource.class);
+            pending.put(session, changed);
+            session.getActionQueue().registerProcess((BeforeTransactionCompletionProcess) this::beforeCompletion);
+            session.getActionQueue().registerProcess((AfterTransactionCompletionProcess) this::afterCompletion);
+        }
+        Collections.addAll(changed, resources);
+    }
+
+    private void beforeCompletion(SessionImplementor session) {
+        Set<Resource> changed = pending.get(session);
+        if (changed != null && !changed.isEmpty()) {
+            resourceVersions.bump(changed);
+        }
+    }
+
+    private void afterCompletion(boolean success, SharedSessionContractImplementor session) {
+        if (pending.remove(session) != null && success) {
+            resourceVersions.invalidate();
+        }
+    }
+
+    private static boolean touchesListedUserProperty(PostUpdateEvent event) {
+        int[] dirty = event.getDirtyProperties();
+        if (dirty == null) {
+            return true;
+        }
+        String[] names = event.getPersister().getPropertyNames();
+        for (int index : dirty) {
+            if (LISTED_USER_PROPERTIES.contains(names[index])) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,43 @@
+package com.smartcampus.config;
+
+import com.smartcampus.service.AttachmentLinkService;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Matches attachment downloads that carry a valid signature from {@link AttachmentLinkService}.
+ * Such requests need no authentication; anything else falls through to the normal rules.
+ */
+@Component
+@RequiredArgsConstructor
+public class SignedAttachmentRequestMatcher implements RequestMatcher {
+
+    private static final Pattern ATTACHMENT_PATH = Pattern.compile("/api/announcements/(\\d+)/attachment");
+
+    private final AttachmentLinkService attachmentLinkService;
+
+    @Override
+    public boolean matches(HttpServletRequest request) {
+        if (!HttpMethod.GET.matches(request.getMethod()) && !HttpMethod.HEAD.matches(request.getMethod())) {
+            return false;
+        }
+        Matcher path = ATTACHMENT_PATH.matcher(request.getRequestURI());
+        String expires = request.getParameter("expires");
+        String signature = request.getParameter("signature");
+        if (!path.matches() || !StringUtils.hasText(expires) || !StringUtils.hasText(signature)) {
+            return false;
+        }
+        try {
+            return attachmentLinkService.verify(Long.valueOf(path.group(1)), Long.parseLong(expires), signature);
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.smartcampus.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Result of a single successful parse-and-verify pass over an access token.
+ * Immutable so it can be shared between requests through {@link VerifiedTokenCache}.
+ */
+@Getter
+@AllArgsConstructor
+public class VerifiedAccessToken {
+    private final String email;
+    private final List<String> authorities;
+    private final Long userId;
+    private final Long studentId;
+    private final Long professorId;
+    private final long expiresAt; // epoch millis, taken from the token's exp claim
+
+    public boolean isExpired(long now) {
+        return now >= expiresAt;
+    }
+}
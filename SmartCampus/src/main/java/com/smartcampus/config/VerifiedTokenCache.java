@@ -0,0 +1,138 @@
+package com.smartcampus.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded cache of access tokens that already passed signature and expiry checks.
+ * Entries are keyed by a SHA-256 digest of the raw token (the token itself is never kept)
+ * and expire no later than the token's own exp claim. When full, the least recently used token
+ * is dropped on insert, so every operation is constant time; dropped tokens are simply
+ * re-verified on next use.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private final long maxTtl;
+
+    // Access-ordered and guarded by itself; the eldest entry is the least recently used token
+    private final LinkedHashMap<String, CacheEntry> entries;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public VerifiedTokenCache(MeterRegistry meterRegistry,
+                              @Value("${jwt.verified-cache.max-entries:10000}") int maxEntries,
+                              @Value("${jwt.verified-cache.max-ttl:300000}") long maxTtl) {
+        this.maxTtl = maxTtl;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CacheEntry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+
+        FunctionCounter.builder("smartcampus.jwt.verified-cache.hits", hits, AtomicLong::get)
+                .description("Access tokens served from the verified token cache")
+                .register(meterRegistry);
+        FunctionCounter.builder("smartcampus.jwt.verified-cache.misses", misses, AtomicLong::get)
+                .description("Access tokens that had to be verified because they were not cached")
+                .register(meterRegistry);
+        Gauge.builder("smartcampus.jwt.verified-cache.size", this, VerifiedTokenCache::size)
+                .description("Verified access tokens currently cached")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Get a previously verified token, or null if absent or expired
+     */
+    public VerifiedAccessToken get(String token) {
+        String key = digest(token);
+        CacheEntry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+            if (entry != null && entry.isExpired(System.currentTimeMillis())) {
+                entries.remove(key);
+                entry = null;
+            }
+        }
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return entry.verified;
+    }
+
+    /**
+     * Store a verified token until its exp claim or the configured max TTL, whichever comes first
+     */
+    public void put(String token, VerifiedAccessToken verified) {
+        long now = System.currentTimeMillis();
+        long evictAt = Math.min(verified.getExpiresAt(), now + maxTtl);
+        if (evictAt <= now) {
+            return;
+        }
+        String key = digest(token);
+        synchronized (entries) {
+            entries.put(key, new CacheEntry(verified, evictAt));
+        }
+    }
+
+    /**
+     * Drop every cached token, e.g. after a signing key rotation
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    private String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            byte[] hash = sha256.digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static final class CacheEntry {
+        private final VerifiedAccessToken verified;
+        private final long evictAt;
+
+        private CacheEntry(VerifiedAccessToken verified, long evictAt) {
+            this.verified = verified;
+            this.evictAt = evictAt;
+        }
+
+        private boolean isExpired(long now) {
+            return now >= evictAt;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.smartcampus.controller;
 
 import com.smartcampus.dto.ApiResponse;
 import com.smartcampus.dto.UserDTO;
+import com.smartcampus.service.JsonListStreamer;
 import com.smartcampus.service.UserService;
 import com.smartcampus.service.StudentService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -14,6 +15,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Map;
@@ -28,6 +30,7 @@ public class AdminController {
 
     private final UserService userService;
     private final StudentService studentService;
+    private final JsonListStreamer jsonListStreamer;
 
     @GetMapping("/dashboard")
     @PreAuthorize("hasRole('ADMIN')")
@@ -69,9 +72,8 @@ public class AdminController {
             description = "Forbidden - Admin access required"
         )
     })
-    public ResponseEntity<ApiResponse<List<UserDTO>>> getAllUsers() {
-        List<UserDTO> users = userService.getAllUsers();
-        return ResponseEntity.ok(ApiResponse.success("All users retrieved successfully", users));
+    public ResponseEntity<StreamingResponseBody> getAllUsers() {
+        return jsonListStreamer.ok("All users retrieved successfully", userService::streamAllUsers);
     }
 
     @GetMapping("/debug/database")
@@ -1,9 +1,21 @@
 package com.smartcampus.controller;
 
+import com.smartcampus.config.AuthenticatedUser;
 import com.smartcampus.dto.ApiResponse;
 import com.smartcampus.dto.AnnouncementDTO;
+import com.smartcampus.dto.AttachmentDTO;
+import com.smartcampus.dto.AttachmentLinkDTO;
+import com.smartcampus.dto.CursorPageDTO;
 import com.smartcampus.entity.AnnouncementPriority;
 import com.smartcampus.entity.AnnouncementStatus;
+import com.smartcampus.service.AttachmentLinkService;
+import com.smartcampus.service.AttachmentStore;
+import com.smartcampus.service.JsonListStreamer;
+import com.smartcampus.service.ResourceVersions;
+import com.smartcampus.service.ResourceVersions.Resource;
+import com.smartcampus.service.UserService;
+import com.smartcampus.util.ConditionalGet;
+import com.smartcampus.util.FileDownload;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
@@ -11,6 +23,8 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -18,10 +32,18 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -33,6 +55,11 @@ import java.util.List;
 public class AnnouncementController {
 
     private final com.smartcampus.service.AnnouncementService announcementService;
+    private final UserService userService;
+    private final ResourceVersions resourceVersions;
+    private final AttachmentStore attachmentStore;
+    private final AttachmentLinkService attachmentLinkService;
+    private final JsonListStreamer jsonListStreamer;
 
     @PostMapping
     @PreAuthorize("hasAnyRole('PROFESSOR', 'ADMIN')")
@@ -98,9 +125,9 @@ public class AnnouncementController {
             )
         )
     })
-    public ResponseEntity<ApiResponse<List<AnnouncementDTO>>> getAllAnnouncements() {
-        List<AnnouncementDTO> announcements = announcementService.getAllAnnouncements();
-        return ResponseEntity.ok(ApiResponse.success("Announcements retrieved successfully", announcements));
+    public ResponseEntity<StreamingResponseBody> getAllAnnouncements(WebRequest request) {
+        return ConditionalGet.respond(request, resourceVersions.current(Resource.ANNOUNCEMENTS), MediaType.APPLICATION_JSON,
+                () -> jsonListStreamer.body("Announcements retrieved successfully", announcementService::streamAllAnnouncements));
     }
 
     @GetMapping("/paginated")
@@ -119,9 +146,40 @@ public class AnnouncementController {
         )
     })
     public ResponseEntity<ApiResponse<Page<AnnouncementDTO>>> getAllAnnouncementsPaginated(
-            @PageableDefault(size = 20) Pageable pageable) {
-        Page<AnnouncementDTO> announcements = announcementService.getAllAnnouncementsPaginated(pageable);
-        return ResponseEntity.ok(ApiResponse.success("Announcements retrieved successfully", announcements));
+            @PageableDefault(size = 20) Pageable pageable,
+            WebRequest request) {
+        return ConditionalGet.respond(request, resourceVersions.current(Resource.ANNOUNCEMENTS),
+                () -> ApiResponse.success("Announcements retrieved successfully", announcementService.getAllAnnouncementsPaginated(pageable)));
+    }
+
+    @GetMapping("/feed")
+    @Operation(
+        summary = "Get My Announcement Feed",
+        description = "Announcements from every course the current user is enrolled in or teaches, pinned first, then by priority and newest first. Pass the returned nextCursor as 'after' to get the next page."
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200",
+            description = "Feed retrieved successfully",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = CursorPageDTO.class)
+            )
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "400",
+            description = "Invalid cursor"
+        )
+    })
+    public ResponseEntity<ApiResponse<CursorPageDTO<AnnouncementDTO>>> getMyFeed(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") int limit) {
+        try {
+            CursorPageDTO<AnnouncementDTO> feed = announcementService.getFeed(getCurrentUserId(), after, limit);
+            return ResponseEntity.ok(ApiResponse.success("Feed retrieved successfully", feed));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
     }
 
     @GetMapping("/{id}")
@@ -221,6 +279,104 @@ public class AnnouncementController {
         return ResponseEntity.ok(ApiResponse.success("Announcement deleted successfully", null));
     }
 
+    @PutMapping(value = "/{id}/attachment", consumes = MediaType.ALL_VALUE)
+    @PreAuthorize("hasAnyRole('PROFESSOR', 'ADMIN')")
+    @Operation(
+        summary = "Upload Attachment",
+        description = "Store the raw request body as the announcement's attachment, replacing any previous one (Professor or Admin only). " +
+                     "The Content-Type header becomes the attachment type; identical files are stored once."
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200",
+            description = "Attachment stored successfully",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = AnnouncementDTO.class)
+            )
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "404",
+            description = "Announcement not found"
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "413",
+            description = "Attachment exceeds the maximum size"
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "403",
+            description = "Forbidden - Professor or Admin access required"
+        )
+    })
+    public ResponseEntity<ApiResponse<AnnouncementDTO>> uploadAttachment(
+            @PathVariable Long id,
+            @RequestParam String filename,
+            HttpServletRequest request) throws IOException {
+        AnnouncementDTO announcement = announcementService.storeAttachment(
+                id, request.getInputStream(), filename, request.getContentType());
+        return ResponseEntity.ok(ApiResponse.success("Attachment stored successfully", announcement));
+    }
+
+    @GetMapping("/{id}/attachment")
+    @Operation(
+        summary = "Download Attachment",
+        description = "Stream the announcement's stored attachment. Supports If-None-Match (304) and single byte ranges (206). " +
+                     "Accepts a Bearer token or the expires and signature parameters of a link from POST /{id}/attachment/link"
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200",
+            description = "Attachment content"
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "206",
+            description = "Requested byte range of the attachment"
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "304",
+            description = "Attachment not modified"
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "404",
+            description = "Announcement or attachment not found"
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "416",
+            description = "Requested range not satisfiable"
+        )
+    })
+    public void downloadAttachment(@PathVariable Long id, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        AttachmentDTO attachment = announcementService.getAttachment(id);
+        Path file = attachmentStore.path(attachment.getHash());
+        long size = Files.size(file);
+        FileDownload.send(request, response, file, size, attachmentStore.cached(attachment.getHash(), size),
+                "\"" + attachment.getHash() + "\"", attachment.getType(), attachment.getName());
+    }
+
+    @PostMapping("/{id}/attachment/link")
+    @Operation(
+        summary = "Issue Attachment Link",
+        description = "Issue a short-lived signed URL for the announcement's attachment, for media elements and " +
+                     "plain links that cannot send an Authorization header"
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200",
+            description = "Link issued"
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "404",
+            description = "Announcement or attachment not found"
+        )
+    })
+    public ResponseEntity<ApiResponse<AttachmentLinkDTO>> issueAttachmentLink(@PathVariable Long id) {
+        // Fails with 404 when there is nothing to link to
+        announcementService.getAttachment(id);
+        return ResponseEntity.ok(ApiResponse.success("Attachment link issued",
+                new AttachmentLinkDTO(attachmentLinkService.issue(id), attachmentLinkService.getTtlSeconds())));
+    }
+
     @GetMapping("/course/{courseId}")
     @Operation(
         summary = "Get Announcements by Course",
@@ -236,9 +392,9 @@ public class AnnouncementController {
             )
         )
     })
-    public ResponseEntity<ApiResponse<List<AnnouncementDTO>>> getAnnouncementsByCourse(@PathVariable Long courseId) {
-        List<AnnouncementDTO> announcements = announcementService.getAnnouncementsByCourseId(courseId);
-        return ResponseEntity.ok(ApiResponse.success("Course announcements retrieved successfully", announcements));
+    public ResponseEntity<ApiResponse<List<AnnouncementDTO>>> getAnnouncementsByCourse(@PathVariable Long courseId, WebRequest request) {
+        return ConditionalGet.respond(request, resourceVersions.current(Resource.ANNOUNCEMENTS),
+                () -> ApiResponse.success("Course announcements retrieved successfully", announcementService.getAnnouncementsByCourseId(courseId)));
     }
 
     @GetMapping("/course/{courseId}/paginated")
@@ -258,9 +414,10 @@ public class AnnouncementController {
     })
     public ResponseEntity<ApiResponse<Page<AnnouncementDTO>>> getAnnouncementsByCoursePaginated(
             @PathVariable Long courseId,
-            @PageableDefault(size = 20) Pageable pageable) {
-        Page<AnnouncementDTO> announcements = announcementService.getAnnouncementsByCourseIdPaginated(courseId, pageable);
-        return ResponseEntity.ok(ApiResponse.success("Course announcements retrieved successfully", announcements));
+            @PageableDefault(size = 20) Pageable pageable,
+            WebRequest request) {
+        return ConditionalGet.respond(request, resourceVersions.current(Resource.ANNOUNCEMENTS),
+                () -> ApiResponse.success("Course announcements retrieved successfully", announcementService.getAnnouncementsByCourseIdPaginated(courseId, pageable)));
     }
 
     @GetMapping("/active")
@@ -278,9 +435,9 @@ public class AnnouncementController {
             )
         )
     })
-    public ResponseEntity<ApiResponse<List<AnnouncementDTO>>> getActiveAnnouncements() {
-        List<AnnouncementDTO> announcements = announcementService.getActiveAnnouncements();
-        return ResponseEntity.ok(ApiResponse.success("Active announcements retrieved successfully", announcements));
+    public ResponseEntity<ApiResponse<List<AnnouncementDTO>>> getActiveAnnouncements(WebRequest request) {
+        return ConditionalGet.respond(request, resourceVersions.current(Resource.ANNOUNCEMENTS),
+                () -> ApiResponse.success("Active announcements retrieved successfully", announcementService.getActiveAnnouncements()));
     }
 
     @GetMapping("/active/course/{courseId}")
@@ -298,9 +455,9 @@ public class AnnouncementController {
             )
         )
     })
-    public ResponseEntity<ApiResponse<List<AnnouncementDTO>>> getActiveAnnouncementsByCourse(@PathVariable Long courseId) {
-        List<AnnouncementDTO> announcements = announcementService.getActiveAnnouncementsByCourseId(courseId);
-        return ResponseEntity.ok(ApiResponse.success("Active course announcements retrieved successfully", announcements));
+    public ResponseEntity<ApiResponse<List<AnnouncementDTO>>> getActiveAnnouncementsByCourse(@PathVariable Long courseId, WebRequest request) {
+        return ConditionalGet.respond(request, resourceVersions.current(Resource.ANNOUNCEMENTS),
+                () -> ApiResponse.success("Active course announcements retrieved successfully", announcementService.getActiveAnnouncementsByCourseId(courseId)));
     }
 
     @GetMapping("/public")
@@ -318,9 +475,9 @@ public class AnnouncementController {
             )
         )
     })
-    public ResponseEntity<ApiResponse<List<AnnouncementDTO>>> getPublicAnnouncements() {
-        List<AnnouncementDTO> announcements = announcementService.getActivePublicAnnouncements();
-        return ResponseEntity.ok(ApiResponse.success("Public announcements retrieved successfully", announcements));
+    public ResponseEntity<ApiResponse<List<AnnouncementDTO>>> getPublicAnnouncements(WebRequest request) {
+        return ConditionalGet.respond(request, resourceVersions.current(Resource.ANNOUNCEMENTS),
+                () -> ApiResponse.success("Public announcements retrieved successfully", announcementService.getActivePublicAnnouncements()));
     }
 
     @GetMapping("/public/course/{courseId}")
@@ -338,9 +495,9 @@ public class AnnouncementController {
             )
         )
     })
-    public ResponseEntity<ApiResponse<List<AnnouncementDTO>>> getPublicAnnouncementsByCourse(@PathVariable Long courseId) {
-        List<AnnouncementDTO> announcements = announcementService.getActivePublicAnnouncementsByCourseId(courseId);
-        return ResponseEntity.ok(ApiResponse.success("Public course announcements retrieved successfully", announcements));
+    public ResponseEntity<ApiResponse<List<AnnouncementDTO>>> getPublicAnnouncementsByCourse(@PathVariable Long courseId, WebRequest request) {
+        return ConditionalGet.respond(request, resourceVersions.current(Resource.ANNOUNCEMENTS),
+                () -> ApiResponse.success("Public course announcements retrieved successfully", announcementService.getActivePublicAnnouncementsByCourseId(courseId)));
     }
 
     @GetMapping("/urgent")
@@ -358,9 +515,9 @@ public class AnnouncementController {
             )
         )
     })
-    public ResponseEntity<ApiResponse<List<AnnouncementDTO>>> getUrgentAnnouncements() {
-        List<AnnouncementDTO> announcements = announcementService.getAnnouncementsByIsUrgent(true);
-        return ResponseEntity.ok(ApiResponse.success("Urgent announcements retrieved successfully", announcements));
+    public ResponseEntity<ApiResponse<List<AnnouncementDTO>>> getUrgentAnnouncements(WebRequest request) {
+        return ConditionalGet.respond(request, resourceVersions.current(Resource.ANNOUNCEMENTS),
+                () -> ApiResponse.success("Urgent announcements retrieved successfully", announcementService.getAnnouncementsByIsUrgent(true)));
     }
 
     @GetMapping("/urgent/course/{courseId}")
@@ -378,9 +535,9 @@ public class AnnouncementController {
             )
         )
     })
-    public ResponseEntity<ApiResponse<List<AnnouncementDTO>>> getUrgentAnnouncementsByCourse(@PathVariable Long courseId) {
-        List<AnnouncementDTO> announcements = announcementService.getAnnouncementsByCourseIdAndIsUrgent(courseId, true);
-        return ResponseEntity.ok(ApiResponse.success("Urgent course announcements retrieved successfully", announcements));
+    public ResponseEntity<ApiResponse<List<AnnouncementDTO>>> getUrgentAnnouncementsByCourse(@PathVariable Long courseId, WebRequest request) {
+        return ConditionalGet.respond(request, resourceVersions.current(Resource.ANNOUNCEMENTS),
+                () -> ApiResponse.success("Urgent course announcements retrieved successfully", announcementService.getAnnouncementsByCourseIdAndIsUrgent(courseId, true)));
     }
 
     @GetMapping("/pinned")
@@ -398,9 +555,9 @@ public class AnnouncementController {
             )
         )
     })
-    public ResponseEntity<ApiResponse<List<AnnouncementDTO>>> getPinnedAnnouncements() {
-        List<AnnouncementDTO> announcements = announcementService.getAnnouncementsByIsPinned(true);
-        return ResponseEntity.ok(ApiResponse.success("Pinned announcements retrieved successfully", announcements));
+    public ResponseEntity<ApiResponse<List<AnnouncementDTO>>> getPinnedAnnouncements(WebRequest request) {
+        return ConditionalGet.respond(request, resourceVersions.current(Resource.ANNOUNCEMENTS),
+                () -> ApiResponse.success("Pinned announcements retrieved successfully", announcementService.getAnnouncementsByIsPinned(true)));
     }
 
     @GetMapping("/pinned/course/{courseId}")
@@ -418,9 +575,9 @@ public class AnnouncementController {
             )
         )
     })
-    public ResponseEntity<ApiResponse<List<AnnouncementDTO>>> getPinnedAnnouncementsByCourse(@PathVariable Long courseId) {
-        List<AnnouncementDTO> announcements = announcementService.getAnnouncementsByCourseIdAndIsPinned(courseId, true);
-        return ResponseEntity.ok(ApiResponse.success("Pinned course announcements retrieved successfully", announcements));
+    public ResponseEntity<ApiResponse<List<AnnouncementDTO>>> getPinnedAnnouncementsByCourse(@PathVariable Long courseId, WebRequest request) {
+        return ConditionalGet.respond(request, resourceVersions.current(Resource.ANNOUNCEMENTS),
+                () -> ApiResponse.success("Pinned course announcements retrieved successfully", announcementService.getAnnouncementsByCourseIdAndIsPinned(courseId, true)));
     }
 
     @GetMapping("/status/{status}")
@@ -438,9 +595,9 @@ public class AnnouncementController {
             )
         )
     })
-    public ResponseEntity<ApiResponse<List<AnnouncementDTO>>> getAnnouncementsByStatus(@PathVariable AnnouncementStatus status) {
-        List<AnnouncementDTO> announcements = announcementService.getAnnouncementsByStatus(status);
-        return ResponseEntity.ok(ApiResponse.success("Announcements by status retrieved successfully", announcements));
+    public ResponseEntity<ApiResponse<List<AnnouncementDTO>>> getAnnouncementsByStatus(@PathVariable AnnouncementStatus status, WebRequest request) {
+        return ConditionalGet.respond(request, resourceVersions.current(Resource.ANNOUNCEMENTS),
+                () -> ApiResponse.success("Announcements by status retrieved successfully", announcementService.getAnnouncementsByStatus(status)));
     }
 
     @GetMapping("/priority/{priority}")
@@ -458,9 +615,9 @@ public class AnnouncementController {
             )
         )
     })
-    public ResponseEntity<ApiResponse<List<AnnouncementDTO>>> getAnnouncementsByPriority(@PathVariable AnnouncementPriority priority) {
-        List<AnnouncementDTO> announcements = announcementService.getAnnouncementsByPriority(priority);
-        return ResponseEntity.ok(ApiResponse.success("Announcements by priority retrieved successfully", announcements));
+    public ResponseEntity<ApiResponse<List<AnnouncementDTO>>> getAnnouncementsByPriority(@PathVariable AnnouncementPriority priority, WebRequest request) {
+        return ConditionalGet.respond(request, resourceVersions.current(Resource.ANNOUNCEMENTS),
+                () -> ApiResponse.success("Announcements by priority retrieved successfully", announcementService.getAnnouncementsByPriority(priority)));
     }
 
     @GetMapping("/search")
@@ -478,9 +635,9 @@ public class AnnouncementController {
             )
         )
     })
-    public ResponseEntity<ApiResponse<List<AnnouncementDTO>>> searchAnnouncements(@RequestParam String keyword) {
-        List<AnnouncementDTO> announcements = announcementService.getAnnouncementsByKeyword(keyword);
-        return ResponseEntity.ok(ApiResponse.success("Search results retrieved successfully", announcements));
+    public ResponseEntity<ApiResponse<List<AnnouncementDTO>>> searchAnnouncements(@RequestParam String keyword, WebRequest request) {
+        return ConditionalGet.respond(request, resourceVersions.current(Resource.ANNOUNCEMENTS),
+                () -> ApiResponse.success("Search results retrieved successfully", announcementService.getAnnouncementsByKeyword(keyword)));
     }
 
     @GetMapping("/search/course/{courseId}")
@@ -500,9 +657,10 @@ public class AnnouncementController {
     })
     public ResponseEntity<ApiResponse<List<AnnouncementDTO>>> searchAnnouncementsByCourse(
             @PathVariable Long courseId,
-            @RequestParam String keyword) {
-        List<AnnouncementDTO> announcements = announcementService.getAnnouncementsByCourseIdAndKeyword(courseId, keyword);
-        return ResponseEntity.ok(ApiResponse.success("Course search results retrieved successfully", announcements));
+            @RequestParam String keyword,
+            WebRequest request) {
+        return ConditionalGet.respond(request, resourceVersions.current(Resource.ANNOUNCEMENTS),
+                () -> ApiResponse.success("Course search results retrieved successfully", announcementService.getAnnouncementsByCourseIdAndKeyword(courseId, keyword)));
     }
 
     @GetMapping("/recent")
@@ -562,9 +720,9 @@ public class AnnouncementController {
             )
         )
     })
-    public ResponseEntity<ApiResponse<List<AnnouncementDTO>>> getMostViewedAnnouncements() {
-        List<AnnouncementDTO> announcements = announcementService.getMostViewedAnnouncements();
-        return ResponseEntity.ok(ApiResponse.success("Most viewed announcements retrieved successfully", announcements));
+    public ResponseEntity<ApiResponse<List<AnnouncementDTO>>> getMostViewedAnnouncements(WebRequest request) {
+        return ConditionalGet.respond(request, resourceVersions.current(Resource.ANNOUNCEMENTS),
+                () -> ApiResponse.success("Most viewed announcements retrieved successfully", announcementService.getMostViewedAnnouncements()));
     }
 
     @GetMapping("/most-viewed/course/{courseId}")
@@ -582,9 +740,9 @@ public class AnnouncementController {
             )
         )
     })
-    public ResponseEntity<ApiResponse<List<AnnouncementDTO>>> getMostViewedAnnouncementsByCourse(@PathVariable Long courseId) {
-        List<AnnouncementDTO> announcements = announcementService.getMostViewedAnnouncementsByCourseId(courseId);
-        return ResponseEntity.ok(ApiResponse.success("Most viewed course announcements retrieved successfully", announcements));
+    public ResponseEntity<ApiResponse<List<AnnouncementDTO>>> getMostViewedAnnouncementsByCourse(@PathVariable Long courseId, WebRequest request) {
+        return ConditionalGet.respond(request, resourceVersions.current(Resource.ANNOUNCEMENTS),
+                () -> ApiResponse.success("Most viewed course announcements retrieved successfully", announcementService.getMostViewedAnnouncementsByCourseId(courseId)));
     }
 
     @GetMapping("/with-attachments")
@@ -602,9 +760,9 @@ public class AnnouncementController {
             )
         )
     })
-    public ResponseEntity<ApiResponse<List<AnnouncementDTO>>> getAnnouncementsWithAttachments() {
-        List<AnnouncementDTO> announcements = announcementService.getAnnouncementsWithAttachments();
-        return ResponseEntity.ok(ApiResponse.success("Announcements with attachments retrieved successfully", announcements));
+    public ResponseEntity<ApiResponse<List<AnnouncementDTO>>> getAnnouncementsWithAttachments(WebRequest request) {
+        return ConditionalGet.respond(request, resourceVersions.current(Resource.ANNOUNCEMENTS),
+                () -> ApiResponse.success("Announcements with attachments retrieved successfully", announcementService.getAnnouncementsWithAttachments()));
     }
 
     @GetMapping("/with-attachments/course/{courseId}")
@@ -622,9 +780,9 @@ public class AnnouncementController {
             )
         )
     })
-    public ResponseEntity<ApiResponse<List<AnnouncementDTO>>> getAnnouncementsWithAttachmentsByCourse(@PathVariable Long courseId) {
-        List<AnnouncementDTO> announcements = announcementService.getAnnouncementsWithAttachmentsByCourseId(courseId);
-        return ResponseEntity.ok(ApiResponse.success("Course announcements with attachments retrieved successfully", announcements));
+    public ResponseEntity<ApiResponse<List<AnnouncementDTO>>> getAnnouncementsWithAttachmentsByCourse(@PathVariable Long courseId, WebRequest request) {
+        return ConditionalGet.respond(request, resourceVersions.current(Resource.ANNOUNCEMENTS),
+                () -> ApiResponse.success("Course announcements with attachments retrieved successfully", announcementService.getAnnouncementsWithAttachmentsByCourseId(courseId)));
     }
 
     // Management endpoints for professors and admins
@@ -873,4 +1031,24 @@ public class AnnouncementController {
         Long count = announcementService.getAnnouncementCountByCourseId(courseId);
         return ResponseEntity.ok(ApiResponse.success("Course announcement count retrieved successfully", count));
     }
-} 
\ No newline at end of file
+
+    private Long getCurrentUserId() {
+        Long userId = AuthenticatedUser.current()
+                .map(AuthenticatedUser::getUserId)
+                .orElse(null);
+        if (userId != null) {
+            return userId;
+        }
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()) {
+            String email = authentication.getName();
+            try {
+                return userService.findByEmail(email).getId();
+            } catch (Exception e) {
+                throw new RuntimeException("Failed to get user ID for email: " + email, e);
+            }
+        }
+        throw new RuntimeException("User not authenticated");
+    }
+}
@@ -2,7 +2,10 @@ package com.smartcampus.controller;
 
 import com.smartcampus.dto.ApiResponse;
 import com.smartcampus.dto.AttendanceDTO;
+import com.smartcampus.dto.RollCallRequest;
+import com.smartcampus.dto.RollCallResultDTO;
 import com.smartcampus.entity.AttendanceStatus;
+import com.smartcampus.service.JsonListStreamer;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
@@ -17,6 +20,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -29,6 +33,7 @@ import java.util.List;
 public class AttendanceController {
 
     private final com.smartcampus.service.AttendanceService attendanceService;
+    private final JsonListStreamer jsonListStreamer;
 
     @PostMapping
     @PreAuthorize("hasAnyRole('PROFESSOR', 'ADMIN')")
@@ -79,6 +84,55 @@ public class AttendanceController {
                 .body(ApiResponse.success("Attendance marked successfully", createdAttendance));
     }
 
+    @PostMapping("/roll-call")
+    @PreAuthorize("hasAnyRole('PROFESSOR', 'ADMIN')")
+    @Operation(
+        summary = "Record Roll Call",
+        description = "Mark attendance for a whole section on one date in a single request (Professor or Admin only). " +
+                "Students already recorded for that course and date are updated; unknown and repeated student ids are reported instead of failing the request.",
+        requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
+            description = "Course, date and one entry per student",
+            required = true,
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = RollCallRequest.class),
+                examples = @ExampleObject(
+                    name = "Roll Call",
+                    value = "{\"courseId\": 1, \"date\": \"2024-01-15\", \"sessionName\": \"Lecture 3\", \"entries\": [{\"studentId\": 1}, {\"studentId\": 2, \"status\": \"LATE\", \"lateMinutes\": 10}, {\"studentId\": 3, \"status\": \"ABSENT\"}]}"
+                )
+            )
+        )
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200",
+            description = "Roll call recorded",
+            content = @Content(
+                mediaType = "application/json",
+                examples = @ExampleObject(
+                    name = "Roll Call Summary",
+                    value = "{\"success\": true, \"message\": \"Roll call recorded\", \"data\": {\"requested\": 4, \"created\": 2, \"updated\": 0, \"skippedIds\": [2], \"invalidIds\": [99]}}"
+                )
+            )
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "400",
+            description = "Validation error or too many students"
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "403",
+            description = "Forbidden - Professor or Admin access required"
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "404",
+            description = "Course not found"
+        )
+    })
+    public ResponseEntity<ApiResponse<RollCallResultDTO>> recordRollCall(@Valid @RequestBody RollCallRequest request) {
+        RollCallResultDTO result = attendanceService.recordRollCall(request);
+        return ResponseEntity.ok(ApiResponse.success("Roll call recorded", result));
+    }
+
     @PutMapping("/{id}")
     @PreAuthorize("hasAnyRole('PROFESSOR', 'ADMIN')")
     @Operation(
@@ -460,11 +514,11 @@ public class AttendanceController {
             )
         )
     })
-    public ResponseEntity<ApiResponse<List<AttendanceDTO>>> getAttendanceByDateRange(
+    public ResponseEntity<StreamingResponseBody> getAttendanceByDateRange(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
-        List<AttendanceDTO> attendances = attendanceService.getAttendanceByDateRange(startDate, endDate);
-        return ResponseEntity.ok(ApiResponse.success("Date range attendance retrieved successfully", attendances));
+        return jsonListStreamer.<AttendanceDTO>ok("Date range attendance retrieved successfully",
+                action -> attendanceService.streamAttendanceByDateRange(startDate, endDate, action));
     }
 
     @GetMapping("/student/{studentId}/date-range")
@@ -483,12 +537,12 @@ public class AttendanceController {
             )
         )
     })
-    public ResponseEntity<ApiResponse<List<AttendanceDTO>>> getStudentAttendanceByDateRange(
+    public ResponseEntity<StreamingResponseBody> getStudentAttendanceByDateRange(
             @PathVariable Long studentId,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
-        List<AttendanceDTO> attendances = attendanceService.getAttendanceByStudentIdAndDateRange(studentId, startDate, endDate);
-        return ResponseEntity.ok(ApiResponse.success("Student date range attendance retrieved successfully", attendances));
+        return jsonListStreamer.<AttendanceDTO>ok("Student date range attendance retrieved successfully",
+                action -> attendanceService.streamAttendanceByStudentIdAndDateRange(studentId, startDate, endDate, action));
     }
 
     @GetMapping("/course/{courseId}/date-range")
@@ -507,12 +561,12 @@ public class AttendanceController {
             )
         )
     })
-    public ResponseEntity<ApiResponse<List<AttendanceDTO>>> getCourseAttendanceByDateRange(
+    public ResponseEntity<StreamingResponseBody> getCourseAttendanceByDateRange(
             @PathVariable Long courseId,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
-        List<AttendanceDTO> attendances = attendanceService.getAttendanceByCourseIdAndDateRange(courseId, startDate, endDate);
-        return ResponseEntity.ok(ApiResponse.success("Course date range attendance retrieved successfully", attendances));
+        return jsonListStreamer.<AttendanceDTO>ok("Course date range attendance retrieved successfully",
+                action -> attendanceService.streamAttendanceByCourseIdAndDateRange(courseId, startDate, endDate, action));
     }
 
     @GetMapping("/late")
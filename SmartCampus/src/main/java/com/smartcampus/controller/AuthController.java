@@ -25,7 +25,6 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -104,37 +103,23 @@ public class AuthController {
                     value = "{\"success\": false, \"message\": \"Validation failed\", \"data\": {\"email\": \"Email should be valid\", \"password\": \"Password is required\"}}"
                 )
             )
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "503",
+            description = "Too many login attempts in progress; retry after the number of seconds in Retry-After"
         )
     })
     public ResponseEntity<?> login(@Valid @RequestBody LoginRequest loginRequest, HttpServletResponse response) {
-        try {
-            log.info("Login attempt for email: {}", loginRequest.getEmail());
-            
-            JwtResponse jwtResponse = authService.login(loginRequest);
-            
-            // Generate refresh token and add to HttpOnly cookie
-            UserDetails userDetails = userDetailsService.loadUserByUsername(loginRequest.getEmail());
-            String refreshToken = jwtService.generateRefreshToken(userDetails);
-            jwtService.addRefreshTokenToCookie(refreshToken, response);
-            
-            log.info("Login successful for email: {}", loginRequest.getEmail());
-            return ResponseEntity.ok(ApiResponse.success("Login successful", jwtResponse));
-            
-        } catch (BadCredentialsException e) {
-            log.warn("Invalid credentials for email: {}", loginRequest.getEmail());
-            return ResponseEntity.status(401)
-                    .body(ApiResponse.error("Invalid email or password", "Please check your credentials and try again."));
-                    
-        } catch (UsernameNotFoundException e) {
-            log.warn("User not found for email: {}", loginRequest.getEmail());
-            return ResponseEntity.status(401)
-                    .body(ApiResponse.error("Invalid email or password", "Please check your credentials and try again."));
-                    
-        } catch (Exception e) {
-            log.error("Unexpected error during login for email: {}", loginRequest.getEmail(), e);
-            return ResponseEntity.status(500)
-                    .body(ApiResponse.error("Login failed", "An unexpected error occurred. Please try again later."));
-        }
+        // Bad credentials (401) and throttling (503 + Retry-After) are mapped by GlobalExceptionHandler
+        log.info("Login attempt for email: {}", loginRequest.getEmail());
+
+        JwtResponse jwtResponse = authService.login(loginRequest);
+
+        // Add the refresh token issued during login to an HttpOnly cookie
+        jwtService.addRefreshTokenToCookie(jwtResponse.getRefreshToken(), response);
+
+        log.info("Login successful for email: {}", loginRequest.getEmail());
+        return ResponseEntity.ok(ApiResponse.success("Login successful", jwtResponse));
     }
 
     @PostMapping("/register")
@@ -294,7 +279,7 @@ public class AuthController {
             }
             
             Map<String, Object> userInfo = new HashMap<>();
-            userInfo.put("email", authentication.getPrincipal());
+            userInfo.put("email", authentication.getName());
             userInfo.put("authorities", authentication.getAuthorities().stream()
                     .map(auth -> auth.getAuthority())
                     .collect(Collectors.toList()));
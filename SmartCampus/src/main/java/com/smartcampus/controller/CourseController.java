@@ -4,6 +4,9 @@ import com.smartcampus.dto.ApiResponse;
 import com.smartcampus.dto.CourseDTO;
 import com.smartcampus.entity.CourseStatus;
 import com.smartcampus.service.CourseService;
+import com.smartcampus.service.ResourceVersions;
+import com.smartcampus.service.ResourceVersions.Resource;
+import com.smartcampus.util.ConditionalGet;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
@@ -20,6 +23,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -31,6 +35,7 @@ import java.util.List;
 public class CourseController {
 
     private final CourseService courseService;
+    private final ResourceVersions resourceVersions;
 
     @GetMapping
     @PreAuthorize("hasAnyRole('STUDENT', 'PROFESSOR', 'ADMIN')")
@@ -54,10 +59,11 @@ public class CourseController {
     })
     public ResponseEntity<ApiResponse<Page<CourseDTO>>> getAllCourses(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            WebRequest request) {
         Pageable pageable = PageRequest.of(page, size);
-        Page<CourseDTO> courses = courseService.getAllCourses(pageable);
-        return ResponseEntity.ok(ApiResponse.success("Courses retrieved successfully", courses));
+        return ConditionalGet.respond(request, resourceVersions.current(Resource.COURSES),
+                () -> ApiResponse.success("Courses retrieved successfully", courseService.getAllCourses(pageable)));
     }
 
     @GetMapping("/{id}")
@@ -247,9 +253,9 @@ public class CourseController {
             )
         )
     })
-    public ResponseEntity<ApiResponse<List<CourseDTO>>> getCoursesByProfessorId(@PathVariable Long professorId) {
-        List<CourseDTO> courses = courseService.getCoursesByProfessorId(professorId);
-        return ResponseEntity.ok(ApiResponse.success("Courses by professor retrieved successfully", courses));
+    public ResponseEntity<ApiResponse<List<CourseDTO>>> getCoursesByProfessorId(@PathVariable Long professorId, WebRequest request) {
+        return ConditionalGet.respond(request, resourceVersions.current(Resource.COURSES),
+                () -> ApiResponse.success("Courses by professor retrieved successfully", courseService.getCoursesByProfessorId(professorId)));
     }
 
     @GetMapping("/status/{status}")
@@ -268,9 +274,9 @@ public class CourseController {
             )
         )
     })
-    public ResponseEntity<ApiResponse<List<CourseDTO>>> getCoursesByStatus(@PathVariable CourseStatus status) {
-        List<CourseDTO> courses = courseService.getCoursesByStatus(status);
-        return ResponseEntity.ok(ApiResponse.success("Courses by status retrieved successfully", courses));
+    public ResponseEntity<ApiResponse<List<CourseDTO>>> getCoursesByStatus(@PathVariable CourseStatus status, WebRequest request) {
+        return ConditionalGet.respond(request, resourceVersions.current(Resource.COURSES),
+                () -> ApiResponse.success("Courses by status retrieved successfully", courseService.getCoursesByStatus(status)));
     }
 
     @GetMapping("/semester/{semester}")
@@ -289,9 +295,9 @@ public class CourseController {
             )
         )
     })
-    public ResponseEntity<ApiResponse<List<CourseDTO>>> getCoursesBySemester(@PathVariable String semester) {
-        List<CourseDTO> courses = courseService.getCoursesBySemester(semester);
-        return ResponseEntity.ok(ApiResponse.success("Courses by semester retrieved successfully", courses));
+    public ResponseEntity<ApiResponse<List<CourseDTO>>> getCoursesBySemester(@PathVariable String semester, WebRequest request) {
+        return ConditionalGet.respond(request, resourceVersions.current(Resource.COURSES),
+                () -> ApiResponse.success("Courses by semester retrieved successfully", courseService.getCoursesBySemester(semester)));
     }
 
     @GetMapping("/year/{academicYear}")
@@ -310,9 +316,9 @@ public class CourseController {
             )
         )
     })
-    public ResponseEntity<ApiResponse<List<CourseDTO>>> getCoursesByAcademicYear(@PathVariable Integer academicYear) {
-        List<CourseDTO> courses = courseService.getCoursesByAcademicYear(academicYear);
-        return ResponseEntity.ok(ApiResponse.success("Courses by academic year retrieved successfully", courses));
+    public ResponseEntity<ApiResponse<List<CourseDTO>>> getCoursesByAcademicYear(@PathVariable Integer academicYear, WebRequest request) {
+        return ConditionalGet.respond(request, resourceVersions.current(Resource.COURSES),
+                () -> ApiResponse.success("Courses by academic year retrieved successfully", courseService.getCoursesByAcademicYear(academicYear)));
     }
 
     @GetMapping("/department/{department}")
@@ -331,9 +337,9 @@ public class CourseController {
             )
         )
     })
-    public ResponseEntity<ApiResponse<List<CourseDTO>>> getCoursesByDepartment(@PathVariable String department) {
-        List<CourseDTO> courses = courseService.getCoursesByDepartment(department);
-        return ResponseEntity.ok(ApiResponse.success("Courses by department retrieved successfully", courses));
+    public ResponseEntity<ApiResponse<List<CourseDTO>>> getCoursesByDepartment(@PathVariable String department, WebRequest request) {
+        return ConditionalGet.respond(request, resourceVersions.current(Resource.COURSES),
+                () -> ApiResponse.success("Courses by department retrieved successfully", courseService.getCoursesByDepartment(department)));
     }
 
     @GetMapping("/available")
@@ -352,9 +358,9 @@ public class CourseController {
             )
         )
     })
-    public ResponseEntity<ApiResponse<List<CourseDTO>>> getAvailableCourses() {
-        List<CourseDTO> courses = courseService.getAvailableCourses();
-        return ResponseEntity.ok(ApiResponse.success("Available courses retrieved successfully", courses));
+    public ResponseEntity<ApiResponse<List<CourseDTO>>> getAvailableCourses(WebRequest request) {
+        return ConditionalGet.respond(request, resourceVersions.current(Resource.COURSES),
+                () -> ApiResponse.success("Available courses retrieved successfully", courseService.getAvailableCourses()));
     }
 
     @GetMapping("/search")
@@ -373,9 +379,9 @@ public class CourseController {
             )
         )
     })
-    public ResponseEntity<ApiResponse<List<CourseDTO>>> searchCourses(@RequestParam String searchTerm) {
-        List<CourseDTO> courses = courseService.searchCoursesByNameOrCode(searchTerm);
-        return ResponseEntity.ok(ApiResponse.success("Courses search completed successfully", courses));
+    public ResponseEntity<ApiResponse<List<CourseDTO>>> searchCourses(@RequestParam String searchTerm, WebRequest request) {
+        return ConditionalGet.respond(request, resourceVersions.current(Resource.COURSES),
+                () -> ApiResponse.success("Courses search completed successfully", courseService.searchCoursesByNameOrCode(searchTerm)));
     }
 
     @GetMapping("/professor/{professorId}/search")
@@ -396,9 +402,10 @@ public class CourseController {
     })
     public ResponseEntity<ApiResponse<List<CourseDTO>>> searchCoursesByProfessor(
             @PathVariable Long professorId,
-            @RequestParam String searchTerm) {
-        List<CourseDTO> courses = courseService.getCoursesByProfessorIdAndSearchTerm(professorId, searchTerm);
-        return ResponseEntity.ok(ApiResponse.success("Courses search completed successfully", courses));
+            @RequestParam String searchTerm,
+            WebRequest request) {
+        return ConditionalGet.respond(request, resourceVersions.current(Resource.COURSES),
+                () -> ApiResponse.success("Courses search completed successfully", courseService.getCoursesByProfessorIdAndSearchTerm(professorId, searchTerm)));
     }
 
     @GetMapping("/count/professor/{professorId}")
@@ -4,6 +4,7 @@ import com.smartcampus.dto.ApiResponse;
 import com.smartcampus.dto.EnrollmentDTO;
 import com.smartcampus.entity.EnrollmentStatus;
 import com.smartcampus.service.EnrollmentService;
+import com.smartcampus.service.JsonListStreamer;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
@@ -18,6 +19,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -30,6 +32,7 @@ import java.util.List;
 public class EnrollmentController {
 
     private final EnrollmentService enrollmentService;
+    private final JsonListStreamer jsonListStreamer;
 
     @PostMapping
     @PreAuthorize("hasAnyRole('STUDENT', 'PROFESSOR', 'ADMIN')")
@@ -100,9 +103,8 @@ public class EnrollmentController {
             description = "Forbidden - Professor or Admin access required"
         )
     })
-    public ResponseEntity<ApiResponse<List<EnrollmentDTO>>> getAllEnrollments() {
-        List<EnrollmentDTO> enrollments = enrollmentService.getAllEnrollments();
-        return ResponseEntity.ok(ApiResponse.success("Enrollments retrieved successfully", enrollments));
+    public ResponseEntity<StreamingResponseBody> getAllEnrollments() {
+        return jsonListStreamer.ok("Enrollments retrieved successfully", enrollmentService::streamAllEnrollments);
     }
 
     @GetMapping("/{id}")
@@ -1,9 +1,21 @@
 package com.smartcampus.controller;
 
+import com.smartcampus.config.AuthenticatedUser;
 import com.smartcampus.dto.ApiResponse;
+import com.smartcampus.dto.BroadcastJobDTO;
+import com.smartcampus.dto.BulkSendResultDTO;
+import com.smartcampus.dto.CursorPageDTO;
 import com.smartcampus.dto.NotificationDTO;
+import com.smartcampus.dto.NotificationRequest;
+import com.smartcampus.dto.NotificationStatsDTO;
+import com.smartcampus.dto.StreamTicketDTO;
+import com.smartcampus.dto.TemplateSendRequest;
 import com.smartcampus.entity.NotificationPriority;
 import com.smartcampus.entity.NotificationType;
+import com.smartcampus.exception.ResourceNotFoundException;
+import com.smartcampus.service.JsonListStreamer;
+import com.smartcampus.service.NotificationStreamRegistry;
+import com.smartcampus.service.StreamTicketService;
 import com.smartcampus.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -13,18 +25,25 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.groups.Default;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -38,6 +57,9 @@ public class NotificationController {
 
     private final com.smartcampus.service.NotificationService notificationService;
     private final UserService userService;
+    private final NotificationStreamRegistry notificationStreamRegistry;
+    private final JsonListStreamer jsonListStreamer;
+    private final StreamTicketService streamTicketService;
 
     @GetMapping
     @PreAuthorize("isAuthenticated()")
@@ -59,14 +81,16 @@ public class NotificationController {
             description = "Unauthorized - Authentication required"
         )
     })
-    public ResponseEntity<ApiResponse<List<NotificationDTO>>> getCurrentUserNotifications(@AuthenticationPrincipal String email) {
-        if (email == null) {
+    public ResponseEntity<ApiResponse<List<NotificationDTO>>> getCurrentUserNotifications(@AuthenticationPrincipal AuthenticatedUser principal) {
+        if (principal == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(ApiResponse.<List<NotificationDTO>>error("Authentication required"));
         }
         
         try {
-            Long userId = userService.getUserByEmail(email).getId();
+            Long userId = principal.hasIdentityClaims()
+                    ? principal.getUserId()
+                    : userService.getUserByEmail(principal.getEmail()).getId();
             List<NotificationDTO> notifications = notificationService.getNotificationsByUserId(userId);
             return ResponseEntity.ok(ApiResponse.success("User notifications retrieved successfully", notifications));
         } catch (Exception e) {
@@ -101,6 +125,66 @@ public class NotificationController {
         return ResponseEntity.ok(ApiResponse.success("User notifications retrieved successfully", notifications));
     }
 
+    @GetMapping("/inbox")
+    @Operation(
+        summary = "Get Current User's Inbox",
+        description = "Cursor-paginated notifications for the current user, newest first. " +
+                      "Pass the returned nextCursor as 'after' to fetch the next page; page cost does not grow with depth."
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200",
+            description = "Inbox page retrieved successfully",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = CursorPageDTO.class)
+            )
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "400",
+            description = "Invalid cursor"
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "401",
+            description = "Unauthorized - Authentication required"
+        )
+    })
+    public ResponseEntity<ApiResponse<CursorPageDTO<NotificationDTO>>> getCurrentUserInbox(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(required = false) Boolean isRead) {
+        Long userId = getCurrentUserId();
+        try {
+            CursorPageDTO<NotificationDTO> page = notificationService.getInbox(userId, isRead, after, limit);
+            return ResponseEntity.ok(ApiResponse.success("Inbox retrieved successfully", page));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.<CursorPageDTO<NotificationDTO>>error(e.getMessage()));
+        }
+    }
+
+    @GetMapping("/history")
+    @Operation(
+        summary = "Get Current User's Notification History",
+        description = "Older read notifications moved out of the inbox once it grew past its size cap, newest first"
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200",
+            description = "Notification history retrieved successfully"
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "401",
+            description = "Unauthorized - Authentication required"
+        )
+    })
+    public ResponseEntity<ApiResponse<Page<NotificationDTO>>> getCurrentUserNotificationHistory(
+            @PageableDefault(size = 20) Pageable pageable) {
+        Long userId = getCurrentUserId();
+        Page<NotificationDTO> history = notificationService.getNotificationHistoryByUserId(userId, pageable);
+        return ResponseEntity.ok(ApiResponse.success("Notification history retrieved successfully", history));
+    }
+
     @GetMapping("/unread")
     @Operation(
         summary = "Get Current User's Unread Notifications",
@@ -149,15 +233,17 @@ public class NotificationController {
             description = "Unauthorized - Authentication required"
         )
     })
-    public ResponseEntity<ApiResponse<Long>> getCurrentUserUnreadCount(@AuthenticationPrincipal String email) {
-        if (email == null) {
+    public ResponseEntity<ApiResponse<Long>> getCurrentUserUnreadCount(@AuthenticationPrincipal AuthenticatedUser principal) {
+        if (principal == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(ApiResponse.<Long>error("Authentication required"));
         }
         
         try {
-            Long userId = userService.getUserByEmail(email).getId();
-            Long unreadCount = notificationService.getNotificationCountByUserIdAndIsRead(userId, false);
+            Long userId = principal.hasIdentityClaims()
+                    ? principal.getUserId()
+                    : userService.getUserByEmail(principal.getEmail()).getId();
+            Long unreadCount = notificationService.getUnreadCountByUserId(userId);
             return ResponseEntity.ok(ApiResponse.success("Unread count retrieved successfully", unreadCount));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -165,6 +251,81 @@ public class NotificationController {
         }
     }
 
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("isAuthenticated()")
+    @Operation(
+        summary = "Stream Notifications",
+        description = "Server-Sent Events stream for the current user. Emits 'unread-count' on connect and whenever " +
+                "the count changes and 'notification' for each new notification. Clients that fall behind are " +
+                "disconnected and should reconnect. Browsers using EventSource pass a ticket from " +
+                "POST /api/notifications/stream/ticket as the ticket query parameter, one ticket per connection."
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200",
+            description = "Event stream opened"
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "401",
+            description = "Unauthorized - Authentication required"
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "503",
+            description = "Stream capacity reached on this node - fall back to polling"
+        )
+    })
+    public ResponseEntity<SseEmitter> streamNotifications(@AuthenticationPrincipal AuthenticatedUser principal) {
+        if (principal == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        Long userId = principal.hasIdentityClaims()
+                ? principal.getUserId()
+                : userService.getUserByEmail(principal.getEmail()).getId();
+        try {
+            return ResponseEntity.ok()
+                    .header("X-Accel-Buffering", "no")
+                    .body(notificationStreamRegistry.subscribe(userId));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "30")
+                    .build();
+        }
+    }
+
+    @PostMapping("/stream/ticket")
+    @PreAuthorize("isAuthenticated()")
+    @Operation(
+        summary = "Issue Stream Ticket",
+        description = "Issue a short-lived, single-use ticket for opening the notification stream without " +
+                "putting the access token in the URL"
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200",
+            description = "Ticket issued"
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "401",
+            description = "Unauthorized - Authentication required"
+        )
+    })
+    public ResponseEntity<ApiResponse<StreamTicketDTO>> issueStreamTicket(
+            @AuthenticationPrincipal AuthenticatedUser principal, Authentication authentication) {
+        if (principal == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(ApiResponse.<StreamTicketDTO>error("Authentication required"));
+        }
+        Long userId = principal.hasIdentityClaims()
+                ? principal.getUserId()
+                : userService.getUserByEmail(principal.getEmail()).getId();
+        List<String> authorities = authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList();
+        String ticket = streamTicketService.issue(userId, principal.getEmail(), authorities);
+        return ResponseEntity.ok(ApiResponse.success("Stream ticket issued",
+                new StreamTicketDTO(ticket, streamTicketService.getTtlSeconds())));
+    }
+
     @GetMapping("/{id}")
     @Operation(
         summary = "Get Notification by ID",
@@ -291,7 +452,7 @@ public class NotificationController {
                 mediaType = "application/json",
                 examples = @ExampleObject(
                     name = "Success Response",
-                    value = "{\"success\": true, \"message\": \"All notifications marked as read successfully\"}"
+                    value = "{\"success\": true, \"message\": \"All notifications marked as read successfully\", \"data\": 12}"
                 )
             )
         ),
@@ -300,11 +461,11 @@ public class NotificationController {
             description = "Unauthorized - Authentication required"
         )
     })
-    public ResponseEntity<ApiResponse<String>> markAllAsRead() {
+    public ResponseEntity<ApiResponse<Integer>> markAllAsRead() {
         Long userId = getCurrentUserId();
         String currentUserName = getCurrentUserName();
-        notificationService.markAllAsReadByUserId(userId, currentUserName);
-        return ResponseEntity.ok(ApiResponse.success("All notifications marked as read successfully", null));
+        int updated = notificationService.markAllAsReadByUserId(userId, currentUserName);
+        return ResponseEntity.ok(ApiResponse.success("All notifications marked as read successfully", updated));
     }
 
     @PutMapping("/unread-all")
@@ -320,7 +481,7 @@ public class NotificationController {
                 mediaType = "application/json",
                 examples = @ExampleObject(
                     name = "Success Response",
-                    value = "{\"success\": true, \"message\": \"All notifications marked as unread successfully\"}"
+                    value = "{\"success\": true, \"message\": \"All notifications marked as unread successfully\", \"data\": 12}"
                 )
             )
         ),
@@ -329,10 +490,60 @@ public class NotificationController {
             description = "Unauthorized - Authentication required"
         )
     })
-    public ResponseEntity<ApiResponse<String>> markAllAsUnread() {
+    public ResponseEntity<ApiResponse<Integer>> markAllAsUnread() {
         Long userId = getCurrentUserId();
-        notificationService.markAllAsUnreadByUserId(userId);
-        return ResponseEntity.ok(ApiResponse.success("All notifications marked as unread successfully", null));
+        int updated = notificationService.markAllAsUnreadByUserId(userId);
+        return ResponseEntity.ok(ApiResponse.success("All notifications marked as unread successfully", updated));
+    }
+
+    @PutMapping("/broadcasts/{broadcastId}/read")
+    @Operation(
+        summary = "Mark Broadcast as Read",
+        description = "Mark a campus-wide broadcast (an entry with sharedBroadcastId) as read for the current user"
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200",
+            description = "Broadcast marked as read successfully"
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "404",
+            description = "Broadcast not found, expired or not addressed to the current user"
+        )
+    })
+    public ResponseEntity<ApiResponse<String>> markBroadcastAsRead(@PathVariable Long broadcastId) {
+        try {
+            notificationService.markBroadcastAsRead(broadcastId, getCurrentUserId());
+            return ResponseEntity.ok(ApiResponse.success("Broadcast marked as read successfully", null));
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.<String>error(e.getMessage()));
+        }
+    }
+
+    @PutMapping("/broadcasts/{broadcastId}/dismiss")
+    @Operation(
+        summary = "Dismiss Broadcast",
+        description = "Hide a campus-wide broadcast from the current user's notifications"
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200",
+            description = "Broadcast dismissed successfully"
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "404",
+            description = "Broadcast not found, expired or not addressed to the current user"
+        )
+    })
+    public ResponseEntity<ApiResponse<String>> dismissBroadcast(@PathVariable Long broadcastId) {
+        try {
+            notificationService.dismissBroadcast(broadcastId, getCurrentUserId());
+            return ResponseEntity.ok(ApiResponse.success("Broadcast dismissed successfully", null));
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.<String>error(e.getMessage()));
+        }
     }
 
     @PostMapping
@@ -378,17 +589,113 @@ public class NotificationController {
             description = "Forbidden - Admin access required"
         )
     })
-    public ResponseEntity<ApiResponse<NotificationDTO>> sendNotification(@Valid @RequestBody NotificationDTO notificationDTO) {
+    public ResponseEntity<ApiResponse<NotificationDTO>> sendNotification(
+            @Validated({Default.class, NotificationDTO.Addressed.class}) @RequestBody NotificationDTO notificationDTO) {
         NotificationDTO createdNotification = notificationService.createNotification(notificationDTO);
         return ResponseEntity.status(HttpStatus.CREATED)
                 .body(ApiResponse.success("Notification sent successfully", createdNotification));
     }
 
+    @PostMapping("/bulk")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(
+        summary = "Send Notification to Many Users",
+        description = "Send one notification to a list of users, e.g. everyone in a lecture (Admin only). " +
+                "Repeated ids and inactive accounts are skipped and unknown ids reported instead of failing the request.",
+        requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
+            description = "Notification and recipient ids",
+            required = true,
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = NotificationRequest.class),
+                examples = @ExampleObject(
+                    name = "Bulk Notification",
+                    value = "{\"title\": \"Room change\", \"message\": \"Tomorrow's lecture moves to Hall B\", \"type\": \"COURSE_UPDATE\", \"priority\": \"HIGH\", \"recipientIds\": [1, 2, 3]}"
+                )
+            )
+        )
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "201",
+            description = "Notifications created",
+            content = @Content(
+                mediaType = "application/json",
+                examples = @ExampleObject(
+                    name = "Bulk Send Summary",
+                    value = "{\"success\": true, \"message\": \"Bulk notification sent\", \"data\": {\"requested\": 4, \"created\": 2, \"skippedIds\": [2], \"invalidIds\": [99]}}"
+                )
+            )
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "400",
+            description = "Invalid message or too many recipients"
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "403",
+            description = "Forbidden - Admin access required"
+        )
+    })
+    public ResponseEntity<ApiResponse<BulkSendResultDTO>> sendBulkNotification(@Valid @RequestBody NotificationRequest request) {
+        try {
+            BulkSendResultDTO result = notificationService.sendBulkNotification(request);
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .body(ApiResponse.success("Bulk notification sent", result));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.<BulkSendResultDTO>error(e.getMessage()));
+        }
+    }
+
+    @PostMapping("/templates/{templateName}/send")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(
+        summary = "Send Templated Notification",
+        description = "Render a notification template for each recipient and send it (Admin only). " +
+                "Placeholders like {{name}} are filled from the recipient's own variables, then the shared variables, " +
+                "then the template's defaults."
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "201",
+            description = "Notifications created"
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "400",
+            description = "Invalid template or too many recipients"
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "404",
+            description = "Template not found"
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "403",
+            description = "Forbidden - Admin access required"
+        )
+    })
+    public ResponseEntity<ApiResponse<BulkSendResultDTO>> sendTemplatedNotification(
+            @PathVariable String templateName,
+            @Valid @RequestBody TemplateSendRequest request) {
+        try {
+            BulkSendResultDTO result = notificationService.sendTemplatedNotification(templateName, request);
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .body(ApiResponse.success("Templated notification sent", result));
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.<BulkSendResultDTO>error(e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.<BulkSendResultDTO>error(e.getMessage()));
+        }
+    }
+
     @PostMapping("/broadcast")
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(
         summary = "Send Broadcast Notification",
-        description = "Send a broadcast notification to multiple users (Admin only)",
+        description = "Queue a notification for every user in the target audience (Admin only). " +
+                "Targets: ALL, STUDENTS, PROFESSORS, ADMINS, DEPARTMENT_<name>, COURSE_<id>. " +
+                "Returns a job that can be polled for progress.",
         requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
             description = "Broadcast notification details",
             required = true,
@@ -397,37 +704,66 @@ public class NotificationController {
                 schema = @Schema(implementation = NotificationDTO.class),
                 examples = @ExampleObject(
                     name = "Broadcast Notification",
-                    value = "{\"message\": \"System maintenance scheduled\", \"type\": \"SYSTEM_MAINTENANCE\", \"priority\": \"HIGH\", \"title\": \"Maintenance Notice\", \"broadcastTarget\": \"ALL\"}"
+                    value = "{\"message\": \"System maintenance scheduled\", \"type\": \"SYSTEM_MAINTENANCE\", \"priority\": \"HIGH\", \"title\": \"Maintenance Notice\"}"
                 )
             )
         )
     )
     @ApiResponses(value = {
         @io.swagger.v3.oas.annotations.responses.ApiResponse(
-            responseCode = "201",
-            description = "Broadcast notification sent successfully",
+            responseCode = "202",
+            description = "Broadcast queued",
             content = @Content(
                 mediaType = "application/json",
-                schema = @Schema(implementation = NotificationDTO.class)
+                schema = @Schema(implementation = BroadcastJobDTO.class)
             )
         ),
         @io.swagger.v3.oas.annotations.responses.ApiResponse(
             responseCode = "400",
-            description = "Validation error"
+            description = "Invalid message or target"
         ),
         @io.swagger.v3.oas.annotations.responses.ApiResponse(
             responseCode = "403",
             description = "Forbidden - Admin access required"
         )
     })
-    public ResponseEntity<ApiResponse<NotificationDTO>> sendBroadcastNotification(
+    public ResponseEntity<ApiResponse<BroadcastJobDTO>> sendBroadcastNotification(
             @Valid @RequestBody NotificationDTO notificationDTO,
             @RequestParam String target) {
-        notificationDTO.setIsBroadcast(true);
-        notificationDTO.setBroadcastTarget(target);
-        NotificationDTO createdNotification = notificationService.createNotification(notificationDTO);
-        return ResponseEntity.status(HttpStatus.CREATED)
-                .body(ApiResponse.success("Broadcast notification sent successfully", createdNotification));
+        try {
+            BroadcastJobDTO job = notificationService.sendBroadcastNotification(notificationDTO, target);
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .body(ApiResponse.success("Broadcast notification queued", job));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.<BroadcastJobDTO>error(e.getMessage()));
+        }
+    }
+
+    @GetMapping("/broadcast/jobs/{jobId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(
+        summary = "Get Broadcast Job Progress",
+        description = "Get the status and progress of a queued broadcast (Admin only)"
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200",
+            description = "Broadcast job retrieved successfully"
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "404",
+            description = "Broadcast job not found or expired"
+        )
+    })
+    public ResponseEntity<ApiResponse<BroadcastJobDTO>> getBroadcastJob(@PathVariable String jobId) {
+        try {
+            BroadcastJobDTO job = notificationService.getBroadcastJob(jobId);
+            return ResponseEntity.ok(ApiResponse.success("Broadcast job retrieved successfully", job));
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.<BroadcastJobDTO>error(e.getMessage()));
+        }
     }
 
     @PostMapping("/system")
@@ -464,22 +800,27 @@ public class NotificationController {
     )
     @ApiResponses(value = {
         @io.swagger.v3.oas.annotations.responses.ApiResponse(
-            responseCode = "201",
-            description = "System broadcast notification sent successfully"
+            responseCode = "202",
+            description = "System broadcast notification queued"
         ),
         @io.swagger.v3.oas.annotations.responses.ApiResponse(
             responseCode = "403",
             description = "Forbidden - Admin access required"
         )
     })
-    public ResponseEntity<ApiResponse<String>> sendSystemBroadcastNotification(
+    public ResponseEntity<ApiResponse<BroadcastJobDTO>> sendSystemBroadcastNotification(
             @RequestParam String message,
             @RequestParam(defaultValue = "GENERAL") NotificationType type,
             @RequestParam(defaultValue = "NORMAL") NotificationPriority priority,
             @RequestParam String target) {
-        notificationService.sendSystemBroadcastNotification(message, type, priority, target);
-        return ResponseEntity.status(HttpStatus.CREATED)
-                .body(ApiResponse.success("System broadcast notification sent successfully", null));
+        try {
+            BroadcastJobDTO job = notificationService.sendSystemBroadcastNotification(message, type, priority, target);
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .body(ApiResponse.success("System broadcast notification queued", job));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.<BroadcastJobDTO>error(e.getMessage()));
+        }
     }
 
     @PostMapping("/debug/create-test-notifications")
@@ -545,8 +886,8 @@ public class NotificationController {
     public ResponseEntity<ApiResponse<String>> cleanupTestNotifications() {
         try {
             // Delete all notifications that match test patterns
-            notificationService.deleteTestNotifications();
-            return ResponseEntity.ok(ApiResponse.success("Test notifications cleaned up successfully"));
+            int deleted = notificationService.deleteTestNotifications();
+            return ResponseEntity.ok(ApiResponse.success("Test notifications cleaned up successfully: " + deleted + " removed"));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(ApiResponse.error("Failed to cleanup test notifications: " + e.getMessage()));
@@ -701,9 +1042,8 @@ public class NotificationController {
             description = "Forbidden - Admin access required"
         )
     })
-    public ResponseEntity<ApiResponse<List<NotificationDTO>>> getAllNotifications() {
-        List<NotificationDTO> notifications = notificationService.getAllNotifications();
-        return ResponseEntity.ok(ApiResponse.success("All notifications retrieved successfully", notifications));
+    public ResponseEntity<StreamingResponseBody> getAllNotifications() {
+        return jsonListStreamer.ok("All notifications retrieved successfully", notificationService::streamAllNotifications);
     }
 
     @GetMapping("/admin/stats")
@@ -720,7 +1060,7 @@ public class NotificationController {
                 mediaType = "application/json",
                 examples = @ExampleObject(
                     name = "Statistics Response",
-                    value = "{\"success\": true, \"message\": \"Statistics retrieved successfully\", \"data\": {\"total\": 100, \"unread\": 25, \"urgent\": 5, \"system\": 10}}"
+                    value = "{\"success\": true, \"message\": \"Statistics retrieved successfully\", \"data\": {\"total\": 100, \"unread\": 25, \"read\": 75, \"urgent\": 5, \"system\": 10, \"archived\": 3, \"byType\": {\"GENERAL\": 60, \"COURSE_UPDATE\": 40}, \"byPriority\": {\"HIGH\": 20, \"NORMAL\": 80}, \"byCategory\": {\"ACADEMIC\": 100}, \"bySource\": {\"SYSTEM\": 100}, \"rebuiltAt\": \"2024-01-15T10:30:00\", \"stale\": false}}"
                 )
             )
         ),
@@ -729,19 +1069,8 @@ public class NotificationController {
             description = "Forbidden - Admin access required"
         )
     })
-    public ResponseEntity<ApiResponse<Object>> getNotificationStatistics() {
-        Long totalCount = notificationService.getNotificationCountByIsRead(null);
-        Long unreadCount = notificationService.getNotificationCountByIsRead(false);
-        Long urgentCount = notificationService.getNotificationCountByIsUrgent(true);
-        Long systemCount = notificationService.getNotificationCountByIsSystem(true);
-        
-        var stats = new Object() {
-            public final Long total = totalCount;
-            public final Long unread = unreadCount;
-            public final Long urgent = urgentCount;
-            public final Long system = systemCount;
-        };
-        
+    public ResponseEntity<ApiResponse<NotificationStatsDTO>> getNotificationStatistics() {
+        NotificationStatsDTO stats = notificationService.getNotificationStatistics();
         return ResponseEntity.ok(ApiResponse.success("Statistics retrieved successfully", stats));
     }
 
@@ -772,9 +1101,16 @@ public class NotificationController {
 
     // Helper methods
     private Long getCurrentUserId() {
+        Long userId = AuthenticatedUser.current()
+                .map(AuthenticatedUser::getUserId)
+                .orElse(null);
+        if (userId != null) {
+            return userId;
+        }
+
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication != null && authentication.getPrincipal() instanceof String) {
-            String email = (String) authentication.getPrincipal();
+        if (authentication != null && authentication.isAuthenticated()) {
+            String email = authentication.getName();
             try {
                 return userService.findByEmail(email).getId();
             } catch (Exception e) {
@@ -786,8 +1122,8 @@ public class NotificationController {
 
     private String getCurrentUserName() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication != null && authentication.getPrincipal() instanceof String) {
-            String email = (String) authentication.getPrincipal();
+        if (authentication != null && authentication.isAuthenticated()) {
+            String email = authentication.getName();
             try {
                 return userService.findByEmail(email).getName();
             } catch (Exception e) {
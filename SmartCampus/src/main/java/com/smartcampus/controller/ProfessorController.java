@@ -4,6 +4,9 @@ import com.smartcampus.dto.ApiResponse;
 import com.smartcampus.dto.ProfessorDTO;
 import com.smartcampus.entity.ProfessorStatus;
 import com.smartcampus.service.ProfessorService;
+import com.smartcampus.service.ResourceVersions;
+import com.smartcampus.service.ResourceVersions.Resource;
+import com.smartcampus.util.ConditionalGet;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
@@ -22,6 +25,7 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -33,6 +37,7 @@ import java.util.List;
 public class ProfessorController {
 
     private final ProfessorService professorService;
+    private final ResourceVersions resourceVersions;
 
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
@@ -56,10 +61,11 @@ public class ProfessorController {
     })
     public ResponseEntity<ApiResponse<Page<ProfessorDTO>>> getAllProfessors(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            WebRequest request) {
         Pageable pageable = PageRequest.of(page, size);
-        Page<ProfessorDTO> professors = professorService.getAllProfessors(pageable);
-        return ResponseEntity.ok(ApiResponse.success("Professors retrieved successfully", professors));
+        return ConditionalGet.respond(request, resourceVersions.current(Resource.PROFESSORS),
+                () -> ApiResponse.success("Professors retrieved successfully", professorService.getAllProfessors(pageable)));
     }
 
     @GetMapping("/{id}")
@@ -233,9 +239,9 @@ public class ProfessorController {
             )
         )
     })
-    public ResponseEntity<ApiResponse<List<ProfessorDTO>>> getProfessorsByDepartment(@PathVariable String department) {
-        List<ProfessorDTO> professors = professorService.getProfessorsByDepartment(department);
-        return ResponseEntity.ok(ApiResponse.success("Professors by department retrieved successfully", professors));
+    public ResponseEntity<ApiResponse<List<ProfessorDTO>>> getProfessorsByDepartment(@PathVariable String department, WebRequest request) {
+        return ConditionalGet.respond(request, resourceVersions.current(Resource.PROFESSORS),
+                () -> ApiResponse.success("Professors by department retrieved successfully", professorService.getProfessorsByDepartment(department)));
     }
 
     @GetMapping("/status/{status}")
@@ -254,9 +260,9 @@ public class ProfessorController {
             )
         )
     })
-    public ResponseEntity<ApiResponse<List<ProfessorDTO>>> getProfessorsByStatus(@PathVariable ProfessorStatus status) {
-        List<ProfessorDTO> professors = professorService.getProfessorsByStatus(status);
-        return ResponseEntity.ok(ApiResponse.success("Professors by status retrieved successfully", professors));
+    public ResponseEntity<ApiResponse<List<ProfessorDTO>>> getProfessorsByStatus(@PathVariable ProfessorStatus status, WebRequest request) {
+        return ConditionalGet.respond(request, resourceVersions.current(Resource.PROFESSORS),
+                () -> ApiResponse.success("Professors by status retrieved successfully", professorService.getProfessorsByStatus(status)));
     }
 
     @GetMapping("/search")
@@ -275,9 +281,9 @@ public class ProfessorController {
             )
         )
     })
-    public ResponseEntity<ApiResponse<List<ProfessorDTO>>> searchProfessorsByName(@RequestParam String name) {
-        List<ProfessorDTO> professors = professorService.getProfessorsByName(name);
-        return ResponseEntity.ok(ApiResponse.success("Professors search completed successfully", professors));
+    public ResponseEntity<ApiResponse<List<ProfessorDTO>>> searchProfessorsByName(@RequestParam String name, WebRequest request) {
+        return ConditionalGet.respond(request, resourceVersions.current(Resource.PROFESSORS),
+                () -> ApiResponse.success("Professors search completed successfully", professorService.getProfessorsByName(name)));
     }
 
     @GetMapping("/department/{department}/search")
@@ -298,9 +304,10 @@ public class ProfessorController {
     })
     public ResponseEntity<ApiResponse<List<ProfessorDTO>>> searchProfessorsByDepartmentAndName(
             @PathVariable String department,
-            @RequestParam String name) {
-        List<ProfessorDTO> professors = professorService.getProfessorsByDepartmentAndName(department, name);
-        return ResponseEntity.ok(ApiResponse.success("Professors search completed successfully", professors));
+            @RequestParam String name,
+            WebRequest request) {
+        return ConditionalGet.respond(request, resourceVersions.current(Resource.PROFESSORS),
+                () -> ApiResponse.success("Professors search completed successfully", professorService.getProfessorsByDepartmentAndName(department, name)));
     }
 
     @GetMapping("/count/department/{department}")
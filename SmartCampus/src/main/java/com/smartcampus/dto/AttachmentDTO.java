@@ -0,0 +1,22 @@
+package com.smartcampus.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttachmentDTO {
+
+    // SHA-256 of the content, the file's key in the attachment store
+    private String hash;
+
+    private String name;
+
+    private String type;
+
+    private Long size;
+}
@@ -0,0 +1,14 @@
+package com.smartcampus.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttachmentLinkDTO {
+    // Relative URL that downloads the attachment without an Authorization header until it expires
+    private String url;
+    private long expiresInSeconds;
+}
@@ -0,0 +1,27 @@
+package com.smartcampus.dto;
+
+import com.smartcampus.entity.Role;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Set;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AudienceMember {
+
+    private Long userId;
+
+    private Role role;
+
+    private String department;
+
+    private boolean active;
+
+    // Courses the user is currently enrolled in as a student
+    private Set<Long> courseIds;
+}
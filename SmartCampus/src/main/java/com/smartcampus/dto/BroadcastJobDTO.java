@@ -0,0 +1,43 @@
+package com.smartcampus.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BroadcastJobDTO {
+
+    private String id;
+
+    private String target;
+
+    private String status; // QUEUED, RUNNING, COMPLETED, FAILED
+
+    // Audience size when the job started; recipients added mid-job may push processed past it
+    private Long expectedRecipients;
+
+    private Long processedRecipients;
+
+    private Long insertedNotifications;
+
+    private Integer chunksCommitted;
+
+    private Integer progressPercent;
+
+    private String error;
+
+    // Set when the broadcast was stored once instead of written per recipient
+    private Long sharedBroadcastId;
+
+    private LocalDateTime submittedAt;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime completedAt;
+}
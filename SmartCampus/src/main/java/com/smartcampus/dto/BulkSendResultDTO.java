@@ -0,0 +1,25 @@
+package com.smartcampus.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkSendResultDTO {
+
+    private Integer requested;
+
+    private Integer created;
+
+    // Repeated ids and inactive accounts; nothing was written for them
+    private List<Long> skippedIds;
+
+    // Ids that do not belong to any user
+    private List<Long> invalidIds;
+}
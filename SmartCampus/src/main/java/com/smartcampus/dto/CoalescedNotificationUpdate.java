@@ -0,0 +1,27 @@
+package com.smartcampus.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CoalescedNotificationUpdate {
+
+    private Long notificationId;
+
+    // Notifications absorbed since the row was written or last flushed
+    private Integer additional;
+
+    // Content of the most recent absorbed notification
+    private String title;
+
+    private String message;
+
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,24 @@
+package com.smartcampus.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageDTO<T> {
+
+    private List<T> items;
+
+    // Opaque cursor for the next page, null on the last page
+    private String nextCursor;
+
+    private boolean hasMore;
+
+    private int limit;
+}
@@ -0,0 +1,33 @@
+package com.smartcampus.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeliveryStatusUpdate {
+
+    private Long notificationId;
+
+    private String deliveryStatus; // PENDING, RETRYING, DELIVERED, FAILED
+
+    private String deliveryError;
+
+    private Integer retryCount;
+
+    private LocalDateTime nextRetryDate;
+
+    // Only set once delivered; left null otherwise so the stored value is kept
+    private LocalDateTime sentAt;
+
+    // Node that keeps the delivery; null hands it back for any node to claim
+    private String claimedBy;
+
+    private LocalDateTime updatedAt;
+}
@@ -1,5 +1,6 @@
 package com.smartcampus.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.smartcampus.entity.Role;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -18,4 +19,8 @@ public class JwtResponse {
     private String name;
     private String email;
     private Role role;
+    
+    // Delivered as an HttpOnly cookie, never in the response body
+    @JsonIgnore
+    private String refreshToken;
 } 
\ No newline at end of file
@@ -16,9 +16,15 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class NotificationDTO {
 
+    /**
+     * Validation group for notifications addressed to one user; broadcasts resolve recipients from a target instead
+     */
+    public interface Addressed {
+    }
+
     private Long id;
 
-    @NotNull(message = "User ID is required")
+    @NotNull(message = "User ID is required", groups = Addressed.class)
     private Long userId;
 
     // User details for response
@@ -94,6 +100,9 @@ public class NotificationDTO {
 
     private String broadcastTarget;
 
+    // Set on broadcasts stored once and fanned out on read; such entries have no personal id
+    private Long sharedBroadcastId;
+
     private Boolean isRecurring;
 
     @Size(max = 100, message = "Recurrence pattern must not exceed 100 characters")
@@ -132,6 +141,8 @@ public class NotificationDTO {
 
     private LocalDateTime nextRetryDate;
 
+    private Integer coalescedCount;
+
     private LocalDateTime createdAt;
 
     private LocalDateTime updatedAt;
@@ -0,0 +1,42 @@
+package com.smartcampus.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationStatsDTO {
+
+    private long total;
+
+    private long unread;
+
+    private long read;
+
+    private long urgent;
+
+    private long system;
+
+    private long archived;
+
+    private Map<String, Long> byType;
+
+    private Map<String, Long> byPriority;
+
+    private Map<String, Long> byCategory;
+
+    private Map<String, Long> bySource;
+
+    // Time of the last full recount; incremental updates are applied on top of it
+    private LocalDateTime rebuiltAt;
+
+    // True while a bulk change is waiting for the next recount
+    private boolean stale;
+}
@@ -0,0 +1,29 @@
+package com.smartcampus.dto;
+
+import com.smartcampus.entity.AttendanceStatus;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RollCallEntry {
+
+    @NotNull(message = "Student ID is required")
+    private Long studentId;
+
+    // Defaults to PRESENT
+    private AttendanceStatus status;
+
+    @Size(max = 500, message = "Notes must not exceed 500 characters")
+    private String notes;
+
+    @Min(value = 0, message = "Late minutes cannot be negative")
+    private Integer lateMinutes;
+}
@@ -0,0 +1,36 @@
+package com.smartcampus.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RollCallRequest {
+
+    @NotNull(message = "Course ID is required")
+    private Long courseId;
+
+    @NotNull(message = "Date is required")
+    private LocalDate date;
+
+    @Size(max = 100, message = "Session name must not exceed 100 characters")
+    private String sessionName;
+
+    @Size(max = 50, message = "Session type must not exceed 50 characters")
+    private String sessionType;
+
+    @NotEmpty(message = "At least one student is required")
+    @Size(max = 2000, message = "At most 2000 students per roll call")
+    private List<@NotNull @Valid RollCallEntry> entries;
+}
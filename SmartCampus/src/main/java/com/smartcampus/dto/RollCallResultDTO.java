@@ -0,0 +1,28 @@
+package com.smartcampus.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RollCallResultDTO {
+
+    private Integer requested;
+
+    private Integer created;
+
+    // Students who already had a record for this course and date
+    private Integer updated;
+
+    // Repeated student ids; only the first entry for a student is recorded
+    private List<Long> skippedIds;
+
+    // Ids that do not belong to any student
+    private List<Long> invalidIds;
+}
@@ -0,0 +1,14 @@
+package com.smartcampus.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StreamTicketDTO {
+    // Pass as the ticket query parameter of /api/notifications/stream
+    private String ticket;
+    private long expiresInSeconds;
+}
@@ -0,0 +1,26 @@
+package com.smartcampus.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TemplateSendRequest {
+
+    @NotEmpty(message = "Recipient IDs are required")
+    private List<Long> recipientIds;
+
+    // Values shared by every recipient
+    private Map<String, String> variables;
+
+    // Per-recipient values keyed by user id; these win over the shared values
+    private Map<Long, Map<String, String>> recipientVariables;
+}
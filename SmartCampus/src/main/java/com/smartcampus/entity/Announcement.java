@@ -11,10 +11,18 @@ import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.time.LocalDateTime;
+import java.time.Period;
+import java.time.format.DateTimeParseException;
 import com.smartcampus.entity.Role;
 
 @Entity
-@Table(name = "announcements")
+@Table(name = "announcements", indexes = {
+        @Index(name = "idx_announcements_visibility", columnList = "course_id, visibility"),
+        @Index(name = "idx_announcements_active", columnList = "is_active, course_id"),
+        @Index(name = "idx_announcements_visibility_changes", columnList = "visibility_changes_at"),
+        @Index(name = "idx_announcements_views", columnList = "view_count"),
+        @Index(name = "idx_announcements_course_views", columnList = "course_id, view_count")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -77,7 +85,8 @@ public class Announcement {
     @Column(name = "tags")
     private String tags;
 
-    @Column(name = "view_count")
+    // Only changed by AnnouncementViewCounter's relative updates, so saving a stale entity can't undo views
+    @Column(name = "view_count", updatable = false)
     private Integer viewCount;
 
     @Column(name = "is_urgent")
@@ -104,6 +113,10 @@ public class Announcement {
     @Column(name = "attachment_type")
     private String attachmentType;
 
+    // SHA-256 of the file in the attachment store, null for external links
+    @Column(name = "attachment_hash", length = 64)
+    private String attachmentHash;
+
     @Column(name = "is_scheduled")
     private Boolean isScheduled;
 
@@ -123,9 +136,19 @@ public class Announcement {
     @Column(name = "is_archived")
     private Boolean isArchived;
 
+    // Materialized by refreshVisibility() so "active" reads filter on one column
     @Column(name = "is_active")
     private Boolean isActive;
 
+    // Derived from the publish, schedule and expiry dates by refreshVisibility()
+    @Enumerated(EnumType.STRING)
+    @Column(name = "visibility", length = 16)
+    private AnnouncementVisibility visibility;
+
+    // When visibility next changes on its own; null if it never will
+    @Column(name = "visibility_changes_at")
+    private LocalDateTime visibilityChangesAt;
+
     @Column(name = "archive_date")
     private LocalDateTime archiveDate;
 
@@ -209,6 +232,88 @@ public class Announcement {
         return Boolean.TRUE.equals(isArchived);
     }
 
+    @PrePersist
+    @PreUpdate
+    void refreshVisibilityOnSave() {
+        refreshVisibility(LocalDateTime.now());
+    }
+
+    /**
+     * Recompute visibility, the time it next changes and the active flag as of {@code now}.
+     * An expired recurring announcement first moves forward by whole recurrence periods until its
+     * window is current again, unless that would start after the recurrence end date.
+     */
+    public void refreshVisibility(LocalDateTime now) {
+        rollRecurrence(now);
+        LocalDateTime goesLiveAt = goesLiveAt();
+        if (goesLiveAt != null && goesLiveAt.isAfter(now)) {
+            visibility = AnnouncementVisibility.SCHEDULED;
+            visibilityChangesAt = goesLiveAt;
+        } else if (expiryDate != null && !expiryDate.isAfter(now)) {
+            visibility = AnnouncementVisibility.EXPIRED;
+            visibilityChangesAt = null;
+        } else {
+            visibility = AnnouncementVisibility.LIVE;
+            visibilityChangesAt = expiryDate;
+        }
+        isActive = visibility == AnnouncementVisibility.LIVE && status != AnnouncementStatus.INACTIVE && !isArchived();
+    }
+
+    // The later of the publish date and, while scheduled, the scheduled date
+    private LocalDateTime goesLiveAt() {
+        LocalDateTime scheduled = isScheduled() ? scheduledDate : null;
+        if (publishDate == null) {
+            return scheduled;
+        }
+        return scheduled != null && scheduled.isAfter(publishDate) ? scheduled : publishDate;
+    }
+
+    private void rollRecurrence(LocalDateTime now) {
+        if (!isRecurring() || expiryDate == null || expiryDate.isAfter(now)) {
+            return;
+        }
+        Period period = recurrencePeriod(recurrencePattern);
+        if (period == null) {
+            return;
+        }
+        LocalDateTime expiry = expiryDate;
+        LocalDateTime publish = publishDate;
+        while (!expiry.isAfter(now)) {
+            expiry = expiry.plus(period);
+            publish = publish != null ? publish.plus(period) : null;
+            LocalDateTime start = publish != null ? publish : expiry;
+            if (recurrenceEndDate != null && start.isAfter(recurrenceEndDate)) {
+                return;
+            }
+        }
+        expiryDate = expiry;
+        publishDate = publish;
+    }
+
+    // DAILY, WEEKLY, MONTHLY, YEARLY or an ISO-8601 period such as P2W
+    private static Period recurrencePeriod(String pattern) {
+        if (pattern == null || pattern.isBlank()) {
+            return null;
+        }
+        switch (pattern.trim().toUpperCase()) {
+            case "DAILY":
+                return Period.ofDays(1);
+            case "WEEKLY":
+                return Period.ofWeeks(1);
+            case "MONTHLY":
+                return Period.ofMonths(1);
+            case "YEARLY":
+                return Period.ofYears(1);
+            default:
+                try {
+                    Period period = Period.parse(pattern.trim().toUpperCase());
+                    return period.isZero() || period.isNegative() ? null : period;
+                } catch (DateTimeParseException e) {
+                    return null;
+                }
+        }
+    }
+
     // Helper method to get course info
     public String getCourseInfo() {
         if (course != null) {
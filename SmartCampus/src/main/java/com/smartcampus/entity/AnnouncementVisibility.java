@@ -0,0 +1,7 @@
+package com.smartcampus.entity;
+
+public enum AnnouncementVisibility {
+    SCHEDULED,
+    LIVE,
+    EXPIRED
+}
@@ -0,0 +1,79 @@
+package com.smartcampus.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A broadcast being fanned out in chunks, persisted so it survives restarts and can be resumed by any node.
+ * {@link #lastUserId} is the audience cursor: it advances in the same transaction as each chunk's
+ * inserts, so a resumed job continues after the last committed chunk. The node running the job
+ * holds a claim ({@code claimed_by}, {@code claimed_at}) that it renews with every chunk.
+ */
+@Entity
+@Table(name = "broadcast_jobs", indexes = {
+        @Index(name = "idx_broadcast_jobs_status", columnList = "status, submitted_at"),
+        @Index(name = "idx_broadcast_jobs_completed", columnList = "completed_at")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BroadcastJob {
+
+    @Id
+    @Column(name = "id", length = 36)
+    private String id;
+
+    @Column(name = "target", nullable = false, length = 150)
+    private String target;
+
+    // The notification to send, as NotificationDTO JSON
+    @Column(name = "payload", columnDefinition = "TEXT", nullable = false)
+    private String payload;
+
+    // QUEUED, RUNNING, COMPLETED, FAILED
+    @Column(name = "status", nullable = false, length = 16)
+    private String status;
+
+    @Column(name = "last_user_id", nullable = false)
+    private Long lastUserId;
+
+    @Column(name = "expected_recipients")
+    private Long expectedRecipients;
+
+    @Column(name = "processed_recipients", nullable = false)
+    private Long processedRecipients;
+
+    @Column(name = "inserted_notifications", nullable = false)
+    private Long insertedNotifications;
+
+    @Column(name = "chunks_committed", nullable = false)
+    private Integer chunksCommitted;
+
+    @Column(name = "error", length = 500)
+    private String error;
+
+    @Column(name = "shared_broadcast_id")
+    private Long sharedBroadcastId;
+
+    @Column(name = "claimed_by", length = 100)
+    private String claimedBy;
+
+    @Column(name = "claimed_at")
+    private LocalDateTime claimedAt;
+
+    @Column(name = "submitted_at", nullable = false)
+    private LocalDateTime submittedAt;
+
+    // Also the created_at of every notification the job writes, so resumed chunks match earlier ones
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+}
@@ -0,0 +1,32 @@
+package com.smartcampus.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Shared change counter of one versioned list collection, the source of its ETag on every node.
+ * Rows are created and incremented by {@link com.smartcampus.repository.CollectionVersionJdbcRepository}.
+ */
+@Entity
+@Table(name = "collection_versions")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CollectionVersion {
+
+    @Id
+    @Column(name = "name", length = 32)
+    private String name;
+
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -13,7 +13,14 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "notifications")
+@Table(name = "notifications", indexes = {
+        @Index(name = "idx_notifications_inbox", columnList = "user_id, created_at, id"),
+        @Index(name = "idx_notifications_inbox_read", columnList = "user_id, is_read, created_at, id"),
+        @Index(name = "idx_notifications_schedule", columnList = "is_scheduled, scheduled_send_date"),
+        @Index(name = "idx_notifications_delivery", columnList = "delivery_status, id"),
+        @Index(name = "idx_notifications_retention", columnList = "month_bucket, type"),
+        @Index(name = "idx_notifications_expiry", columnList = "expiry_date")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -195,6 +202,18 @@ public class Notification {
     @Column(name = "next_retry_date")
     private LocalDateTime nextRetryDate;
 
+    // Node delivering this notification and when it last renewed that claim; see NotificationDeliveryPipeline
+    @Column(name = "claimed_by", length = 100)
+    private String claimedBy;
+
+    @Column(name = "claimed_at")
+    private LocalDateTime claimedAt;
+
+    // Number of notifications folded into this row by coalescing; null on rows older than the column
+    @Column(name = "coalesced_count")
+    @Builder.Default
+    private Integer coalescedCount = 1;
+
     @CreatedDate
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -203,6 +222,21 @@ public class Notification {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    // Creation month as yyyyMM; retention purges by bucket instead of scanning created_at
+    @Column(name = "month_bucket", updatable = false)
+    private Integer monthBucket;
+
+    @PrePersist
+    void assignMonthBucket() {
+        if (monthBucket == null) {
+            monthBucket = monthBucketOf(createdAt != null ? createdAt : LocalDateTime.now());
+        }
+    }
+
+    public static int monthBucketOf(LocalDateTime dateTime) {
+        return dateTime.getYear() * 100 + dateTime.getMonthValue();
+    }
+
     // Helper method to check if notification is read
     public boolean isRead() {
         return Boolean.TRUE.equals(isRead);
@@ -223,6 +257,11 @@ public class Notification {
         return Boolean.TRUE.equals(isScheduled);
     }
 
+    // Helper method to check if notification counts towards the user's unread count; scheduled ones count once sent
+    public boolean countsAsUnread() {
+        return isUnread() && !isScheduled();
+    }
+
     // Helper method to check if notification is ready to be sent
     public boolean isReadyToSend() {
         if (!Boolean.TRUE.equals(isScheduled)) {
@@ -350,6 +389,26 @@ public class Notification {
         return java.time.Duration.between(readAt, LocalDateTime.now()).toDays();
     }
 
+    // Helper method to fill in defaults for fields left null by the mapper
+    public void applyDefaults() {
+        if (isRead == null) isRead = false;
+        if (type == null) type = NotificationType.GENERAL;
+        if (priority == null) priority = NotificationPriority.NORMAL;
+        if (isDismissible == null) isDismissible = true;
+        if (isUrgent == null) isUrgent = false;
+        if (isSilent == null) isSilent = false;
+        if (isArchived == null) isArchived = false;
+        if (isSystem == null) isSystem = false;
+        if (isBroadcast == null) isBroadcast = false;
+        if (isRecurring == null) isRecurring = false;
+        if (isTemplate == null) isTemplate = false;
+        if (isScheduled == null) isScheduled = false;
+        if (isSent == null) isSent = false;
+        if (retryCount == null) retryCount = 0;
+        if (maxRetries == null) maxRetries = 3;
+        if (coalescedCount == null) coalescedCount = 1;
+    }
+
     // Helper method to mark as read
     public void markAsRead(String readBy) {
         this.isRead = true;
@@ -0,0 +1,83 @@
+package com.smartcampus.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Cold copy of a read notification moved out of a full inbox.
+ * Keeps the original notification id and the fields a history view needs; rows are written by
+ * {@link com.smartcampus.repository.NotificationJdbcRepository#moveToHistory} and only ever read or purged.
+ */
+@Entity
+@Table(name = "notification_history", indexes = {
+        @Index(name = "idx_notification_history_user", columnList = "user_id, created_at, id"),
+        @Index(name = "idx_notification_history_retention", columnList = "month_bucket, type")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationHistory {
+
+    // Id the notification had in the inbox
+    @Id
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "message", columnDefinition = "TEXT", nullable = false)
+    private String message;
+
+    @Column(name = "title")
+    private String title;
+
+    @Column(name = "description", length = 500)
+    private String description;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type")
+    private NotificationType type;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "priority")
+    private NotificationPriority priority;
+
+    @Column(name = "category", length = 100)
+    private String category;
+
+    @Column(name = "source", length = 100)
+    private String source;
+
+    @Column(name = "source_id", length = 200)
+    private String sourceId;
+
+    @Column(name = "action_url", length = 500)
+    private String actionUrl;
+
+    @Column(name = "is_broadcast")
+    private Boolean isBroadcast;
+
+    @Column(name = "coalesced_count")
+    private Integer coalescedCount;
+
+    @Column(name = "read_at")
+    private LocalDateTime readAt;
+
+    @Column(name = "read_by", length = 100)
+    private String readBy;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "month_bucket")
+    private Integer monthBucket;
+
+    @Column(name = "moved_at", nullable = false)
+    private LocalDateTime movedAt;
+}
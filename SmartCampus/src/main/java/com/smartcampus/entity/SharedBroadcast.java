@@ -0,0 +1,106 @@
+package com.smartcampus.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+/**
+ * A broadcast stored once and fanned out on read.
+ * The audience is resolved from {@link #target} when a user reads their notifications; per-user
+ * read and dismiss state lives in two serialized {@link com.smartcampus.util.UserIdBitmap}s.
+ */
+@Entity
+@Table(name = "shared_broadcasts", indexes = {
+        @Index(name = "idx_shared_broadcasts_expiry", columnList = "expiry_date")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SharedBroadcast {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "target", nullable = false, length = 150)
+    private String target;
+
+    @Column(name = "message", columnDefinition = "TEXT", nullable = false)
+    private String message;
+
+    @Column(name = "title", length = 200)
+    private String title;
+
+    @Column(name = "description", length = 500)
+    private String description;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type")
+    private NotificationType type;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "priority")
+    private NotificationPriority priority;
+
+    @Column(name = "category", length = 100)
+    private String category;
+
+    @Column(name = "action_url", length = 500)
+    private String actionUrl;
+
+    @Column(name = "action_text", length = 100)
+    private String actionText;
+
+    @Column(name = "icon", length = 100)
+    private String icon;
+
+    @Column(name = "color", length = 50)
+    private String color;
+
+    @Column(name = "is_urgent")
+    private Boolean isUrgent;
+
+    @Column(name = "is_dismissible")
+    private Boolean isDismissible;
+
+    @Column(name = "is_system")
+    private Boolean isSystem;
+
+    @Column(name = "source", length = 100)
+    private String source;
+
+    @Column(name = "source_id", length = 100)
+    private String sourceId;
+
+    @Column(name = "sent_by", length = 100)
+    private String sentBy;
+
+    @Column(name = "expiry_date")
+    private LocalDateTime expiryDate;
+
+    // Audience size when published, for reporting only
+    @Column(name = "recipient_estimate")
+    private Long recipientEstimate;
+
+    @Lob
+    @ToString.Exclude
+    @Column(name = "read_bitmap")
+    private byte[] readBitmap;
+
+    @Lob
+    @ToString.Exclude
+    @Column(name = "dismissed_bitmap")
+    private byte[] dismissedBitmap;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
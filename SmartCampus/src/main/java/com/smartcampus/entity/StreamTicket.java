@@ -0,0 +1,42 @@
+package com.smartcampus.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A short-lived, single-use credential for opening the notification stream.
+ * Browsers' EventSource cannot send an Authorization header, so the client exchanges its access
+ * token for a ticket and passes that in the URL instead; only a digest of the ticket is stored.
+ */
+@Entity
+@Table(name = "stream_tickets", indexes = {
+        @Index(name = "idx_stream_tickets_expires", columnList = "expires_at")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StreamTicket {
+
+    @Id
+    @Column(name = "ticket_hash", length = 64)
+    private String ticketHash;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "email", nullable = false, length = 100)
+    private String email;
+
+    // Comma separated granted authorities of the issuing token
+    @Column(name = "authorities", nullable = false, length = 200)
+    private String authorities;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,12 @@
+package com.smartcampus.exception;
+
+public class AttachmentStorageException extends RuntimeException {
+    
+    public AttachmentStorageException(String message) {
+        super(message);
+    }
+    
+    public AttachmentStorageException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
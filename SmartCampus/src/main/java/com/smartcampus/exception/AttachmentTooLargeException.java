@@ -0,0 +1,19 @@
+package com.smartcampus.exception;
+
+public class AttachmentTooLargeException extends RuntimeException {
+    
+    private final long maxSize;
+    
+    public AttachmentTooLargeException(String message, long maxSize) {
+        super(message);
+        this.maxSize = maxSize;
+    }
+    
+    public long getMaxSize() {
+        return maxSize;
+    }
+    
+    public static AttachmentTooLargeException withMaxSize(long maxSize) {
+        return new AttachmentTooLargeException("Attachment exceeds the maximum size of " + maxSize + " bytes", maxSize);
+    }
+}
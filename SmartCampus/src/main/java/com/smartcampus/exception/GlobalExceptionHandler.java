@@ -2,6 +2,7 @@ package com.smartcampus.exception;
 
 import com.smartcampus.dto.ApiResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -88,6 +89,28 @@ public class GlobalExceptionHandler {
                 .body(ApiResponse.error("Profile update failed", ex.getMessage()));
     }
 
+    @ExceptionHandler(LoginThrottledException.class)
+    public ResponseEntity<ApiResponse<String>> handleLoginThrottledException(LoginThrottledException ex) {
+        log.warn("Login throttled: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(ApiResponse.error("Login temporarily unavailable", ex.getMessage()));
+    }
+
+    @ExceptionHandler(AttachmentTooLargeException.class)
+    public ResponseEntity<ApiResponse<String>> handleAttachmentTooLargeException(AttachmentTooLargeException ex) {
+        log.warn("Attachment too large: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE)
+                .body(ApiResponse.error("Attachment too large", ex.getMessage()));
+    }
+
+    @ExceptionHandler(AttachmentStorageException.class)
+    public ResponseEntity<ApiResponse<String>> handleAttachmentStorageException(AttachmentStorageException ex) {
+        log.error("Attachment storage failed: {}", ex.getMessage(), ex);
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(ApiResponse.error("Attachment storage failed", ex.getMessage()));
+    }
+
     @ExceptionHandler(BadCredentialsException.class)
     public ResponseEntity<ApiResponse<String>> handleBadCredentialsException(BadCredentialsException ex) {
         log.warn("Bad credentials: {}", ex.getMessage());
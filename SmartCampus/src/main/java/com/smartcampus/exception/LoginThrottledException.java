@@ -0,0 +1,15 @@
+package com.smartcampus.exception;
+
+public class LoginThrottledException extends RuntimeException {
+    
+    private final long retryAfterSeconds;
+    
+    public LoginThrottledException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+    
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
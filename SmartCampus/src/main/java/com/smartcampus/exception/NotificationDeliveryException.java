@@ -0,0 +1,24 @@
+package com.smartcampus.exception;
+
+public class NotificationDeliveryException extends RuntimeException {
+    
+    private final boolean retryable;
+    
+    public NotificationDeliveryException(String message, boolean retryable) {
+        super(message);
+        this.retryable = retryable;
+    }
+    
+    public NotificationDeliveryException(String message, Throwable cause) {
+        super(message, cause);
+        this.retryable = true;
+    }
+    
+    public static NotificationDeliveryException permanent(String message) {
+        return new NotificationDeliveryException(message, false);
+    }
+    
+    public boolean isRetryable() {
+        return retryable;
+    }
+}
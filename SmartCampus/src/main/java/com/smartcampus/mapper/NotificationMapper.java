@@ -2,11 +2,13 @@ package com.smartcampus.mapper;
 
 import com.smartcampus.dto.NotificationDTO;
 import com.smartcampus.entity.Notification;
+import com.smartcampus.entity.NotificationHistory;
 
 import java.util.List;
 
 public interface NotificationMapper {
     NotificationDTO toDto(Notification notification);
+    NotificationDTO toDto(NotificationHistory history);
     Notification toEntity(NotificationDTO notificationDTO);
     List<NotificationDTO> toDtoList(List<Notification> notifications);
 } 
\ No newline at end of file
@@ -2,6 +2,7 @@ package com.smartcampus.mapper.impl;
 
 import com.smartcampus.dto.NotificationDTO;
 import com.smartcampus.entity.Notification;
+import com.smartcampus.entity.NotificationHistory;
 import com.smartcampus.mapper.NotificationMapper;
 import org.springframework.stereotype.Component;
 
@@ -68,6 +69,7 @@ public class NotificationMapperImpl implements NotificationMapper {
                 .retryCount(notification.getRetryCount())
                 .maxRetries(notification.getMaxRetries())
                 .nextRetryDate(notification.getNextRetryDate())
+                .coalescedCount(notification.getCoalescedCount() != null ? notification.getCoalescedCount() : 1)
                 .createdAt(notification.getCreatedAt())
                 .updatedAt(notification.getUpdatedAt())
                 .build();
@@ -128,6 +130,35 @@ public class NotificationMapperImpl implements NotificationMapper {
                 .build();
     }
 
+    @Override
+    public NotificationDTO toDto(NotificationHistory history) {
+        if (history == null) {
+            return null;
+        }
+
+        return NotificationDTO.builder()
+                .id(history.getId())
+                .userId(history.getUserId())
+                .message(history.getMessage())
+                .isRead(true)
+                .type(history.getType())
+                .priority(history.getPriority())
+                .title(history.getTitle())
+                .description(history.getDescription())
+                .category(history.getCategory())
+                .source(history.getSource())
+                .sourceId(history.getSourceId())
+                .actionUrl(history.getActionUrl())
+                .isBroadcast(history.getIsBroadcast())
+                .coalescedCount(history.getCoalescedCount())
+                .readAt(history.getReadAt())
+                .readBy(history.getReadBy())
+                .isArchived(true)
+                .archiveDate(history.getMovedAt())
+                .createdAt(history.getCreatedAt())
+                .build();
+    }
+
     @Override
     public List<NotificationDTO> toDtoList(List<Notification> notifications) {
         if (notifications == null) {
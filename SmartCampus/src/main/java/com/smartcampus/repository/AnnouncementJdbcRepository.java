@@ -0,0 +1,106 @@
+package com.smartcampus.repository;
+
+import com.smartcampus.entity.AnnouncementPriority;
+import com.smartcampus.entity.AnnouncementStatus;
+import com.smartcampus.entity.AnnouncementVisibility;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Plain JDBC access for announcement counters, which would otherwise load and save a whole entity
+ * per change, and for feed queries that need window functions and row comparisons
+ */
+@Repository
+@RequiredArgsConstructor
+public class AnnouncementJdbcRepository {
+
+    // Feed order: pinned, priority rank (the enum's ordinal, NORMAL when unset), created_at and id, all descending
+    private static final String FEED_KEY;
+    private static final String FEED_ORDER;
+    private static final String FEED_FILTER = "status = :status AND COALESCE(is_archived, FALSE) = FALSE " +
+            "AND visibility = :visibility";
+
+    static {
+        StringBuilder rank = new StringBuilder("CASE priority");
+        for (AnnouncementPriority priority : AnnouncementPriority.values()) {
+            rank.append(" WHEN '").append(priority.name()).append("' THEN ").append(priority.ordinal());
+        }
+        rank.append(" ELSE ").append(AnnouncementPriority.NORMAL.ordinal()).append(" END");
+        FEED_KEY = "CASE WHEN is_pinned THEN 1 ELSE 0 END, " + rank + ", created_at, id";
+        FEED_ORDER = "CASE WHEN is_pinned THEN 1 ELSE 0 END DESC, " + rank + " DESC, created_at DESC, id DESC";
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    /**
+     * Add buffered view counts in one JDBC batch, relative to the stored value
+     * @return number of announcements updated
+     */
+    public int batchAddViews(Map<Long, Long> deltas) {
+        if (deltas.isEmpty()) {
+            return 0;
+        }
+        List<Object[]> args = new ArrayList<>(deltas.size());
+        deltas.forEach((announcementId, delta) -> args.add(new Object[]{delta, announcementId}));
+        int[] counts = jdbcTemplate.batchUpdate(
+                "UPDATE announcements SET view_count = COALESCE(view_count, 0) + ? WHERE id = ?", args);
+        int updated = 0;
+        for (int count : counts) {
+            updated += Math.max(count, 0);
+        }
+        return updated;
+    }
+
+    /**
+     * Ids of the first {@code perCourse} feed items of each course, in one windowed query
+     */
+    public List<Long> findFeedHeadIds(Collection<Long> courseIds, AnnouncementStatus status,
+                                      AnnouncementVisibility visibility, int perCourse) {
+        if (courseIds.isEmpty()) {
+            return List.of();
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("courseIds", courseIds)
+                .addValue("status", status.name())
+                .addValue("visibility", visibility.name())
+                .addValue("perCourse", perCourse);
+        return namedParameterJdbcTemplate.queryForList(
+                "SELECT id FROM (SELECT id, ROW_NUMBER() OVER (PARTITION BY course_id ORDER BY " + FEED_ORDER + ") AS feed_row " +
+                        "FROM announcements WHERE course_id IN (:courseIds) AND " + FEED_FILTER + ") ranked " +
+                        "WHERE feed_row <= :perCourse",
+                params, Long.class);
+    }
+
+    /**
+     * Ids of up to {@code limit} feed items of one course that sort after the given key, in feed order
+     */
+    public List<Long> findFeedIdsAfter(Long courseId, AnnouncementStatus status, AnnouncementVisibility visibility,
+                                       boolean pinned, int priorityRank, LocalDateTime createdAt, Long id, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("courseId", courseId)
+                .addValue("status", status.name())
+                .addValue("visibility", visibility.name())
+                .addValue("pinned", pinned ? 1 : 0)
+                .addValue("rank", priorityRank)
+                .addValue("createdAt", Timestamp.valueOf(createdAt))
+                .addValue("id", id)
+                .addValue("limit", limit);
+        // Every key is descending, so later items have a smaller key tuple
+        return namedParameterJdbcTemplate.queryForList(
+                "SELECT id FROM announcements WHERE course_id = :courseId AND " + FEED_FILTER + " " +
+                        "AND (" + FEED_KEY + ") < (:pinned, :rank, :createdAt, :id) " +
+                        "ORDER BY " + FEED_ORDER + " LIMIT :limit",
+                params, Long.class);
+    }
+}
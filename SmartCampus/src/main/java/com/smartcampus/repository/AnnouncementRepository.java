@@ -3,15 +3,22 @@ package com.smartcampus.repository;
 import com.smartcampus.entity.Announcement;
 import com.smartcampus.entity.AnnouncementPriority;
 import com.smartcampus.entity.AnnouncementStatus;
+import com.smartcampus.entity.AnnouncementVisibility;
+import com.smartcampus.util.EntityStreams;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface AnnouncementRepository extends JpaRepository<Announcement, Long> {
@@ -71,17 +78,9 @@ public interface AnnouncementRepository extends JpaRepository<Announcement, Long
     @Query("SELECT a FROM Announcement a WHERE a.course.id = :courseId AND a.isActive = true AND a.isPublic = true")
     List<Announcement> findActivePublicByCourseId(@Param("courseId") Long courseId);
     
-    @Query("SELECT a FROM Announcement a WHERE a.expiryDate IS NULL OR a.expiryDate > :now")
-    List<Announcement> findNonExpired(@Param("now") LocalDateTime now);
+    List<Announcement> findByVisibilityIn(Collection<AnnouncementVisibility> visibilities);
     
-    @Query("SELECT a FROM Announcement a WHERE a.course.id = :courseId AND (a.expiryDate IS NULL OR a.expiryDate > :now)")
-    List<Announcement> findNonExpiredByCourseId(@Param("courseId") Long courseId, @Param("now") LocalDateTime now);
-    
-    @Query("SELECT a FROM Announcement a WHERE a.publishDate IS NULL OR a.publishDate <= :now")
-    List<Announcement> findPublished(@Param("now") LocalDateTime now);
-    
-    @Query("SELECT a FROM Announcement a WHERE a.course.id = :courseId AND (a.publishDate IS NULL OR a.publishDate <= :now)")
-    List<Announcement> findPublishedByCourseId(@Param("courseId") Long courseId, @Param("now") LocalDateTime now);
+    List<Announcement> findByCourseIdAndVisibilityIn(Long courseId, Collection<AnnouncementVisibility> visibilities);
     
     @Query("SELECT a FROM Announcement a WHERE a.createdAt BETWEEN :startDate AND :endDate")
     List<Announcement> findByCreatedAtBetween(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
@@ -140,6 +139,34 @@ public interface AnnouncementRepository extends JpaRepository<Announcement, Long
     
     @Query("SELECT a FROM Announcement a WHERE a.course.id = :courseId AND a.viewCount IS NOT NULL ORDER BY a.viewCount DESC")
     List<Announcement> findMostViewedByCourseId(@Param("courseId") Long courseId);
+
+    @Query("SELECT a FROM Announcement a LEFT JOIN FETCH a.course c LEFT JOIN FETCH c.professor LEFT JOIN FETCH a.postedBy " +
+           "WHERE a.viewCount IS NOT NULL AND (a.isArchived IS NULL OR a.isArchived = false) " +
+           "ORDER BY a.viewCount DESC, a.id DESC")
+    List<Announcement> findTopViewed(Pageable pageable);
+
+    @Query("SELECT a FROM Announcement a JOIN FETCH a.course c LEFT JOIN FETCH c.professor LEFT JOIN FETCH a.postedBy " +
+           "WHERE c.id = :courseId AND a.viewCount IS NOT NULL AND (a.isArchived IS NULL OR a.isArchived = false) " +
+           "ORDER BY a.viewCount DESC, a.id DESC")
+    List<Announcement> findTopViewedByCourseId(@Param("courseId") Long courseId, Pageable pageable);
+
+    // id, course id, stored view count and archived flag
+    @Query("SELECT a.id, c.id, a.viewCount, a.isArchived FROM Announcement a LEFT JOIN a.course c WHERE a.id IN :ids")
+    List<Object[]> findViewCountsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Feed items picked by AnnouncementJdbcRepository, with what the DTO needs fetched in the same query
+    @Query("SELECT a FROM Announcement a JOIN FETCH a.course c LEFT JOIN FETCH c.professor LEFT JOIN FETCH a.postedBy " +
+           "WHERE a.id IN :ids")
+    List<Announcement> findFeedByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Announcements whose visibility changes by the given time, soonest first
+    @Query("SELECT a.id, a.visibilityChangesAt FROM Announcement a WHERE a.visibilityChangesAt <= :until " +
+           "ORDER BY a.visibilityChangesAt")
+    List<Object[]> findVisibilityChangesUntil(@Param("until") LocalDateTime until, Pageable pageable);
+
+    // Rows written before visibility was materialized
+    @Query("SELECT a.id FROM Announcement a WHERE a.visibility IS NULL")
+    List<Long> findIdsWithoutVisibility(Pageable pageable);
     
     @Query("SELECT a FROM Announcement a WHERE a.createdAt >= :since ORDER BY a.createdAt DESC")
     List<Announcement> findRecent(@Param("since") LocalDateTime since);
@@ -222,4 +249,11 @@ public interface AnnouncementRepository extends JpaRepository<Announcement, Long
     
     @Query("SELECT COUNT(a) FROM Announcement a WHERE a.course.id = :courseId AND a.isPinned = true")
     Long countPinnedByCourseId(@Param("courseId") Long courseId);
-} 
\ No newline at end of file
+    
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EntityStreams.FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT a FROM Announcement a LEFT JOIN FETCH a.course c LEFT JOIN FETCH c.professor LEFT JOIN FETCH a.postedBy ORDER BY a.id")
+    Stream<Announcement> streamAll();
+}
@@ -0,0 +1,118 @@
+package com.smartcampus.repository;
+
+import com.smartcampus.dto.RollCallEntry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Plain JDBC access for whole-section roll calls, which would otherwise look up, check and save
+ * one entity per student. Rows written here bypass the persistence context.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AttendanceJdbcRepository {
+
+    // Relies on the (student_id, course_id, date) unique key; omitted notes and session fields keep their old values
+    private static final String UPSERT_SQL = "INSERT INTO attendance (student_id, course_id, date, status, notes, " +
+            "late_minutes, session_name, session_type, is_required, is_counted_towards_grade, is_verified, " +
+            "is_excused, is_makeup, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, TRUE, FALSE, FALSE, FALSE, FALSE, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE status = VALUES(status), late_minutes = VALUES(late_minutes), " +
+            "notes = COALESCE(VALUES(notes), notes), session_name = COALESCE(VALUES(session_name), session_name), " +
+            "session_type = COALESCE(VALUES(session_type), session_type), updated_at = VALUES(updated_at)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    /**
+     * Which of the given ids belong to a student, in a single IN query
+     */
+    public Set<Long> findExistingStudentIds(Collection<Long> studentIds) {
+        Set<Long> existing = new HashSet<>();
+        if (studentIds.isEmpty()) {
+            return existing;
+        }
+        namedParameterJdbcTemplate.query("SELECT id FROM students WHERE id IN (:ids)",
+                new MapSqlParameterSource("ids", studentIds),
+                rs -> {
+                    existing.add(rs.getLong("id"));
+                });
+        return existing;
+    }
+
+    /**
+     * Which of the given students already have a record for the course and date, in a single IN query
+     */
+    public Set<Long> findRecordedStudentIds(Long courseId, LocalDate date, Collection<Long> studentIds) {
+        Set<Long> recorded = new HashSet<>();
+        if (studentIds.isEmpty()) {
+            return recorded;
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("courseId", courseId)
+                .addValue("date", Date.valueOf(date))
+                .addValue("ids", studentIds);
+        namedParameterJdbcTemplate.query(
+                "SELECT student_id FROM attendance WHERE course_id = :courseId AND date = :date AND student_id IN (:ids)",
+                params,
+                rs -> {
+                    recorded.add(rs.getLong("student_id"));
+                });
+        return recorded;
+    }
+
+    /**
+     * Insert or update one record per entry as a single JDBC batch, with the same defaults as a
+     * single create. Entries must have distinct student ids and a status.
+     */
+    public void batchUpsert(Long courseId, LocalDate date, String sessionName, String sessionType,
+                            List<RollCallEntry> entries, LocalDateTime now) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        Date day = Date.valueOf(date);
+        Timestamp timestamp = Timestamp.valueOf(now);
+        jdbcTemplate.batchUpdate(UPSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                RollCallEntry entry = entries.get(i);
+                int c = 1;
+                ps.setLong(c++, entry.getStudentId());
+                ps.setLong(c++, courseId);
+                ps.setDate(c++, day);
+                ps.setString(c++, entry.getStatus().name());
+                ps.setString(c++, entry.getNotes());
+                if (entry.getLateMinutes() != null) {
+                    ps.setInt(c++, entry.getLateMinutes());
+                } else {
+                    ps.setNull(c++, Types.INTEGER);
+                }
+                ps.setString(c++, sessionName);
+                ps.setString(c++, sessionType);
+                ps.setTimestamp(c++, timestamp);
+                ps.setTimestamp(c, timestamp);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return entries.size();
+            }
+        });
+    }
+}
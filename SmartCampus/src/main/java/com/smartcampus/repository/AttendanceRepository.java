@@ -2,8 +2,12 @@ package com.smartcampus.repository;
 
 import com.smartcampus.entity.Attendance;
 import com.smartcampus.entity.AttendanceStatus;
+import com.smartcampus.util.EntityStreams;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -11,6 +15,7 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface AttendanceRepository extends JpaRepository<Attendance, Long> {
@@ -171,4 +176,28 @@ public interface AttendanceRepository extends JpaRepository<Attendance, Long> {
     
     @Query("SELECT MIN(a.attendancePercentage) FROM Attendance a WHERE a.course.id = :courseId")
     Double getMinAttendancePercentageByCourseId(@Param("courseId") Long courseId);
-} 
\ No newline at end of file
+    
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EntityStreams.FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT a FROM Attendance a JOIN FETCH a.student s LEFT JOIN FETCH s.user JOIN FETCH a.course c LEFT JOIN FETCH c.professor " +
+           "WHERE a.date BETWEEN :startDate AND :endDate ORDER BY a.date, a.id")
+    Stream<Attendance> streamByDateBetween(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+    
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EntityStreams.FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT a FROM Attendance a JOIN FETCH a.student s LEFT JOIN FETCH s.user JOIN FETCH a.course c LEFT JOIN FETCH c.professor " +
+           "WHERE s.id = :studentId AND a.date BETWEEN :startDate AND :endDate ORDER BY a.date, a.id")
+    Stream<Attendance> streamByStudentIdAndDateBetween(@Param("studentId") Long studentId, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+    
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EntityStreams.FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT a FROM Attendance a JOIN FETCH a.student s LEFT JOIN FETCH s.user JOIN FETCH a.course c LEFT JOIN FETCH c.professor " +
+           "WHERE c.id = :courseId AND a.date BETWEEN :startDate AND :endDate ORDER BY a.date, a.id")
+    Stream<Attendance> streamByCourseIdAndDateBetween(@Param("courseId") Long courseId, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+}
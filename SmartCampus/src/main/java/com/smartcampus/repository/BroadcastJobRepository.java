@@ -0,0 +1,42 @@
+package com.smartcampus.repository;
+
+import com.smartcampus.entity.BroadcastJob;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface BroadcastJobRepository extends JpaRepository<BroadcastJob, String> {
+
+    // Unfinished jobs nobody else is running: unclaimed, claimed by this node, or claimed by a node that stopped renewing
+    @Query("SELECT j.id FROM BroadcastJob j WHERE j.status IN ('QUEUED', 'RUNNING') " +
+           "AND (j.claimedBy IS NULL OR j.claimedBy = :nodeId OR j.claimedAt < :staleBefore) ORDER BY j.submittedAt")
+    List<String> findResumableIds(@Param("nodeId") String nodeId, @Param("staleBefore") LocalDateTime staleBefore,
+                                  Pageable pageable);
+
+    // A conditional update, so only one node can win the claim
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE BroadcastJob j SET j.claimedBy = :nodeId, j.claimedAt = :now, j.status = 'RUNNING', " +
+           "j.startedAt = COALESCE(j.startedAt, :now) WHERE j.id = :id AND j.status IN ('QUEUED', 'RUNNING') " +
+           "AND (j.claimedBy IS NULL OR j.claimedBy = :nodeId OR j.claimedAt < :staleBefore)")
+    int claim(@Param("id") String id, @Param("nodeId") String nodeId, @Param("now") LocalDateTime now,
+              @Param("staleBefore") LocalDateTime staleBefore);
+
+    // Moves the cursor past a committed chunk and renews the claim; 0 means the claim was lost
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE BroadcastJob j SET j.lastUserId = :lastUserId, j.processedRecipients = j.processedRecipients + :processed, " +
+           "j.insertedNotifications = j.insertedNotifications + :inserted, j.chunksCommitted = j.chunksCommitted + 1, " +
+           "j.claimedAt = :now WHERE j.id = :id AND j.claimedBy = :nodeId")
+    int advance(@Param("id") String id, @Param("nodeId") String nodeId, @Param("lastUserId") Long lastUserId,
+                @Param("processed") long processed, @Param("inserted") long inserted, @Param("now") LocalDateTime now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM BroadcastJob j WHERE j.completedAt < :cutoff")
+    int deleteCompletedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
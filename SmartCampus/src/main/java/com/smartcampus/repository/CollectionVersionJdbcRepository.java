@@ -0,0 +1,48 @@
+package com.smartcampus.repository;
+
+import com.smartcampus.entity.CollectionVersion;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Plain JDBC access for collection version counters, which are written from inside Hibernate's commit
+ */
+@Repository
+@RequiredArgsConstructor
+public class CollectionVersionJdbcRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Increment each named counter, creating it on first use. Runs on the caller's transaction, and
+     * the row locks it takes are held until that transaction ends; pass names in a fixed order.
+     */
+    public void increment(Collection<String> names, LocalDateTime now) {
+        if (names.isEmpty()) {
+            return;
+        }
+        Timestamp updatedAt = Timestamp.valueOf(now);
+        List<Object[]> args = new ArrayList<>(names.size());
+        for (String name : names) {
+            args.add(new Object[]{name, updatedAt});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO collection_versions (name, version, updated_at) VALUES (?, 1, ?) " +
+                "ON DUPLICATE KEY UPDATE version = version + 1, updated_at = VALUES(updated_at)", args);
+    }
+
+    public List<CollectionVersion> findAll() {
+        return jdbcTemplate.query("SELECT name, version, updated_at FROM collection_versions",
+                (rs, rowNum) -> CollectionVersion.builder()
+                        .name(rs.getString("name"))
+                        .version(rs.getLong("version"))
+                        .updatedAt(rs.getTimestamp("updated_at").toLocalDateTime())
+                        .build());
+    }
+}
@@ -46,6 +46,9 @@ public interface CourseRepository extends JpaRepository<Course, Long> {
     @Query("SELECT c FROM Course c WHERE c.professor.id = :professorId AND (c.name LIKE %:searchTerm% OR c.code LIKE %:searchTerm%)")
     List<Course> findByProfessorIdAndSearchTerm(@Param("professorId") Long professorId, @Param("searchTerm") String searchTerm);
     
+    @Query("SELECT c.id FROM Course c WHERE c.professor.user.id = :userId")
+    List<Long> findIdsByProfessorUserId(@Param("userId") Long userId);
+
     @Query("SELECT COUNT(c) FROM Course c WHERE c.professor.id = :professorId")
     Long countByProfessorId(@Param("professorId") Long professorId);
     
@@ -2,14 +2,19 @@ package com.smartcampus.repository;
 
 import com.smartcampus.entity.Enrollment;
 import com.smartcampus.entity.EnrollmentStatus;
+import com.smartcampus.util.EntityStreams;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface EnrollmentRepository extends JpaRepository<Enrollment, Long> {
@@ -19,6 +24,9 @@ public interface EnrollmentRepository extends JpaRepository<Enrollment, Long> {
     List<Enrollment> findByCourseId(Long courseId);
     
     List<Enrollment> findByStudentIdAndStatus(Long studentId, EnrollmentStatus status);
+
+    @Query("SELECT e.course.id FROM Enrollment e WHERE e.student.user.id = :userId AND e.status = :status")
+    List<Long> findCourseIdsByUserIdAndStatus(@Param("userId") Long userId, @Param("status") EnrollmentStatus status);
     
     List<Enrollment> findByCourseIdAndStatus(Long courseId, EnrollmentStatus status);
     
@@ -78,4 +86,12 @@ public interface EnrollmentRepository extends JpaRepository<Enrollment, Long> {
     
     @Query("SELECT e FROM Enrollment e WHERE e.student.id = :studentId AND e.gradeLetter IS NULL AND e.isActive = true")
     List<Enrollment> findUngradedActiveEnrollmentsByStudentId(@Param("studentId") Long studentId);
-} 
\ No newline at end of file
+    
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EntityStreams.FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT e FROM Enrollment e LEFT JOIN FETCH e.student s LEFT JOIN FETCH s.user " +
+           "LEFT JOIN FETCH e.course c LEFT JOIN FETCH c.professor ORDER BY e.id")
+    Stream<Enrollment> streamAll();
+}
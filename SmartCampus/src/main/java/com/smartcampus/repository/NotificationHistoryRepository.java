@@ -0,0 +1,15 @@
+package com.smartcampus.repository;
+
+import com.smartcampus.entity.NotificationHistory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface NotificationHistoryRepository extends JpaRepository<NotificationHistory, Long> {
+
+    Page<NotificationHistory> findByUserIdOrderByCreatedAtDescIdDesc(Long userId, Pageable pageable);
+
+    long countByUserId(Long userId);
+}
@@ -0,0 +1,630 @@
+package com.smartcampus.repository;
+
+import com.smartcampus.dto.AudienceMember;
+import com.smartcampus.dto.CoalescedNotificationUpdate;
+import com.smartcampus.dto.DeliveryStatusUpdate;
+import com.smartcampus.entity.Notification;
+import com.smartcampus.entity.Role;
+import com.smartcampus.util.BroadcastAudience;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Plain JDBC access for notification fan-out, where loading and saving one entity
+ * per recipient is too slow. Rows written here bypass the persistence context.
+ */
+@Repository
+@RequiredArgsConstructor
+public class NotificationJdbcRepository {
+
+    private static final String ACTIVE_USER = "COALESCE(u.is_active, TRUE) = TRUE";
+
+    // Retention never removes templates, recurring rows or scheduled notifications that have not gone out yet
+    private static final String PURGEABLE = "COALESCE(is_template, FALSE) = FALSE AND COALESCE(is_recurring, FALSE) = FALSE " +
+            "AND NOT (COALESCE(is_scheduled, FALSE) AND NOT COALESCE(is_sent, FALSE))";
+
+    private static final String INSERT_SQL = "INSERT INTO notifications (" +
+            "user_id, message, is_read, type, priority, title, description, category, action_url, action_text, " +
+            "expiry_date, scheduled_date, is_dismissible, is_urgent, is_silent, icon, color, is_archived, is_system, " +
+            "source, source_id, is_broadcast, broadcast_target, is_recurring, recurrence_pattern, recurrence_end_date, " +
+            "is_template, template_name, template_variables, is_scheduled, scheduled_send_date, is_sent, sent_at, sent_by, " +
+            "delivery_method, delivery_status, retry_count, max_retries, coalesced_count, created_at, updated_at, month_bucket" +
+            ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, " +
+            "?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String HISTORY_COLUMNS = "id, user_id, message, title, description, type, priority, category, " +
+            "source, source_id, action_url, is_broadcast, coalesced_count, read_at, read_by, created_at, month_bucket";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    /**
+     * Next page of recipient user ids for an audience, in ascending id order after {@code afterUserId}
+     */
+    public List<Long> findAudienceUserIds(BroadcastAudience audience, long afterUserId, int limit) {
+        switch (audience.getKind()) {
+            case ROLE:
+                return jdbcTemplate.queryForList(
+                        "SELECT u.id FROM users u WHERE u.role = ? AND " + ACTIVE_USER +
+                                " AND u.id > ? ORDER BY u.id LIMIT ?",
+                        Long.class, audience.getRole().name(), afterUserId, limit);
+            case DEPARTMENT:
+                return jdbcTemplate.queryForList(
+                        "SELECT u.id FROM users u WHERE u.department = ? AND " + ACTIVE_USER +
+                                " AND u.id > ? ORDER BY u.id LIMIT ?",
+                        Long.class, audience.getDepartment(), afterUserId, limit);
+            case COURSE:
+                return jdbcTemplate.queryForList(
+                        "SELECT DISTINCT s.user_id FROM enrollments e " +
+                                "JOIN students s ON s.id = e.student_id " +
+                                "JOIN users u ON u.id = s.user_id " +
+                                "WHERE e.course_id = ? AND e.status = 'ENROLLED' AND " + ACTIVE_USER +
+                                " AND s.user_id > ? ORDER BY s.user_id LIMIT ?",
+                        Long.class, audience.getCourseId(), afterUserId, limit);
+            case ALL:
+            default:
+                return jdbcTemplate.queryForList(
+                        "SELECT u.id FROM users u WHERE " + ACTIVE_USER + " AND u.id > ? ORDER BY u.id LIMIT ?",
+                        Long.class, afterUserId, limit);
+        }
+    }
+
+    /**
+     * Number of recipients an audience currently resolves to, used for job progress
+     */
+    public long countAudience(BroadcastAudience audience) {
+        Long count;
+        switch (audience.getKind()) {
+            case ROLE:
+                count = jdbcTemplate.queryForObject(
+                        "SELECT COUNT(*) FROM users u WHERE u.role = ? AND " + ACTIVE_USER,
+                        Long.class, audience.getRole().name());
+                break;
+            case DEPARTMENT:
+                count = jdbcTemplate.queryForObject(
+                        "SELECT COUNT(*) FROM users u WHERE u.department = ? AND " + ACTIVE_USER,
+                        Long.class, audience.getDepartment());
+                break;
+            case COURSE:
+                count = jdbcTemplate.queryForObject(
+                        "SELECT COUNT(DISTINCT s.user_id) FROM enrollments e " +
+                                "JOIN students s ON s.id = e.student_id " +
+                                "JOIN users u ON u.id = s.user_id " +
+                                "WHERE e.course_id = ? AND e.status = 'ENROLLED' AND " + ACTIVE_USER,
+                        Long.class, audience.getCourseId());
+                break;
+            case ALL:
+            default:
+                count = jdbcTemplate.queryForObject(
+                        "SELECT COUNT(*) FROM users u WHERE " + ACTIVE_USER, Long.class);
+        }
+        return count != null ? count : 0L;
+    }
+
+    /**
+     * What audience matching needs to know about a user; course ids are only loaded when asked for
+     */
+    public Optional<AudienceMember> findAudienceMember(Long userId, boolean withCourses) {
+        List<AudienceMember> members = jdbcTemplate.query(
+                "SELECT u.id, u.role, u.department, " + ACTIVE_USER + " AS active FROM users u WHERE u.id = ?",
+                (rs, rowNum) -> AudienceMember.builder()
+                        .userId(rs.getLong("id"))
+                        .role(rs.getString("role") != null ? Role.valueOf(rs.getString("role")) : null)
+                        .department(rs.getString("department"))
+                        .active(rs.getBoolean("active"))
+                        .courseIds(Set.of())
+                        .build(),
+                userId);
+        if (members.isEmpty()) {
+            return Optional.empty();
+        }
+        AudienceMember member = members.get(0);
+        if (withCourses) {
+            member.setCourseIds(new HashSet<>(jdbcTemplate.queryForList(
+                    "SELECT e.course_id FROM enrollments e JOIN students s ON s.id = e.student_id " +
+                            "WHERE s.user_id = ? AND e.status = 'ENROLLED'",
+                    Long.class, userId)));
+        }
+        return Optional.of(member);
+    }
+
+    /**
+     * Subset of the given user ids that exist, in a single IN query
+     */
+    public List<Long> findExistingUserIds(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return List.of();
+        }
+        return namedParameterJdbcTemplate.queryForList(
+                "SELECT id FROM users WHERE id IN (:ids)",
+                new MapSqlParameterSource("ids", userIds), Long.class);
+    }
+
+    /**
+     * Active flag of each given user id that exists, in a single IN query; ids missing from the map do not exist
+     */
+    public Map<Long, Boolean> findUserActiveFlags(Collection<Long> userIds) {
+        Map<Long, Boolean> flags = new LinkedHashMap<>();
+        if (userIds.isEmpty()) {
+            return flags;
+        }
+        namedParameterJdbcTemplate.query(
+                "SELECT u.id, " + ACTIVE_USER + " AS active FROM users u WHERE u.id IN (:ids)",
+                new MapSqlParameterSource("ids", userIds),
+                rs -> {
+                    flags.put(rs.getLong("id"), rs.getBoolean("active"));
+                });
+        return flags;
+    }
+
+    /**
+     * Insert one copy of {@code template} per user id as a single JDBC batch.
+     * The template is expected to have its defaults applied already.
+     * @return number of rows written
+     */
+    public int batchInsert(Notification template, List<Long> userIds, LocalDateTime now) {
+        return batchInsert(template, userIds, null, null, now);
+    }
+
+    /**
+     * Like {@link #batchInsert(Notification, List, LocalDateTime)} with a rendered title and message per
+     * recipient, aligned with {@code userIds}; a null list falls back to the template's value
+     */
+    public int batchInsert(Notification template, List<Long> userIds, List<String> titles, List<String> messages,
+                           LocalDateTime now) {
+        if (userIds.isEmpty()) {
+            return 0;
+        }
+        Timestamp createdAt = Timestamp.valueOf(now);
+        int monthBucket = Notification.monthBucketOf(now);
+        int[] results = jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                int c = 1;
+                ps.setLong(c++, userIds.get(i));
+                ps.setString(c++, messages != null ? messages.get(i) : template.getMessage());
+                ps.setBoolean(c++, template.getIsRead());
+                setEnum(ps, c++, template.getType());
+                setEnum(ps, c++, template.getPriority());
+                ps.setString(c++, titles != null ? titles.get(i) : template.getTitle());
+                ps.setString(c++, template.getDescription());
+                ps.setString(c++, template.getCategory());
+                ps.setString(c++, template.getActionUrl());
+                ps.setString(c++, template.getActionText());
+                setTimestamp(ps, c++, template.getExpiryDate());
+                setTimestamp(ps, c++, template.getScheduledDate());
+                ps.setBoolean(c++, template.getIsDismissible());
+                ps.setBoolean(c++, template.getIsUrgent());
+                ps.setBoolean(c++, template.getIsSilent());
+                ps.setString(c++, template.getIcon());
+                ps.setString(c++, template.getColor());
+                ps.setBoolean(c++, template.getIsArchived());
+                ps.setBoolean(c++, template.getIsSystem());
+                ps.setString(c++, template.getSource());
+                ps.setString(c++, template.getSourceId());
+                ps.setBoolean(c++, template.getIsBroadcast());
+                ps.setString(c++, template.getBroadcastTarget());
+                ps.setBoolean(c++, template.getIsRecurring());
+                ps.setString(c++, template.getRecurrencePattern());
+                setTimestamp(ps, c++, template.getRecurrenceEndDate());
+                ps.setBoolean(c++, template.getIsTemplate());
+                ps.setString(c++, template.getTemplateName());
+                ps.setString(c++, template.getTemplateVariables());
+                ps.setBoolean(c++, template.getIsScheduled());
+                setTimestamp(ps, c++, template.getScheduledSendDate());
+                ps.setBoolean(c++, template.getIsSent());
+                setTimestamp(ps, c++, template.getSentAt());
+                ps.setString(c++, template.getSentBy());
+                ps.setString(c++, template.getDeliveryMethod());
+                ps.setString(c++, template.getDeliveryStatus());
+                ps.setInt(c++, template.getRetryCount());
+                ps.setInt(c++, template.getMaxRetries());
+                ps.setInt(c++, template.getCoalescedCount());
+                ps.setTimestamp(c++, createdAt);
+                ps.setTimestamp(c++, createdAt);
+                ps.setInt(c, monthBucket);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return userIds.size();
+            }
+        });
+
+        // With rewriteBatchedStatements the driver reports SUCCESS_NO_INFO instead of row counts
+        int written = 0;
+        for (int result : results) {
+            if (result > 0) {
+                written += result;
+            } else if (result == Statement.SUCCESS_NO_INFO) {
+                written++;
+            }
+        }
+        return written;
+    }
+
+    /**
+     * Lock up to {@code limit} due scheduled notifications, oldest due first.
+     * Rows already locked by another node's claim are skipped rather than waited on,
+     * so concurrent schedulers split the backlog. Must run inside a transaction.
+     */
+    public List<Long> lockDueScheduled(LocalDateTime now, int limit) {
+        return jdbcTemplate.queryForList(
+                "SELECT id FROM notifications WHERE is_scheduled = TRUE AND scheduled_send_date <= ? " +
+                        "ORDER BY scheduled_send_date, id LIMIT ? FOR UPDATE SKIP LOCKED",
+                Long.class, Timestamp.valueOf(now), limit);
+    }
+
+    /**
+     * Mark claimed scheduled notifications as sent, with their delivery claimed by {@code claimedBy}
+     */
+    public int markScheduledSent(Collection<Long> ids, LocalDateTime now, String sentBy, String claimedBy) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("ids", ids)
+                .addValue("now", Timestamp.valueOf(now))
+                .addValue("sentBy", sentBy)
+                .addValue("claimedBy", claimedBy);
+        return namedParameterJdbcTemplate.update(
+                "UPDATE notifications SET is_scheduled = FALSE, is_sent = TRUE, sent_at = :now, sent_by = :sentBy, " +
+                        "claimed_by = :claimedBy, claimed_at = :now, updated_at = :now WHERE id IN (:ids)", params);
+    }
+
+    /**
+     * Scheduled notifications falling due in {@code [from, until]}, as id to send time in due order
+     */
+    public Map<Long, LocalDateTime> findUpcomingScheduled(LocalDateTime from, LocalDateTime until, int limit) {
+        Map<Long, LocalDateTime> upcoming = new LinkedHashMap<>();
+        jdbcTemplate.query(
+                "SELECT id, scheduled_send_date FROM notifications WHERE is_scheduled = TRUE " +
+                        "AND scheduled_send_date > ? AND scheduled_send_date <= ? " +
+                        "ORDER BY scheduled_send_date, id LIMIT ?",
+                rs -> {
+                    upcoming.put(rs.getLong(1), rs.getTimestamp(2).toLocalDateTime());
+                },
+                Timestamp.valueOf(from), Timestamp.valueOf(until), limit);
+        return upcoming;
+    }
+
+    /**
+     * Write a batch of delivery outcomes in one JDBC batch
+     */
+    public int batchUpdateDeliveryStatus(List<DeliveryStatusUpdate> updates) {
+        if (updates.isEmpty()) {
+            return 0;
+        }
+        int[] results = jdbcTemplate.batchUpdate(
+                "UPDATE notifications SET delivery_status = ?, delivery_error = ?, retry_count = ?, next_retry_date = ?, " +
+                        "is_sent = COALESCE(?, is_sent), sent_at = COALESCE(?, sent_at), " +
+                        "claimed_by = ?, claimed_at = ?, updated_at = ? WHERE id = ?",
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        DeliveryStatusUpdate update = updates.get(i);
+                        ps.setString(1, update.getDeliveryStatus());
+                        ps.setString(2, update.getDeliveryError());
+                        ps.setInt(3, update.getRetryCount());
+                        setTimestamp(ps, 4, update.getNextRetryDate());
+                        if (update.getSentAt() != null) {
+                            ps.setBoolean(5, true);
+                        } else {
+                            ps.setNull(5, Types.BOOLEAN);
+                        }
+                        setTimestamp(ps, 6, update.getSentAt());
+                        ps.setString(7, update.getClaimedBy());
+                        setTimestamp(ps, 8, update.getClaimedBy() != null ? update.getUpdatedAt() : null);
+                        setTimestamp(ps, 9, update.getUpdatedAt());
+                        ps.setLong(10, update.getNotificationId());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return updates.size();
+                    }
+                });
+        int written = 0;
+        for (int result : results) {
+            written += result == Statement.SUCCESS_NO_INFO ? 1 : Math.max(result, 0);
+        }
+        return written;
+    }
+
+    /**
+     * Subset of the given notification ids that are currently read
+     */
+    public List<Long> findReadIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return namedParameterJdbcTemplate.queryForList(
+                "SELECT id FROM notifications WHERE is_read = TRUE AND id IN (:ids)",
+                new MapSqlParameterSource("ids", ids), Long.class);
+    }
+
+    /**
+     * Fold absorbed duplicates into their coalesced rows in one JDBC batch.
+     * Each row takes the latest content and becomes unread again so the user sees the update.
+     * @return number of rows updated
+     */
+    public int batchApplyCoalesced(List<CoalescedNotificationUpdate> updates) {
+        if (updates.isEmpty()) {
+            return 0;
+        }
+        int[] results = jdbcTemplate.batchUpdate(
+                "UPDATE notifications SET coalesced_count = COALESCE(coalesced_count, 1) + ?, " +
+                        "title = COALESCE(?, title), message = ?, is_read = FALSE, read_at = NULL, read_by = NULL, " +
+                        "updated_at = ? WHERE id = ?",
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        CoalescedNotificationUpdate update = updates.get(i);
+                        ps.setInt(1, update.getAdditional());
+                        ps.setString(2, update.getTitle());
+                        ps.setString(3, update.getMessage());
+                        setTimestamp(ps, 4, update.getUpdatedAt());
+                        ps.setLong(5, update.getNotificationId());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return updates.size();
+                    }
+                });
+        int written = 0;
+        for (int result : results) {
+            written += result == Statement.SUCCESS_NO_INFO ? 1 : Math.max(result, 0);
+        }
+        return written;
+    }
+
+    /**
+     * Next page of users with notifications waiting for a digest, in ascending id order after {@code afterUserId}
+     */
+    public List<Long> findDigestUserIds(String digestStatus, long afterUserId, int limit) {
+        return jdbcTemplate.queryForList(
+                "SELECT DISTINCT user_id FROM notifications WHERE delivery_status = ? AND user_id > ? " +
+                        "ORDER BY user_id LIMIT ?",
+                Long.class, digestStatus, afterUserId, limit);
+    }
+
+    /**
+     * Lock the digest-pending notifications of the given users; rows claimed by another node are skipped
+     */
+    public List<Long> lockDigestPending(String digestStatus, Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return List.of();
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("status", digestStatus)
+                .addValue("users", userIds);
+        return namedParameterJdbcTemplate.queryForList(
+                "SELECT id FROM notifications WHERE delivery_status = :status AND user_id IN (:users) " +
+                        "ORDER BY user_id, id FOR UPDATE SKIP LOCKED", params, Long.class);
+    }
+
+    /**
+     * Mark notifications as delivered by a digest
+     */
+    public int markDigested(Collection<Long> ids, String deliveredStatus, LocalDateTime now, String sentBy) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("ids", ids)
+                .addValue("status", deliveredStatus)
+                .addValue("now", Timestamp.valueOf(now))
+                .addValue("sentBy", sentBy);
+        return namedParameterJdbcTemplate.update(
+                "UPDATE notifications SET delivery_status = :status, is_sent = TRUE, sent_at = :now, sent_by = :sentBy, " +
+                        "updated_at = :now WHERE id IN (:ids)", params);
+    }
+
+    /**
+     * Lock the next page of notifications whose delivery was accepted but never finished and that
+     * {@code nodeId} may take over: unclaimed, claimed by {@code nodeId} itself (e.g. before a restart)
+     * or claimed by a node that has not renewed its claim since {@code staleBefore}.
+     * Rows another node is working on are skipped, not waited for; must run in a transaction.
+     */
+    public List<Long> lockClaimableUndelivered(long afterId, int limit, String nodeId, LocalDateTime staleBefore) {
+        return jdbcTemplate.queryForList(
+                "SELECT id FROM notifications WHERE delivery_status IN ('PENDING', 'RETRYING', 'SENDING') " +
+                        "AND is_scheduled = FALSE AND id > ? " +
+                        "AND (claimed_by IS NULL OR claimed_by = ? OR claimed_at IS NULL OR claimed_at < ?) " +
+                        "ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED",
+                Long.class, afterId, nodeId, Timestamp.valueOf(staleBefore), limit);
+    }
+
+    /**
+     * Record that {@code nodeId} is now delivering these notifications
+     */
+    public int markClaimed(Collection<Long> ids, String nodeId, LocalDateTime now) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("ids", ids)
+                .addValue("nodeId", nodeId)
+                .addValue("now", Timestamp.valueOf(now));
+        return namedParameterJdbcTemplate.update(
+                "UPDATE notifications SET delivery_status = 'SENDING', claimed_by = :nodeId, claimed_at = :now " +
+                        "WHERE id IN (:ids)", params);
+    }
+
+    /**
+     * Extend this node's claim on deliveries it is still holding
+     */
+    public int renewClaims(Collection<Long> ids, String nodeId, LocalDateTime now) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("ids", ids)
+                .addValue("nodeId", nodeId)
+                .addValue("now", Timestamp.valueOf(now));
+        return namedParameterJdbcTemplate.update(
+                "UPDATE notifications SET claimed_at = :now WHERE claimed_by = :nodeId AND id IN (:ids)", params);
+    }
+
+    /**
+     * Fill in month buckets for up to {@code limit} rows written before the column existed
+     * @return number of rows updated
+     */
+    public int backfillMonthBuckets(int limit) {
+        List<Long> ids = jdbcTemplate.queryForList(
+                "SELECT id FROM notifications WHERE month_bucket IS NULL LIMIT ?", Long.class, limit);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return namedParameterJdbcTemplate.update(
+                "UPDATE notifications SET month_bucket = YEAR(created_at) * 100 + MONTH(created_at) WHERE id IN (:ids)",
+                new MapSqlParameterSource("ids", ids));
+    }
+
+    /**
+     * Up to {@code limit} ids from month buckets strictly older than {@code bucket}
+     */
+    public List<Long> findIdsInBucketsBefore(int bucket, int limit) {
+        return jdbcTemplate.queryForList(
+                "SELECT id FROM notifications WHERE month_bucket < ? AND " + PURGEABLE + " LIMIT ?", Long.class, bucket, limit);
+    }
+
+    /**
+     * Up to {@code limit} ids of one type created before {@code cutoff}; {@code cutoffBucket} is the cutoff's month
+     */
+    public List<Long> findIdsOfTypeCreatedBefore(String type, int cutoffBucket, LocalDateTime cutoff, int limit) {
+        return jdbcTemplate.queryForList(
+                "SELECT id FROM notifications WHERE month_bucket <= ? AND type = ? AND created_at < ? " +
+                        "AND " + PURGEABLE + " LIMIT ?",
+                Long.class, cutoffBucket, type, Timestamp.valueOf(cutoff), limit);
+    }
+
+    /**
+     * Up to {@code limit} ids created before {@code cutoff}, regardless of type
+     */
+    public List<Long> findIdsCreatedBefore(int cutoffBucket, LocalDateTime cutoff, int limit) {
+        return jdbcTemplate.queryForList(
+                "SELECT id FROM notifications WHERE month_bucket <= ? AND created_at < ? AND " + PURGEABLE + " LIMIT ?",
+                Long.class, cutoffBucket, Timestamp.valueOf(cutoff), limit);
+    }
+
+    /**
+     * Up to {@code limit} ids whose expiry date has passed
+     */
+    public List<Long> findExpiredIds(LocalDateTime now, int limit) {
+        return jdbcTemplate.queryForList(
+                "SELECT id FROM notifications WHERE expiry_date < ? AND " + PURGEABLE + " LIMIT ?",
+                Long.class, Timestamp.valueOf(now), limit);
+    }
+
+    public int deleteByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return namedParameterJdbcTemplate.update(
+                "DELETE FROM notifications WHERE id IN (:ids)", new MapSqlParameterSource("ids", ids));
+    }
+
+    /**
+     * Notification counts of the given users that hold more than {@code cap} rows, in one grouped query
+     */
+    public Map<Long, Long> findInboxSizesOver(Collection<Long> userIds, int cap) {
+        if (userIds.isEmpty()) {
+            return Map.of();
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("users", userIds)
+                .addValue("cap", cap);
+        Map<Long, Long> sizes = new HashMap<>();
+        namedParameterJdbcTemplate.query(
+                "SELECT user_id, COUNT(*) AS total FROM notifications WHERE user_id IN (:users) " +
+                        "GROUP BY user_id HAVING COUNT(*) > :cap",
+                params, rs -> {
+                    sizes.put(rs.getLong("user_id"), rs.getLong("total"));
+                });
+        return sizes;
+    }
+
+    /**
+     * Lock up to {@code limit} of a user's oldest read notifications; templates and recurring rows stay in the inbox
+     */
+    public List<Long> lockOldestRead(Long userId, int limit) {
+        return jdbcTemplate.queryForList(
+                "SELECT id FROM notifications WHERE user_id = ? AND is_read = TRUE " +
+                        "AND COALESCE(is_template, FALSE) = FALSE AND COALESCE(is_recurring, FALSE) = FALSE " +
+                        "ORDER BY created_at, id LIMIT ? FOR UPDATE",
+                Long.class, userId, limit);
+    }
+
+    /**
+     * Copy read notifications into {@code notification_history} and delete them from the inbox
+     * @return number of notifications moved
+     */
+    public int moveToHistory(Collection<Long> ids, LocalDateTime movedAt) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("ids", ids)
+                .addValue("movedAt", Timestamp.valueOf(movedAt));
+        namedParameterJdbcTemplate.update(
+                "INSERT INTO notification_history (" + HISTORY_COLUMNS + ", moved_at) " +
+                        "SELECT " + HISTORY_COLUMNS + ", :movedAt FROM notifications WHERE id IN (:ids) AND is_read = TRUE",
+                params);
+        return namedParameterJdbcTemplate.update(
+                "DELETE FROM notifications WHERE id IN (:ids) AND is_read = TRUE", params);
+    }
+
+    /**
+     * Up to {@code limit} history ids of one type created before {@code cutoff}; {@code cutoffBucket} is the cutoff's month
+     */
+    public List<Long> findHistoryIdsOfTypeCreatedBefore(String type, int cutoffBucket, LocalDateTime cutoff, int limit) {
+        return jdbcTemplate.queryForList(
+                "SELECT id FROM notification_history WHERE month_bucket <= ? AND type = ? AND created_at < ? LIMIT ?",
+                Long.class, cutoffBucket, type, Timestamp.valueOf(cutoff), limit);
+    }
+
+    public int deleteHistoryByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return namedParameterJdbcTemplate.update(
+                "DELETE FROM notification_history WHERE id IN (:ids)", new MapSqlParameterSource("ids", ids));
+    }
+
+    private static void setTimestamp(PreparedStatement ps, int index, LocalDateTime value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.TIMESTAMP);
+        } else {
+            ps.setTimestamp(index, Timestamp.valueOf(value));
+        }
+    }
+
+    private static void setEnum(PreparedStatement ps, int index, Enum<?> value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.VARCHAR);
+        } else {
+            ps.setString(index, value.name());
+        }
+    }
+}
@@ -3,15 +3,23 @@ package com.smartcampus.repository;
 import com.smartcampus.entity.Notification;
 import com.smartcampus.entity.NotificationPriority;
 import com.smartcampus.entity.NotificationType;
+import com.smartcampus.util.EntityStreams;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
@@ -28,6 +36,37 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
     @Query("SELECT n FROM Notification n WHERE n.user.id = :userId")
     Page<Notification> findByUserId(@Param("userId") Long userId, Pageable pageable);
     
+    // Inbox keyset pagination, newest first; served by the (user_id, [is_read,] created_at, id) indexes
+    @Query("SELECT n FROM Notification n WHERE n.user.id = :userId ORDER BY n.createdAt DESC, n.id DESC")
+    List<Notification> findInbox(@Param("userId") Long userId, Limit limit);
+    
+    @Query("SELECT n FROM Notification n WHERE n.user.id = :userId AND " +
+           "(n.createdAt < :createdAt OR (n.createdAt = :createdAt AND n.id < :id)) " +
+           "ORDER BY n.createdAt DESC, n.id DESC")
+    List<Notification> findInboxAfter(@Param("userId") Long userId, @Param("createdAt") LocalDateTime createdAt,
+                                      @Param("id") Long id, Limit limit);
+    
+    @Query("SELECT n FROM Notification n WHERE n.user.id = :userId AND n.isRead = :isRead " +
+           "ORDER BY n.createdAt DESC, n.id DESC")
+    List<Notification> findInboxByIsRead(@Param("userId") Long userId, @Param("isRead") Boolean isRead, Limit limit);
+    
+    @Query("SELECT n FROM Notification n WHERE n.user.id = :userId AND n.isRead = :isRead AND " +
+           "(n.createdAt < :createdAt OR (n.createdAt = :createdAt AND n.id < :id)) " +
+           "ORDER BY n.createdAt DESC, n.id DESC")
+    List<Notification> findInboxByIsReadAfter(@Param("userId") Long userId, @Param("isRead") Boolean isRead,
+                                              @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+                                              Limit limit);
+    
+    // Every statistics dimension in one pass; see NotificationStatsStore
+    @Query("SELECT n.type, n.priority, n.category, n.source, n.isRead, n.isUrgent, n.isSystem, n.isArchived, COUNT(n) " +
+           "FROM Notification n " +
+           "GROUP BY n.type, n.priority, n.category, n.source, n.isRead, n.isUrgent, n.isSystem, n.isArchived")
+    List<Object[]> countByStatsDimensions();
+    
+    // Load a batch together with recipients, avoiding one user query per notification
+    @Query("SELECT n FROM Notification n JOIN FETCH n.user WHERE n.id IN :ids")
+    List<Notification> findAllWithUserByIdIn(@Param("ids") Collection<Long> ids);
+    
     List<Notification> findByUser_IdAndIsRead(Long userId, Boolean isRead);
     
     // Convenience method with simplified naming
@@ -257,6 +296,11 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
     // Convenience method with simplified naming
     @Query("SELECT COUNT(n) FROM Notification n WHERE n.user.id = :userId AND n.isRead = :isRead")
     Long countByUserIdAndIsRead(@Param("userId") Long userId, @Param("isRead") Boolean isRead);
+
+    // Unread notifications the user has received; scheduled ones are not counted until sent
+    @Query("SELECT COUNT(n) FROM Notification n WHERE n.user.id = :userId AND n.isRead = false " +
+           "AND (n.isScheduled IS NULL OR n.isScheduled = false)")
+    Long countDeliveredUnreadByUserId(@Param("userId") Long userId);
     
     @Query("SELECT COUNT(n) FROM Notification n WHERE n.user.id = :userId AND n.type = :type")
     Long countByUser_IdAndType(@Param("userId") Long userId, @Param("type") NotificationType type);
@@ -369,6 +413,41 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
     @Query("SELECT COUNT(n) FROM Notification n WHERE n.isTemplate = true")
     Long countTemplates();
 
-    void deleteByCreatedAtBefore(LocalDateTime date);
-    void deleteByMessageContaining(String message);
-} 
\ No newline at end of file
+    // Bulk state transitions - one set-based statement each, returning the number of affected rows
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Notification n SET n.isRead = true, n.readAt = :now, n.readBy = :readBy, n.updatedAt = :now " +
+           "WHERE n.user.id = :userId AND n.isRead = false AND (n.isScheduled IS NULL OR n.isScheduled = false)")
+    int markAllAsReadByUserId(@Param("userId") Long userId, @Param("readBy") String readBy, @Param("now") LocalDateTime now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Notification n SET n.isRead = false, n.readAt = null, n.readBy = null, n.updatedAt = :now " +
+           "WHERE n.user.id = :userId AND n.isRead = true AND (n.isScheduled IS NULL OR n.isScheduled = false)")
+    int markAllAsUnreadByUserId(@Param("userId") Long userId, @Param("now") LocalDateTime now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Notification n SET n.isArchived = true, n.archiveDate = :now, n.archivedBy = :archivedBy, " +
+           "n.archiveReason = :archiveReason, n.updatedAt = :now WHERE n.user.id = :userId AND n.isArchived = false")
+    int archiveAllByUserId(@Param("userId") Long userId, @Param("archivedBy") String archivedBy,
+                           @Param("archiveReason") String archiveReason, @Param("now") LocalDateTime now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Notification n SET n.isArchived = false, n.archiveDate = null, n.archivedBy = null, " +
+           "n.archiveReason = null, n.updatedAt = :now WHERE n.user.id = :userId AND n.isArchived = true")
+    int unarchiveAllByUserId(@Param("userId") Long userId, @Param("now") LocalDateTime now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Notification n SET n.isRecurring = false, n.updatedAt = :now " +
+           "WHERE n.recurrenceEndDate IS NOT NULL AND n.recurrenceEndDate < :now AND n.isRecurring = true")
+    int endExpiredRecurring(@Param("now") LocalDateTime now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Notification n WHERE n.message LIKE CONCAT('%', :message, '%')")
+    int deleteByMessageContaining(@Param("message") String message);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EntityStreams.FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT n FROM Notification n LEFT JOIN FETCH n.user ORDER BY n.id")
+    Stream<Notification> streamAll();
+}
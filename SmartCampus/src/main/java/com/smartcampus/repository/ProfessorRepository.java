@@ -48,6 +48,9 @@ public interface ProfessorRepository extends JpaRepository<Professor, Long> {
     @Query("SELECT p FROM Professor p WHERE p.user.email = :email")
     Optional<Professor> findByUserEmail(@Param("email") String email);
     
+    @Query("SELECT p.id FROM Professor p WHERE p.user.id = :userId")
+    Optional<Long> findIdByUserId(@Param("userId") Long userId);
+    
     // Convenience method to check if professor exists by user ID
     @Query("SELECT COUNT(p) > 0 FROM Professor p WHERE p.user.id = :userId")
     boolean existsByUserId(@Param("userId") Long userId);
@@ -0,0 +1,25 @@
+package com.smartcampus.repository;
+
+import com.smartcampus.entity.SharedBroadcast;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface SharedBroadcastRepository extends JpaRepository<SharedBroadcast, Long> {
+
+    @Query("SELECT b FROM SharedBroadcast b WHERE b.expiryDate IS NULL OR b.expiryDate > :now ORDER BY b.createdAt DESC, b.id DESC")
+    List<SharedBroadcast> findActive(@Param("now") LocalDateTime now);
+
+    // Serialises bitmap merges from several nodes
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM SharedBroadcast b WHERE b.id = :id")
+    Optional<SharedBroadcast> findByIdForUpdate(@Param("id") Long id);
+}
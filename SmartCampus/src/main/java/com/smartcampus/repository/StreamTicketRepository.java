@@ -0,0 +1,23 @@
+package com.smartcampus.repository;
+
+import com.smartcampus.entity.StreamTicket;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface StreamTicketRepository extends JpaRepository<StreamTicket, String> {
+
+    // Only one caller can delete the row, which makes a ticket single-use across nodes
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM StreamTicket t WHERE t.ticketHash = :ticketHash AND t.expiresAt > :now")
+    int consume(@Param("ticketHash") String ticketHash, @Param("now") LocalDateTime now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM StreamTicket t WHERE t.expiresAt <= :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
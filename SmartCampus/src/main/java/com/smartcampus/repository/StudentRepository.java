@@ -38,6 +38,9 @@ public interface StudentRepository extends JpaRepository<Student, Long> {
     @Query("SELECT s FROM Student s WHERE s.user.email = :email")
     Optional<Student> findByUserEmail(@Param("email") String email);
     
+    @Query("SELECT s.id FROM Student s WHERE s.user.id = :userId")
+    Optional<Long> findIdByUserId(@Param("userId") Long userId);
+    
     @Query("SELECT s FROM Student s WHERE s.major = :major AND s.status = :status")
     List<Student> findByMajorAndStatus(@Param("major") String major, @Param("status") StudentStatus status);
     
@@ -0,0 +1,311 @@
+package com.smartcampus.service;
+
+import com.smartcampus.dto.AnnouncementDTO;
+import com.smartcampus.dto.CursorPageDTO;
+import com.smartcampus.entity.Announcement;
+import com.smartcampus.entity.AnnouncementPriority;
+import com.smartcampus.entity.AnnouncementStatus;
+import com.smartcampus.entity.AnnouncementVisibility;
+import com.smartcampus.mapper.AnnouncementMapper;
+import com.smartcampus.repository.AnnouncementJdbcRepository;
+import com.smartcampus.repository.AnnouncementRepository;
+import com.smartcampus.util.AnnouncementFeedCursor;
+import com.smartcampus.util.TransactionCallbacks;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Merged announcement feed over a set of courses, ordered pinned first, then by priority,
+ * newest first within each.
+ * Each course's head (its first {@code head-size} feed items) is cached already sorted, so a page
+ * is a k-way merge of in-memory lists; courses missing from the cache are loaded together in one
+ * windowed query that returns at most {@code head-size + 1} rows per course. Posting, editing or
+ * archiving an announcement drops its course's head after commit. Pages that go past a truncated
+ * head read just the next {@code pageSize + 1} items of that course with a keyset query.
+ */
+@Service
+@Slf4j
+public class AnnouncementFeed {
+
+    private static final Comparator<FeedItem> ORDER = Comparator
+            .comparing((FeedItem item) -> item.pinned).reversed()
+            .thenComparing(Comparator.comparingInt((FeedItem item) -> item.priorityRank).reversed())
+            .thenComparing((FeedItem item) -> item.createdAt, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing((FeedItem item) -> item.id, Comparator.reverseOrder());
+
+    private final AnnouncementRepository announcementRepository;
+    private final AnnouncementJdbcRepository announcementJdbcRepository;
+    private final AnnouncementMapper announcementMapper;
+    private final AnnouncementViewCounter announcementViewCounter;
+    private final TransactionTemplate readTransaction;
+    private final int headSize;
+    private final long headTtlMillis;
+    private final int maxCourses;
+
+    private final Map<Long, CourseHead> heads = new ConcurrentHashMap<>();
+    // Bumped by every invalidation so a load that raced with a write is not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    public AnnouncementFeed(AnnouncementRepository announcementRepository,
+                            AnnouncementJdbcRepository announcementJdbcRepository,
+                            AnnouncementMapper announcementMapper,
+                            AnnouncementViewCounter announcementViewCounter,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${announcements.feed.head-size:50}") int headSize,
+                            @Value("${announcements.feed.head-ttl:60000}") long headTtlMillis,
+                            @Value("${announcements.feed.max-courses:5000}") int maxCourses) {
+        this.announcementRepository = announcementRepository;
+        this.announcementJdbcRepository = announcementJdbcRepository;
+        this.announcementMapper = announcementMapper;
+        this.announcementViewCounter = announcementViewCounter;
+        this.headSize = headSize;
+        this.headTtlMillis = headTtlMillis;
+        this.maxCourses = maxCourses;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+    }
+
+    /**
+     * One page of the merged feed of {@code courseIds}
+     * @param after cursor returned with the previous page, or null for the first page
+     * @throws IllegalArgumentException if the cursor is invalid
+     */
+    public CursorPageDTO<AnnouncementDTO> page(Collection<Long> courseIds, String after, int pageSize) {
+        AnnouncementFeedCursor cursor = after != null && !after.isBlank() ? AnnouncementFeedCursor.decode(after) : null;
+        FeedItem from = cursor == null ? null
+                : new FeedItem(cursor.isPinned(), cursor.getPriorityRank(), cursor.getCreatedAt(), cursor.getId(), null, null);
+        LocalDateTime now = LocalDateTime.now();
+
+        // One extra item tells us whether there is another page
+        int wanted = pageSize + 1;
+        Map<Long, CourseHead> courseHeads = heads(new LinkedHashSet<>(courseIds));
+        List<List<FeedItem>> streams = new ArrayList<>(courseHeads.size());
+        for (Map.Entry<Long, CourseHead> entry : courseHeads.entrySet()) {
+            CourseHead head = entry.getValue();
+            List<FeedItem> items = head.items;
+            int start = firstAfter(items, from);
+            if (head.truncated && items.size() - start < wanted) {
+                // The page may run past the cached head
+                items = loadAfter(entry.getKey(), from, wanted);
+                start = 0;
+            }
+            if (start < items.size()) {
+                streams.add(items.subList(start, items.size()));
+            }
+        }
+
+        List<FeedItem> merged = merge(streams, wanted, now);
+        boolean hasMore = merged.size() > pageSize;
+        List<FeedItem> page = hasMore ? merged.subList(0, pageSize) : merged;
+        List<AnnouncementDTO> dtos = new ArrayList<>(page.size());
+        for (FeedItem item : page) {
+            dtos.add(item.dto);
+        }
+        String nextCursor = null;
+        if (hasMore) {
+            FeedItem last = page.get(page.size() - 1);
+            nextCursor = new AnnouncementFeedCursor(last.pinned, last.priorityRank, last.createdAt, last.id).encode();
+        }
+        return CursorPageDTO.<AnnouncementDTO>builder()
+                .items(dtos)
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .limit(pageSize)
+                .build();
+    }
+
+    /**
+     * Drop a course's cached head once the current transaction commits
+     */
+    public void invalidate(Long courseId) {
+        if (courseId == null) {
+            return;
+        }
+        TransactionCallbacks.afterCommit(() -> {
+            generation.incrementAndGet();
+            heads.remove(courseId);
+        });
+    }
+
+    public int getCachedCourseCount() {
+        return heads.size();
+    }
+
+    /**
+     * k-way merge of sorted streams, skipping anything that expired since its head was cached
+     */
+    private List<FeedItem> merge(List<List<FeedItem>> streams, int limit, LocalDateTime now) {
+        PriorityQueue<int[]> queue = new PriorityQueue<>(Math.max(1, streams.size()),
+                (a, b) -> ORDER.compare(streams.get(a[0]).get(a[1]), streams.get(b[0]).get(b[1])));
+        for (int s = 0; s < streams.size(); s++) {
+            queue.add(new int[]{s, 0});
+        }
+        List<FeedItem> merged = new ArrayList<>(limit);
+        while (merged.size() < limit && !queue.isEmpty()) {
+            int[] position = queue.poll();
+            List<FeedItem> stream = streams.get(position[0]);
+            FeedItem item = stream.get(position[1]);
+            if (item.expiryDate == null || item.expiryDate.isAfter(now)) {
+                merged.add(item);
+            }
+            if (position[1] + 1 < stream.size()) {
+                position[1]++;
+                queue.add(position);
+            }
+        }
+        return merged;
+    }
+
+    private Map<Long, CourseHead> heads(Collection<Long> courseIds) {
+        long now = System.currentTimeMillis();
+        Map<Long, CourseHead> result = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long courseId : courseIds) {
+            CourseHead head = heads.get(courseId);
+            if (head != null && head.loadedAt + headTtlMillis > now) {
+                result.put(courseId, head);
+            } else {
+                missing.add(courseId);
+            }
+        }
+        if (missing.isEmpty()) {
+            return result;
+        }
+
+        long loadGeneration = generation.get();
+        Map<Long, List<FeedItem>> loaded = load(missing, headSize + 1);
+        if (heads.size() + missing.size() > maxCourses) {
+            heads.clear();
+        }
+        for (Long courseId : missing) {
+            List<FeedItem> items = loaded.getOrDefault(courseId, List.of());
+            boolean truncated = items.size() > headSize;
+            CourseHead head = new CourseHead(truncated ? List.copyOf(items.subList(0, headSize)) : items, truncated, now);
+            result.put(courseId, head);
+            if (generation.get() == loadGeneration) {
+                heads.put(courseId, head);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Sorted feed items per course, at most {@code perCourse} each
+     */
+    private Map<Long, List<FeedItem>> load(List<Long> courseIds, int perCourse) {
+        return toFeedItems(readTransaction.execute(status -> fetch(
+                announcementJdbcRepository.findFeedHeadIds(courseIds, AnnouncementStatus.ACTIVE,
+                        AnnouncementVisibility.LIVE, perCourse))));
+    }
+
+    /**
+     * Up to {@code limit} sorted feed items of one course that come after {@code from}
+     */
+    private List<FeedItem> loadAfter(Long courseId, FeedItem from, int limit) {
+        if (from == null) {
+            return load(List.of(courseId), limit).getOrDefault(courseId, List.of());
+        }
+        return toFeedItems(readTransaction.execute(status -> fetch(
+                announcementJdbcRepository.findFeedIdsAfter(courseId, AnnouncementStatus.ACTIVE, AnnouncementVisibility.LIVE,
+                        from.pinned, from.priorityRank, from.createdAt, from.id, limit))))
+                .getOrDefault(courseId, List.of());
+    }
+
+    private List<Announcement> fetch(List<Long> ids) {
+        return ids.isEmpty() ? List.of() : announcementRepository.findFeedByIdIn(ids);
+    }
+
+    private Map<Long, List<FeedItem>> toFeedItems(List<Announcement> announcements) {
+        Map<Long, List<FeedItem>> byCourse = new HashMap<>();
+        for (Announcement announcement : announcements) {
+            AnnouncementDTO dto = announcementMapper.toDto(announcement);
+            long pending = announcementViewCounter.pending(announcement.getId());
+            if (pending > 0) {
+                dto.setViewCount((int) ((dto.getViewCount() != null ? dto.getViewCount() : 0) + pending));
+            }
+            byCourse.computeIfAbsent(announcement.getCourse().getId(), key -> new ArrayList<>()).add(new FeedItem(
+                    Boolean.TRUE.equals(announcement.getIsPinned()),
+                    rankOf(announcement.getPriority()),
+                    announcement.getCreatedAt(),
+                    announcement.getId(),
+                    announcement.getExpiryDate(),
+                    dto));
+        }
+        Map<Long, List<FeedItem>> sorted = new HashMap<>();
+        byCourse.forEach((courseId, items) -> {
+            items.sort(ORDER);
+            sorted.put(courseId, List.copyOf(items));
+        });
+        return sorted;
+    }
+
+    private static int rankOf(AnnouncementPriority priority) {
+        return (priority != null ? priority : AnnouncementPriority.NORMAL).ordinal();
+    }
+
+    /**
+     * Index of the first item that sorts after {@code from}
+     */
+    private static int firstAfter(List<FeedItem> items, FeedItem from) {
+        if (from == null) {
+            return 0;
+        }
+        int low = 0;
+        int high = items.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (ORDER.compare(items.get(mid), from) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static final class FeedItem {
+        private final boolean pinned;
+        private final int priorityRank;
+        private final LocalDateTime createdAt;
+        private final Long id;
+        private final LocalDateTime expiryDate;
+        private final AnnouncementDTO dto;
+
+        private FeedItem(boolean pinned, int priorityRank, LocalDateTime createdAt, Long id,
+                         LocalDateTime expiryDate, AnnouncementDTO dto) {
+            this.pinned = pinned;
+            this.priorityRank = priorityRank;
+            this.createdAt = createdAt;
+            this.id = id;
+            this.expiryDate = expiryDate;
+            this.dto = dto;
+        }
+    }
+
+    private static final class CourseHead {
+        private final List<FeedItem> items;
+        private final boolean truncated;
+        private final long loadedAt;
+
+        private CourseHead(List<FeedItem> items, boolean truncated, long loadedAt) {
+            this.items = items;
+            this.truncated = truncated;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
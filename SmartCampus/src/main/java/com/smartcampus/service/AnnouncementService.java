@@ -1,21 +1,27 @@
 package com.smartcampus.service;
 
 import com.smartcampus.dto.AnnouncementDTO;
+import com.smartcampus.dto.AttachmentDTO;
+import com.smartcampus.dto.CursorPageDTO;
 import com.smartcampus.entity.AnnouncementPriority;
 import com.smartcampus.entity.AnnouncementStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.io.InputStream;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface AnnouncementService {
     List<AnnouncementDTO> getAllAnnouncements();
+    void streamAllAnnouncements(Consumer<AnnouncementDTO> action);
     Page<AnnouncementDTO> getAllAnnouncementsPaginated(Pageable pageable);
     AnnouncementDTO getAnnouncementById(Long id);
     AnnouncementDTO createAnnouncement(AnnouncementDTO announcementDTO);
     AnnouncementDTO updateAnnouncement(Long id, AnnouncementDTO announcementDTO);
     void deleteAnnouncement(Long id);
+    CursorPageDTO<AnnouncementDTO> getFeed(Long userId, String after, int limit);
     List<AnnouncementDTO> getAnnouncementsByCourseId(Long courseId);
     Page<AnnouncementDTO> getAnnouncementsByCourseIdPaginated(Long courseId, Pageable pageable);
     List<AnnouncementDTO> getAnnouncementsByPostedById(Long postedById);
@@ -64,6 +70,8 @@ public interface AnnouncementService {
     List<AnnouncementDTO> getExpiredRecurringAnnouncementsByCourseId(Long courseId);
     List<AnnouncementDTO> getAnnouncementsWithAttachments();
     List<AnnouncementDTO> getAnnouncementsWithAttachmentsByCourseId(Long courseId);
+    AnnouncementDTO storeAttachment(Long id, InputStream content, String fileName, String contentType);
+    AttachmentDTO getAttachment(Long id);
     List<AnnouncementDTO> getMostViewedAnnouncements();
     List<AnnouncementDTO> getMostViewedAnnouncementsByCourseId(Long courseId);
     List<AnnouncementDTO> getRecentAnnouncements(LocalDateTime since);
@@ -0,0 +1,237 @@
+package com.smartcampus.service;
+
+import com.smartcampus.dto.AnnouncementDTO;
+import com.smartcampus.entity.Announcement;
+import com.smartcampus.mapper.AnnouncementMapper;
+import com.smartcampus.repository.AnnouncementRepository;
+import com.smartcampus.util.DaemonThreads;
+import com.smartcampus.util.TransactionCallbacks;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Most-viewed announcements, globally and per course, answered from memory.
+ * Each board holds the top {@code 2 * size} candidates plus a floor: nothing outside the board has
+ * more views than the floor. After each view-count flush the touched announcements' stored counts
+ * are read back in one query. Candidates are updated in place, and an outsider that climbs above
+ * the floor, an edit, an archive or a delete makes the board reload on its next read. A periodic
+ * merge reloads every board so views flushed by other nodes are picked up. Archived announcements
+ * are not ranked.
+ */
+@Service
+@Slf4j
+public class AnnouncementTopViews {
+
+    private static final Comparator<Entry> ORDER = Comparator
+            .comparingLong((Entry entry) -> entry.views).reversed()
+            .thenComparing((Entry entry) -> entry.dto.getId(), Comparator.reverseOrder());
+
+    private final AnnouncementRepository announcementRepository;
+    private final AnnouncementMapper announcementMapper;
+    private final TransactionTemplate readTransaction;
+    private final int size;
+    private final int maxCourses;
+
+    private volatile Board global;
+    private final Map<Long, Board> courses = new ConcurrentHashMap<>();
+    // Bumped by every invalidation so a load that raced with a change is not cached
+    private final AtomicLong generation = new AtomicLong();
+    private final ScheduledExecutorService merger;
+
+    public AnnouncementTopViews(AnnouncementRepository announcementRepository,
+                                AnnouncementMapper announcementMapper,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${announcements.top-views.size:50}") int size,
+                                @Value("${announcements.top-views.merge-interval:60000}") long mergeIntervalMillis,
+                                @Value("${announcements.top-views.max-courses:5000}") int maxCourses) {
+        this.announcementRepository = announcementRepository;
+        this.announcementMapper = announcementMapper;
+        this.size = size;
+        this.maxCourses = maxCourses;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+
+        this.merger = DaemonThreads.scheduler("announcement-top-views");
+        // The first run builds the global board at startup
+        this.merger.scheduleWithFixedDelay(this::mergeQuietly, 0, mergeIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Most-viewed announcements across all courses, with the view counts stored so far
+     */
+    public List<AnnouncementDTO> top() {
+        Board board = global;
+        if (board == null || board.stale) {
+            board = load(null);
+        }
+        return board.top(size);
+    }
+
+    public List<AnnouncementDTO> topForCourse(Long courseId) {
+        Board board = courses.get(courseId);
+        if (board == null || board.stale) {
+            board = load(courseId);
+        }
+        return board.top(size);
+    }
+
+    /**
+     * Apply the stored counts of announcements whose views were just flushed
+     */
+    public void viewsFlushed(Collection<Long> announcementIds) {
+        if (announcementIds.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = readTransaction.execute(status -> announcementRepository.findViewCountsByIdIn(announcementIds));
+        for (Object[] row : rows) {
+            Long announcementId = (Long) row[0];
+            Long courseId = (Long) row[1];
+            long views = row[2] != null ? ((Number) row[2]).longValue() : 0L;
+            if (Boolean.TRUE.equals(row[3])) {
+                continue;
+            }
+            Board board = global;
+            if (board != null) {
+                board.offer(announcementId, views);
+            }
+            Board courseBoard = courseId != null ? courses.get(courseId) : null;
+            if (courseBoard != null) {
+                courseBoard.offer(announcementId, views);
+            }
+        }
+    }
+
+    /**
+     * Drop what an edited, archived or deleted announcement may be ranked in, once the current
+     * transaction commits
+     */
+    public void changed(Announcement announcement) {
+        Long announcementId = announcement.getId();
+        Long courseId = announcement.getCourse() != null ? announcement.getCourse().getId() : null;
+        TransactionCallbacks.afterCommit(() -> {
+            generation.incrementAndGet();
+            Board board = global;
+            if (board != null && board.contains(announcementId)) {
+                board.stale = true;
+            }
+            if (courseId != null) {
+                courses.remove(courseId);
+            }
+        });
+    }
+
+    /**
+     * Reload every board from the database, picking up views counted on other nodes
+     */
+    public void merge() {
+        courses.clear();
+        load(null);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        merger.shutdownNow();
+    }
+
+    private Board load(Long courseId) {
+        long loadGeneration = generation.get();
+        int candidates = size * 2;
+        Board board = readTransaction.execute(status -> {
+            List<Announcement> announcements = courseId == null
+                    ? announcementRepository.findTopViewed(PageRequest.of(0, candidates))
+                    : announcementRepository.findTopViewedByCourseId(courseId, PageRequest.of(0, candidates));
+            Map<Long, Entry> entries = new LinkedHashMap<>();
+            long floor = 0L;
+            for (Announcement announcement : announcements) {
+                long views = announcement.getViewCount() != null ? announcement.getViewCount() : 0L;
+                entries.put(announcement.getId(), new Entry(views, announcementMapper.toDto(announcement)));
+                floor = views;
+            }
+            // A board that holds every ranked announcement only has new, unviewed ones outside it
+            return new Board(entries, announcements.size() < candidates ? 0L : floor);
+        });
+        if (generation.get() == loadGeneration) {
+            if (courseId == null) {
+                global = board;
+            } else {
+                if (courses.size() >= maxCourses) {
+                    courses.clear();
+                }
+                courses.put(courseId, board);
+            }
+        }
+        return board;
+    }
+
+    private void mergeQuietly() {
+        try {
+            merge();
+        } catch (RuntimeException e) {
+            log.error("Failed to merge most-viewed announcements", e);
+        }
+    }
+
+    private static final class Entry {
+        private final long views;
+        private final AnnouncementDTO dto;
+
+        private Entry(long views, AnnouncementDTO dto) {
+            this.views = views;
+            this.dto = dto;
+        }
+    }
+
+    private static final class Board {
+        private final Map<Long, Entry> entries;
+        private final long floor;
+        private volatile boolean stale;
+
+        private Board(Map<Long, Entry> entries, long floor) {
+            this.entries = entries;
+            this.floor = floor;
+        }
+
+        private synchronized boolean contains(Long announcementId) {
+            return entries.containsKey(announcementId);
+        }
+
+        private synchronized void offer(Long announcementId, long views) {
+            Entry entry = entries.get(announcementId);
+            if (entry != null) {
+                entries.put(announcementId, new Entry(views, entry.dto));
+            } else if (views > floor) {
+                // Ranks above something we never loaded
+                stale = true;
+            }
+        }
+
+        private List<AnnouncementDTO> top(int limit) {
+            List<Entry> ranked;
+            synchronized (this) {
+                ranked = new ArrayList<>(entries.values());
+            }
+            ranked.sort(ORDER);
+            List<AnnouncementDTO> result = new ArrayList<>(Math.min(limit, ranked.size()));
+            for (Entry entry : ranked.subList(0, Math.min(limit, ranked.size()))) {
+                result.add(entry.dto.toBuilder().viewCount((int) entry.views).build());
+            }
+            return result;
+        }
+    }
+}
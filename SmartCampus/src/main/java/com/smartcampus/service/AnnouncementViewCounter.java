@@ -0,0 +1,111 @@
+package com.smartcampus.service;
+
+import com.smartcampus.repository.AnnouncementJdbcRepository;
+import com.smartcampus.util.DaemonThreads;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind buffer for announcement view counts.
+ * Views are summed in memory per announcement and written periodically, and on shutdown, as one
+ * batch of relative {@code view_count = view_count + ?} updates, so readers of a popular
+ * announcement never queue on its row. Unflushed views can be added to values read from the
+ * database with {@link #pending(Long)}. Flushes leave the announcement list version alone, so
+ * view counts in a list may lag until its next real change rather than defeating its 304s.
+ */
+@Service
+@Slf4j
+public class AnnouncementViewCounter {
+
+    private final AnnouncementJdbcRepository announcementJdbcRepository;
+    private final AnnouncementTopViews announcementTopViews;
+    private final TransactionTemplate flushTransaction;
+
+    private final Map<Long, Long> pending = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService flusher;
+
+    public AnnouncementViewCounter(AnnouncementJdbcRepository announcementJdbcRepository,
+                                   AnnouncementTopViews announcementTopViews,
+                                   PlatformTransactionManager transactionManager,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${announcements.views.flush-interval:5000}") long flushIntervalMillis) {
+        this.announcementJdbcRepository = announcementJdbcRepository;
+        this.announcementTopViews = announcementTopViews;
+        this.flushTransaction = new TransactionTemplate(transactionManager);
+        this.flushTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        this.flusher = DaemonThreads.scheduler("announcement-views");
+        this.flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+
+        Gauge.builder("smartcampus.announcements.views.pending", pending, Map::size)
+                .description("Announcements with view counts not yet written to the database")
+                .register(meterRegistry);
+    }
+
+    public void record(Long announcementId) {
+        // merge locks only this key's bin, and flush takes each key out atomically, so no view is lost
+        pending.merge(announcementId, 1L, Long::sum);
+    }
+
+    /**
+     * Views recorded for an announcement but not yet written
+     */
+    public long pending(Long announcementId) {
+        return pending.getOrDefault(announcementId, 0L);
+    }
+
+    /**
+     * Write every buffered count
+     * @return number of announcements updated
+     */
+    public synchronized int flush() {
+        Map<Long, Long> deltas = new HashMap<>();
+        for (Long announcementId : pending.keySet()) {
+            Long delta = pending.remove(announcementId);
+            if (delta != null && delta > 0) {
+                deltas.put(announcementId, delta);
+            }
+        }
+        if (deltas.isEmpty()) {
+            return 0;
+        }
+        Integer updated;
+        try {
+            updated = flushTransaction.execute(status -> announcementJdbcRepository.batchAddViews(deltas));
+        } catch (RuntimeException e) {
+            // Put the views back for the next attempt
+            deltas.forEach((announcementId, delta) -> pending.merge(announcementId, delta, Long::sum));
+            throw e;
+        }
+        log.debug("Flushed view counts of {} announcements", deltas.size());
+        announcementTopViews.viewsFlushed(deltas.keySet());
+        return updated != null ? updated : 0;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdownNow();
+        flushQuietly();
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Failed to flush announcement view counts", e);
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.smartcampus.service;
+
+import com.smartcampus.entity.Announcement;
+import com.smartcampus.entity.AnnouncementVisibility;
+import com.smartcampus.repository.AnnouncementRepository;
+import com.smartcampus.util.DaemonThreads;
+import com.smartcampus.util.TransactionCallbacks;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moves announcements between SCHEDULED, LIVE and EXPIRED as their timestamps pass.
+ * Every save recomputes the materialized visibility (see {@link Announcement#refreshVisibility}).
+ * This scheduler re-applies it when nothing else touches the row: changes due within
+ * {@code horizon} wait in an in-memory timer queue and are applied within one tick of their time.
+ * A periodic reconcile sweep reloads upcoming changes from the indexed
+ * {@code visibility_changes_at} column, applies overdue ones and fills in rows that have no
+ * visibility yet, so a restart or a lost timer only delays a transition until the next sweep.
+ */
+@Service
+@Slf4j
+public class AnnouncementVisibilityScheduler {
+
+    private final AnnouncementRepository announcementRepository;
+    private final AnnouncementFeed announcementFeed;
+    private final TransactionTemplate transitionTransaction;
+    private final Duration horizon;
+    private final int batchSize;
+    private final Counter transitions;
+
+    // Ordered by due time then id, so re-queuing the same change is a no-op
+    private final TreeSet<Timer> timers = new TreeSet<>();
+    private final ScheduledExecutorService executor;
+
+    public AnnouncementVisibilityScheduler(AnnouncementRepository announcementRepository,
+                                           AnnouncementFeed announcementFeed,
+                                           PlatformTransactionManager transactionManager,
+                                           MeterRegistry meterRegistry,
+                                           @Value("${announcements.visibility.tick-interval:1000}") long tickIntervalMillis,
+                                           @Value("${announcements.visibility.reconcile-interval:300000}") long reconcileIntervalMillis,
+                                           @Value("${announcements.visibility.horizon:600000}") long horizonMillis,
+                                           @Value("${announcements.visibility.batch-size:500}") int batchSize) {
+        this.announcementRepository = announcementRepository;
+        this.announcementFeed = announcementFeed;
+        this.horizon = Duration.ofMillis(Math.max(horizonMillis, reconcileIntervalMillis));
+        this.batchSize = batchSize;
+        this.transitionTransaction = new TransactionTemplate(transactionManager);
+        this.transitionTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        this.transitions = Counter.builder("smartcampus.announcements.visibility.transitions")
+                .description("Announcements whose visibility changed because a timestamp passed")
+                .register(meterRegistry);
+        Gauge.builder("smartcampus.announcements.visibility.timers", this, AnnouncementVisibilityScheduler::getPendingTimerCount)
+                .description("Visibility changes waiting in the in-memory timer queue")
+                .register(meterRegistry);
+
+        this.executor = DaemonThreads.scheduler("announcement-visibility");
+        this.executor.scheduleWithFixedDelay(this::tickQuietly, tickIntervalMillis, tickIntervalMillis, TimeUnit.MILLISECONDS);
+        this.executor.scheduleWithFixedDelay(this::reconcileQuietly, 0, reconcileIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Queue the announcement's next visibility change once the current transaction commits
+     */
+    public void track(Announcement announcement) {
+        TransactionCallbacks.afterCommit(() -> schedule(announcement.getId(), announcement.getVisibilityChangesAt()));
+    }
+
+    /**
+     * Apply every change that is due
+     * @return number of announcements whose visibility or active flag changed
+     */
+    public int tick() {
+        LocalDateTime now = LocalDateTime.now();
+        Set<Long> due = new LinkedHashSet<>();
+        synchronized (timers) {
+            while (!timers.isEmpty() && !timers.first().dueAt.isAfter(now) && due.size() < batchSize) {
+                due.add(timers.pollFirst().announcementId);
+            }
+        }
+        return due.isEmpty() ? 0 : transition(new ArrayList<>(due));
+    }
+
+    /**
+     * Backfill missing visibility, apply overdue changes and queue those due within the horizon
+     * @return number of announcements changed
+     */
+    public int reconcile() {
+        int changed = 0;
+        List<Long> missing;
+        do {
+            missing = announcementRepository.findIdsWithoutVisibility(PageRequest.of(0, batchSize));
+            if (!missing.isEmpty()) {
+                changed += transition(missing);
+            }
+        } while (missing.size() == batchSize);
+
+        // Overdue rows move forward or drop out once applied, so repeat while a full page was overdue
+        List<Object[]> upcoming;
+        List<Long> overdue;
+        do {
+            LocalDateTime now = LocalDateTime.now();
+            upcoming = announcementRepository.findVisibilityChangesUntil(now.plus(horizon), PageRequest.of(0, batchSize));
+            overdue = new ArrayList<>();
+            for (Object[] row : upcoming) {
+                Long announcementId = (Long) row[0];
+                LocalDateTime changesAt = (LocalDateTime) row[1];
+                if (changesAt.isAfter(now)) {
+                    schedule(announcementId, changesAt);
+                } else {
+                    overdue.add(announcementId);
+                }
+            }
+            if (!overdue.isEmpty()) {
+                changed += transition(overdue);
+            }
+        } while (upcoming.size() == batchSize && overdue.size() == batchSize);
+        return changed;
+    }
+
+    public int getPendingTimerCount() {
+        synchronized (timers) {
+            return timers.size();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void schedule(Long announcementId, LocalDateTime dueAt) {
+        if (announcementId == null || dueAt == null || dueAt.isAfter(LocalDateTime.now().plus(horizon))) {
+            // Picked up again by a later sweep once it comes within the horizon
+            return;
+        }
+        synchronized (timers) {
+            timers.add(new Timer(dueAt, announcementId));
+        }
+    }
+
+    private int transition(List<Long> announcementIds) {
+        Integer changed = transitionTransaction.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            int count = 0;
+            for (Announcement announcement : announcementRepository.findAllById(announcementIds)) {
+                AnnouncementVisibility visibility = announcement.getVisibility();
+                Boolean active = announcement.getIsActive();
+                LocalDateTime changesAt = announcement.getVisibilityChangesAt();
+                announcement.refreshVisibility(now);
+                if (visibility != announcement.getVisibility() || !Objects.equals(active, announcement.getIsActive())
+                        || !Objects.equals(changesAt, announcement.getVisibilityChangesAt())) {
+                    count++;
+                    if (announcement.getCourse() != null) {
+                        announcementFeed.invalidate(announcement.getCourse().getId());
+                    }
+                }
+                // Timers are one-shot, so queue whatever comes next
+                track(announcement);
+            }
+            return count;
+        });
+        int count = changed != null ? changed : 0;
+        transitions.increment(count);
+        if (count > 0) {
+            log.debug("Updated visibility of {} announcements", count);
+        }
+        return count;
+    }
+
+    private void tickQuietly() {
+        try {
+            tick();
+        } catch (RuntimeException e) {
+            log.error("Announcement visibility tick failed", e);
+        }
+    }
+
+    private void reconcileQuietly() {
+        try {
+            int changed = reconcile();
+            if (changed > 0) {
+                log.info("Reconciled visibility of {} announcements", changed);
+            }
+        } catch (RuntimeException e) {
+            log.error("Announcement visibility reconcile failed", e);
+        }
+    }
+
+    private static final class Timer implements Comparable<Timer> {
+        private final LocalDateTime dueAt;
+        private final Long announcementId;
+
+        private Timer(LocalDateTime dueAt, Long announcementId) {
+            this.dueAt = dueAt;
+            this.announcementId = announcementId;
+        }
+
+        @Override
+        public int compareTo(Timer other) {
+            int byTime = dueAt.compareTo(other.dueAt);
+            return byTime != 0 ? byTime : announcementId.compareTo(other.announcementId);
+        }
+    }
+}
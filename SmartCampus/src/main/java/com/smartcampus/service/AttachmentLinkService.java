@@ -0,0 +1,65 @@
+package com.smartcampus.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Signs attachment download URLs for clients that cannot send an Authorization header, such as
+ * {@code <video src>} and plain links. Unlike stream tickets a link stays valid for every request
+ * until it expires, because media players fetch one file with many range requests. The signature
+ * is an HMAC of the announcement id and expiry, so any node holding the secret can check it.
+ */
+@Service
+public class AttachmentLinkService {
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final SecretKeySpec key;
+    private final long ttlSeconds;
+
+    public AttachmentLinkService(@Value("${attachments.link-secret:${jwt.secret}}") String secret,
+                                 @Value("${attachments.link-ttl:600}") long ttlSeconds) {
+        this.key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+        this.ttlSeconds = ttlSeconds;
+    }
+
+    public String issue(Long announcementId) {
+        long expires = Instant.now().getEpochSecond() + ttlSeconds;
+        return "/api/announcements/" + announcementId + "/attachment?expires=" + expires
+                + "&signature=" + sign(announcementId, expires);
+    }
+
+    /**
+     * Whether the signature was issued for this announcement and expiry, and the expiry has not passed
+     */
+    public boolean verify(Long announcementId, long expires, String signature) {
+        if (expires < Instant.now().getEpochSecond()) {
+            return false;
+        }
+        return MessageDigest.isEqual(sign(announcementId, expires).getBytes(StandardCharsets.US_ASCII),
+                signature.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    public long getTtlSeconds() {
+        return ttlSeconds;
+    }
+
+    private String sign(Long announcementId, long expires) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            byte[] digest = mac.doFinal((announcementId + ":" + expires).getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(ALGORITHM + " not available", e);
+        }
+    }
+}
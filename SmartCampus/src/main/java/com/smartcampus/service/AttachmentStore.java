@@ -0,0 +1,206 @@
+package com.smartcampus.service;
+
+import com.smartcampus.exception.AttachmentStorageException;
+import com.smartcampus.exception.AttachmentTooLargeException;
+import com.smartcampus.exception.ResourceNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Content-addressed attachment files on local disk.
+ * A file lives at {@code <dir>/ab/cd/<sha-256>}, so uploading the same bytes twice stores them once.
+ * Uploads are copied through a fixed buffer into {@code <dir>/incoming} while being hashed, then
+ * moved into place, so no upload is ever held in memory. Small files that are read often are kept
+ * in a bounded LRU cache; everything else is served from disk (see {@code FileDownload}).
+ * Files are never deleted, even when no announcement references them anymore.
+ */
+@Service
+@Slf4j
+public class AttachmentStore {
+
+    private static final Pattern HASH = Pattern.compile("[0-9a-f]{64}");
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path root;
+    private final Path incoming;
+    private final long maxSize;
+    private final long cacheMaxFileSize;
+    private final long cacheMaxSize;
+
+    // Access-ordered, so iteration starts at the least recently used file
+    private final LinkedHashMap<String, byte[]> cache = new LinkedHashMap<>(16, 0.75f, true);
+    private long cachedBytes;
+
+    public AttachmentStore(@Value("${attachments.storage.dir:data/attachments}") String dir,
+                           @Value("${attachments.max-size:524288000}") long maxSize,
+                           @Value("${attachments.cache.max-file-size:262144}") long cacheMaxFileSize,
+                           @Value("${attachments.cache.max-size:67108864}") long cacheMaxSize) {
+        this.root = Paths.get(dir).toAbsolutePath().normalize();
+        this.incoming = root.resolve("incoming");
+        this.maxSize = maxSize;
+        this.cacheMaxFileSize = cacheMaxFileSize;
+        this.cacheMaxSize = cacheMaxSize;
+        try {
+            Files.createDirectories(incoming);
+        } catch (IOException e) {
+            throw new AttachmentStorageException("Cannot create attachment directory " + incoming, e);
+        }
+        log.info("Storing attachments in {}", root);
+    }
+
+    /**
+     * Copy {@code content} to disk and return its hash and size. The stream is read to the end but
+     * not closed.
+     * @throws AttachmentTooLargeException if the content is longer than {@code attachments.max-size}
+     */
+    public StoredFile store(InputStream content) {
+        MessageDigest digest = sha256();
+        Path temp = null;
+        try {
+            temp = Files.createTempFile(incoming, "upload-", ".part");
+            long size = 0;
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int read;
+                while ((read = content.read(buffer)) != -1) {
+                    size += read;
+                    if (size > maxSize) {
+                        throw AttachmentTooLargeException.withMaxSize(maxSize);
+                    }
+                    digest.update(buffer, 0, read);
+                    out.write(buffer, 0, read);
+                }
+            }
+            String hash = HexFormat.of().formatHex(digest.digest());
+            Path target = resolve(hash);
+            if (!Files.exists(target)) {
+                Files.createDirectories(target.getParent());
+                moveIntoPlace(temp, target);
+            }
+            return new StoredFile(hash, size);
+        } catch (IOException e) {
+            throw new AttachmentStorageException("Failed to store attachment", e);
+        } finally {
+            deleteQuietly(temp);
+        }
+    }
+
+    /**
+     * Path of a stored file
+     * @throws ResourceNotFoundException if no file has this hash
+     */
+    public Path path(String hash) {
+        Path path = resolve(hash);
+        if (!Files.isRegularFile(path)) {
+            throw new ResourceNotFoundException("Attachment file not found: " + hash);
+        }
+        return path;
+    }
+
+    /**
+     * Contents of a small stored file from the hot cache, loading it on a miss; {@code null} for
+     * files too large to cache, which should be streamed from {@link #path(String)} instead.
+     */
+    public byte[] cached(String hash, long size) {
+        if (size > cacheMaxFileSize) {
+            return null;
+        }
+        synchronized (cache) {
+            byte[] bytes = cache.get(hash);
+            if (bytes != null) {
+                return bytes;
+            }
+        }
+        byte[] bytes;
+        try {
+            bytes = Files.readAllBytes(path(hash));
+        } catch (IOException e) {
+            throw new AttachmentStorageException("Failed to read attachment " + hash, e);
+        }
+        synchronized (cache) {
+            if (cache.putIfAbsent(hash, bytes) == null) {
+                cachedBytes += bytes.length;
+                Iterator<Map.Entry<String, byte[]>> eldest = cache.entrySet().iterator();
+                while (cachedBytes > cacheMaxSize && eldest.hasNext()) {
+                    cachedBytes -= eldest.next().getValue().length;
+                    eldest.remove();
+                }
+            }
+        }
+        return bytes;
+    }
+
+    public long getCachedBytes() {
+        synchronized (cache) {
+            return cachedBytes;
+        }
+    }
+
+    private Path resolve(String hash) {
+        // Only a well-formed hash may become a path, so nothing can point outside the store
+        if (hash == null || !HASH.matcher(hash).matches()) {
+            throw new ResourceNotFoundException("Attachment file not found: " + hash);
+        }
+        return root.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+    }
+
+    private static void moveIntoPlace(Path temp, Path target) throws IOException {
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            // A concurrent upload of the same bytes got there first
+        } catch (AtomicMoveNotSupportedException e) {
+            try {
+                Files.move(temp, target);
+            } catch (FileAlreadyExistsException ignored) {
+                // Same as above
+            }
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Failed to delete temporary attachment file {}", path, e);
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * A file in the store
+     */
+    @lombok.Value
+    public static class StoredFile {
+        String hash;
+        long size;
+    }
+}
@@ -1,16 +1,20 @@
 package com.smartcampus.service;
 
 import com.smartcampus.dto.AttendanceDTO;
+import com.smartcampus.dto.RollCallRequest;
+import com.smartcampus.dto.RollCallResultDTO;
 import com.smartcampus.entity.AttendanceStatus;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface AttendanceService {
     List<AttendanceDTO> getAllAttendance();
     AttendanceDTO getAttendanceById(Long id);
     AttendanceDTO getAttendanceByStudentAndCourseAndDate(Long studentId, Long courseId, LocalDate date);
     AttendanceDTO createAttendance(AttendanceDTO attendanceDTO);
+    RollCallResultDTO recordRollCall(RollCallRequest request);
     AttendanceDTO updateAttendance(Long id, AttendanceDTO attendanceDTO);
     void deleteAttendance(Long id);
     List<AttendanceDTO> getAttendanceByStudentId(Long studentId);
@@ -30,6 +34,9 @@ public interface AttendanceService {
     List<AttendanceDTO> getAttendanceByDateRange(LocalDate startDate, LocalDate endDate);
     List<AttendanceDTO> getAttendanceByStudentIdAndDateRange(Long studentId, LocalDate startDate, LocalDate endDate);
     List<AttendanceDTO> getAttendanceByCourseIdAndDateRange(Long courseId, LocalDate startDate, LocalDate endDate);
+    void streamAttendanceByDateRange(LocalDate startDate, LocalDate endDate, Consumer<AttendanceDTO> action);
+    void streamAttendanceByStudentIdAndDateRange(Long studentId, LocalDate startDate, LocalDate endDate, Consumer<AttendanceDTO> action);
+    void streamAttendanceByCourseIdAndDateRange(Long courseId, LocalDate startDate, LocalDate endDate, Consumer<AttendanceDTO> action);
     List<AttendanceDTO> getAttendanceByProfessorIdAndDateRange(Long professorId, LocalDate startDate, LocalDate endDate);
     List<AttendanceDTO> getAttendanceByIsMakeup(Boolean isMakeup);
     List<AttendanceDTO> getAttendanceByStudentIdAndIsMakeup(Long studentId, Boolean isMakeup);
@@ -0,0 +1,78 @@
+package com.smartcampus.service;
+
+import com.smartcampus.config.AuthenticatedUser;
+import com.smartcampus.repository.ProfessorRepository;
+import com.smartcampus.repository.StudentRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+
+/**
+ * Student and professor ids of the current caller for the ownership checks.
+ * Read from the token's id claims. When a claim is missing, e.g. the token predates the id claims or
+ * the profile was linked after login, the id is looked up by email instead.
+ */
+@Service
+@RequiredArgsConstructor
+public class CallerIdentityService {
+
+    private final StudentRepository studentRepository;
+    private final ProfessorRepository professorRepository;
+
+    /**
+     * Student id of the caller, empty if the caller is not a student
+     */
+    public Optional<Long> currentStudentId() {
+        Optional<Long> claimed = withIdentityClaims().map(AuthenticatedUser::getStudentId);
+        if (claimed.isPresent()) {
+            return claimed;
+        }
+        return studentRepository.findByUserEmail(currentEmail()).map(student -> student.getId());
+    }
+
+    /**
+     * User id of the caller, empty if the caller is not a student
+     */
+    public Optional<Long> currentStudentUserId() {
+        Optional<AuthenticatedUser> user = withIdentityClaims().filter(claims -> claims.getStudentId() != null);
+        if (user.isPresent()) {
+            return user.map(AuthenticatedUser::getUserId);
+        }
+        return studentRepository.findByUserEmail(currentEmail()).map(student -> student.getUser().getId());
+    }
+
+    /**
+     * Professor id of the caller, empty if the caller is not a professor
+     */
+    public Optional<Long> currentProfessorId() {
+        Optional<Long> claimed = withIdentityClaims().map(AuthenticatedUser::getProfessorId);
+        if (claimed.isPresent()) {
+            return claimed;
+        }
+        return professorRepository.findByUserEmail(currentEmail()).map(professor -> professor.getId());
+    }
+
+    /**
+     * User id of the caller, empty if the caller is not a professor
+     */
+    public Optional<Long> currentProfessorUserId() {
+        Optional<AuthenticatedUser> user = withIdentityClaims().filter(claims -> claims.getProfessorId() != null);
+        if (user.isPresent()) {
+            return user.map(AuthenticatedUser::getUserId);
+        }
+        return professorRepository.findByUserEmail(currentEmail()).map(professor -> professor.getUser().getId());
+    }
+
+    private Optional<AuthenticatedUser> withIdentityClaims() {
+        return AuthenticatedUser.current().filter(AuthenticatedUser::hasIdentityClaims);
+    }
+
+    // Fallback when the token has no claim for the id
+    private String currentEmail() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication.getName();
+    }
+}
@@ -1,6 +1,10 @@
 package com.smartcampus.service;
 
+import com.smartcampus.config.CampusUserDetails;
+import com.smartcampus.entity.Role;
 import com.smartcampus.entity.User;
+import com.smartcampus.repository.ProfessorRepository;
+import com.smartcampus.repository.StudentRepository;
 import com.smartcampus.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -18,6 +22,8 @@ import java.util.Collections;
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserRepository userRepository;
+    private final StudentRepository studentRepository;
+    private final ProfessorRepository professorRepository;
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
@@ -39,15 +45,7 @@ public class CustomUserDetailsService implements UserDetailsService {
                 throw new UsernameNotFoundException("User account is inactive: " + email);
             }
 
-            // Create authorities with ROLE_ prefix
-            String authority = "ROLE_" + user.getRole().name();
-            log.info("Creating UserDetails with authority: {} for user: {}", authority, email);
-
-            return new org.springframework.security.core.userdetails.User(
-                    user.getEmail(),
-                    user.getPassword(),
-                    Collections.singletonList(new SimpleGrantedAuthority(authority))
-            );
+            return toUserDetails(user);
         } catch (UsernameNotFoundException e) {
             throw e; // Re-throw UsernameNotFoundException
         } catch (Exception e) {
@@ -55,4 +53,28 @@ public class CustomUserDetailsService implements UserDetailsService {
             throw new UsernameNotFoundException("Error loading user details for email: " + email, e);
         }
     }
-} 
\ No newline at end of file
+
+    /**
+     * Build UserDetails for an already loaded user, resolving the student/professor ids
+     * that end up as token claims. Lets the login path reuse its single user lookup.
+     */
+    public CampusUserDetails toUserDetails(User user) {
+        // Create authorities with ROLE_ prefix
+        String authority = "ROLE_" + user.getRole().name();
+        log.info("Creating UserDetails with authority: {} for user: {}", authority, user.getEmail());
+
+        Long studentId = user.getRole() == Role.STUDENT
+                ? studentRepository.findIdByUserId(user.getId()).orElse(null) : null;
+        Long professorId = user.getRole() == Role.PROFESSOR
+                ? professorRepository.findIdByUserId(user.getId()).orElse(null) : null;
+
+        return new CampusUserDetails(
+                user.getEmail(),
+                user.getPassword(),
+                Collections.singletonList(new SimpleGrantedAuthority(authority)),
+                user.getId(),
+                studentId,
+                professorId
+        );
+    }
+}
@@ -5,9 +5,11 @@ import com.smartcampus.entity.EnrollmentStatus;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface EnrollmentService {
     List<EnrollmentDTO> getAllEnrollments();
+    void streamAllEnrollments(Consumer<EnrollmentDTO> action);
     EnrollmentDTO getEnrollmentById(Long id);
     EnrollmentDTO createEnrollment(EnrollmentDTO enrollmentDTO);
     EnrollmentDTO updateEnrollment(Long id, EnrollmentDTO enrollmentDTO);
@@ -0,0 +1,64 @@
+package com.smartcampus.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Writes list responses in the {@code ApiResponse} shape ({@code success}, {@code message},
+ * {@code data}) one element at a time, so a list of any length is never held in memory.
+ * The rows are produced on the async request thread once the response starts; if producing them
+ * fails midway the client receives truncated JSON, as the status has already been sent.
+ */
+@Service
+@RequiredArgsConstructor
+public class JsonListStreamer {
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * 200 whose body is written by {@link #body}
+     */
+    public <T> ResponseEntity<StreamingResponseBody> ok(String message, Consumer<Consumer<T>> rows) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body(message, rows));
+    }
+
+    /**
+     * A body that calls {@code rows} with a sink and serializes each element passed to it
+     */
+    public <T> StreamingResponseBody body(String message, Consumer<Consumer<T>> rows) {
+        return out -> {
+            JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.writeStartObject();
+            generator.writeBooleanField("success", true);
+            generator.writeStringField("message", message);
+            generator.writeArrayFieldStart("data");
+            try {
+                rows.accept(row -> {
+                    try {
+                        generator.writeObject(row);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+            // Only a complete document is flushed; on failure the buffered remainder is dropped
+            generator.close();
+        };
+    }
+}
@@ -0,0 +1,119 @@
+package com.smartcampus.service;
+
+import com.smartcampus.exception.LoginThrottledException;
+import com.smartcampus.util.DaemonThreads;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Dedicated, size-bounded pool for BCrypt password checks during login.
+ * Keeps a login storm from occupying every request thread: each admitted attempt parks its request
+ * thread while it waits, so running plus queued attempts are capped at a quarter of Tomcat's
+ * request threads. Once the queue is full, new attempts are rejected immediately with a
+ * {@link LoginThrottledException} (503 + Retry-After).
+ */
+@Service
+@Slf4j
+public class LoginExecutor {
+
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMillis;
+    private final long retryAfterSeconds;
+
+    private final Timer queueWaitTimer;
+    private final Timer verifyTimer;
+    private final Counter rejectedCounter;
+
+    public LoginExecutor(MeterRegistry meterRegistry,
+                         @Value("${auth.login.pool-size:4}") int poolSize,
+                         @Value("${auth.login.queue-capacity:16}") int queueCapacity,
+                         @Value("${auth.login.timeout:5000}") long timeoutMillis,
+                         @Value("${auth.login.retry-after:2}") long retryAfterSeconds,
+                         @Value("${server.tomcat.threads.max:200}") int requestThreads) {
+        int maxAdmitted = Math.max(poolSize + 1, requestThreads / 4);
+        if (poolSize + queueCapacity > maxAdmitted) {
+            log.warn("auth.login.queue-capacity {} would let logins hold more than a quarter of the {} request threads; using {}",
+                    queueCapacity, requestThreads, maxAdmitted - poolSize);
+            queueCapacity = maxAdmitted - poolSize;
+        }
+        this.timeoutMillis = timeoutMillis;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), DaemonThreads.factory("login-verify-"), new ThreadPoolExecutor.AbortPolicy());
+
+        this.queueWaitTimer = Timer.builder("smartcampus.login.queue.wait")
+                .description("Time login attempts spend queued before password verification")
+                .register(meterRegistry);
+        this.verifyTimer = Timer.builder("smartcampus.login.verify")
+                .description("Time spent verifying login passwords")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("smartcampus.login.rejected")
+                .description("Login attempts rejected because the login queue was full or timed out")
+                .register(meterRegistry);
+        Gauge.builder("smartcampus.login.queue.depth", executor, e -> e.getQueue().size())
+                .description("Login attempts waiting for a verification thread")
+                .register(meterRegistry);
+        Gauge.builder("smartcampus.login.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Password verifications currently running")
+                .register(meterRegistry);
+
+        log.info("Login executor initialized with {} threads and queue capacity {}", poolSize, queueCapacity);
+    }
+
+    /**
+     * Run a login task on the bounded pool and wait for its result.
+     * Throws LoginThrottledException if the queue is full or the task doesn't finish in time.
+     */
+    public <T> T execute(Supplier<T> task) {
+        long enqueuedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                queueWaitTimer.record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+                return verifyTimer.record(task);
+            });
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            log.warn("Login rejected - verification queue is full ({} waiting)", executor.getQueue().size());
+            throw new LoginThrottledException("Too many login attempts, please retry shortly", retryAfterSeconds);
+        }
+
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejectedCounter.increment();
+            log.warn("Login verification timed out after {} ms", timeoutMillis);
+            throw new LoginThrottledException("Login is taking too long, please retry shortly", retryAfterSeconds);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new LoginThrottledException("Login was interrupted, please retry", retryAfterSeconds);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Login verification failed", e.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
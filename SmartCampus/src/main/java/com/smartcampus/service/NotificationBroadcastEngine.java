@@ -0,0 +1,559 @@
+package com.smartcampus.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartcampus.dto.BroadcastJobDTO;
+import com.smartcampus.dto.BulkSendResultDTO;
+import com.smartcampus.dto.NotificationDTO;
+import com.smartcampus.entity.BroadcastJob;
+import com.smartcampus.entity.Notification;
+import com.smartcampus.entity.SharedBroadcast;
+import com.smartcampus.exception.UserNotFoundException;
+import com.smartcampus.mapper.NotificationMapper;
+import com.smartcampus.repository.BroadcastJobRepository;
+import com.smartcampus.repository.NotificationJdbcRepository;
+import com.smartcampus.util.BroadcastAudience;
+import com.smartcampus.util.DaemonThreads;
+import com.smartcampus.util.TransactionCallbacks;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Fans a notification out to every user in a broadcast audience.
+ * Recipients are read in id order one chunk at a time and each chunk is written with a single
+ * JDBC batch insert in its own transaction, so a large broadcast never holds one huge transaction.
+ * Jobs are stored in {@code broadcast_jobs} and run in the background; each chunk's transaction
+ * also moves the job's audience cursor, so a job interrupted by a restart or a dead node is
+ * resumed after its last committed chunk by the startup and periodic resume sweeps on any node.
+ * Progress is read back from the table by {@link #getJob(String)}. Audiences at or above the read
+ * fan-out threshold are instead stored once by {@link SharedBroadcastService}.
+ */
+@Service
+@Slf4j
+public class NotificationBroadcastEngine {
+
+    private static final String QUEUED = "QUEUED";
+    private static final String COMPLETED = "COMPLETED";
+    private static final String FAILED = "FAILED";
+
+    private final NotificationJdbcRepository notificationJdbcRepository;
+    private final BroadcastJobRepository broadcastJobRepository;
+    private final NotificationMapper notificationMapper;
+    private final ObjectMapper objectMapper;
+    private final UnreadCountStore unreadCountStore;
+    private final NotificationStatsStore notificationStatsStore;
+    private final NotificationStreamRegistry notificationStreamRegistry;
+    private final SharedBroadcastService sharedBroadcastService;
+    private final NotificationInboxTrimmer notificationInboxTrimmer;
+    private final TransactionTemplate chunkTransaction;
+    private final ThreadPoolExecutor executor;
+    private final String nodeId;
+    private final int chunkSize;
+    private final long jobRetentionMillis;
+    private final long claimTimeoutMillis;
+    private final int maxBulkRecipients;
+    private final long readFanoutThreshold;
+
+    // Jobs queued or running on this node, so a sweep never starts one twice
+    private final Set<String> active = ConcurrentHashMap.newKeySet();
+
+    public NotificationBroadcastEngine(NotificationJdbcRepository notificationJdbcRepository,
+                                       BroadcastJobRepository broadcastJobRepository,
+                                       NotificationMapper notificationMapper,
+                                       ObjectMapper objectMapper,
+                                       UnreadCountStore unreadCountStore,
+                                       NotificationStatsStore notificationStatsStore,
+                                       NotificationStreamRegistry notificationStreamRegistry,
+                                       SharedBroadcastService sharedBroadcastService,
+                                       NotificationInboxTrimmer notificationInboxTrimmer,
+                                       NotificationDeliveryPipeline notificationDeliveryPipeline,
+                                       PlatformTransactionManager transactionManager,
+                                       @Value("${notifications.broadcast.chunk-size:1000}") int chunkSize,
+                                       @Value("${notifications.broadcast.workers:2}") int workers,
+                                       @Value("${notifications.broadcast.queue-capacity:50}") int queueCapacity,
+                                       @Value("${notifications.broadcast.job-retention:3600000}") long jobRetentionMillis,
+                                       @Value("${notifications.broadcast.claim-timeout:300000}") long claimTimeoutMillis,
+                                       @Value("${notifications.bulk.max-recipients:5000}") int maxBulkRecipients,
+                                       @Value("${notifications.broadcast.read-fanout-threshold:10000}") long readFanoutThreshold) {
+        this.notificationJdbcRepository = notificationJdbcRepository;
+        this.broadcastJobRepository = broadcastJobRepository;
+        this.notificationMapper = notificationMapper;
+        this.objectMapper = objectMapper;
+        this.unreadCountStore = unreadCountStore;
+        this.notificationStatsStore = notificationStatsStore;
+        this.notificationStreamRegistry = notificationStreamRegistry;
+        this.sharedBroadcastService = sharedBroadcastService;
+        this.notificationInboxTrimmer = notificationInboxTrimmer;
+        this.nodeId = notificationDeliveryPipeline.getNodeId();
+        this.chunkSize = chunkSize;
+        this.jobRetentionMillis = jobRetentionMillis;
+        this.claimTimeoutMillis = claimTimeoutMillis;
+        this.maxBulkRecipients = maxBulkRecipients;
+        this.readFanoutThreshold = readFanoutThreshold;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.chunkTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), DaemonThreads.factory("notification-broadcast-"), new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Queue a broadcast of {@code notificationDTO} to everyone matched by {@code target}.
+     * The job is stored in the caller's transaction, if there is one, and starts once that commits.
+     * When this node's workers are all busy it stays queued for the next resume sweep.
+     * @throws IllegalArgumentException if the target or message is invalid
+     */
+    public BroadcastJobDTO submit(NotificationDTO notificationDTO, String target) {
+        BroadcastAudience audience = BroadcastAudience.parse(target);
+        // Validates the message before anything is stored
+        buildTemplate(notificationDTO);
+        BroadcastJob job = broadcastJobRepository.save(BroadcastJob.builder()
+                .id(UUID.randomUUID().toString())
+                .target(audience.getTarget())
+                .payload(writePayload(notificationDTO))
+                .status(QUEUED)
+                .lastUserId(0L)
+                .processedRecipients(0L)
+                .insertedNotifications(0L)
+                .chunksCommitted(0)
+                .submittedAt(LocalDateTime.now())
+                .build());
+        TransactionCallbacks.afterCommit(() -> start(job.getId()));
+        log.info("Queued broadcast job {} for target {}", job.getId(), audience.getTarget());
+        return toDto(job);
+    }
+
+    /**
+     * Write {@code notificationDTO} to an explicit list of users with batch inserts.
+     * Runs in the caller's transaction; every user id must exist.
+     * @return number of notifications written
+     */
+    public int sendToUsers(NotificationDTO notificationDTO, List<Long> userIds) {
+        Notification template = buildTemplate(notificationDTO);
+        List<Long> recipients = new ArrayList<>(new LinkedHashSet<>(userIds));
+        LocalDateTime now = LocalDateTime.now();
+        NotificationDTO payload = toPayload(template, now);
+        int written = 0;
+        for (int from = 0; from < recipients.size(); from += chunkSize) {
+            List<Long> chunk = recipients.subList(from, Math.min(from + chunkSize, recipients.size()));
+            Set<Long> existing = new HashSet<>(notificationJdbcRepository.findExistingUserIds(chunk));
+            for (Long userId : chunk) {
+                if (!existing.contains(userId)) {
+                    throw new UserNotFoundException(userId);
+                }
+            }
+            written += insertChunk(template, List.copyOf(chunk), now, payload);
+        }
+        return written;
+    }
+
+    /**
+     * Write {@code notificationDTO} to a list of users without failing on bad ids.
+     * Each chunk of recipients is checked with one IN query; repeated ids and inactive accounts are
+     * skipped and unknown ids reported, so the caller gets a summary instead of one DTO per row.
+     * Runs in the caller's transaction.
+     * @throws IllegalArgumentException if the message is missing or there are too many recipients
+     */
+    public BulkSendResultDTO bulkSend(NotificationDTO notificationDTO, List<Long> userIds) {
+        return bulkSend(notificationDTO, userIds, null);
+    }
+
+    /**
+     * Like {@link #bulkSend(NotificationDTO, List)}, with the title and message rendered per recipient
+     * @param renderer personalizes each copy, or null to send {@code notificationDTO} as is
+     */
+    public BulkSendResultDTO bulkSend(NotificationDTO notificationDTO, List<Long> userIds, RecipientRenderer renderer) {
+        if (userIds.size() > maxBulkRecipients) {
+            throw new IllegalArgumentException("At most " + maxBulkRecipients + " recipients per request; use a broadcast for larger audiences");
+        }
+        Notification template = buildTemplate(notificationDTO);
+        LocalDateTime now = LocalDateTime.now();
+        NotificationDTO payload = toPayload(template, now);
+
+        Set<Long> seen = new HashSet<>();
+        List<Long> candidates = new ArrayList<>();
+        List<Long> skipped = new ArrayList<>();
+        List<Long> invalid = new ArrayList<>();
+        for (Long userId : userIds) {
+            if (userId == null) {
+                continue;
+            }
+            if (seen.add(userId)) {
+                candidates.add(userId);
+            } else {
+                skipped.add(userId);
+            }
+        }
+
+        int created = 0;
+        for (int from = 0; from < candidates.size(); from += chunkSize) {
+            List<Long> chunk = candidates.subList(from, Math.min(from + chunkSize, candidates.size()));
+            Map<Long, Boolean> activeFlags = notificationJdbcRepository.findUserActiveFlags(chunk);
+            List<Long> recipients = new ArrayList<>(chunk.size());
+            for (Long userId : chunk) {
+                Boolean active = activeFlags.get(userId);
+                if (active == null) {
+                    invalid.add(userId);
+                } else if (!active) {
+                    skipped.add(userId);
+                } else {
+                    recipients.add(userId);
+                }
+            }
+            created += renderer == null
+                    ? insertChunk(template, recipients, now, payload)
+                    : insertRenderedChunk(template, recipients, now, renderer);
+        }
+        return BulkSendResultDTO.builder()
+                .requested(userIds.size())
+                .created(created)
+                .skippedIds(skipped)
+                .invalidIds(invalid)
+                .build();
+    }
+
+    public Optional<BroadcastJobDTO> getJob(String jobId) {
+        return broadcastJobRepository.findById(jobId).map(NotificationBroadcastEngine::toDto);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeOnStartup() {
+        int resumed = resumePending();
+        if (resumed > 0) {
+            log.info("Resumed {} unfinished broadcast jobs", resumed);
+        }
+    }
+
+    /**
+     * Safety net for jobs that found no free worker and for jobs whose node went away
+     */
+    @Scheduled(fixedDelayString = "${notifications.broadcast.resume-interval:30000}",
+               initialDelayString = "${notifications.broadcast.resume-interval:30000}")
+    public void resumePeriodically() {
+        try {
+            resumePending();
+            LocalDateTime cutoff = LocalDateTime.now().minus(Duration.ofMillis(jobRetentionMillis));
+            chunkTransaction.execute(status -> broadcastJobRepository.deleteCompletedBefore(cutoff));
+        } catch (RuntimeException e) {
+            log.error("Failed to resume broadcast jobs", e);
+        }
+    }
+
+    /**
+     * Start as many unfinished jobs as this node has room for
+     * @return number of jobs handed to a worker
+     */
+    public int resumePending() {
+        int room = executor.getQueue().remainingCapacity() + executor.getMaximumPoolSize() - executor.getActiveCount();
+        if (room <= 0) {
+            return 0;
+        }
+        LocalDateTime staleBefore = LocalDateTime.now().minus(Duration.ofMillis(claimTimeoutMillis));
+        int started = 0;
+        for (String jobId : broadcastJobRepository.findResumableIds(nodeId, staleBefore, PageRequest.of(0, room))) {
+            if (start(jobId)) {
+                started++;
+            }
+        }
+        return started;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Running jobs keep their claim and cursor; this node or another resumes them
+        executor.shutdownNow();
+    }
+
+    private boolean start(String jobId) {
+        if (!active.add(jobId)) {
+            return false;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    run(jobId);
+                } finally {
+                    active.remove(jobId);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            active.remove(jobId);
+            log.info("No free broadcast worker, job {} stays queued for the next resume sweep", jobId);
+            return false;
+        }
+    }
+
+    private void run(String jobId) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime staleBefore = now.minus(Duration.ofMillis(claimTimeoutMillis));
+        Integer claimed = chunkTransaction.execute(status -> broadcastJobRepository.claim(jobId, nodeId, now, staleBefore));
+        if (claimed == null || claimed == 0) {
+            // Finished meanwhile, or another node is running it
+            return;
+        }
+        BroadcastJob job = broadcastJobRepository.findById(jobId).orElse(null);
+        if (job == null) {
+            return;
+        }
+        try {
+            BroadcastAudience audience = BroadcastAudience.parse(job.getTarget());
+            NotificationDTO notificationDTO = readPayload(job.getPayload());
+            Notification template = buildTemplate(notificationDTO);
+            template.setIsBroadcast(true);
+            template.setBroadcastTarget(audience.getTarget());
+
+            Long expected = job.getExpectedRecipients();
+            if (expected == null) {
+                expected = notificationJdbcRepository.countAudience(audience);
+                Long count = expected;
+                updateJob(jobId, stored -> stored.setExpectedRecipients(count));
+            }
+            if (readFanoutThreshold > 0 && expected >= readFanoutThreshold && job.getChunksCommitted() == 0) {
+                publishShared(jobId, audience, template, expected);
+                return;
+            }
+            LocalDateTime createdAt = job.getStartedAt();
+            NotificationDTO payload = toPayload(template, createdAt);
+            long lastUserId = job.getLastUserId();
+            while (true) {
+                if (Thread.currentThread().isInterrupted()) {
+                    log.info("Broadcast job {} interrupted after user {}, leaving it to be resumed", jobId, lastUserId);
+                    return;
+                }
+                List<Long> chunk = notificationJdbcRepository.findAudienceUserIds(audience, lastUserId, chunkSize);
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                Long chunkEnd = chunk.get(chunk.size() - 1);
+                // Counters, stream pushes and trimming are registered inside the chunk and run once it commits
+                chunkTransaction.executeWithoutResult(status -> {
+                    int written = insertChunk(template, chunk, createdAt, payload);
+                    if (broadcastJobRepository.advance(jobId, nodeId, chunkEnd, chunk.size(), written, LocalDateTime.now()) == 0) {
+                        throw new IllegalStateException("Broadcast job " + jobId + " was claimed by another node");
+                    }
+                });
+                lastUserId = chunkEnd;
+                if (chunk.size() < chunkSize) {
+                    break;
+                }
+            }
+            BroadcastJob finished = updateJob(jobId, stored -> {
+                stored.setStatus(COMPLETED);
+                stored.setCompletedAt(LocalDateTime.now());
+                stored.setClaimedBy(null);
+                stored.setClaimedAt(null);
+            });
+            log.info("Broadcast job {} to {} completed: {} notifications in {} chunks",
+                    jobId, job.getTarget(), finished.getInsertedNotifications(), finished.getChunksCommitted());
+        } catch (RuntimeException e) {
+            if (executor.isShutdown()) {
+                // Stopped mid-chunk by shutdown; the uncommitted chunk rolled back and the job resumes from its cursor
+                log.info("Broadcast job {} stopped by shutdown, leaving it to be resumed", jobId);
+                return;
+            }
+            log.error("Broadcast job {} to {} failed", jobId, job.getTarget(), e);
+            try {
+                updateJob(jobId, stored -> {
+                    stored.setStatus(FAILED);
+                    stored.setError(truncate(e.getMessage()));
+                    stored.setCompletedAt(LocalDateTime.now());
+                    stored.setClaimedBy(null);
+                    stored.setClaimedAt(null);
+                });
+            } catch (RuntimeException recordFailure) {
+                log.error("Could not record the failure of broadcast job {}", jobId, recordFailure);
+            }
+        }
+    }
+
+    /**
+     * Store the broadcast once and push it to the audience members connected to this node.
+     * The shared row and the job's completion commit together, so a resumed job never publishes twice.
+     */
+    private void publishShared(String jobId, BroadcastAudience audience, Notification template, long expected) {
+        SharedBroadcast broadcast = chunkTransaction.execute(status -> {
+            SharedBroadcast published = sharedBroadcastService.publish(template, audience, expected);
+            changeJob(jobId, stored -> {
+                stored.setSharedBroadcastId(published.getId());
+                stored.setProcessedRecipients(expected);
+                stored.setStatus(COMPLETED);
+                stored.setCompletedAt(LocalDateTime.now());
+                stored.setClaimedBy(null);
+                stored.setClaimedAt(null);
+            });
+            return published;
+        });
+
+        NotificationDTO payload = toPayload(template, broadcast.getCreatedAt());
+        payload.setSharedBroadcastId(broadcast.getId());
+        List<Long> connected = new ArrayList<>();
+        for (Long userId : notificationStreamRegistry.getSubscribedUserIds()) {
+            if (sharedBroadcastService.appliesTo(broadcast.getId(), userId)) {
+                connected.add(userId);
+            }
+        }
+        notificationStreamRegistry.publishToUsers(connected, payload);
+        log.info("Broadcast job {} to {} stored as shared broadcast {} for ~{} recipients",
+                jobId, audience.getTarget(), broadcast.getId(), expected);
+    }
+
+    private BroadcastJob updateJob(String jobId, Consumer<BroadcastJob> change) {
+        return chunkTransaction.execute(status -> changeJob(jobId, change));
+    }
+
+    /**
+     * Change a job this node holds, in the current transaction
+     * @throws IllegalStateException if another node has taken the job over
+     */
+    private BroadcastJob changeJob(String jobId, Consumer<BroadcastJob> change) {
+        BroadcastJob stored = broadcastJobRepository.findById(jobId)
+                .orElseThrow(() -> new IllegalStateException("Broadcast job " + jobId + " no longer exists"));
+        if (!nodeId.equals(stored.getClaimedBy())) {
+            throw new IllegalStateException("Broadcast job " + jobId + " was claimed by another node");
+        }
+        change.accept(stored);
+        return broadcastJobRepository.save(stored);
+    }
+
+    private int insertChunk(Notification template, List<Long> recipients, LocalDateTime now, NotificationDTO payload) {
+        if (recipients.isEmpty()) {
+            return 0;
+        }
+        int inserted = notificationJdbcRepository.batchInsert(template, recipients, now);
+        notificationStatsStore.added(template, inserted);
+        if (!template.isRead()) {
+            unreadCountStore.adjustAll(recipients, 1);
+        }
+        notificationStreamRegistry.publishToUsers(recipients, payload);
+        notificationInboxTrimmer.touchedAll(recipients);
+        return inserted;
+    }
+
+    private int insertRenderedChunk(Notification template, List<Long> recipients, LocalDateTime now,
+                                    RecipientRenderer renderer) {
+        if (recipients.isEmpty()) {
+            return 0;
+        }
+        List<String> titles = new ArrayList<>(recipients.size());
+        List<String> messages = new ArrayList<>(recipients.size());
+        for (Long userId : recipients) {
+            titles.add(renderer.title(userId));
+            messages.add(renderer.message(userId));
+        }
+        int inserted = notificationJdbcRepository.batchInsert(template, recipients, titles, messages, now);
+        notificationStatsStore.added(template, inserted);
+        if (!template.isRead()) {
+            unreadCountStore.adjustAll(recipients, 1);
+        }
+        Map<Long, NotificationDTO> payloads = new LinkedHashMap<>();
+        for (int i = 0; i < recipients.size(); i++) {
+            NotificationDTO payload = toPayload(template, now);
+            payload.setTitle(titles.get(i));
+            payload.setMessage(messages.get(i));
+            payloads.put(recipients.get(i), payload);
+        }
+        notificationStreamRegistry.publishEach(payloads);
+        notificationInboxTrimmer.touchedAll(recipients);
+        return inserted;
+    }
+
+    private Notification buildTemplate(NotificationDTO notificationDTO) {
+        if (notificationDTO.getMessage() == null || notificationDTO.getMessage().trim().isEmpty()) {
+            throw new IllegalArgumentException("Message is required");
+        }
+        Notification template = notificationMapper.toEntity(notificationDTO);
+        template.applyDefaults();
+        return template;
+    }
+
+    /**
+     * Shared event payload for every recipient of a batch; rows written by JDBC have no ids to report
+     */
+    private NotificationDTO toPayload(Notification template, LocalDateTime createdAt) {
+        NotificationDTO payload = notificationMapper.toDto(template);
+        payload.setCreatedAt(createdAt);
+        return payload;
+    }
+
+    private String writePayload(NotificationDTO notificationDTO) {
+        try {
+            return objectMapper.writeValueAsString(notificationDTO);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Notification cannot be stored: " + e.getOriginalMessage(), e);
+        }
+    }
+
+    private NotificationDTO readPayload(String payload) {
+        try {
+            return objectMapper.readValue(payload, NotificationDTO.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable broadcast payload: " + e.getOriginalMessage(), e);
+        }
+    }
+
+    private static String truncate(String message) {
+        return message != null && message.length() > 500 ? message.substring(0, 500) : message;
+    }
+
+    private static BroadcastJobDTO toDto(BroadcastJob job) {
+        long processed = job.getProcessedRecipients() != null ? job.getProcessedRecipients() : 0L;
+        Long expected = job.getExpectedRecipients();
+        Integer progress = null;
+        if (COMPLETED.equals(job.getStatus())) {
+            progress = 100;
+        } else if (expected != null && expected > 0) {
+            progress = (int) Math.min(99, processed * 100 / expected);
+        }
+        return BroadcastJobDTO.builder()
+                .id(job.getId())
+                .target(job.getTarget())
+                .status(job.getStatus())
+                .expectedRecipients(expected)
+                .processedRecipients(processed)
+                .insertedNotifications(job.getInsertedNotifications())
+                .chunksCommitted(job.getChunksCommitted())
+                .progressPercent(progress)
+                .error(job.getError())
+                .sharedBroadcastId(job.getSharedBroadcastId())
+                .submittedAt(job.getSubmittedAt())
+                .startedAt(job.getStartedAt())
+                .completedAt(job.getCompletedAt())
+                .build();
+    }
+
+    /**
+     * Produces the title and message for one recipient of a personalized bulk send
+     */
+    public interface RecipientRenderer {
+        String title(Long userId);
+
+        String message(Long userId);
+    }
+}
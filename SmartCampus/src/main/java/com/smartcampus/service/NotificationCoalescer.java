@@ -0,0 +1,231 @@
+package com.smartcampus.service;
+
+import com.smartcampus.dto.CoalescedNotificationUpdate;
+import com.smartcampus.entity.Notification;
+import com.smartcampus.entity.NotificationType;
+import com.smartcampus.mapper.NotificationMapper;
+import com.smartcampus.repository.NotificationJdbcRepository;
+import com.smartcampus.repository.NotificationRepository;
+import com.smartcampus.util.DaemonThreads;
+import com.smartcampus.util.TransactionCallbacks;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collapses bursts of near-identical notifications into one row.
+ * The first notification for a (user, type, source, sourceId) key is written as usual and opens a
+ * window; duplicates arriving while it is open are only counted in memory. When the window closes
+ * the row is updated once with the number absorbed and the latest content, in a JDBC batch with
+ * every other window closing at the same time.
+ */
+@Service
+@Slf4j
+public class NotificationCoalescer {
+
+    private final NotificationJdbcRepository notificationJdbcRepository;
+    private final NotificationRepository notificationRepository;
+    private final NotificationMapper notificationMapper;
+    private final UnreadCountStore unreadCountStore;
+    private final NotificationStatsStore notificationStatsStore;
+    private final NotificationStreamRegistry notificationStreamRegistry;
+    private final TransactionTemplate flushTransaction;
+    private final boolean enabled;
+    private final long windowMillis;
+    private final int maxWindows;
+
+    private final Map<CoalesceKey, Window> windows = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService flusher;
+    private final Counter absorbedCounter;
+
+    public NotificationCoalescer(NotificationJdbcRepository notificationJdbcRepository,
+                                 NotificationRepository notificationRepository,
+                                 NotificationMapper notificationMapper,
+                                 UnreadCountStore unreadCountStore,
+                                 NotificationStatsStore notificationStatsStore,
+                                 NotificationStreamRegistry notificationStreamRegistry,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry,
+                                 @org.springframework.beans.factory.annotation.Value("${notifications.coalescing.enabled:true}") boolean enabled,
+                                 @org.springframework.beans.factory.annotation.Value("${notifications.coalescing.window:30000}") long windowMillis,
+                                 @org.springframework.beans.factory.annotation.Value("${notifications.coalescing.flush-interval:1000}") long flushIntervalMillis,
+                                 @org.springframework.beans.factory.annotation.Value("${notifications.coalescing.max-windows:100000}") int maxWindows) {
+        this.notificationJdbcRepository = notificationJdbcRepository;
+        this.notificationRepository = notificationRepository;
+        this.notificationMapper = notificationMapper;
+        this.unreadCountStore = unreadCountStore;
+        this.notificationStatsStore = notificationStatsStore;
+        this.notificationStreamRegistry = notificationStreamRegistry;
+        this.enabled = enabled;
+        this.windowMillis = windowMillis;
+        this.maxWindows = maxWindows;
+        this.flushTransaction = new TransactionTemplate(transactionManager);
+        this.flushTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        this.flusher = DaemonThreads.scheduler("notification-coalescer");
+        if (enabled) {
+            this.flusher.scheduleWithFixedDelay(this::flushExpired, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+
+        this.absorbedCounter = Counter.builder("smartcampus.notifications.coalesced")
+                .description("Notifications folded into an existing row instead of being written")
+                .register(meterRegistry);
+        Gauge.builder("smartcampus.notifications.coalescing.windows", windows, Map::size)
+                .description("Open coalescing windows")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Fold {@code notification} into the open window for its key, if there is one
+     * @return id of the row it was folded into, or null if it has to be written
+     */
+    public Long absorb(Notification notification) {
+        CoalesceKey key = keyOf(notification);
+        if (key == null) {
+            return null;
+        }
+        Window window = windows.get(key);
+        if (window == null) {
+            return null;
+        }
+        synchronized (window) {
+            if (window.closed || window.closesAt <= System.currentTimeMillis()) {
+                return null;
+            }
+            window.pending++;
+            window.title = notification.getTitle();
+            window.message = notification.getMessage();
+        }
+        absorbedCounter.increment();
+        return window.notificationId;
+    }
+
+    /**
+     * Open a window for a newly written notification once the current transaction commits
+     */
+    public void open(Notification saved) {
+        CoalesceKey key = keyOf(saved);
+        if (key == null || saved.getId() == null) {
+            return;
+        }
+        Long notificationId = saved.getId();
+        TransactionCallbacks.afterCommit(() -> {
+            if (windows.size() < maxWindows) {
+                windows.putIfAbsent(key, new Window(notificationId, System.currentTimeMillis() + windowMillis));
+            }
+        });
+    }
+
+    public int getOpenWindowCount() {
+        return windows.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdownNow();
+        flush(true);
+    }
+
+    private void flushExpired() {
+        try {
+            flush(false);
+        } catch (RuntimeException e) {
+            log.error("Failed to flush coalesced notifications", e);
+        }
+    }
+
+    private void flush(boolean all) {
+        long now = System.currentTimeMillis();
+        List<CoalescedNotificationUpdate> updates = new ArrayList<>();
+        windows.forEach((key, window) -> {
+            if ((all || window.closesAt <= now) && windows.remove(key, window)) {
+                synchronized (window) {
+                    window.closed = true;
+                    if (window.pending > 0) {
+                        updates.add(CoalescedNotificationUpdate.builder()
+                                .notificationId(window.notificationId)
+                                .additional(window.pending)
+                                .title(window.title)
+                                .message(window.message)
+                                .updatedAt(LocalDateTime.now())
+                                .build());
+                    }
+                }
+            }
+        });
+        if (updates.isEmpty()) {
+            return;
+        }
+        flushTransaction.executeWithoutResult(status -> {
+            List<Long> ids = updates.stream().map(CoalescedNotificationUpdate::getNotificationId).toList();
+            Set<Long> reopened = new HashSet<>(notificationJdbcRepository.findReadIds(ids));
+            notificationJdbcRepository.batchApplyCoalesced(updates);
+            List<Notification> notifications = notificationRepository.findAllWithUserByIdIn(ids);
+            for (Notification notification : notifications) {
+                Long userId = notification.getUser().getId();
+                if (reopened.contains(notification.getId()) && notification.countsAsUnread()) {
+                    unreadCountStore.adjust(userId, 1);
+                }
+                if (!notification.isSilent()) {
+                    notificationStreamRegistry.publishNotification(userId, notificationMapper.toDto(notification));
+                }
+                if (reopened.contains(notification.getId())) {
+                    notificationStreamRegistry.publishUnreadCount(userId);
+                }
+            }
+            if (!reopened.isEmpty()) {
+                notificationStatsStore.markStale();
+            }
+        });
+        log.debug("Flushed {} coalesced notifications", updates.size());
+    }
+
+    private CoalesceKey keyOf(Notification notification) {
+        if (!enabled || notification.getUser() == null || notification.getSource() == null
+                || notification.isBroadcast() || notification.isScheduled() || notification.isTemplate()
+                || notification.isRecurring()) {
+            return null;
+        }
+        return new CoalesceKey(notification.getUser().getId(), notification.getType(),
+                notification.getSource(), notification.getSourceId());
+    }
+
+    @Value
+    private static class CoalesceKey {
+        Long userId;
+        NotificationType type;
+        String source;
+        String sourceId;
+    }
+
+    private static final class Window {
+        private final Long notificationId;
+        private final long closesAt;
+        private int pending;
+        private String title;
+        private String message;
+        private boolean closed;
+
+        private Window(Long notificationId, long closesAt) {
+            this.notificationId = notificationId;
+            this.closesAt = closesAt;
+        }
+    }
+}
@@ -0,0 +1,541 @@
+package com.smartcampus.service;
+
+import com.smartcampus.dto.DeliveryStatusUpdate;
+import com.smartcampus.dto.NotificationDTO;
+import com.smartcampus.exception.NotificationDeliveryException;
+import com.smartcampus.mapper.NotificationMapper;
+import com.smartcampus.repository.NotificationJdbcRepository;
+import com.smartcampus.repository.NotificationRepository;
+import com.smartcampus.util.DaemonThreads;
+import com.smartcampus.util.TransactionCallbacks;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Delivers stored notifications over their delivery method.
+ * Each channel has a bounded queue drained by its own workers and a pluggable
+ * {@link NotificationSender}. Failed deliveries wait in a bounded delay queue with exponential
+ * backoff and jitter, so retries never need a table scan. Outcomes are buffered and written back
+ * in JDBC batches.
+ * <p>
+ * A node owns the deliveries it holds through a claim on the row ({@code claimed_by},
+ * {@code claimed_at}) that it renews while it holds them. Recovery claims rows with
+ * {@code FOR UPDATE SKIP LOCKED} and only takes unclaimed rows, its own, and rows whose claim has
+ * gone stale, so several nodes never deliver the same notification. When a queue is full the
+ * delivery is handed back to the database unclaimed instead of being held in memory, and the
+ * next recovery on any node picks it up.
+ */
+@Service
+@Slf4j
+public class NotificationDeliveryPipeline {
+
+    public static final String STATUS_PENDING = "PENDING";
+    public static final String STATUS_RETRYING = "RETRYING";
+    public static final String STATUS_SENDING = "SENDING";
+    public static final String STATUS_DELIVERED = "DELIVERED";
+    public static final String STATUS_FAILED = "FAILED";
+
+    private static final String DEFAULT_CHANNEL = "IN_APP";
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final NotificationJdbcRepository notificationJdbcRepository;
+    private final NotificationRepository notificationRepository;
+    private final NotificationMapper notificationMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final long retryBaseDelayMillis;
+    private final long retryMaxDelayMillis;
+    private final int statusBatchSize;
+    private final int recoveryBatchSize;
+    private final int retryCapacity;
+    private final long claimTimeoutMillis;
+    private final String nodeId;
+
+    private final Map<String, ChannelLane> lanes = new HashMap<>();
+    private final DelayQueue<DeliveryTask> retries = new DelayQueue<>();
+    private final Queue<DeliveryStatusUpdate> statusBuffer = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger bufferedStatuses = new AtomicInteger();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+    private final List<Thread> threads = new ArrayList<>();
+    private final ScheduledExecutorService flusher;
+    private volatile boolean running = true;
+
+    public NotificationDeliveryPipeline(List<NotificationSender> senders,
+                                        NotificationJdbcRepository notificationJdbcRepository,
+                                        NotificationRepository notificationRepository,
+                                        NotificationMapper notificationMapper,
+                                        PlatformTransactionManager transactionManager,
+                                        MeterRegistry meterRegistry,
+                                        @Value("${notifications.delivery.queue-capacity:10000}") int queueCapacity,
+                                        @Value("${notifications.delivery.workers:2}") int workersPerChannel,
+                                        @Value("${notifications.delivery.retry-base-delay:5000}") long retryBaseDelayMillis,
+                                        @Value("${notifications.delivery.retry-max-delay:600000}") long retryMaxDelayMillis,
+                                        @Value("${notifications.delivery.status-batch-size:500}") int statusBatchSize,
+                                        @Value("${notifications.delivery.status-flush-interval:1000}") long statusFlushMillis,
+                                        @Value("${notifications.delivery.recovery-batch-size:500}") int recoveryBatchSize,
+                                        @Value("${notifications.delivery.retry-capacity:10000}") int retryCapacity,
+                                        @Value("${notifications.delivery.claim-timeout:300000}") long claimTimeoutMillis,
+                                        @Value("${notifications.delivery.node-id:}") String nodeId) {
+        this.notificationJdbcRepository = notificationJdbcRepository;
+        this.notificationRepository = notificationRepository;
+        this.notificationMapper = notificationMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.retryBaseDelayMillis = retryBaseDelayMillis;
+        this.retryMaxDelayMillis = retryMaxDelayMillis;
+        this.statusBatchSize = statusBatchSize;
+        this.recoveryBatchSize = recoveryBatchSize;
+        this.retryCapacity = retryCapacity;
+        this.claimTimeoutMillis = claimTimeoutMillis;
+        this.nodeId = nodeId.isBlank() ? defaultNodeId() : nodeId;
+
+        for (NotificationSender sender : senders) {
+            String channel = sender.getChannel().toUpperCase(Locale.ROOT);
+            if (lanes.containsKey(channel)) {
+                throw new IllegalStateException("More than one notification sender registered for channel " + channel);
+            }
+            ChannelLane lane = new ChannelLane(channel, sender, queueCapacity, meterRegistry);
+            lanes.put(channel, lane);
+            for (int i = 1; i <= workersPerChannel; i++) {
+                startThread("notification-delivery-" + channel.toLowerCase(Locale.ROOT) + "-" + i, () -> workLoop(lane));
+            }
+        }
+        startThread("notification-delivery-retry", this::retryLoop);
+        this.flusher = DaemonThreads.scheduler("notification-delivery-status");
+        this.flusher.scheduleWithFixedDelay(this::flushStatuses, statusFlushMillis, statusFlushMillis, TimeUnit.MILLISECONDS);
+        long renewMillis = Math.max(1000L, claimTimeoutMillis / 3);
+        this.flusher.scheduleWithFixedDelay(this::renewClaims, renewMillis, renewMillis, TimeUnit.MILLISECONDS);
+
+        Gauge.builder("smartcampus.notifications.delivery.retry.pending", retries, DelayQueue::size)
+                .description("Deliveries waiting for their next retry")
+                .register(meterRegistry);
+        Gauge.builder("smartcampus.notifications.delivery.status.buffered", bufferedStatuses, AtomicInteger::get)
+                .description("Delivery outcomes not yet written back")
+                .register(meterRegistry);
+        log.info("Notification delivery channels: {} (node {})", lanes.keySet(), this.nodeId);
+    }
+
+    /**
+     * Queue a stored notification for delivery over its delivery method once the current transaction commits
+     */
+    public void enqueue(NotificationDTO notification) {
+        if (notification == null || notification.getId() == null) {
+            return;
+        }
+        TransactionCallbacks.afterCommit(() -> {
+            // Recovery may have claimed the row between the commit and this callback
+            if (inFlight.add(notification.getId())) {
+                accept(new DeliveryTask(notification), false);
+            }
+        });
+    }
+
+    /**
+     * Claim and re-queue undelivered notifications that no live node is delivering: unclaimed rows,
+     * rows this node lost track of, and rows whose owner stopped renewing its claim
+     * Stops early once a channel queue is full; what is left waits for the next run.
+     * @return number of deliveries re-queued
+     */
+    public int recoverUndelivered() {
+        return recover(false);
+    }
+
+    private int recover(boolean block) {
+        // Hand-backs still in the buffer must reach the database before rows are claimed again
+        flushStatuses();
+        int requeued = 0;
+        long afterId = 0L;
+        boolean saturated = false;
+        while (running && !saturated) {
+            long from = afterId;
+            List<Long> locked = new ArrayList<>();
+            List<NotificationDTO> batch = transactionTemplate.execute(status -> {
+                LocalDateTime now = LocalDateTime.now();
+                locked.addAll(notificationJdbcRepository.lockClaimableUndelivered(
+                        from, recoveryBatchSize, nodeId, now.minus(Duration.ofMillis(claimTimeoutMillis))));
+                List<Long> idle = locked.stream().filter(id -> !inFlight.contains(id)).toList();
+                if (idle.isEmpty()) {
+                    return List.<NotificationDTO>of();
+                }
+                notificationJdbcRepository.markClaimed(idle, nodeId, now);
+                return notificationMapper.toDtoList(notificationRepository.findAllWithUserByIdIn(idle));
+            });
+            if (locked.isEmpty()) {
+                break;
+            }
+            afterId = locked.get(locked.size() - 1);
+            for (NotificationDTO notification : batch) {
+                if (!inFlight.add(notification.getId())) {
+                    continue;
+                }
+                DeliveryTask task = new DeliveryTask(notification);
+                if (notification.getNextRetryDate() != null && notification.getNextRetryDate().isAfter(LocalDateTime.now())) {
+                    task.delayUntil(notification.getNextRetryDate());
+                    park(task, STATUS_RETRYING, notification.getDeliveryError(), notification.getNextRetryDate());
+                } else if (!accept(task, block)) {
+                    saturated = true;
+                }
+                requeued++;
+            }
+            if (locked.size() < recoveryBatchSize) {
+                break;
+            }
+        }
+        return requeued;
+    }
+
+    /**
+     * Safety net for deliveries handed back to the database and for nodes that went away
+     */
+    @Scheduled(fixedDelayString = "${notifications.delivery.recovery-interval:60000}",
+               initialDelayString = "${notifications.delivery.recovery-interval:60000}")
+    public void recoverPeriodically() {
+        try {
+            int requeued = recoverUndelivered();
+            if (requeued > 0) {
+                log.info("Recovery re-queued {} undelivered notifications", requeued);
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to recover undelivered notifications", e);
+        }
+    }
+
+    /**
+     * Identifies this node in the claims it writes; must be unique per node and stable across restarts
+     */
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverOnStartup() {
+        startThread("notification-delivery-recovery", () -> {
+            try {
+                // A dedicated thread, so it may wait for queue room and recover the whole backlog
+                int requeued = recover(true);
+                if (requeued > 0) {
+                    log.info("Re-queued {} undelivered notifications", requeued);
+                }
+            } catch (RuntimeException e) {
+                log.error("Failed to recover undelivered notifications", e);
+            }
+        });
+    }
+
+    public Map<String, Integer> getQueueDepths() {
+        Map<String, Integer> depths = new LinkedHashMap<>();
+        lanes.forEach((channel, lane) -> depths.put(channel, lane.queue.size()));
+        return depths;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        threads.forEach(Thread::interrupt);
+        flusher.shutdown();
+        // Whatever is still queued stays claimed by this node and is recovered on restart, or by another node once the claim goes stale
+        flushStatuses();
+    }
+
+    /**
+     * @return false if the channel was full and the delivery was handed back to the database
+     */
+    private boolean accept(DeliveryTask task, boolean block) {
+        ChannelLane lane = lanes.get(task.channel);
+        if (lane == null) {
+            inFlight.remove(task.notificationId);
+            record(task, STATUS_FAILED, "No sender for delivery method " + task.channel, null, null);
+            return true;
+        }
+        inFlight.add(task.notificationId);
+        if (block) {
+            try {
+                lane.queue.put(task);
+                return true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        } else if (lane.queue.offer(task)) {
+            return true;
+        }
+        // Channel is saturated: leave the delivery to the database rather than hold it in memory
+        lane.overflowCounter.increment();
+        handBack(task, task.attempts > 0 ? STATUS_RETRYING : STATUS_PENDING, "Delivery queue full", null);
+        return false;
+    }
+
+    /**
+     * Wait for a retry in memory if there is room, otherwise hand the delivery back to the database
+     */
+    private void park(DeliveryTask task, String status, String error, LocalDateTime nextRetryDate) {
+        if (retries.size() < retryCapacity) {
+            record(task, status, error, nextRetryDate, null);
+            retries.put(task);
+        } else {
+            handBack(task, status, error, nextRetryDate);
+        }
+    }
+
+    private void handBack(DeliveryTask task, String status, String error, LocalDateTime nextRetryDate) {
+        inFlight.remove(task.notificationId);
+        record(task, status, error, nextRetryDate, null, null);
+    }
+
+    private void workLoop(ChannelLane lane) {
+        while (running) {
+            DeliveryTask task;
+            try {
+                task = lane.queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            deliver(lane, task);
+        }
+    }
+
+    private void deliver(ChannelLane lane, DeliveryTask task) {
+        long started = System.nanoTime();
+        try {
+            lane.sender.send(task.notification);
+            lane.sendTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            lane.deliveredCounter.increment();
+            inFlight.remove(task.notificationId);
+            record(task, STATUS_DELIVERED, null, null, LocalDateTime.now());
+        } catch (NotificationDeliveryException e) {
+            handleFailure(lane, task, e.getMessage(), e.isRetryable());
+        } catch (RuntimeException e) {
+            log.warn("{} sender failed for notification {}", lane.channel, task.notificationId, e);
+            handleFailure(lane, task, e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName(), true);
+        }
+    }
+
+    private void handleFailure(ChannelLane lane, DeliveryTask task, String error, boolean retryable) {
+        task.attempts++;
+        if (retryable && task.attempts < task.maxRetries) {
+            long delay = backoff(task.attempts);
+            task.delayFor(delay);
+            lane.retriedCounter.increment();
+            park(task, STATUS_RETRYING, error, LocalDateTime.now().plusNanos(TimeUnit.MILLISECONDS.toNanos(delay)));
+        } else {
+            lane.failedCounter.increment();
+            inFlight.remove(task.notificationId);
+            record(task, STATUS_FAILED, error, null, null);
+            log.warn("Giving up on {} delivery of notification {} after {} attempts: {}",
+                    lane.channel, task.notificationId, task.attempts, error);
+        }
+    }
+
+    /**
+     * Exponential backoff with jitter: half the capped exponential delay plus a random share of the other half
+     */
+    private long backoff(int attempt) {
+        long exponential = retryBaseDelayMillis << Math.min(attempt - 1, 20);
+        long capped = Math.min(retryMaxDelayMillis, exponential);
+        long half = capped / 2;
+        return half + ThreadLocalRandom.current().nextLong(half + 1);
+    }
+
+    private void retryLoop() {
+        while (running) {
+            try {
+                accept(retries.take(), false);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void record(DeliveryTask task, String status, String error, LocalDateTime nextRetryDate, LocalDateTime sentAt) {
+        boolean finished = STATUS_DELIVERED.equals(status) || STATUS_FAILED.equals(status);
+        record(task, status, error, nextRetryDate, sentAt, finished ? null : nodeId);
+    }
+
+    private void record(DeliveryTask task, String status, String error, LocalDateTime nextRetryDate,
+                        LocalDateTime sentAt, String claimedBy) {
+        statusBuffer.add(DeliveryStatusUpdate.builder()
+                .notificationId(task.notificationId)
+                .deliveryStatus(status)
+                .deliveryError(error != null && error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error)
+                .retryCount(task.attempts)
+                .nextRetryDate(nextRetryDate)
+                .sentAt(sentAt)
+                .claimedBy(claimedBy)
+                .updatedAt(LocalDateTime.now())
+                .build());
+        if (bufferedStatuses.incrementAndGet() >= statusBatchSize && flushRequested.compareAndSet(false, true)) {
+            try {
+                flusher.execute(this::flushStatuses);
+            } catch (RejectedExecutionException e) {
+                flushRequested.set(false);
+            }
+        }
+    }
+
+    private synchronized void flushStatuses() {
+        flushRequested.set(false);
+        while (true) {
+            // Later outcomes for the same notification supersede earlier ones in the same batch
+            Map<Long, DeliveryStatusUpdate> batch = new LinkedHashMap<>();
+            DeliveryStatusUpdate update;
+            int drained = 0;
+            while (drained < statusBatchSize && (update = statusBuffer.poll()) != null) {
+                batch.remove(update.getNotificationId());
+                batch.put(update.getNotificationId(), update);
+                drained++;
+            }
+            if (drained == 0) {
+                return;
+            }
+            bufferedStatuses.addAndGet(-drained);
+            try {
+                transactionTemplate.executeWithoutResult(status ->
+                        notificationJdbcRepository.batchUpdateDeliveryStatus(new ArrayList<>(batch.values())));
+            } catch (RuntimeException e) {
+                log.error("Failed to write back {} delivery statuses, will retry", batch.size(), e);
+                requeueStatuses(batch.values());
+                return;
+            }
+        }
+    }
+
+    private void renewClaims() {
+        try {
+            List<Long> held = new ArrayList<>(inFlight);
+            LocalDateTime now = LocalDateTime.now();
+            for (int from = 0; from < held.size(); from += recoveryBatchSize) {
+                List<Long> chunk = held.subList(from, Math.min(held.size(), from + recoveryBatchSize));
+                transactionTemplate.executeWithoutResult(status -> notificationJdbcRepository.renewClaims(chunk, nodeId, now));
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to renew delivery claims", e);
+        }
+    }
+
+    private static String defaultNodeId() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            throw new IllegalStateException("Cannot determine host name, set notifications.delivery.node-id", e);
+        }
+    }
+
+    private void requeueStatuses(Collection<DeliveryStatusUpdate> updates) {
+        statusBuffer.addAll(updates);
+        bufferedStatuses.addAndGet(updates.size());
+    }
+
+    private void startThread(String name, Runnable body) {
+        Thread thread = DaemonThreads.factory(name).newThread(body);
+        threads.add(thread);
+        thread.start();
+    }
+
+    private static final class ChannelLane {
+        private final String channel;
+        private final NotificationSender sender;
+        private final BlockingQueue<DeliveryTask> queue;
+        private final Timer sendTimer;
+        private final Counter deliveredCounter;
+        private final Counter retriedCounter;
+        private final Counter failedCounter;
+        private final Counter overflowCounter;
+
+        private ChannelLane(String channel, NotificationSender sender, int queueCapacity, MeterRegistry meterRegistry) {
+            this.channel = channel;
+            this.sender = sender;
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+            this.sendTimer = Timer.builder("smartcampus.notifications.delivery.send")
+                    .tag("channel", channel)
+                    .register(meterRegistry);
+            this.deliveredCounter = outcome(meterRegistry, channel, "delivered");
+            this.retriedCounter = outcome(meterRegistry, channel, "retried");
+            this.failedCounter = outcome(meterRegistry, channel, "failed");
+            this.overflowCounter = outcome(meterRegistry, channel, "overflow");
+            Gauge.builder("smartcampus.notifications.delivery.queue", queue, BlockingQueue::size)
+                    .tag("channel", channel)
+                    .description("Deliveries waiting for a worker")
+                    .register(meterRegistry);
+        }
+
+        private static Counter outcome(MeterRegistry meterRegistry, String channel, String outcome) {
+            return Counter.builder("smartcampus.notifications.delivery")
+                    .tag("channel", channel)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry);
+        }
+    }
+
+    private static final class DeliveryTask implements Delayed {
+        private final Long notificationId;
+        private final String channel;
+        private final NotificationDTO notification;
+        private final int maxRetries;
+        private int attempts;
+        private long readyAtNanos;
+
+        private DeliveryTask(NotificationDTO notification) {
+            this.notificationId = notification.getId();
+            this.notification = notification;
+            String method = notification.getDeliveryMethod();
+            this.channel = method == null || method.isBlank() ? DEFAULT_CHANNEL : method.trim().toUpperCase(Locale.ROOT);
+            this.maxRetries = notification.getMaxRetries() != null ? notification.getMaxRetries() : 3;
+            this.attempts = notification.getRetryCount() != null ? notification.getRetryCount() : 0;
+        }
+
+        private void delayFor(long millis) {
+            readyAtNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+        }
+
+        private void delayUntil(LocalDateTime when) {
+            delayFor(Math.max(0L, Duration.between(LocalDateTime.now(), when).toMillis()));
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(readyAtNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(readyAtNanos, ((DeliveryTask) other).readyAtNanos);
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.smartcampus.service;
+
+import com.smartcampus.entity.Notification;
+import com.smartcampus.entity.NotificationPriority;
+import com.smartcampus.entity.NotificationType;
+import com.smartcampus.entity.User;
+import com.smartcampus.mapper.NotificationMapper;
+import com.smartcampus.repository.NotificationJdbcRepository;
+import com.smartcampus.repository.NotificationRepository;
+import com.smartcampus.service.impl.InAppNotificationSender;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Periodic digest of silent notifications.
+ * While digests are enabled, silent notifications are stored without being pushed and wait in
+ * {@link #STATUS_DIGEST_PENDING}; each run claims them a page of users at a time with
+ * {@code FOR UPDATE SKIP LOCKED} and replaces them with one summary notification per user.
+ */
+@Service
+@Slf4j
+public class NotificationDigestService {
+
+    public static final String STATUS_DIGEST_PENDING = "DIGEST_PENDING";
+
+    private static final String SOURCE = "DIGEST";
+    private static final int MAX_LINE_LENGTH = 150;
+
+    private final NotificationJdbcRepository notificationJdbcRepository;
+    private final NotificationRepository notificationRepository;
+    private final NotificationMapper notificationMapper;
+    private final NotificationDeliveryPipeline notificationDeliveryPipeline;
+    private final NotificationStatsStore notificationStatsStore;
+    private final UnreadCountStore unreadCountStore;
+    private final NotificationInboxTrimmer notificationInboxTrimmer;
+    private final TransactionTemplate digestTransaction;
+    private final boolean enabled;
+    private final int userBatchSize;
+    private final int maxItems;
+
+    public NotificationDigestService(NotificationJdbcRepository notificationJdbcRepository,
+                                     NotificationRepository notificationRepository,
+                                     NotificationMapper notificationMapper,
+                                     NotificationDeliveryPipeline notificationDeliveryPipeline,
+                                     NotificationStatsStore notificationStatsStore,
+                                     UnreadCountStore unreadCountStore,
+                                     NotificationInboxTrimmer notificationInboxTrimmer,
+                                     PlatformTransactionManager transactionManager,
+                                     @Value("${notifications.digest.enabled:false}") boolean enabled,
+                                     @Value("${notifications.digest.user-batch-size:200}") int userBatchSize,
+                                     @Value("${notifications.digest.max-items:5}") int maxItems) {
+        this.notificationJdbcRepository = notificationJdbcRepository;
+        this.notificationRepository = notificationRepository;
+        this.notificationMapper = notificationMapper;
+        this.notificationDeliveryPipeline = notificationDeliveryPipeline;
+        this.notificationStatsStore = notificationStatsStore;
+        this.unreadCountStore = unreadCountStore;
+        this.notificationInboxTrimmer = notificationInboxTrimmer;
+        this.enabled = enabled;
+        this.userBatchSize = userBatchSize;
+        this.maxItems = maxItems;
+        this.digestTransaction = new TransactionTemplate(transactionManager);
+        this.digestTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Whether a newly created notification should wait for the digest instead of being delivered now
+     */
+    public boolean defersDelivery(Notification notification) {
+        return enabled && notification.isSilent() && !notification.isBroadcast() && !notification.isScheduled();
+    }
+
+    @Scheduled(cron = "${notifications.digest.cron:0 0 7 * * *}")
+    public void runScheduled() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            int sent = sendDigests();
+            if (sent > 0) {
+                log.info("Sent {} notification digests", sent);
+            }
+        } catch (RuntimeException e) {
+            log.error("Notification digest run failed", e);
+        }
+    }
+
+    /**
+     * Send one digest to every user with silent notifications waiting
+     * @return number of digests sent
+     */
+    public int sendDigests() {
+        int sent = 0;
+        long afterUserId = 0L;
+        while (true) {
+            List<Long> userIds = notificationJdbcRepository.findDigestUserIds(STATUS_DIGEST_PENDING, afterUserId, userBatchSize);
+            if (userIds.isEmpty()) {
+                break;
+            }
+            Integer written = digestTransaction.execute(status -> digestUsers(userIds));
+            sent += written != null ? written : 0;
+            afterUserId = userIds.get(userIds.size() - 1);
+            if (userIds.size() < userBatchSize) {
+                break;
+            }
+        }
+        return sent;
+    }
+
+    private int digestUsers(List<Long> userIds) {
+        List<Long> ids = notificationJdbcRepository.lockDigestPending(STATUS_DIGEST_PENDING, userIds);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<Notification> pending = new ArrayList<>(notificationRepository.findAllWithUserByIdIn(ids));
+        notificationJdbcRepository.markDigested(ids, NotificationDeliveryPipeline.STATUS_DELIVERED, now, SOURCE);
+
+        // Newest first; anything the user already read in the inbox needs no reminder
+        pending.sort(Comparator.comparing(Notification::getCreatedAt).reversed());
+        Map<Long, List<Notification>> byUser = new LinkedHashMap<>();
+        for (Notification notification : pending) {
+            if (!notification.isRead()) {
+                byUser.computeIfAbsent(notification.getUser().getId(), key -> new ArrayList<>()).add(notification);
+            }
+        }
+
+        for (List<Notification> items : byUser.values()) {
+            Notification digest = notificationRepository.save(buildDigest(items.get(0).getUser(), items, now));
+            notificationStatsStore.added(digest, 1);
+            unreadCountStore.adjust(digest.getUser().getId(), 1);
+            notificationInboxTrimmer.touched(digest.getUser().getId());
+            notificationDeliveryPipeline.enqueue(notificationMapper.toDto(digest));
+        }
+        return byUser.size();
+    }
+
+    private Notification buildDigest(User user, List<Notification> items, LocalDateTime now) {
+        int total = 0;
+        for (Notification item : items) {
+            total += item.getCoalescedCount() != null ? item.getCoalescedCount() : 1;
+        }
+        StringBuilder message = new StringBuilder();
+        for (int i = 0; i < Math.min(maxItems, items.size()); i++) {
+            Notification item = items.get(i);
+            if (message.length() > 0) {
+                message.append('\n');
+            }
+            String line = item.getTitle() != null ? item.getTitle() : item.getMessage();
+            message.append("- ").append(line.length() > MAX_LINE_LENGTH ? line.substring(0, MAX_LINE_LENGTH) + "..." : line);
+        }
+        if (items.size() > maxItems) {
+            message.append("\n...and ").append(items.size() - maxItems).append(" more");
+        }
+
+        Notification digest = Notification.builder()
+                .user(user)
+                .title(total == 1 ? "You have 1 new notification" : "You have " + total + " new notifications")
+                .message(message.toString())
+                .type(NotificationType.GENERAL)
+                .priority(NotificationPriority.LOW)
+                .category(SOURCE)
+                .source(SOURCE)
+                .isSystem(true)
+                .deliveryMethod(InAppNotificationSender.CHANNEL)
+                .deliveryStatus(NotificationDeliveryPipeline.STATUS_PENDING)
+                .claimedBy(notificationDeliveryPipeline.getNodeId())
+                .claimedAt(now)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+        digest.applyDefaults();
+        return digest;
+    }
+}
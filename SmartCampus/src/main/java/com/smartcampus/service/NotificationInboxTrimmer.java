@@ -0,0 +1,148 @@
+package com.smartcampus.service;
+
+import com.smartcampus.repository.NotificationJdbcRepository;
+import com.smartcampus.util.DaemonThreads;
+import com.smartcampus.util.TransactionCallbacks;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps every inbox under a fixed number of notifications.
+ * Users who received notifications are remembered after commit; a background pass counts their
+ * inboxes with one grouped query per chunk of users, and every inbox over the cap has its oldest
+ * read notifications moved to {@code notification_history} until it is back down to the trim
+ * level. Trimming below the cap means a busy inbox is only trimmed once per batch of arrivals.
+ * Unread notifications are never moved, so an inbox full of unread items can exceed the cap.
+ */
+@Service
+@Slf4j
+public class NotificationInboxTrimmer {
+
+    private static final int COUNT_CHUNK_SIZE = 1000;
+
+    private final NotificationJdbcRepository notificationJdbcRepository;
+    private final NotificationStatsStore notificationStatsStore;
+    private final TransactionTemplate moveTransaction;
+    private final int maxActive;
+    private final int trimTo;
+    private final int moveBatchSize;
+
+    private final Set<Long> touched = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService worker;
+    private final Counter movedCounter;
+
+    public NotificationInboxTrimmer(NotificationJdbcRepository notificationJdbcRepository,
+                                    NotificationStatsStore notificationStatsStore,
+                                    PlatformTransactionManager transactionManager,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${notifications.inbox.max-active:1000}") int maxActive,
+                                    @Value("${notifications.inbox.trim-to:900}") int trimTo,
+                                    @Value("${notifications.inbox.move-batch-size:500}") int moveBatchSize,
+                                    @Value("${notifications.inbox.check-interval:5000}") long checkIntervalMillis) {
+        this.notificationJdbcRepository = notificationJdbcRepository;
+        this.notificationStatsStore = notificationStatsStore;
+        this.maxActive = maxActive;
+        this.trimTo = Math.min(trimTo, maxActive);
+        this.moveBatchSize = moveBatchSize;
+        this.moveTransaction = new TransactionTemplate(transactionManager);
+        this.moveTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        this.worker = DaemonThreads.scheduler("notification-inbox-trimmer");
+        if (maxActive > 0) {
+            this.worker.scheduleWithFixedDelay(this::trimQuietly, checkIntervalMillis, checkIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+
+        this.movedCounter = Counter.builder("smartcampus.notifications.inbox.moved")
+                .description("Read notifications moved from full inboxes to history")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Check this user's inbox size once the current transaction commits
+     */
+    public void touched(Long userId) {
+        if (maxActive > 0) {
+            TransactionCallbacks.afterCommit(() -> touched.add(userId));
+        }
+    }
+
+    public void touchedAll(Collection<Long> userIds) {
+        if (maxActive > 0) {
+            List<Long> copy = List.copyOf(userIds);
+            TransactionCallbacks.afterCommit(() -> touched.addAll(copy));
+        }
+    }
+
+    /**
+     * Trim every inbox that received notifications since the last pass
+     * @return number of notifications moved to history
+     */
+    public synchronized long trimPending() {
+        if (touched.isEmpty()) {
+            return 0;
+        }
+        List<Long> userIds = new ArrayList<>(touched);
+        touched.removeAll(userIds);
+
+        long moved = 0;
+        for (int from = 0; from < userIds.size(); from += COUNT_CHUNK_SIZE) {
+            List<Long> chunk = userIds.subList(from, Math.min(from + COUNT_CHUNK_SIZE, userIds.size()));
+            Map<Long, Long> oversized = notificationJdbcRepository.findInboxSizesOver(chunk, maxActive);
+            for (Map.Entry<Long, Long> inbox : oversized.entrySet()) {
+                moved += trim(inbox.getKey(), inbox.getValue() - trimTo);
+            }
+        }
+        if (moved > 0) {
+            notificationStatsStore.markStale();
+            log.debug("Moved {} read notifications from full inboxes to history", moved);
+        }
+        return moved;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        worker.shutdownNow();
+    }
+
+    private long trim(Long userId, long excess) {
+        long moved = 0;
+        while (moved < excess) {
+            int limit = (int) Math.min(moveBatchSize, excess - moved);
+            Integer count = moveTransaction.execute(status -> notificationJdbcRepository.moveToHistory(
+                    notificationJdbcRepository.lockOldestRead(userId, limit), LocalDateTime.now()));
+            int batch = count != null ? count : 0;
+            moved += batch;
+            movedCounter.increment(batch);
+            if (batch < limit) {
+                // Nothing read left to move
+                break;
+            }
+        }
+        return moved;
+    }
+
+    private void trimQuietly() {
+        try {
+            trimPending();
+        } catch (RuntimeException e) {
+            log.error("Failed to trim notification inboxes", e);
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package com.smartcampus.service;
+
+import com.smartcampus.config.NotificationRetentionProperties;
+import com.smartcampus.entity.Notification;
+import com.smartcampus.entity.NotificationType;
+import com.smartcampus.repository.NotificationJdbcRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
+
+/**
+ * Deletes notifications past their retention period.
+ * Rows are grouped by creation month ({@code month_bucket}); months older than every type's
+ * retention are emptied without looking at type, the rest per {@link NotificationType} policy.
+ * Templates, recurring notifications and scheduled notifications not yet sent are never purged.
+ * All deletes go by primary key in small chunks, each in its own short transaction with a pause
+ * in between, so purging never holds long locks or competes with inbox reads. Notifications moved
+ * to {@code notification_history} by {@link NotificationInboxTrimmer} follow the same per-type policy.
+ */
+@Service
+@Slf4j
+public class NotificationRetentionService {
+
+    private final NotificationJdbcRepository notificationJdbcRepository;
+    private final UnreadCountStore unreadCountStore;
+    private final NotificationStatsStore notificationStatsStore;
+    private final NotificationRetentionProperties properties;
+    private final TransactionTemplate chunkTransaction;
+    private final MeterRegistry meterRegistry;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicLong currentRunDeleted = new AtomicLong();
+    private final Map<String, Counter> deletedCounters = new ConcurrentHashMap<>();
+    private final Timer runTimer;
+
+    public NotificationRetentionService(NotificationJdbcRepository notificationJdbcRepository,
+                                        UnreadCountStore unreadCountStore,
+                                        NotificationStatsStore notificationStatsStore,
+                                        NotificationRetentionProperties properties,
+                                        PlatformTransactionManager transactionManager,
+                                        MeterRegistry meterRegistry) {
+        this.notificationJdbcRepository = notificationJdbcRepository;
+        this.unreadCountStore = unreadCountStore;
+        this.notificationStatsStore = notificationStatsStore;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.chunkTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        this.runTimer = Timer.builder("smartcampus.notifications.retention.run")
+                .description("Duration of notification retention runs")
+                .register(meterRegistry);
+        Gauge.builder("smartcampus.notifications.retention.running", running, flag -> flag.get() ? 1 : 0)
+                .description("Whether a retention run is in progress")
+                .register(meterRegistry);
+        Gauge.builder("smartcampus.notifications.retention.run.deleted", currentRunDeleted, AtomicLong::get)
+                .description("Notifications deleted so far by the current (or last) retention run")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${notifications.retention.cron:0 30 3 * * *}")
+    public void runScheduled() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        try {
+            purgeByPolicy();
+        } catch (IllegalStateException e) {
+            log.info("Skipping scheduled notification retention: {}", e.getMessage());
+        } catch (RuntimeException e) {
+            log.error("Notification retention run failed", e);
+        }
+    }
+
+    /**
+     * Apply the per-type retention policy
+     * @return number of notifications deleted
+     * @throws IllegalStateException if another purge is already running
+     */
+    public long purgeByPolicy() {
+        return exclusive(() -> {
+            LocalDateTime now = LocalDateTime.now();
+            long deleted = 0;
+
+            // Months older than every type's cutoff month can be emptied wholesale
+            Integer oldestKeptBucket = null;
+            for (NotificationType type : NotificationType.values()) {
+                int days = properties.daysFor(type);
+                if (days <= 0) {
+                    oldestKeptBucket = null;
+                    break;
+                }
+                int bucket = Notification.monthBucketOf(now.minusDays(days));
+                oldestKeptBucket = oldestKeptBucket == null ? bucket : Math.min(oldestKeptBucket, bucket);
+            }
+            if (oldestKeptBucket != null) {
+                int bucket = oldestKeptBucket;
+                deleted += purgeInChunks("bucket", limit -> notificationJdbcRepository.findIdsInBucketsBefore(bucket, limit));
+            }
+
+            for (NotificationType type : NotificationType.values()) {
+                int days = properties.daysFor(type);
+                if (days <= 0) {
+                    continue;
+                }
+                LocalDateTime cutoff = now.minusDays(days);
+                int cutoffBucket = Notification.monthBucketOf(cutoff);
+                deleted += purgeInChunks("retention", limit ->
+                        notificationJdbcRepository.findIdsOfTypeCreatedBefore(type.name(), cutoffBucket, cutoff, limit));
+                deleted += purgeInChunks("history", limit ->
+                        notificationJdbcRepository.findHistoryIdsOfTypeCreatedBefore(type.name(), cutoffBucket, cutoff, limit),
+                        notificationJdbcRepository::deleteHistoryByIds);
+            }
+
+            deleted += purgeInChunks("expired", limit -> notificationJdbcRepository.findExpiredIds(LocalDateTime.now(), limit));
+            return deleted;
+        });
+    }
+
+    /**
+     * Delete notifications whose expiry date has passed
+     * @throws IllegalStateException if another purge is already running
+     */
+    public long purgeExpired() {
+        return exclusive(() -> purgeInChunks("expired",
+                limit -> notificationJdbcRepository.findExpiredIds(LocalDateTime.now(), limit)));
+    }
+
+    /**
+     * Delete every notification created before {@code cutoff}, regardless of type
+     * @throws IllegalStateException if another purge is already running
+     */
+    public long purgeCreatedBefore(LocalDateTime cutoff) {
+        int cutoffBucket = Notification.monthBucketOf(cutoff);
+        return exclusive(() -> purgeInChunks("manual",
+                limit -> notificationJdbcRepository.findIdsCreatedBefore(cutoffBucket, cutoff, limit)));
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    private long exclusive(RetentionRun run) {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("A notification retention run is already in progress");
+        }
+        currentRunDeleted.set(0);
+        long started = System.nanoTime();
+        try {
+            backfillMonthBuckets();
+            long deleted = run.execute();
+            if (deleted > 0) {
+                unreadCountStore.invalidateAll();
+                notificationStatsStore.markStale();
+            }
+            log.info("Notification retention run deleted {} notifications in {} ms",
+                    deleted, (System.nanoTime() - started) / 1_000_000);
+            return deleted;
+        } finally {
+            runTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            running.set(false);
+        }
+    }
+
+    /**
+     * Rows created before the bucket column existed have no bucket yet and would never match a purge
+     */
+    private void backfillMonthBuckets() {
+        int updated;
+        do {
+            updated = chunkTransaction.execute(status -> notificationJdbcRepository.backfillMonthBuckets(properties.getChunkSize()));
+            pause();
+        } while (updated >= properties.getChunkSize());
+    }
+
+    private long purgeInChunks(String reason, IntFunction<List<Long>> nextChunk) {
+        return purgeInChunks(reason, nextChunk, notificationJdbcRepository::deleteByIds);
+    }
+
+    private long purgeInChunks(String reason, IntFunction<List<Long>> nextChunk, ToIntFunction<List<Long>> delete) {
+        Counter counter = deletedCounters.computeIfAbsent(reason, key ->
+                Counter.builder("smartcampus.notifications.retention.deleted")
+                        .tag("reason", key)
+                        .description("Notifications deleted by retention")
+                        .register(meterRegistry));
+        long deleted = 0;
+        while (!Thread.currentThread().isInterrupted()) {
+            List<Long> ids = nextChunk.apply(properties.getChunkSize());
+            if (ids.isEmpty()) {
+                break;
+            }
+            Integer removed = chunkTransaction.execute(status -> delete.applyAsInt(ids));
+            int count = removed != null ? removed : 0;
+            deleted += count;
+            counter.increment(count);
+            currentRunDeleted.addAndGet(count);
+            if (ids.size() < properties.getChunkSize()) {
+                break;
+            }
+            pause();
+        }
+        return deleted;
+    }
+
+    private void pause() {
+        if (properties.getPauseMillis() <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(properties.getPauseMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @FunctionalInterface
+    private interface RetentionRun {
+        long execute();
+    }
+}
@@ -0,0 +1,310 @@
+package com.smartcampus.service;
+
+import com.smartcampus.dto.NotificationDTO;
+import com.smartcampus.mapper.NotificationMapper;
+import com.smartcampus.repository.NotificationJdbcRepository;
+import com.smartcampus.repository.NotificationRepository;
+import com.smartcampus.util.DaemonThreads;
+import com.smartcampus.util.TimingWheel;
+import com.smartcampus.util.TransactionCallbacks;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Sends scheduled notifications when they fall due.
+ * Due rows are claimed in bounded batches, oldest first, with {@code FOR UPDATE SKIP LOCKED}, so
+ * several nodes can run the scheduler without sending anything twice. Notifications due within
+ * the horizon are also kept on an in-memory timing wheel that triggers a claim as soon as they
+ * are due; the periodic poll is the safety net for everything else (other nodes, restarts).
+ */
+@Service
+@Slf4j
+public class NotificationScheduler {
+
+    private static final String SENT_BY = "SCHEDULER";
+
+    private final NotificationJdbcRepository notificationJdbcRepository;
+    private final NotificationRepository notificationRepository;
+    private final NotificationMapper notificationMapper;
+    private final NotificationBroadcastEngine notificationBroadcastEngine;
+    private final NotificationDeliveryPipeline notificationDeliveryPipeline;
+    private final UnreadCountStore unreadCountStore;
+    private final TransactionTemplate claimTransaction;
+    private final int batchSize;
+    private final long horizonMillis;
+    private final int wheelCapacity;
+
+    private final TimingWheel<Long> wheel;
+    private final Map<Long, Long> tracked = new ConcurrentHashMap<>();
+    private final ReentrantLock claimLock = new ReentrantLock();
+    private final ScheduledExecutorService ticker;
+
+    private final Timer lagTimer;
+    private final Timer claimTimer;
+    private final Counter dispatchedCounter;
+
+    public NotificationScheduler(NotificationJdbcRepository notificationJdbcRepository,
+                                 NotificationRepository notificationRepository,
+                                 NotificationMapper notificationMapper,
+                                 NotificationBroadcastEngine notificationBroadcastEngine,
+                                 NotificationDeliveryPipeline notificationDeliveryPipeline,
+                                 UnreadCountStore unreadCountStore,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${notifications.scheduler.batch-size:500}") int batchSize,
+                                 @Value("${notifications.scheduler.horizon:600000}") long horizonMillis,
+                                 @Value("${notifications.scheduler.tick:100}") long tickMillis,
+                                 @Value("${notifications.scheduler.wheel-capacity:100000}") int wheelCapacity) {
+        this.notificationJdbcRepository = notificationJdbcRepository;
+        this.notificationRepository = notificationRepository;
+        this.notificationMapper = notificationMapper;
+        this.notificationBroadcastEngine = notificationBroadcastEngine;
+        this.notificationDeliveryPipeline = notificationDeliveryPipeline;
+        this.unreadCountStore = unreadCountStore;
+        this.batchSize = batchSize;
+        this.horizonMillis = horizonMillis;
+        this.wheelCapacity = wheelCapacity;
+        this.claimTransaction = new TransactionTemplate(transactionManager);
+        this.claimTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        this.wheel = new TimingWheel<>(tickMillis, 64, System.currentTimeMillis());
+        this.ticker = DaemonThreads.scheduler("notification-scheduler");
+        this.ticker.scheduleAtFixedRate(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+
+        this.lagTimer = Timer.builder("smartcampus.notifications.scheduler.lag")
+                .description("Delay between a notification's scheduled send time and its dispatch")
+                .register(meterRegistry);
+        this.claimTimer = Timer.builder("smartcampus.notifications.scheduler.claim")
+                .description("Time to claim one batch of due scheduled notifications")
+                .register(meterRegistry);
+        this.dispatchedCounter = Counter.builder("smartcampus.notifications.scheduler.dispatched")
+                .description("Scheduled notifications dispatched by this node")
+                .register(meterRegistry);
+        Gauge.builder("smartcampus.notifications.scheduler.wheel.pending", tracked, Map::size)
+                .description("Scheduled notifications waiting on this node's timing wheel")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Arrange for a newly scheduled notification to be sent on time, once the current transaction commits.
+     * Notifications beyond the horizon are left to a later poll.
+     */
+    public void track(Long notificationId, LocalDateTime sendAt) {
+        if (notificationId == null || sendAt == null) {
+            return;
+        }
+        TransactionCallbacks.afterCommit(() -> addTimer(notificationId, toEpochMillis(sendAt)));
+    }
+
+    /**
+     * Claim and dispatch everything currently due, one batch at a time
+     * @return number of notifications dispatched
+     */
+    public int processDue() {
+        claimLock.lock();
+        try {
+            int dispatched = 0;
+            while (true) {
+                List<NotificationDTO> batch = claimTimer.record(this::claimBatch);
+                if (batch == null || batch.isEmpty()) {
+                    break;
+                }
+                dispatch(batch);
+                dispatched += batch.size();
+                if (batch.size() < batchSize) {
+                    break;
+                }
+            }
+            return dispatched;
+        } finally {
+            claimLock.unlock();
+        }
+    }
+
+    /**
+     * Safety-net sweep: sends anything the wheel did not cover and loads upcoming notifications onto the wheel
+     */
+    @Scheduled(fixedDelayString = "${notifications.scheduler.poll-interval:30000}",
+               initialDelayString = "${notifications.scheduler.initial-delay:10000}")
+    public void poll() {
+        try {
+            int dispatched = processDue();
+            if (dispatched > 0) {
+                log.info("Scheduler poll dispatched {} scheduled notifications", dispatched);
+            }
+            refillWheel();
+        } catch (RuntimeException e) {
+            log.error("Scheduled notification poll failed", e);
+        }
+    }
+
+    public int getPendingCount() {
+        return tracked.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ticker.shutdownNow();
+    }
+
+    private List<NotificationDTO> claimBatch() {
+        return claimTransaction.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<Long> ids = notificationJdbcRepository.lockDueScheduled(now, batchSize);
+            if (ids.isEmpty()) {
+                return List.of();
+            }
+            notificationJdbcRepository.markScheduledSent(ids, now, SENT_BY, notificationDeliveryPipeline.getNodeId());
+            List<NotificationDTO> claimed = notificationMapper.toDtoList(notificationRepository.findAllWithUserByIdIn(ids));
+            for (NotificationDTO notification : claimed) {
+                if (notification.isBroadcast()) {
+                    // The broadcast job is stored in the claim's transaction, so a sent broadcast always has one
+                    submitBroadcast(notification);
+                } else if (notification.getUserId() != null && !notification.isRead()) {
+                    // Scheduled notifications join the unread count once sent, with the claim's commit
+                    unreadCountStore.adjust(notification.getUserId(), 1);
+                }
+            }
+            return claimed;
+        });
+    }
+
+    /**
+     * Runs after the claim has committed, so a notification is handed on at most once.
+     * Broadcasts were already queued as jobs by the claim and start on their own.
+     */
+    private void dispatch(List<NotificationDTO> batch) {
+        LocalDateTime now = LocalDateTime.now();
+        for (NotificationDTO notification : batch) {
+            tracked.remove(notification.getId());
+            if (notification.getScheduledSendDate() != null) {
+                lagTimer.record(Duration.between(notification.getScheduledSendDate(), now).abs());
+            }
+            try {
+                if (!notification.isBroadcast()) {
+                    notificationDeliveryPipeline.enqueue(notification);
+                }
+                dispatchedCounter.increment();
+            } catch (RuntimeException e) {
+                log.error("Failed to dispatch scheduled notification {}", notification.getId(), e);
+            }
+        }
+    }
+
+    private void submitBroadcast(NotificationDTO notification) {
+        NotificationDTO broadcast = NotificationDTO.builder()
+                .message(notification.getMessage())
+                .type(notification.getType())
+                .priority(notification.getPriority())
+                .title(notification.getTitle())
+                .description(notification.getDescription())
+                .category(notification.getCategory())
+                .actionUrl(notification.getActionUrl())
+                .actionText(notification.getActionText())
+                .expiryDate(notification.getExpiryDate())
+                .isDismissible(notification.getIsDismissible())
+                .isUrgent(notification.getIsUrgent())
+                .isSilent(notification.getIsSilent())
+                .icon(notification.getIcon())
+                .color(notification.getColor())
+                .isSystem(notification.getIsSystem())
+                .source(notification.getSource())
+                .sourceId(notification.getSourceId())
+                .isSent(true)
+                .sentAt(LocalDateTime.now())
+                .sentBy(SENT_BY)
+                .build();
+        try {
+            notificationBroadcastEngine.submit(broadcast, notification.getBroadcastTarget());
+        } catch (IllegalArgumentException e) {
+            log.error("Scheduled broadcast {} cannot be sent: {}", notification.getId(), e.getMessage());
+        }
+    }
+
+    private void refillWheel() {
+        LocalDateTime now = LocalDateTime.now();
+        int room = wheelCapacity - tracked.size();
+        if (room <= 0) {
+            return;
+        }
+        Map<Long, LocalDateTime> upcoming = notificationJdbcRepository.findUpcomingScheduled(
+                now, now.plus(Duration.ofMillis(horizonMillis)), room);
+        upcoming.forEach((id, sendAt) -> addTimer(id, toEpochMillis(sendAt)));
+    }
+
+    private void addTimer(Long notificationId, long dueAt) {
+        if (dueAt > System.currentTimeMillis() + horizonMillis) {
+            return;
+        }
+        Long previous = tracked.get(notificationId);
+        if (previous != null && previous == dueAt) {
+            return;
+        }
+        if (previous == null && tracked.size() >= wheelCapacity) {
+            return;
+        }
+        tracked.put(notificationId, dueAt);
+        if (!wheel.schedule(notificationId, dueAt)) {
+            tracked.remove(notificationId, dueAt);
+            requestClaim();
+        }
+    }
+
+    private void tick() {
+        try {
+            long now = System.currentTimeMillis();
+            boolean due = false;
+            for (Long notificationId : wheel.advance(now)) {
+                Long dueAt = tracked.get(notificationId);
+                // Timers left behind by a reschedule no longer match the tracked time and are ignored
+                if (dueAt != null && dueAt <= now && tracked.remove(notificationId, dueAt)) {
+                    due = true;
+                }
+            }
+            if (due) {
+                processDue();
+            }
+        } catch (RuntimeException e) {
+            log.error("Scheduled notification dispatch failed", e);
+        }
+    }
+
+    private void requestClaim() {
+        try {
+            ticker.execute(() -> {
+                try {
+                    processDue();
+                } catch (RuntimeException e) {
+                    log.error("Scheduled notification dispatch failed", e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.debug("Scheduler is shutting down, leaving due notifications to the next poll");
+        }
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,22 @@
+package com.smartcampus.service;
+
+import com.smartcampus.dto.NotificationDTO;
+import com.smartcampus.exception.NotificationDeliveryException;
+
+/**
+ * Delivers notifications over one channel (IN_APP, EMAIL, SMS, ...).
+ * Implementations are called concurrently from the delivery pipeline's worker threads.
+ */
+public interface NotificationSender {
+
+    /**
+     * Delivery method this sender handles, matched against {@code Notification.deliveryMethod}
+     */
+    String getChannel();
+
+    /**
+     * Send one notification
+     * @throws NotificationDeliveryException if delivery failed; retried unless marked permanent
+     */
+    void send(NotificationDTO notification);
+}
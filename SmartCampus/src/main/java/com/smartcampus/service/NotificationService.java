@@ -1,6 +1,12 @@
 package com.smartcampus.service;
 
+import com.smartcampus.dto.BroadcastJobDTO;
+import com.smartcampus.dto.BulkSendResultDTO;
+import com.smartcampus.dto.CursorPageDTO;
 import com.smartcampus.dto.NotificationDTO;
+import com.smartcampus.dto.NotificationRequest;
+import com.smartcampus.dto.NotificationStatsDTO;
+import com.smartcampus.dto.TemplateSendRequest;
 import com.smartcampus.entity.NotificationPriority;
 import com.smartcampus.entity.NotificationType;
 import org.springframework.data.domain.Page;
@@ -8,9 +14,11 @@ import org.springframework.data.domain.Pageable;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface NotificationService {
     List<NotificationDTO> getAllNotifications();
+    void streamAllNotifications(Consumer<NotificationDTO> action);
     Page<NotificationDTO> getAllNotificationsPaginated(Pageable pageable);
     NotificationDTO getNotificationById(Long id);
     NotificationDTO createNotification(NotificationDTO notificationDTO);
@@ -18,8 +26,10 @@ public interface NotificationService {
     void deleteNotification(Long id);
     List<NotificationDTO> getNotificationsByUserId(Long userId);
     Page<NotificationDTO> getNotificationsByUserIdPaginated(Long userId, Pageable pageable);
+    Page<NotificationDTO> getNotificationHistoryByUserId(Long userId, Pageable pageable);
     List<NotificationDTO> getNotificationsByUserIdAndIsRead(Long userId, Boolean isRead);
     Page<NotificationDTO> getNotificationsByUserIdAndIsReadPaginated(Long userId, Boolean isRead, Pageable pageable);
+    CursorPageDTO<NotificationDTO> getInbox(Long userId, Boolean isRead, String after, int limit);
     List<NotificationDTO> getNotificationsByUserIdAndType(Long userId, NotificationType type);
     List<NotificationDTO> getNotificationsByUserIdAndPriority(Long userId, NotificationPriority priority);
     List<NotificationDTO> getNotificationsByUserIdAndIsUrgent(Long userId, Boolean isUrgent);
@@ -69,6 +79,7 @@ public interface NotificationService {
     List<NotificationDTO> getNotificationsByTemplateName(String templateName);
     Long getNotificationCountByUserId(Long userId);
     Long getNotificationCountByUserIdAndIsRead(Long userId, Boolean isRead);
+    Long getUnreadCountByUserId(Long userId);
     Long getNotificationCountByUserIdAndType(Long userId, NotificationType type);
     Long getNotificationCountByUserIdAndPriority(Long userId, NotificationPriority priority);
     Long getNotificationCountByUserIdAndIsUrgent(Long userId, Boolean isUrgent);
@@ -95,30 +106,36 @@ public interface NotificationService {
     Long getReadyForRetryNotificationCount();
     Long getNotificationCountByBroadcastTarget(String target);
     Long getTemplateCount();
+    NotificationStatsDTO getNotificationStatistics();
     void markAsRead(Long notificationId, String readBy);
     void markAsUnread(Long notificationId);
-    void markAllAsReadByUserId(Long userId, String readBy);
-    void markAllAsUnreadByUserId(Long userId);
+    int markAllAsReadByUserId(Long userId, String readBy);
+    int markAllAsUnreadByUserId(Long userId);
+    void markBroadcastAsRead(Long broadcastId, Long userId);
+    void dismissBroadcast(Long broadcastId, Long userId);
     void archiveNotification(Long notificationId, String archivedBy, String archiveReason);
     void unarchiveNotification(Long notificationId);
-    void archiveAllByUserId(Long userId, String archivedBy, String archiveReason);
-    void unarchiveAllByUserId(Long userId);
+    int archiveAllByUserId(Long userId, String archivedBy, String archiveReason);
+    int unarchiveAllByUserId(Long userId);
     void markAsSent(Long notificationId, String sentBy);
     void incrementRetryCount(Long notificationId);
     void setNextRetryDate(Long notificationId, LocalDateTime nextRetryDate);
     void sendNotificationToUser(Long userId, NotificationDTO notificationDTO);
     void sendNotificationToUsers(List<Long> userIds, NotificationDTO notificationDTO);
-    void sendBroadcastNotification(NotificationDTO notificationDTO, String target);
+    BulkSendResultDTO sendBulkNotification(NotificationRequest request);
+    BulkSendResultDTO sendTemplatedNotification(String templateName, TemplateSendRequest request);
+    BroadcastJobDTO sendBroadcastNotification(NotificationDTO notificationDTO, String target);
     void sendSystemNotification(Long userId, String message, NotificationType type, NotificationPriority priority);
     void sendSystemNotificationToUsers(List<Long> userIds, String message, NotificationType type, NotificationPriority priority);
-    void sendSystemBroadcastNotification(String message, NotificationType type, NotificationPriority priority, String target);
+    BroadcastJobDTO sendSystemBroadcastNotification(String message, NotificationType type, NotificationPriority priority, String target);
+    BroadcastJobDTO getBroadcastJob(String jobId);
     void scheduleNotification(Long userId, NotificationDTO notificationDTO, LocalDateTime scheduledDate);
     void scheduleBroadcastNotification(NotificationDTO notificationDTO, String target, LocalDateTime scheduledDate);
     void cancelScheduledNotification(Long notificationId);
-    void processScheduledNotifications();
-    void processRecurringNotifications();
+    int processScheduledNotifications();
+    int processRecurringNotifications();
     void processRetryNotifications();
-    void cleanupExpiredNotifications();
-    void cleanupOldNotifications(int daysToKeep);
-    void deleteTestNotifications();
+    int cleanupExpiredNotifications();
+    int cleanupOldNotifications(int daysToKeep);
+    int deleteTestNotifications();
 } 
\ No newline at end of file
@@ -0,0 +1,315 @@
+package com.smartcampus.service;
+
+import com.smartcampus.dto.NotificationStatsDTO;
+import com.smartcampus.entity.Notification;
+import com.smartcampus.entity.NotificationPriority;
+import com.smartcampus.entity.NotificationType;
+import com.smartcampus.repository.NotificationRepository;
+import com.smartcampus.util.DaemonThreads;
+import com.smartcampus.util.TransactionCallbacks;
+import jakarta.annotation.PreDestroy;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+/**
+ * Materialized system-wide notification statistics.
+ * One GROUP BY over every dimension (type, priority, category, source, read, urgent, system,
+ * archived) fills a table of cell counts; single-row writes then adjust their cell after commit.
+ * Bulk writes that cannot say which cells they touched mark the snapshot stale, which triggers a
+ * delayed, coalesced recount; a periodic recount repairs any drift. Deltas that land while a
+ * recount is running are replayed onto the fresh table before it is swapped in.
+ */
+@Service
+@Slf4j
+public class NotificationStatsStore {
+
+    private final NotificationRepository notificationRepository;
+    private final TransactionTemplate readTransaction;
+    private final long staleRebuildDelayMillis;
+
+    private volatile Map<StatsKey, AtomicLong> cells = new ConcurrentHashMap<>();
+    private volatile Queue<Delta> replayLog;
+    private volatile LocalDateTime rebuiltAt;
+    private final ReentrantReadWriteLock swapLock = new ReentrantReadWriteLock();
+    private final AtomicLong staleVersion = new AtomicLong();
+    private volatile long rebuiltVersion = -1;
+    private final AtomicBoolean rebuildQueued = new AtomicBoolean();
+    private final ScheduledExecutorService rebuilder;
+
+    public NotificationStatsStore(NotificationRepository notificationRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  @org.springframework.beans.factory.annotation.Value("${notifications.stats.stale-rebuild-delay:30000}")
+                                  long staleRebuildDelayMillis) {
+        this.notificationRepository = notificationRepository;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.staleRebuildDelayMillis = staleRebuildDelayMillis;
+        this.rebuilder = DaemonThreads.scheduler("notification-stats");
+    }
+
+    /**
+     * Identify the statistics cell a notification currently falls in; take it before changing the notification
+     */
+    public StatsKey keyOf(Notification notification) {
+        return new StatsKey(
+                notification.getType() != null ? notification.getType().name() : null,
+                notification.getPriority() != null ? notification.getPriority().name() : null,
+                notification.getCategory(),
+                notification.getSource(),
+                Boolean.TRUE.equals(notification.getIsRead()),
+                Boolean.TRUE.equals(notification.getIsUrgent()),
+                Boolean.TRUE.equals(notification.getIsSystem()),
+                Boolean.TRUE.equals(notification.getIsArchived()));
+    }
+
+    /**
+     * Count {@code count} new notifications shaped like {@code notification} once the current transaction commits
+     */
+    public void added(Notification notification, long count) {
+        StatsKey key = keyOf(notification);
+        TransactionCallbacks.afterCommit(() -> apply(key, count));
+    }
+
+    public void removed(Notification notification) {
+        StatsKey key = keyOf(notification);
+        TransactionCallbacks.afterCommit(() -> apply(key, -1));
+    }
+
+    /**
+     * Move a notification from the cell it was in ({@code before}) to the one it is in now
+     */
+    public void changed(StatsKey before, Notification after) {
+        StatsKey key = keyOf(after);
+        if (key.equals(before)) {
+            return;
+        }
+        TransactionCallbacks.afterCommit(() -> {
+            apply(before, -1);
+            apply(key, 1);
+        });
+    }
+
+    /**
+     * For bulk changes whose per-cell effect is unknown: schedule a recount once the transaction commits
+     */
+    public void markStale() {
+        TransactionCallbacks.afterCommit(() -> {
+            staleVersion.incrementAndGet();
+            if (rebuildQueued.compareAndSet(false, true)) {
+                rebuilder.schedule(this::rebuildQuietly, staleRebuildDelayMillis, TimeUnit.MILLISECONDS);
+            }
+        });
+    }
+
+    public NotificationStatsDTO getSnapshot() {
+        ensureBuilt();
+        Map<StatsKey, AtomicLong> current = cells;
+        long total = 0;
+        long unread = 0;
+        long urgent = 0;
+        long system = 0;
+        long archived = 0;
+        Map<String, Long> byType = new TreeMap<>();
+        Map<String, Long> byPriority = new TreeMap<>();
+        Map<String, Long> byCategory = new TreeMap<>();
+        Map<String, Long> bySource = new TreeMap<>();
+        for (Map.Entry<StatsKey, AtomicLong> entry : current.entrySet()) {
+            long count = entry.getValue().get();
+            if (count <= 0) {
+                continue;
+            }
+            StatsKey key = entry.getKey();
+            total += count;
+            unread += key.read ? 0 : count;
+            urgent += key.urgent ? count : 0;
+            system += key.system ? count : 0;
+            archived += key.archived ? count : 0;
+            byType.merge(Objects.toString(key.type, "NONE"), count, Long::sum);
+            byPriority.merge(Objects.toString(key.priority, "NONE"), count, Long::sum);
+            byCategory.merge(Objects.toString(key.category, "NONE"), count, Long::sum);
+            bySource.merge(Objects.toString(key.source, "NONE"), count, Long::sum);
+        }
+        return NotificationStatsDTO.builder()
+                .total(total)
+                .unread(unread)
+                .read(total - unread)
+                .urgent(urgent)
+                .system(system)
+                .archived(archived)
+                .byType(byType)
+                .byPriority(byPriority)
+                .byCategory(byCategory)
+                .bySource(bySource)
+                .rebuiltAt(rebuiltAt)
+                .stale(rebuiltVersion != staleVersion.get())
+                .build();
+    }
+
+    public long countByIsRead(Boolean isRead) {
+        return isRead == null ? count(key -> true) : count(key -> key.read == isRead);
+    }
+
+    public long countByType(NotificationType type) {
+        return count(key -> Objects.equals(key.type, type != null ? type.name() : null));
+    }
+
+    public long countByPriority(NotificationPriority priority) {
+        return count(key -> Objects.equals(key.priority, priority != null ? priority.name() : null));
+    }
+
+    public long countByIsUrgent(Boolean isUrgent) {
+        return count(key -> key.urgent == Boolean.TRUE.equals(isUrgent));
+    }
+
+    public long countByIsSystem(Boolean isSystem) {
+        return count(key -> key.system == Boolean.TRUE.equals(isSystem));
+    }
+
+    public long countByIsArchived(Boolean isArchived) {
+        return count(key -> key.archived == Boolean.TRUE.equals(isArchived));
+    }
+
+    public long countByCategory(String category) {
+        return count(key -> Objects.equals(key.category, category));
+    }
+
+    public long countBySource(String source) {
+        return count(key -> Objects.equals(key.source, source));
+    }
+
+    @Scheduled(fixedDelayString = "${notifications.stats.rebuild-interval:600000}",
+               initialDelayString = "${notifications.stats.rebuild-interval:600000}")
+    public void scheduledRebuild() {
+        rebuildQuietly();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        rebuilder.execute(this::rebuildQuietly);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuilder.shutdownNow();
+    }
+
+    /**
+     * Recount every cell with a single GROUP BY and swap the result in
+     */
+    public synchronized void rebuild() {
+        rebuildQueued.set(false);
+        long version = staleVersion.get();
+        Queue<Delta> replay = new ConcurrentLinkedQueue<>();
+        replayLog = replay;
+        long started = System.nanoTime();
+        try {
+            List<Object[]> rows = readTransaction.execute(status -> notificationRepository.countByStatsDimensions());
+            Map<StatsKey, AtomicLong> fresh = new ConcurrentHashMap<>();
+            for (Object[] row : rows) {
+                StatsKey key = new StatsKey(
+                        enumName(row[0]), enumName(row[1]), (String) row[2], (String) row[3],
+                        Boolean.TRUE.equals(row[4]), Boolean.TRUE.equals(row[5]),
+                        Boolean.TRUE.equals(row[6]), Boolean.TRUE.equals(row[7]));
+                fresh.computeIfAbsent(key, k -> new AtomicLong()).addAndGet(((Number) row[8]).longValue());
+            }
+
+            swapLock.writeLock().lock();
+            try {
+                for (Delta delta : replay) {
+                    fresh.computeIfAbsent(delta.key, k -> new AtomicLong()).addAndGet(delta.amount);
+                }
+                cells = fresh;
+                replayLog = null;
+                rebuiltAt = LocalDateTime.now();
+                rebuiltVersion = version;
+            } finally {
+                swapLock.writeLock().unlock();
+            }
+            log.debug("Rebuilt notification statistics: {} cells in {} ms",
+                    fresh.size(), (System.nanoTime() - started) / 1_000_000);
+        } finally {
+            replayLog = null;
+        }
+    }
+
+    private void rebuildQuietly() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.error("Failed to rebuild notification statistics", e);
+        }
+    }
+
+    private void ensureBuilt() {
+        if (rebuiltAt == null) {
+            rebuild();
+        }
+    }
+
+    private long count(Predicate<StatsKey> filter) {
+        ensureBuilt();
+        long total = 0;
+        for (Map.Entry<StatsKey, AtomicLong> entry : cells.entrySet()) {
+            if (filter.test(entry.getKey())) {
+                total += Math.max(0L, entry.getValue().get());
+            }
+        }
+        return total;
+    }
+
+    private void apply(StatsKey key, long amount) {
+        swapLock.readLock().lock();
+        try {
+            cells.computeIfAbsent(key, k -> new AtomicLong()).addAndGet(amount);
+            Queue<Delta> replay = replayLog;
+            if (replay != null) {
+                replay.add(new Delta(key, amount));
+            }
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    private static String enumName(Object value) {
+        return value instanceof Enum<?> e ? e.name() : (String) value;
+    }
+
+    @Value
+    public static class StatsKey {
+        String type;
+        String priority;
+        String category;
+        String source;
+        boolean read;
+        boolean urgent;
+        boolean system;
+        boolean archived;
+    }
+
+    @Value
+    private static class Delta {
+        StatsKey key;
+        long amount;
+    }
+}
@@ -0,0 +1,403 @@
+package com.smartcampus.service;
+
+import com.smartcampus.dto.NotificationDTO;
+import com.smartcampus.util.DaemonThreads;
+import com.smartcampus.util.TransactionCallbacks;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Node-local registry of Server-Sent Event subscribers, keyed by user id.
+ * Idle connections hold no thread; events are queued per subscriber and written by a small
+ * sender pool, one drain task per subscriber at a time. Unread-count updates are coalesced so
+ * only the latest value is sent. A client that falls behind is disconnected rather than allowed
+ * to hold up others: when its bounded queue overflows, or when a single write blocks for longer
+ * than the write timeout. A blocked write cannot be interrupted, so for each stalled write the
+ * pool gets one extra thread until that write returns, and the other subscribers keep flowing.
+ * Clients reconnect (EventSource does so on its own) and start again from the current count.
+ */
+@Service
+@Slf4j
+public class NotificationStreamRegistry {
+
+    private static final String EVENT_NOTIFICATION = "notification";
+    private static final String EVENT_UNREAD_COUNT = "unread-count";
+
+    private final UnreadCountStore unreadCountStore;
+    private final SharedBroadcastService sharedBroadcastService;
+    private final long emitterTimeoutMillis;
+    private final long writeTimeoutNanos;
+    private final int queueCapacity;
+    private final int maxSubscribers;
+    private final int maxPerUser;
+    private final int senderThreads;
+    private final int maxStalledWriters;
+
+    private final Map<Long, List<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final Set<Subscriber> writing = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final ThreadPoolExecutor sender;
+    private final ScheduledExecutorService heartbeat;
+    // Guarded by sender; writes currently stuck past the timeout that were given a replacement thread
+    private int stalledWriters;
+    private final Counter droppedCounter;
+
+    public NotificationStreamRegistry(UnreadCountStore unreadCountStore,
+                                      SharedBroadcastService sharedBroadcastService,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${notifications.stream.timeout:1800000}") long emitterTimeoutMillis,
+                                      @Value("${notifications.stream.heartbeat-interval:25000}") long heartbeatMillis,
+                                      @Value("${notifications.stream.queue-capacity:32}") int queueCapacity,
+                                      @Value("${notifications.stream.max-subscribers:6000}") int maxSubscribers,
+                                      @Value("${notifications.stream.max-per-user:5}") int maxPerUser,
+                                      @Value("${notifications.stream.sender-threads:4}") int senderThreads,
+                                      @Value("${notifications.stream.write-timeout:5000}") long writeTimeoutMillis,
+                                      @Value("${notifications.stream.max-stalled-writers:64}") int maxStalledWriters) {
+        this.unreadCountStore = unreadCountStore;
+        this.sharedBroadcastService = sharedBroadcastService;
+        this.emitterTimeoutMillis = emitterTimeoutMillis;
+        this.writeTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(writeTimeoutMillis);
+        this.queueCapacity = queueCapacity;
+        this.maxSubscribers = maxSubscribers;
+        this.maxPerUser = maxPerUser;
+        this.senderThreads = senderThreads;
+        this.maxStalledWriters = maxStalledWriters;
+        this.sender = new ThreadPoolExecutor(senderThreads, senderThreads, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), DaemonThreads.factory("notification-stream-"));
+        this.heartbeat = DaemonThreads.scheduler("notification-heartbeat");
+        this.heartbeat.scheduleAtFixedRate(this::sendHeartbeats, heartbeatMillis, heartbeatMillis, TimeUnit.MILLISECONDS);
+        long watchdogMillis = Math.max(100L, Math.min(1000L, writeTimeoutMillis / 2));
+        this.heartbeat.scheduleWithFixedDelay(this::disconnectStalledQuietly, watchdogMillis, watchdogMillis, TimeUnit.MILLISECONDS);
+
+        this.droppedCounter = Counter.builder("smartcampus.notifications.stream.dropped")
+                .description("Subscribers disconnected because their queue overflowed or a write timed out")
+                .register(meterRegistry);
+        Gauge.builder("smartcampus.notifications.stream.subscribers", subscriberCount, AtomicInteger::get)
+                .description("Open notification stream connections on this node")
+                .register(meterRegistry);
+        Gauge.builder("smartcampus.notifications.stream.stalled-writers", this, NotificationStreamRegistry::getStalledWriterCount)
+                .description("Writes to disconnected clients still blocked in the container")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Open a stream for a user. The first event carries the current unread count.
+     * @throws IllegalStateException if this node already holds the maximum number of streams
+     */
+    public SseEmitter subscribe(Long userId) {
+        if (subscriberCount.get() >= maxSubscribers) {
+            throw new IllegalStateException("Notification stream capacity reached, please fall back to polling");
+        }
+
+        Subscriber subscriber = new Subscriber(userId, new SseEmitter(emitterTimeoutMillis));
+        List<Subscriber> userSubscribers = subscribers.compute(userId, (id, list) -> {
+            List<Subscriber> target = list != null ? list : new CopyOnWriteArrayList<>();
+            target.add(subscriber);
+            return target;
+        });
+        subscriberCount.incrementAndGet();
+
+        // Keep a handful of tabs per user; the oldest connection makes way
+        while (userSubscribers.size() > maxPerUser) {
+            disconnect(userSubscribers.get(0));
+        }
+
+        SseEmitter emitter = subscriber.emitter;
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(error -> remove(subscriber));
+
+        subscriber.countDirty.set(true);
+        schedule(subscriber);
+        log.debug("Notification stream opened for user {} ({} open on this node)", userId, subscriberCount.get());
+        return emitter;
+    }
+
+    /**
+     * Push a new notification and the user's updated unread count once the current transaction commits
+     */
+    public void publishNotification(Long userId, NotificationDTO notification) {
+        TransactionCallbacks.afterCommit(() -> deliver(userId, notification));
+    }
+
+    /**
+     * Push a different notification to each user, e.g. one chunk of a personalized send
+     */
+    public void publishEach(Map<Long, NotificationDTO> notifications) {
+        TransactionCallbacks.afterCommit(() -> notifications.forEach(this::deliver));
+    }
+
+    /**
+     * Push the same notification to several users, e.g. one broadcast chunk
+     */
+    public void publishToUsers(Collection<Long> userIds, NotificationDTO notification) {
+        TransactionCallbacks.afterCommit(() -> userIds.forEach(userId -> deliver(userId, notification)));
+    }
+
+    /**
+     * Push the user's current unread count once the current transaction commits
+     */
+    public void publishUnreadCount(Long userId) {
+        TransactionCallbacks.afterCommit(() -> {
+            List<Subscriber> userSubscribers = subscribers.get(userId);
+            if (userSubscribers != null) {
+                for (Subscriber subscriber : userSubscribers) {
+                    subscriber.countDirty.set(true);
+                    schedule(subscriber);
+                }
+            }
+        });
+    }
+
+    /**
+     * Users with at least one open stream on this node
+     */
+    public Set<Long> getSubscribedUserIds() {
+        return Set.copyOf(subscribers.keySet());
+    }
+
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    public int getStalledWriterCount() {
+        synchronized (sender) {
+            return stalledWriters;
+        }
+    }
+
+    /**
+     * Disconnect subscribers whose current write has been blocked for longer than the write timeout
+     * @return number of subscribers disconnected
+     */
+    public int disconnectStalled() {
+        long now = System.nanoTime();
+        int disconnected = 0;
+        for (Subscriber subscriber : writing) {
+            synchronized (subscriber) {
+                if (subscriber.writingSince == 0 || subscriber.compensated
+                        || now - subscriber.writingSince < writeTimeoutNanos) {
+                    continue;
+                }
+                subscriber.compensated = addSenderThread();
+                if (!subscriber.closed) {
+                    droppedCounter.increment();
+                    disconnected++;
+                }
+                disconnect(subscriber);
+            }
+        }
+        if (disconnected > 0) {
+            log.warn("Disconnected {} notification streams whose writes blocked for over {} ms",
+                    disconnected, TimeUnit.NANOSECONDS.toMillis(writeTimeoutNanos));
+        }
+        return disconnected;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeat.shutdownNow();
+        sender.shutdown();
+        subscribers.values().forEach(list -> list.forEach(subscriber -> subscriber.emitter.complete()));
+        subscribers.clear();
+    }
+
+    private void deliver(Long userId, NotificationDTO notification) {
+        List<Subscriber> userSubscribers = subscribers.get(userId);
+        if (userSubscribers == null) {
+            return;
+        }
+        for (Subscriber subscriber : userSubscribers) {
+            if (notification != null && !subscriber.outbound.offer(notification)) {
+                log.debug("Notification stream for user {} fell behind, disconnecting", userId);
+                droppedCounter.increment();
+                disconnect(subscriber);
+                continue;
+            }
+            subscriber.countDirty.set(true);
+            schedule(subscriber);
+        }
+    }
+
+    private void sendHeartbeats() {
+        for (List<Subscriber> userSubscribers : subscribers.values()) {
+            for (Subscriber subscriber : userSubscribers) {
+                subscriber.heartbeatDue.set(true);
+                schedule(subscriber);
+            }
+        }
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.draining.compareAndSet(false, true)) {
+            try {
+                sender.execute(() -> drain(subscriber));
+            } catch (RejectedExecutionException e) {
+                subscriber.draining.set(false);
+            }
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            while (!subscriber.closed) {
+                NotificationDTO notification = subscriber.outbound.poll();
+                if (notification != null) {
+                    SseEmitter.SseEventBuilder event = SseEmitter.event()
+                            .name(EVENT_NOTIFICATION)
+                            .data(notification, MediaType.APPLICATION_JSON);
+                    if (notification.getId() != null) {
+                        event.id(String.valueOf(notification.getId()));
+                    }
+                    send(subscriber, event);
+                    continue;
+                }
+                if (subscriber.countDirty.getAndSet(false)) {
+                    long count = unreadCountStore.get(subscriber.userId) + sharedBroadcastService.countUnread(subscriber.userId);
+                    send(subscriber, SseEmitter.event().name(EVENT_UNREAD_COUNT).data(count));
+                    continue;
+                }
+                if (subscriber.heartbeatDue.getAndSet(false)) {
+                    send(subscriber, SseEmitter.event().comment("heartbeat"));
+                    continue;
+                }
+                break;
+            }
+            if (subscriber.disconnected && !subscriber.completed) {
+                subscriber.completed = true;
+                subscriber.emitter.complete();
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Client went away; the servlet container reports it through the emitter callbacks as well
+            log.debug("Notification stream for user {} closed: {}", subscriber.userId, e.getMessage());
+            remove(subscriber);
+            subscriber.completed = true;
+            subscriber.emitter.completeWithError(e);
+        } catch (RuntimeException e) {
+            log.warn("Failed to push notification event to user {}", subscriber.userId, e);
+        } finally {
+            subscriber.draining.set(false);
+            if ((!subscriber.closed && subscriber.hasPendingWork()) || (subscriber.disconnected && !subscriber.completed)) {
+                schedule(subscriber);
+            }
+        }
+    }
+
+    private void send(Subscriber subscriber, SseEmitter.SseEventBuilder event) throws IOException {
+        synchronized (subscriber) {
+            subscriber.writingSince = System.nanoTime();
+        }
+        writing.add(subscriber);
+        try {
+            subscriber.emitter.send(event);
+        } finally {
+            writing.remove(subscriber);
+            synchronized (subscriber) {
+                subscriber.writingSince = 0;
+                if (subscriber.compensated) {
+                    subscriber.compensated = false;
+                    removeSenderThread();
+                }
+            }
+        }
+    }
+
+    /**
+     * Stop delivering to a subscriber and close its stream from its own drain task, so the caller
+     * never waits on a write that is blocked
+     */
+    private void disconnect(Subscriber subscriber) {
+        subscriber.disconnected = true;
+        remove(subscriber);
+        schedule(subscriber);
+    }
+
+    private boolean addSenderThread() {
+        synchronized (sender) {
+            if (stalledWriters >= maxStalledWriters) {
+                return false;
+            }
+            stalledWriters++;
+            sender.setMaximumPoolSize(senderThreads + stalledWriters);
+            sender.setCorePoolSize(senderThreads + stalledWriters);
+            return true;
+        }
+    }
+
+    private void removeSenderThread() {
+        synchronized (sender) {
+            stalledWriters--;
+            sender.setCorePoolSize(senderThreads + stalledWriters);
+            sender.setMaximumPoolSize(senderThreads + stalledWriters);
+        }
+    }
+
+    private void disconnectStalledQuietly() {
+        try {
+            disconnectStalled();
+        } catch (RuntimeException e) {
+            log.error("Notification stream watchdog failed", e);
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        if (subscriber.closed) {
+            return;
+        }
+        subscriber.closed = true;
+        subscribers.computeIfPresent(subscriber.userId, (userId, list) -> {
+            if (list.remove(subscriber)) {
+                subscriberCount.decrementAndGet();
+            }
+            return list.isEmpty() ? null : list;
+        });
+    }
+
+    private final class Subscriber {
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final Queue<NotificationDTO> outbound = new ArrayBlockingQueue<>(queueCapacity);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean countDirty = new AtomicBoolean();
+        private final AtomicBoolean heartbeatDue = new AtomicBoolean();
+        private volatile boolean closed;
+        private volatile boolean disconnected;
+        private volatile boolean completed;
+        // Guarded by the subscriber: when the current write started (0 when idle) and whether it got a replacement thread
+        private long writingSince;
+        private boolean compensated;
+
+        private Subscriber(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        private boolean hasPendingWork() {
+            return !outbound.isEmpty() || countDirty.get() || heartbeatDue.get();
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.smartcampus.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartcampus.dto.NotificationDTO;
+import com.smartcampus.entity.Notification;
+import com.smartcampus.exception.ResourceNotFoundException;
+import com.smartcampus.mapper.NotificationMapper;
+import com.smartcampus.repository.NotificationRepository;
+import com.smartcampus.util.CompiledTemplate;
+import com.smartcampus.util.TransactionCallbacks;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Notification templates, compiled once and cached by name.
+ * A template is a notification row with {@code isTemplate = true}; its title and message may contain
+ * {@code {{variable}}} placeholders and {@code templateVariables} may hold a JSON object of default
+ * values. The cache is a bounded LRU that drops a name whenever a template with that name changes.
+ */
+@Service
+@Slf4j
+public class NotificationTemplateService {
+
+    private final NotificationRepository notificationRepository;
+    private final NotificationMapper notificationMapper;
+    private final ObjectMapper objectMapper;
+
+    private final Map<String, Template> cache;
+    // Bumped on every invalidation so a load that raced with an update is not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    public NotificationTemplateService(NotificationRepository notificationRepository,
+                                       NotificationMapper notificationMapper,
+                                       ObjectMapper objectMapper,
+                                       @Value("${notifications.templates.cache-size:500}") int cacheSize) {
+        this.notificationRepository = notificationRepository;
+        this.notificationMapper = notificationMapper;
+        this.objectMapper = objectMapper;
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Template> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    /**
+     * Compiled template by name; the newest template wins if several share a name
+     * @throws ResourceNotFoundException if there is no template with that name
+     */
+    public Template get(String templateName) {
+        Template template = cache.get(templateName);
+        if (template != null) {
+            return template;
+        }
+        long loadedAt = generation.get();
+        List<Notification> rows = notificationRepository.findByTemplateName(templateName);
+        Notification row = rows.stream()
+                .max(Comparator.comparing(Notification::getId))
+                .orElseThrow(() -> new ResourceNotFoundException("Notification template not found: " + templateName));
+        template = compile(row);
+        if (generation.get() == loadedAt) {
+            cache.put(templateName, template);
+        }
+        return template;
+    }
+
+    /**
+     * Drop a template from the cache once the current transaction commits
+     */
+    public void invalidate(String templateName) {
+        if (templateName == null) {
+            return;
+        }
+        TransactionCallbacks.afterCommit(() -> {
+            generation.incrementAndGet();
+            cache.remove(templateName);
+        });
+    }
+
+    public int getCacheSize() {
+        return cache.size();
+    }
+
+    private Template compile(Notification row) {
+        NotificationDTO prototype = notificationMapper.toDto(row);
+        prototype.setId(null);
+        prototype.setUserId(null);
+        prototype.setUserName(null);
+        prototype.setUserEmail(null);
+        prototype.setUserRole(null);
+        prototype.setIsTemplate(false);
+        prototype.setTemplateVariables(null);
+        prototype.setIsRead(false);
+        prototype.setReadAt(null);
+        prototype.setReadBy(null);
+        prototype.setIsArchived(false);
+        prototype.setIsScheduled(false);
+        prototype.setScheduledSendDate(null);
+        prototype.setIsSent(false);
+        prototype.setSentAt(null);
+        prototype.setDeliveryStatus(null);
+        prototype.setDeliveryError(null);
+        prototype.setRetryCount(0);
+        prototype.setCreatedAt(null);
+        prototype.setUpdatedAt(null);
+        return new Template(row.getTemplateName(), prototype,
+                CompiledTemplate.compile(row.getTitle()), CompiledTemplate.compile(row.getMessage()),
+                parseDefaults(row));
+    }
+
+    private Map<String, String> parseDefaults(Notification row) {
+        String json = row.getTemplateVariables();
+        if (json == null || json.isBlank()) {
+            return Map.of();
+        }
+        try {
+            return Map.copyOf(objectMapper.readValue(json, new TypeReference<Map<String, String>>() { }));
+        } catch (JsonProcessingException e) {
+            log.warn("Ignoring unreadable default variables on template {}: {}", row.getTemplateName(), e.getOriginalMessage());
+            return Map.of();
+        }
+    }
+
+    /**
+     * A compiled template: the notification fields every copy shares, plus compiled title and message
+     */
+    @Getter
+    public static final class Template {
+        private final String name;
+        private final NotificationDTO prototype;
+        private final CompiledTemplate title;
+        private final CompiledTemplate message;
+        private final Map<String, String> defaults;
+
+        private Template(String name, NotificationDTO prototype, CompiledTemplate title,
+                         CompiledTemplate message, Map<String, String> defaults) {
+            this.name = name;
+            this.prototype = prototype;
+            this.title = title;
+            this.message = message;
+            this.defaults = defaults;
+        }
+
+        public boolean isPersonalized() {
+            return (title != null && title.hasVariables()) || (message != null && message.hasVariables());
+        }
+
+        public String renderTitle(CompiledTemplate.VariableSource values) {
+            return title != null ? title.render(withDefaults(values)) : null;
+        }
+
+        public String renderMessage(CompiledTemplate.VariableSource values) {
+            return message != null ? message.render(withDefaults(values)) : null;
+        }
+
+        private CompiledTemplate.VariableSource withDefaults(CompiledTemplate.VariableSource values) {
+            if (defaults.isEmpty()) {
+                return values;
+            }
+            return name -> {
+                Object value = values.get(name);
+                return value != null ? value : defaults.get(name);
+            };
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.smartcampus.service;
+
+import com.smartcampus.entity.CollectionVersion;
+import com.smartcampus.repository.CollectionVersionJdbcRepository;
+import com.smartcampus.util.ResourceVersion;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Versions of the read-heavy catalog collections, used as ETags by their list endpoints.
+ * Each collection has a counter row in {@code collection_versions} that is incremented inside every
+ * transaction that can change one of its list responses (see {@code ResourceVersionListener}), so
+ * all nodes share it and no change commits without its new version. Reads use a snapshot of the
+ * table reloaded at most every {@code cache-ttl} ms, which bounds how long any node can answer
+ * 304 for a list that has changed.
+ */
+@Service
+public class ResourceVersions {
+
+    public enum Resource {
+        COURSES,
+        ANNOUNCEMENTS,
+        PROFESSORS
+    }
+
+    private final CollectionVersionJdbcRepository collectionVersionJdbcRepository;
+    private final long cacheTtlMillis;
+
+    private volatile Snapshot snapshot;
+
+    public ResourceVersions(CollectionVersionJdbcRepository collectionVersionJdbcRepository,
+                            @Value("${resource-versions.cache-ttl:1000}") long cacheTtlMillis) {
+        this.collectionVersionJdbcRepository = collectionVersionJdbcRepository;
+        this.cacheTtlMillis = cacheTtlMillis;
+    }
+
+    public ResourceVersion current(Resource resource) {
+        Snapshot current = snapshot;
+        if (current == null || System.currentTimeMillis() - current.loadedAt >= cacheTtlMillis) {
+            current = reload();
+        }
+        return current.versions.get(resource);
+    }
+
+    /**
+     * Increment the version of every given collection. Must run inside the transaction that makes
+     * the change, so the new version commits, or rolls back, with it.
+     */
+    public void bump(Collection<Resource> resources) {
+        // Enum order keeps the row locks of concurrent writers in one order
+        List<String> names = new ArrayList<>();
+        for (Resource resource : EnumSet.copyOf(resources)) {
+            names.add(resource.name());
+        }
+        collectionVersionJdbcRepository.increment(names, LocalDateTime.now());
+    }
+
+    /**
+     * Drop the cached snapshot, so this node sees its own committed changes on the next read
+     */
+    public void invalidate() {
+        snapshot = null;
+    }
+
+    private synchronized Snapshot reload() {
+        Snapshot current = snapshot;
+        if (current != null && System.currentTimeMillis() - current.loadedAt < cacheTtlMillis) {
+            return current;
+        }
+        long loadedAt = System.currentTimeMillis();
+        Map<String, CollectionVersion> rows = new HashMap<>();
+        for (CollectionVersion row : collectionVersionJdbcRepository.findAll()) {
+            rows.put(row.getName(), row);
+        }
+        Map<Resource, ResourceVersion> versions = new EnumMap<>(Resource.class);
+        for (Resource resource : Resource.values()) {
+            versions.put(resource, version(resource, rows.get(resource.name())));
+        }
+        current = new Snapshot(loadedAt, versions);
+        snapshot = current;
+        return current;
+    }
+
+    private static ResourceVersion version(Resource resource, CollectionVersion row) {
+        String prefix = "\"" + resource.name().toLowerCase() + "-";
+        if (row == null) {
+            // Never changed since the table was created; -1 leaves Last-Modified out
+            return new ResourceVersion(prefix + "0\"", -1);
+        }
+        long updatedAt = row.getUpdatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        // The timestamp keeps a recreated table from reusing an old counter's ETags
+        String eTag = prefix + row.getVersion() + "-" + Long.toString(updatedAt, Character.MAX_RADIX) + "\"";
+        return new ResourceVersion(eTag, updatedAt - updatedAt % 1000);
+    }
+
+    private static final class Snapshot {
+        private final long loadedAt;
+        private final Map<Resource, ResourceVersion> versions;
+
+        private Snapshot(long loadedAt, Map<Resource, ResourceVersion> versions) {
+            this.loadedAt = loadedAt;
+            this.versions = versions;
+        }
+    }
+}
@@ -0,0 +1,444 @@
+package com.smartcampus.service;
+
+import com.smartcampus.dto.AudienceMember;
+import com.smartcampus.dto.NotificationDTO;
+import com.smartcampus.entity.Notification;
+import com.smartcampus.entity.SharedBroadcast;
+import com.smartcampus.exception.ResourceNotFoundException;
+import com.smartcampus.repository.NotificationJdbcRepository;
+import com.smartcampus.repository.SharedBroadcastRepository;
+import com.smartcampus.util.BroadcastAudience;
+import com.smartcampus.util.DaemonThreads;
+import com.smartcampus.util.TransactionCallbacks;
+import com.smartcampus.util.UserIdBitmap;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Broadcasts stored once and fanned out when users read their notifications.
+ * Active broadcasts are cached with their read and dismiss bitmaps; a user's audience profile
+ * (role, department, enrolled courses) is cached briefly so matching costs no query per read.
+ * Read and dismiss only ever add ids, so new bits are merged into the stored bitmaps in the
+ * background with an OR under a row lock, which is safe with several nodes writing.
+ */
+@Service
+@Slf4j
+public class SharedBroadcastService {
+
+    private final SharedBroadcastRepository sharedBroadcastRepository;
+    private final NotificationJdbcRepository notificationJdbcRepository;
+    private final TransactionTemplate flushTransaction;
+    private final TransactionTemplate readTransaction;
+    private final long profileTtlMillis;
+    private final int maxProfiles;
+
+    private volatile List<Entry> active = List.of();
+    private final Map<Long, CachedMember> profiles = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService worker;
+
+    public SharedBroadcastService(SharedBroadcastRepository sharedBroadcastRepository,
+                                  NotificationJdbcRepository notificationJdbcRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${notifications.shared-broadcast.flush-interval:2000}") long flushIntervalMillis,
+                                  @Value("${notifications.shared-broadcast.refresh-interval:30000}") long refreshIntervalMillis,
+                                  @Value("${notifications.shared-broadcast.profile-ttl:60000}") long profileTtlMillis,
+                                  @Value("${notifications.shared-broadcast.max-profiles:50000}") int maxProfiles) {
+        this.sharedBroadcastRepository = sharedBroadcastRepository;
+        this.notificationJdbcRepository = notificationJdbcRepository;
+        this.profileTtlMillis = profileTtlMillis;
+        this.maxProfiles = maxProfiles;
+        this.flushTransaction = new TransactionTemplate(transactionManager);
+        this.flushTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+
+        this.worker = DaemonThreads.scheduler("shared-broadcasts");
+        this.worker.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+        this.worker.scheduleWithFixedDelay(this::refreshQuietly, refreshIntervalMillis, refreshIntervalMillis, TimeUnit.MILLISECONDS);
+
+        Gauge.builder("smartcampus.notifications.shared-broadcasts.active", this, service -> service.active.size())
+                .description("Active broadcasts served by fan-out on read")
+                .register(meterRegistry);
+        Gauge.builder("smartcampus.notifications.shared-broadcasts.bitmap-bytes", this, SharedBroadcastService::bitmapBytes)
+                .description("Serialized size of the read and dismiss bitmaps of active broadcasts")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Store {@code template} once for everyone in {@code audience}; visible to readers once the transaction commits
+     */
+    public SharedBroadcast publish(Notification template, BroadcastAudience audience, long recipientEstimate) {
+        LocalDateTime now = LocalDateTime.now();
+        SharedBroadcast broadcast = sharedBroadcastRepository.save(SharedBroadcast.builder()
+                .target(audience.getTarget())
+                .message(template.getMessage())
+                .title(template.getTitle())
+                .description(template.getDescription())
+                .type(template.getType())
+                .priority(template.getPriority())
+                .category(template.getCategory())
+                .actionUrl(template.getActionUrl())
+                .actionText(template.getActionText())
+                .icon(template.getIcon())
+                .color(template.getColor())
+                .isUrgent(template.getIsUrgent())
+                .isDismissible(template.getIsDismissible())
+                .isSystem(template.getIsSystem())
+                .source(template.getSource())
+                .sourceId(template.getSourceId())
+                .sentBy(template.getSentBy())
+                .expiryDate(template.getExpiryDate())
+                .recipientEstimate(recipientEstimate)
+                .createdAt(now)
+                .updatedAt(now)
+                .build());
+        Entry entry = new Entry(broadcast);
+        TransactionCallbacks.afterCommit(() -> {
+            List<Entry> next = new ArrayList<>(active.size() + 1);
+            next.add(entry);
+            next.addAll(active);
+            active = List.copyOf(next);
+        });
+        log.info("Published shared broadcast {} to {} (~{} recipients)", broadcast.getId(), audience.getTarget(), recipientEstimate);
+        return broadcast;
+    }
+
+    /**
+     * Active broadcasts addressed to a user and not dismissed by them, newest first, with their read state
+     */
+    public List<NotificationDTO> findForUser(Long userId) {
+        List<NotificationDTO> result = new ArrayList<>();
+        for (Entry entry : applicable(userId)) {
+            boolean read;
+            synchronized (entry) {
+                if (entry.dismissed.contains(userId)) {
+                    continue;
+                }
+                read = entry.read.contains(userId);
+            }
+            result.add(entry.toDto(userId, read));
+        }
+        return result;
+    }
+
+    public long countUnread(Long userId) {
+        long unread = 0;
+        for (Entry entry : applicable(userId)) {
+            synchronized (entry) {
+                if (!entry.read.contains(userId) && !entry.dismissed.contains(userId)) {
+                    unread++;
+                }
+            }
+        }
+        return unread;
+    }
+
+    public boolean appliesTo(Long broadcastId, Long userId) {
+        Entry entry = find(broadcastId);
+        return entry != null && matches(entry, member(userId));
+    }
+
+    /**
+     * @return true if the broadcast was unread for this user
+     * @throws ResourceNotFoundException if no active broadcast with this id is addressed to the user
+     */
+    public boolean markRead(Long broadcastId, Long userId) {
+        Entry entry = applicableEntry(broadcastId, userId);
+        synchronized (entry) {
+            if (!entry.read.add(userId)) {
+                return false;
+            }
+            entry.pendingRead.add(userId);
+            return !entry.dismissed.contains(userId);
+        }
+    }
+
+    /**
+     * Mark every applicable broadcast read for a user
+     * @return number of broadcasts that were unread
+     */
+    public int markAllRead(Long userId) {
+        int marked = 0;
+        for (Entry entry : applicable(userId)) {
+            synchronized (entry) {
+                if (entry.read.add(userId)) {
+                    entry.pendingRead.add(userId);
+                    if (!entry.dismissed.contains(userId)) {
+                        marked++;
+                    }
+                }
+            }
+        }
+        return marked;
+    }
+
+    /**
+     * Hide a broadcast from a user's notifications for good
+     * @return true if the broadcast was still unread for this user
+     * @throws ResourceNotFoundException if no active broadcast with this id is addressed to the user
+     */
+    public boolean dismiss(Long broadcastId, Long userId) {
+        Entry entry = applicableEntry(broadcastId, userId);
+        synchronized (entry) {
+            if (!entry.dismissed.add(userId)) {
+                return false;
+            }
+            entry.pendingDismissed.add(userId);
+            return !entry.read.contains(userId);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        worker.execute(this::refreshQuietly);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        worker.shutdownNow();
+        flushQuietly();
+    }
+
+    /**
+     * Write pending read and dismiss bits, then reload active broadcasts and merge bits written by other nodes
+     */
+    public synchronized void refresh() {
+        flush();
+        List<SharedBroadcast> rows = readTransaction.execute(status -> sharedBroadcastRepository.findActive(LocalDateTime.now()));
+        Map<Long, Entry> current = new HashMap<>();
+        for (Entry entry : active) {
+            current.put(entry.broadcast.getId(), entry);
+        }
+        List<Entry> next = new ArrayList<>(rows.size());
+        for (SharedBroadcast row : rows) {
+            Entry entry = current.get(row.getId());
+            if (entry == null) {
+                entry = new Entry(row);
+            } else {
+                synchronized (entry) {
+                    entry.read.or(UserIdBitmap.fromBytes(row.getReadBitmap()));
+                    entry.dismissed.or(UserIdBitmap.fromBytes(row.getDismissedBitmap()));
+                }
+            }
+            next.add(entry);
+        }
+        active = List.copyOf(next);
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            log.error("Failed to refresh shared broadcasts", e);
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Failed to flush shared broadcast read state", e);
+        }
+    }
+
+    private synchronized void flush() {
+        for (Entry entry : active) {
+            UserIdBitmap read;
+            UserIdBitmap dismissed;
+            synchronized (entry) {
+                if (entry.pendingRead.isEmpty() && entry.pendingDismissed.isEmpty()) {
+                    continue;
+                }
+                read = entry.pendingRead;
+                dismissed = entry.pendingDismissed;
+                entry.pendingRead = new UserIdBitmap();
+                entry.pendingDismissed = new UserIdBitmap();
+            }
+            try {
+                flushTransaction.executeWithoutResult(status ->
+                        sharedBroadcastRepository.findByIdForUpdate(entry.broadcast.getId()).ifPresent(row -> {
+                            row.setReadBitmap(merge(row.getReadBitmap(), read));
+                            row.setDismissedBitmap(merge(row.getDismissedBitmap(), dismissed));
+                            row.setUpdatedAt(LocalDateTime.now());
+                        }));
+            } catch (RuntimeException e) {
+                // Keep the bits for the next attempt
+                synchronized (entry) {
+                    entry.pendingRead.or(read);
+                    entry.pendingDismissed.or(dismissed);
+                }
+                throw e;
+            }
+        }
+    }
+
+    private static byte[] merge(byte[] stored, UserIdBitmap additions) {
+        if (additions.isEmpty()) {
+            return stored;
+        }
+        UserIdBitmap bitmap = UserIdBitmap.fromBytes(stored);
+        bitmap.or(additions);
+        return bitmap.toBytes();
+    }
+
+    private List<Entry> applicable(Long userId) {
+        List<Entry> snapshot = active;
+        if (snapshot.isEmpty()) {
+            return List.of();
+        }
+        AudienceMember member = member(userId);
+        List<Entry> result = new ArrayList<>();
+        for (Entry entry : snapshot) {
+            if (matches(entry, member)) {
+                result.add(entry);
+            }
+        }
+        return result;
+    }
+
+    private Entry applicableEntry(Long broadcastId, Long userId) {
+        Entry entry = find(broadcastId);
+        if (entry == null || !matches(entry, member(userId))) {
+            throw new ResourceNotFoundException("Broadcast not found with id: " + broadcastId);
+        }
+        return entry;
+    }
+
+    private Entry find(Long broadcastId) {
+        for (Entry entry : active) {
+            if (entry.broadcast.getId().equals(broadcastId)) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    private boolean matches(Entry entry, AudienceMember member) {
+        if (member == null) {
+            return false;
+        }
+        LocalDateTime expiry = entry.broadcast.getExpiryDate();
+        if (expiry != null && !expiry.isAfter(LocalDateTime.now())) {
+            return false;
+        }
+        return entry.audience.includes(member.getRole(), member.getDepartment(), member.isActive(), member.getCourseIds());
+    }
+
+    /**
+     * Cached audience profile; enrolled courses are only looked up while a course broadcast is active
+     */
+    private AudienceMember member(Long userId) {
+        boolean needsCourses = false;
+        for (Entry entry : active) {
+            if (entry.audience.getKind() == BroadcastAudience.Kind.COURSE) {
+                needsCourses = true;
+                break;
+            }
+        }
+        long now = System.currentTimeMillis();
+        CachedMember cached = profiles.get(userId);
+        if (cached != null && cached.loadedAt + profileTtlMillis > now && (cached.withCourses || !needsCourses)) {
+            return cached.member;
+        }
+        Optional<AudienceMember> loaded = notificationJdbcRepository.findAudienceMember(userId, needsCourses);
+        if (profiles.size() >= maxProfiles) {
+            profiles.clear();
+        }
+        AudienceMember member = loaded.orElse(null);
+        profiles.put(userId, new CachedMember(member, needsCourses, now));
+        return member;
+    }
+
+    private long bitmapBytes() {
+        long total = 0;
+        for (Entry entry : active) {
+            synchronized (entry) {
+                total += entry.read.sizeInBytes() + entry.dismissed.sizeInBytes();
+            }
+        }
+        return total;
+    }
+
+    private static final class Entry {
+        private final SharedBroadcast broadcast;
+        private final BroadcastAudience audience;
+        private final UserIdBitmap read;
+        private final UserIdBitmap dismissed;
+        // Bits set on this node since the last flush
+        private UserIdBitmap pendingRead = new UserIdBitmap();
+        private UserIdBitmap pendingDismissed = new UserIdBitmap();
+
+        private Entry(SharedBroadcast broadcast) {
+            this.read = UserIdBitmap.fromBytes(broadcast.getReadBitmap());
+            this.dismissed = UserIdBitmap.fromBytes(broadcast.getDismissedBitmap());
+            // The cached copy only keeps the content; bitmaps live in the fields above
+            broadcast.setReadBitmap(null);
+            broadcast.setDismissedBitmap(null);
+            this.broadcast = broadcast;
+            this.audience = BroadcastAudience.parse(broadcast.getTarget());
+        }
+
+        private NotificationDTO toDto(Long userId, boolean read) {
+            NotificationDTO dto = new NotificationDTO();
+            dto.setUserId(userId);
+            dto.setSharedBroadcastId(broadcast.getId());
+            dto.setMessage(broadcast.getMessage());
+            dto.setTitle(broadcast.getTitle());
+            dto.setDescription(broadcast.getDescription());
+            dto.setType(broadcast.getType());
+            dto.setPriority(broadcast.getPriority());
+            dto.setCategory(broadcast.getCategory());
+            dto.setActionUrl(broadcast.getActionUrl());
+            dto.setActionText(broadcast.getActionText());
+            dto.setIcon(broadcast.getIcon());
+            dto.setColor(broadcast.getColor());
+            dto.setIsUrgent(broadcast.getIsUrgent());
+            dto.setIsDismissible(broadcast.getIsDismissible());
+            dto.setIsSystem(broadcast.getIsSystem());
+            dto.setSource(broadcast.getSource());
+            dto.setSourceId(broadcast.getSourceId());
+            dto.setSentBy(broadcast.getSentBy());
+            dto.setExpiryDate(broadcast.getExpiryDate());
+            dto.setIsBroadcast(true);
+            dto.setBroadcastTarget(broadcast.getTarget());
+            dto.setIsRead(read);
+            dto.setIsArchived(false);
+            dto.setIsSilent(false);
+            dto.setCreatedAt(broadcast.getCreatedAt());
+            dto.setUpdatedAt(broadcast.getUpdatedAt());
+            return dto;
+        }
+    }
+
+    private static final class CachedMember {
+        private final AudienceMember member;
+        private final boolean withCourses;
+        private final long loadedAt;
+
+        private CachedMember(AudienceMember member, boolean withCourses, long loadedAt) {
+            this.member = member;
+            this.withCourses = withCourses;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
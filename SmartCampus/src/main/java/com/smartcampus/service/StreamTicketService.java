@@ -0,0 +1,88 @@
+package com.smartcampus.service;
+
+import com.smartcampus.entity.StreamTicket;
+import com.smartcampus.repository.StreamTicketRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * Issues and redeems notification stream tickets, so access tokens never appear in a URL.
+ * A ticket is valid for a few seconds and for one connection; the row is deleted on use.
+ */
+@Service
+@Slf4j
+public class StreamTicketService {
+
+    private final StreamTicketRepository streamTicketRepository;
+    private final long ttlSeconds;
+    private final SecureRandom random = new SecureRandom();
+
+    public StreamTicketService(StreamTicketRepository streamTicketRepository,
+                               @Value("${notifications.stream.ticket-ttl:30}") long ttlSeconds) {
+        this.streamTicketRepository = streamTicketRepository;
+        this.ttlSeconds = ttlSeconds;
+    }
+
+    @Transactional
+    public String issue(Long userId, String email, Collection<String> authorities) {
+        byte[] raw = new byte[32];
+        random.nextBytes(raw);
+        String ticket = Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+        streamTicketRepository.save(StreamTicket.builder()
+                .ticketHash(digest(ticket))
+                .userId(userId)
+                .email(email)
+                .authorities(String.join(",", authorities))
+                .expiresAt(LocalDateTime.now().plusSeconds(ttlSeconds))
+                .build());
+        return ticket;
+    }
+
+    /**
+     * Exchange a ticket for the identity it was issued to. Fails if it is unknown, expired or already used.
+     */
+    @Transactional
+    public Optional<StreamTicket> redeem(String ticket) {
+        String ticketHash = digest(ticket);
+        Optional<StreamTicket> issued = streamTicketRepository.findById(ticketHash);
+        if (issued.isEmpty() || streamTicketRepository.consume(ticketHash, LocalDateTime.now()) == 0) {
+            return Optional.empty();
+        }
+        return issued;
+    }
+
+    public long getTtlSeconds() {
+        return ttlSeconds;
+    }
+
+    @Scheduled(fixedDelayString = "${notifications.stream.ticket-cleanup-interval:300000}")
+    @Transactional
+    public void deleteExpired() {
+        int deleted = streamTicketRepository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            log.debug("Deleted {} expired stream tickets", deleted);
+        }
+    }
+
+    private String digest(String ticket) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(ticket.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -1,33 +1,19 @@
 package com.smartcampus.service;
 
-import com.smartcampus.entity.Student;
-import com.smartcampus.repository.StudentRepository;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
 @Service
 @RequiredArgsConstructor
 public class StudentSecurityService {
 
-    private final StudentRepository studentRepository;
+    private final CallerIdentityService callerIdentityService;
 
     public boolean isOwnProfile(Long studentId) {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String email = authentication.getName();
-        
-        return studentRepository.findByUserEmail(email)
-                .map(student -> student.getId().equals(studentId))
-                .orElse(false);
+        return callerIdentityService.currentStudentId().map(id -> id.equals(studentId)).orElse(false);
     }
 
     public boolean isOwnProfileByUserId(Long userId) {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String email = authentication.getName();
-        
-        return studentRepository.findByUserEmail(email)
-                .map(student -> student.getUser().getId().equals(userId))
-                .orElse(false);
+        return callerIdentityService.currentStudentUserId().map(id -> id.equals(userId)).orElse(false);
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,219 @@
+package com.smartcampus.service;
+
+import com.smartcampus.repository.NotificationRepository;
+import com.smartcampus.util.DaemonThreads;
+import com.smartcampus.util.TransactionCallbacks;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Per-user unread notification counters for the notification badge.
+ * A counter is loaded from the database on first access and then kept current by the
+ * write paths, which report deltas once their transaction commits. Loads and deltas for
+ * the same user are serialised on a lock stripe so a delta can't be lost behind a
+ * concurrent load. A load that ran after the write's commit started already includes the
+ * write, so such a delta drops the counter instead of being added twice. A periodic sweep
+ * drops counters older than the reconcile interval, so they are re-read from the database,
+ * which repairs any drift (e.g. writes made outside this service) whether or not they are read.
+ */
+@Service
+@Slf4j
+public class UnreadCountStore {
+
+    private static final int STRIPES = 64;
+
+    private final NotificationRepository notificationRepository;
+    private final long reconcileIntervalMillis;
+    private final int maxEntries;
+
+    private final Map<Long, UnreadCounter> counters = new ConcurrentHashMap<>();
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+    // Orders counter loads against commits: ticked after each load and just before each commit
+    private final AtomicLong clock = new AtomicLong();
+    private final ScheduledExecutorService sweeper;
+
+    public UnreadCountStore(NotificationRepository notificationRepository,
+                            @Value("${notifications.unread-count.reconcile-interval:60000}") long reconcileIntervalMillis,
+                            @Value("${notifications.unread-count.max-entries:50000}") int maxEntries) {
+        this.notificationRepository = notificationRepository;
+        this.reconcileIntervalMillis = reconcileIntervalMillis;
+        this.maxEntries = maxEntries;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.sweeper = DaemonThreads.scheduler("unread-count-sweep");
+        this.sweeper.scheduleWithFixedDelay(this::sweepQuietly, reconcileIntervalMillis, reconcileIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Current unread count for a user; only touches the database on a miss or when the counter is due for reconciliation
+     */
+    public long get(Long userId) {
+        long now = System.currentTimeMillis();
+        UnreadCounter counter = counters.get(userId);
+        if (counter != null && !counter.isStale(now, reconcileIntervalMillis)) {
+            return counter.value.get();
+        }
+
+        ReentrantLock lock = stripe(userId);
+        lock.lock();
+        try {
+            counter = counters.get(userId);
+            if (counter != null && !counter.isStale(now, reconcileIntervalMillis)) {
+                return counter.value.get();
+            }
+            Long stored = notificationRepository.countDeliveredUnreadByUserId(userId);
+            long value = stored != null ? stored : 0L;
+            long loadedTick = clock.incrementAndGet();
+            if (counter == null) {
+                // When full, serve from the database until the sweep makes room
+                if (counters.size() < maxEntries) {
+                    counters.put(userId, new UnreadCounter(value, now, loadedTick));
+                }
+            } else {
+                counter.value.set(value);
+                counter.loadedAt = now;
+                counter.loadedTick = loadedTick;
+            }
+            return value;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Apply a change to a user's unread count once the current transaction commits (immediately if there is none)
+     */
+    public void adjust(Long userId, long delta) {
+        if (userId == null || delta == 0) {
+            return;
+        }
+        applyAfterCommit(List.of(userId), delta);
+    }
+
+    /**
+     * Apply the same change to several users, e.g. after a batch insert
+     */
+    public void adjustAll(Collection<Long> userIds, long delta) {
+        if (userIds.isEmpty() || delta == 0) {
+            return;
+        }
+        applyAfterCommit(userIds, delta);
+    }
+
+    /**
+     * Forget every counter, for bulk deletes that span users; counters reload on next access
+     */
+    public void invalidateAll() {
+        TransactionCallbacks.afterCommit(counters::clear);
+    }
+
+    /**
+     * Drop counters that are due for reconciliation; they reload on next access
+     * @return number of counters dropped
+     */
+    public int sweep() {
+        long now = System.currentTimeMillis();
+        int before = counters.size();
+        counters.values().removeIf(counter -> counter.isStale(now, reconcileIntervalMillis));
+        return before - counters.size();
+    }
+
+    public int size() {
+        return counters.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sweeper.shutdownNow();
+    }
+
+    /**
+     * Apply the delta once the transaction commits. The tick taken just before the commit tells
+     * which counters were loaded early enough to be missing the write.
+     */
+    private void applyAfterCommit(Collection<Long> userIds, long delta) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Already committed, so a concurrent load may have counted it; reload instead
+            userIds.forEach(counters::remove);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private long commitTick;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                commitTick = clock.incrementAndGet();
+            }
+
+            @Override
+            public void afterCommit() {
+                userIds.forEach(userId -> apply(userId, delta, commitTick));
+            }
+        });
+    }
+
+    private void apply(Long userId, long delta, long commitTick) {
+        ReentrantLock lock = stripe(userId);
+        lock.lock();
+        try {
+            UnreadCounter counter = counters.get(userId);
+            // Users without a counter simply load the committed value on next access
+            if (counter == null) {
+                return;
+            }
+            if (counter.loadedTick > commitTick) {
+                // Loaded while or after this write committed; it may already be counted
+                counters.remove(userId);
+            } else {
+                counter.value.updateAndGet(current -> Math.max(0L, current + delta));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void sweepQuietly() {
+        try {
+            int dropped = sweep();
+            if (dropped > 0) {
+                log.debug("Dropped {} unread counters due for reconciliation", dropped);
+            }
+        } catch (RuntimeException e) {
+            log.error("Unread count sweep failed", e);
+        }
+    }
+
+    private ReentrantLock stripe(Long userId) {
+        return stripes[Math.floorMod(userId.hashCode(), STRIPES)];
+    }
+
+    private static final class UnreadCounter {
+        private final AtomicLong value;
+        private volatile long loadedAt;
+        private volatile long loadedTick;
+
+        private UnreadCounter(long value, long loadedAt, long loadedTick) {
+            this.value = new AtomicLong(value);
+            this.loadedAt = loadedAt;
+            this.loadedTick = loadedTick;
+        }
+
+        private boolean isStale(long now, long reconcileIntervalMillis) {
+            return now - loadedAt >= reconcileIntervalMillis;
+        }
+    }
+}
@@ -7,6 +7,7 @@ import com.smartcampus.dto.UserDTO;
 import com.smartcampus.entity.User;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface UserService {
     User registerUser(RegisterRequest request);
@@ -25,6 +26,7 @@ public interface UserService {
     
     // Admin methods
     List<UserDTO> getAllUsers();
+    void streamAllUsers(Consumer<UserDTO> action);
     
     // Additional utility methods
     UserDTO convertToDTO(User user);
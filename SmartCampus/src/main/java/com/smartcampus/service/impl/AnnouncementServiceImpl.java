@@ -1,50 +1,95 @@
 package com.smartcampus.service.impl;
 
 import com.smartcampus.dto.AnnouncementDTO;
+import com.smartcampus.dto.AttachmentDTO;
+import com.smartcampus.dto.CursorPageDTO;
 import com.smartcampus.entity.Announcement;
 import com.smartcampus.entity.AnnouncementPriority;
 import com.smartcampus.entity.AnnouncementStatus;
+import com.smartcampus.entity.AnnouncementVisibility;
 import com.smartcampus.entity.Course;
+import com.smartcampus.entity.EnrollmentStatus;
 import com.smartcampus.entity.User;
 import com.smartcampus.exception.AnnouncementNotFoundException;
 import com.smartcampus.exception.CourseNotFoundException;
+import com.smartcampus.exception.ResourceNotFoundException;
 import com.smartcampus.exception.UserNotFoundException;
 import com.smartcampus.mapper.AnnouncementMapper;
 import com.smartcampus.repository.AnnouncementRepository;
 import com.smartcampus.repository.CourseRepository;
+import com.smartcampus.repository.EnrollmentRepository;
 import com.smartcampus.repository.UserRepository;
+import com.smartcampus.service.AnnouncementFeed;
 import com.smartcampus.service.AnnouncementService;
+import com.smartcampus.service.AnnouncementTopViews;
+import com.smartcampus.service.AnnouncementVisibilityScheduler;
+import com.smartcampus.service.AnnouncementViewCounter;
+import com.smartcampus.service.AttachmentStore;
+import com.smartcampus.util.EntityStreams;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.InputStream;
 import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Transactional
 public class AnnouncementServiceImpl implements AnnouncementService {
 
+    private static final int MAX_FEED_PAGE_SIZE = 100;
+    private static final int MAX_ATTACHMENT_NAME_LENGTH = 100;
+    private static final int MAX_ATTACHMENT_TYPE_LENGTH = 50;
+    private static final String DEFAULT_ATTACHMENT_TYPE = "application/octet-stream";
+    private static final Set<AnnouncementVisibility> NOT_EXPIRED =
+            EnumSet.of(AnnouncementVisibility.SCHEDULED, AnnouncementVisibility.LIVE);
+    private static final Set<AnnouncementVisibility> PUBLISHED =
+            EnumSet.of(AnnouncementVisibility.LIVE, AnnouncementVisibility.EXPIRED);
+
     private final AnnouncementRepository announcementRepository;
     private final CourseRepository courseRepository;
     private final UserRepository userRepository;
     private final AnnouncementMapper announcementMapper;
+    private final AnnouncementViewCounter announcementViewCounter;
+    private final AnnouncementFeed announcementFeed;
+    private final AnnouncementVisibilityScheduler announcementVisibilityScheduler;
+    private final AnnouncementTopViews announcementTopViews;
+    private final EnrollmentRepository enrollmentRepository;
+    private final AttachmentStore attachmentStore;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
 
     @Override
     @Transactional(readOnly = true)
     public List<AnnouncementDTO> getAllAnnouncements() {
         List<Announcement> announcements = announcementRepository.findAll();
-        return announcementMapper.toDtoList(announcements);
+        return toDtoList(announcements);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAllAnnouncements(Consumer<AnnouncementDTO> action) {
+        EntityStreams.forEachDetached(entityManager, announcementRepository.streamAll(), this::toDto, action);
     }
 
     @Override
     @Transactional(readOnly = true)
     public Page<AnnouncementDTO> getAllAnnouncementsPaginated(Pageable pageable) {
         Page<Announcement> announcements = announcementRepository.findAll(pageable);
-        return announcements.map(announcementMapper::toDto);
+        return announcements.map(this::toDto);
     }
 
     @Override
@@ -52,7 +97,7 @@ public class AnnouncementServiceImpl implements AnnouncementService {
     public AnnouncementDTO getAnnouncementById(Long id) {
         Announcement announcement = announcementRepository.findById(id)
                 .orElseThrow(() -> AnnouncementNotFoundException.withId(id));
-        return announcementMapper.toDto(announcement);
+        return toDto(announcement);
     }
 
     @Override
@@ -109,7 +154,8 @@ public class AnnouncementServiceImpl implements AnnouncementService {
         announcement.setUpdatedAt(LocalDateTime.now());
         
         Announcement savedAnnouncement = announcementRepository.save(announcement);
-        return announcementMapper.toDto(savedAnnouncement);
+        announcementChanged(savedAnnouncement);
+        return toDto(savedAnnouncement);
     }
 
     @Override
@@ -191,7 +237,8 @@ public class AnnouncementServiceImpl implements AnnouncementService {
         existingAnnouncement.setUpdatedAt(LocalDateTime.now());
 
         Announcement updatedAnnouncement = announcementRepository.save(existingAnnouncement);
-        return announcementMapper.toDto(updatedAnnouncement);
+        announcementChanged(updatedAnnouncement);
+        return toDto(updatedAnnouncement);
     }
 
     @Override
@@ -199,405 +246,456 @@ public class AnnouncementServiceImpl implements AnnouncementService {
         Announcement announcement = announcementRepository.findById(id)
                 .orElseThrow(() -> AnnouncementNotFoundException.withId(id));
         announcementRepository.delete(announcement);
+        announcementChanged(announcement);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDTO<AnnouncementDTO> getFeed(Long userId, String after, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_FEED_PAGE_SIZE));
+        // Courses the user is enrolled in or teaches, looked up once per page
+        Set<Long> courseIds = new LinkedHashSet<>(
+                enrollmentRepository.findCourseIdsByUserIdAndStatus(userId, EnrollmentStatus.ENROLLED));
+        courseIds.addAll(courseRepository.findIdsByProfessorUserId(userId));
+        return announcementFeed.page(courseIds, after, pageSize);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<AnnouncementDTO> getAnnouncementsByCourseId(Long courseId) {
         List<Announcement> announcements = announcementRepository.findByCourseId(courseId);
-        return announcementMapper.toDtoList(announcements);
+        return toDtoList(announcements);
     }
 
     @Override
     @Transactional(readOnly = true)
     public Page<AnnouncementDTO> getAnnouncementsByCourseIdPaginated(Long courseId, Pageable pageable) {
         Page<Announcement> announcements = announcementRepository.findByCourseId(courseId, pageable);
-        return announcements.map(announcementMapper::toDto);
+        return announcements.map(this::toDto);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<AnnouncementDTO> getAnnouncementsByPostedById(Long postedById) {
         List<Announcement> announcements = announcementRepository.findByPostedById(postedById);
-        return announcementMapper.toDtoList(announcements);
+        return toDtoList(announcements);
     }
 
     @Override
     @Transactional(readOnly = true)
     public Page<AnnouncementDTO> getAnnouncementsByPostedByIdPaginated(Long postedById, Pageable pageable) {
         Page<Announcement> announcements = announcementRepository.findByPostedById(postedById, pageable);
-        return announcements.map(announcementMapper::toDto);
+        return announcements.map(this::toDto);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<AnnouncementDTO> getAnnouncementsByStatus(AnnouncementStatus status) {
         List<Announcement> announcements = announcementRepository.findByStatus(status);
-        return announcementMapper.toDtoList(announcements);
+        return toDtoList(announcements);
     }
 
     @Override
     @Transactional(readOnly = true)
     public Page<AnnouncementDTO> getAnnouncementsByStatusPaginated(AnnouncementStatus status, Pageable pageable) {
         Page<Announcement> announcements = announcementRepository.findByStatus(status, pageable);
-        return announcements.map(announcementMapper::toDto);
+        return announcements.map(this::toDto);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<AnnouncementDTO> getAnnouncementsByPriority(AnnouncementPriority priority) {
         List<Announcement> announcements = announcementRepository.findByPriority(priority);
-        return announcementMapper.toDtoList(announcements);
+        return toDtoList(announcements);
     }
 
     @Override
     @Transactional(readOnly = true)
     public Page<AnnouncementDTO> getAnnouncementsByPriorityPaginated(AnnouncementPriority priority, Pageable pageable) {
         Page<Announcement> announcements = announcementRepository.findByPriority(priority, pageable);
-        return announcements.map(announcementMapper::toDto);
+        return announcements.map(this::toDto);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<AnnouncementDTO> getAnnouncementsByIsPinned(Boolean isPinned) {
         List<Announcement> announcements = announcementRepository.findByIsPinned(isPinned);
-        return announcementMapper.toDtoList(announcements);
+        return toDtoList(announcements);
     }
 
     @Override
     @Transactional(readOnly = true)
     public Page<AnnouncementDTO> getAnnouncementsByIsPinnedPaginated(Boolean isPinned, Pageable pageable) {
         Page<Announcement> announcements = announcementRepository.findByIsPinned(isPinned, pageable);
-        return announcements.map(announcementMapper::toDto);
+        return announcements.map(this::toDto);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<AnnouncementDTO> getAnnouncementsByIsPublic(Boolean isPublic) {
         List<Announcement> announcements = announcementRepository.findByIsPublic(isPublic);
-        return announcementMapper.toDtoList(announcements);
+        return toDtoList(announcements);
     }
 
     @Override
     @Transactional(readOnly = true)
     public Page<AnnouncementDTO> getAnnouncementsByIsPublicPaginated(Boolean isPublic, Pageable pageable) {
         Page<Announcement> announcements = announcementRepository.findByIsPublic(isPublic, pageable);
-        return announcements.map(announcementMapper::toDto);
+        return announcements.map(this::toDto);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<AnnouncementDTO> getAnnouncementsByIsUrgent(Boolean isUrgent) {
         List<Announcement> announcements = announcementRepository.findByIsUrgent(isUrgent);
-        return announcementMapper.toDtoList(announcements);
+        return toDtoList(announcements);
     }
 
     @Override
     @Transactional(readOnly = true)
     public Page<AnnouncementDTO> getAnnouncementsByIsUrgentPaginated(Boolean isUrgent, Pageable pageable) {
         Page<Announcement> announcements = announcementRepository.findByIsUrgent(isUrgent, pageable);
-        return announcements.map(announcementMapper::toDto);
+        return announcements.map(this::toDto);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<AnnouncementDTO> getAnnouncementsByIsArchived(Boolean isArchived) {
         List<Announcement> announcements = announcementRepository.findByIsArchived(isArchived);
-        return announcementMapper.toDtoList(announcements);
+        return toDtoList(announcements);
     }
 
     @Override
     @Transactional(readOnly = true)
     public Page<AnnouncementDTO> getAnnouncementsByIsArchivedPaginated(Boolean isArchived, Pageable pageable) {
         Page<Announcement> announcements = announcementRepository.findByIsArchived(isArchived, pageable);
-        return announcements.map(announcementMapper::toDto);
+        return announcements.map(this::toDto);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<AnnouncementDTO> getAnnouncementsByIsScheduled(Boolean isScheduled) {
         List<Announcement> announcements = announcementRepository.findByIsScheduled(isScheduled);
-        return announcementMapper.toDtoList(announcements);
+        return toDtoList(announcements);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<AnnouncementDTO> getAnnouncementsByIsRecurring(Boolean isRecurring) {
         List<Announcement> announcements = announcementRepository.findByIsRecurring(isRecurring);
-        return announcementMapper.toDtoList(announcements);
+        return toDtoList(announcements);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<AnnouncementDTO> getAnnouncementsByRequiresAcknowledgment(Boolean requiresAcknowledgment) {
         List<Announcement> announcements = announcementRepository.findByRequiresAcknowledgment(requiresAcknowledgment);
-        return announcementMapper.toDtoList(announcements);
+        return toDtoList(announcements);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<AnnouncementDTO> getAnnouncementsByCourseIdAndStatus(Long courseId, AnnouncementStatus status) {
         List<Announcement> announcements = announcementRepository.findByCourseIdAndStatus(courseId, status);
-        return announcementMapper.toDtoList(announcements);
+        return toDtoList(announcements);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<AnnouncementDTO> getAnnouncementsByPostedByIdAndStatus(Long postedById, AnnouncementStatus status) {
         List<Announcement> announcements = announcementRepository.findByPostedByIdAndStatus(postedById, status);
-        return announcementMapper.toDtoList(announcements);
+        return toDtoList(announcements);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<AnnouncementDTO> getAnnouncementsByCourseIdAndIsPinned(Long courseId, Boolean isPinned) {
         List<Announcement> announcements = announcementRepository.findByCourseIdAndIsPinned(courseId, isPinned);
-        return announcementMapper.toDtoList(announcements);
+        return toDtoList(announcements);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<AnnouncementDTO> getAnnouncementsByCourseIdAndIsUrgent(Long courseId, Boolean isUrgent) {
         List<Announcement> announcements = announcementRepository.findByCourseIdAndIsUrgent(courseId, isUrgent);
-        return announcementMapper.toDtoList(announcements);
+        return toDtoList(announcements);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<AnnouncementDTO> getAnnouncementsByCourseIdAndIsPublic(Long courseId, Boolean isPublic) {
         List<Announcement> announcements = announcementRepository.findByCourseIdAndIsPublic(courseId, isPublic);
-        return announcementMapper.toDtoList(announcements);
+        return toDtoList(announcements);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<AnnouncementDTO> getActiveAnnouncements() {
         List<Announcement> announcements = announcementRepository.findAllActive();
-        return announcementMapper.toDtoList(announcements);
+        return toDtoList(announcements);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<AnnouncementDTO> getActiveAnnouncementsByCourseId(Long courseId) {
         List<Announcement> announcements = announcementRepository.findActiveByCourseId(courseId);
-        return announcementMapper.toDtoList(announcements);
+        return toDtoList(announcements);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<AnnouncementDTO> getActivePublicAnnouncements() {
         List<Announcement> announcements = announcementRepository.findAllActivePublic();
-        return announcementMapper.toDtoList(announcements);
+        return toDtoList(announcements);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<AnnouncementDTO> getActivePublicAnnouncementsByCourseId(Long courseId) {
         List<Announcement> announcements = announcementRepository.findActivePublicByCourseId(courseId);
-        return announcementMapper.toDtoList(announcements);
+        return toDtoList(announcements);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<AnnouncementDTO> getNonExpiredAnnouncements() {
-        List<Announcement> announcements = announcementRepository.findNonExpired(LocalDateTime.now());
-        return announcementMapper.toDtoList(announcements);
+        List<Announcement> announcements = announcementRepository.findByVisibilityIn(NOT_EXPIRED);
+        return toDtoList(announcements);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<AnnouncementDTO> getNonExpiredAnnouncementsByCourseId(Long courseId) {
-        List<Announcement> announcements = announcementRepository.findNonExpiredByCourseId(courseId, LocalDateTime.now());
-        return announcementMapper.toDtoList(announcements);
+        List<Announcement> announcements = announcementRepository.findByCourseIdAndVisibilityIn(courseId, NOT_EXPIRED);
+        return toDtoList(announcements);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<AnnouncementDTO> getPublishedAnnouncements() {
-        List<Announcement> announcements = announcementRepository.findPublished(LocalDateTime.now());
-        return announcementMapper.toDtoList(announcements);
+        List<Announcement> announcements = announcementRepository.findByVisibilityIn(PUBLISHED);
+        return toDtoList(announcements);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<AnnouncementDTO> getPublishedAnnouncementsByCourseId(Long courseId) {
-        List<Announcement> announcements = announcementRepository.findPublishedByCourseId(courseId, LocalDateTime.now());
-        return announcementMapper.toDtoList(announcements);
+        List<Announcement> announcements = announcementRepository.findByCourseIdAndVisibilityIn(courseId, PUBLISHED);
+        return toDtoList(announcements);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<AnnouncementDTO> getAnnouncementsByCreatedAtBetween(LocalDateTime startDate, LocalDateTime endDate) {
         List<Announcement> announcements = announcementRepository.findByCreatedAtBetween(startDate, endDate);
-        return announcementMapper.toDtoList(announcements);
+        return toDtoList(announcements);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<AnnouncementDTO> getAnnouncementsByCourseIdAndCreatedAtBetween(Long courseId, LocalDateTime startDate, LocalDateTime endDate) {
         List<Announcement> announcements = announcementRepository.findByCourseIdAndCreatedAtBetween(courseId, startDate, endDate);
-        return announcementMapper.toDtoList(announcements);
+        return toDtoList(announcements);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<AnnouncementDTO> getAnnouncementsByPostedByIdAndCreatedAtBetween(Long postedById, LocalDateTime startDate, LocalDateTime endDate) {
         List<Announcement> announcements = announcementRepository.findByPostedByIdAndCreatedAtBetween(postedById, startDate, endDate);
-        return announcementMapper.toDtoList(announcements);
+        return toDtoList(announcements);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<AnnouncementDTO> getAnnouncementsByKeyword(String keyword) {
         List<Announcement> announcements = announcementRepository.findByKeyword(keyword);
-        return announcementMapper.toDtoList(announcements);
+        return toDtoList(announcements);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<AnnouncementDTO> getAnnouncementsByCourseIdAndKeyword(Long courseId, String keyword) {
         List<Announcement> announcements = announcementRepository.findByCourseIdAndKeyword(courseId, keyword);
-        return announcementMapper.toDtoList(announcements);
+        return toDtoList(announcements);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<AnnouncementDTO> getAnnouncementsByTag(String tag) {
         List<Announcement> announcements = announcementRepository.findByTag(tag);
-        return announcementMapper.toDtoList(announcements);
+        return toDtoList(announcements);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<AnnouncementDTO> getAnnouncementsByCourseIdAndTag(Long courseId, String tag) {
         List<Announcement> announcements = announcementRepository.findByCourseIdAndTag(courseId, tag);
-        return announcementMapper.toDtoList(announcements);
+        return toDtoList(announcements);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<AnnouncementDTO> getAnnouncementsByCategory(String category) {
         List<Announcement> announcements = announcementRepository.findByCategory(category);
-        return announcementMapper.toDtoList(announcements);
+        return toDtoList(announcements);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<AnnouncementDTO> getAnnouncementsByCourseIdAndCategory(Long courseId, String category) {
         List<Announcement> announcements = announcementRepository.findByCourseIdAndCategory(courseId, category);
-        return announcementMapper.toDtoList(announcements);
+        return toDtoList(announcements);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<AnnouncementDTO> getAnnouncementsWithExpiredAcknowledgmentDeadline() {
         List<Announcement> announcements = announcementRepository.findWithExpiredAcknowledgmentDeadline(LocalDateTime.now());
-        return announcementMapper.toDtoList(announcements);
+        return toDtoList(announcements);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<AnnouncementDTO> getAnnouncementsWithExpiredAcknowledgmentDeadlineByCourseId(Long courseId) {
         List<Announcement> announcements = announcementRepository.findWithExpiredAcknowledgmentDeadlineByCourseId(courseId, LocalDateTime.now());
-        return announcementMapper.toDtoList(announcements);
+        return toDtoList(announcements);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<AnnouncementDTO> getAnnouncementsScheduledForPublishing() {
         List<Announcement> announcements = announcementRepository.findScheduledForPublishing(LocalDateTime.now());
-        return announcementMapper.toDtoList(announcements);
+        return toDtoList(announcements);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<AnnouncementDTO> getExpiredRecurringAnnouncements() {
         List<Announcement> announcements = announcementRepository.findExpiredRecurring(LocalDateTime.now());
-        return announcementMapper.toDtoList(announcements);
+        return toDtoList(announcements);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<AnnouncementDTO> getExpiredRecurringAnnouncementsByCourseId(Long courseId) {
         List<Announcement> announcements = announcementRepository.findExpiredRecurringByCourseId(courseId, LocalDateTime.now());
-        return announcementMapper.toDtoList(announcements);
+        return toDtoList(announcements);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<AnnouncementDTO> getAnnouncementsWithAttachments() {
         List<Announcement> announcements = announcementRepository.findWithAttachments();
-        return announcementMapper.toDtoList(announcements);
+        return toDtoList(announcements);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<AnnouncementDTO> getAnnouncementsWithAttachmentsByCourseId(Long courseId) {
         List<Announcement> announcements = announcementRepository.findWithAttachmentsByCourseId(courseId);
-        return announcementMapper.toDtoList(announcements);
+        return toDtoList(announcements);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public AnnouncementDTO storeAttachment(Long id, InputStream content, String fileName, String contentType) {
+        if (!announcementRepository.existsById(id)) {
+            throw AnnouncementNotFoundException.withId(id);
+        }
+        // The upload is written to disk before the transaction starts, so no connection is held meanwhile
+        AttachmentStore.StoredFile file = attachmentStore.store(content);
+        return transactionTemplate.execute(status -> {
+            Announcement announcement = announcementRepository.findById(id)
+                    .orElseThrow(() -> AnnouncementNotFoundException.withId(id));
+            announcement.setAttachmentHash(file.getHash());
+            announcement.setAttachmentSize(file.getSize());
+            announcement.setAttachmentName(attachmentName(fileName));
+            announcement.setAttachmentType(contentType != null && contentType.length() <= MAX_ATTACHMENT_TYPE_LENGTH
+                    ? contentType : DEFAULT_ATTACHMENT_TYPE);
+            announcement.setAttachmentUrl("/api/announcements/" + id + "/attachment");
+            announcement.setUpdatedAt(LocalDateTime.now());
+            announcementRepository.save(announcement);
+            announcementChanged(announcement);
+            return toDto(announcement);
+        });
     }
 
     @Override
     @Transactional(readOnly = true)
+    public AttachmentDTO getAttachment(Long id) {
+        Announcement announcement = announcementRepository.findById(id)
+                .orElseThrow(() -> AnnouncementNotFoundException.withId(id));
+        if (announcement.getAttachmentHash() == null) {
+            throw new ResourceNotFoundException("Announcement " + id + " has no stored attachment");
+        }
+        return AttachmentDTO.builder()
+                .hash(announcement.getAttachmentHash())
+                .name(announcement.getAttachmentName())
+                .type(announcement.getAttachmentType())
+                .size(announcement.getAttachmentSize())
+                .build();
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<AnnouncementDTO> getMostViewedAnnouncements() {
-        List<Announcement> announcements = announcementRepository.findMostViewed();
-        return announcementMapper.toDtoList(announcements);
+        // Served from memory; no transaction or connection needed
+        return withPendingViews(announcementTopViews.top());
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<AnnouncementDTO> getMostViewedAnnouncementsByCourseId(Long courseId) {
-        List<Announcement> announcements = announcementRepository.findMostViewedByCourseId(courseId);
-        return announcementMapper.toDtoList(announcements);
+        return withPendingViews(announcementTopViews.topForCourse(courseId));
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<AnnouncementDTO> getRecentAnnouncements(LocalDateTime since) {
         List<Announcement> announcements = announcementRepository.findRecent(since);
-        return announcementMapper.toDtoList(announcements);
+        return toDtoList(announcements);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<AnnouncementDTO> getRecentAnnouncementsByCourseId(Long courseId, LocalDateTime since) {
         List<Announcement> announcements = announcementRepository.findRecentByCourseId(courseId, since);
-        return announcementMapper.toDtoList(announcements);
+        return toDtoList(announcements);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<AnnouncementDTO> getAnnouncementsBySemesterAndAcademicYear(String semester, Integer academicYear) {
         List<Announcement> announcements = announcementRepository.findBySemesterAndAcademicYear(semester, academicYear);
-        return announcementMapper.toDtoList(announcements);
+        return toDtoList(announcements);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<AnnouncementDTO> getAnnouncementsByProfessorId(Long professorId) {
         List<Announcement> announcements = announcementRepository.findByProfessorId(professorId);
-        return announcementMapper.toDtoList(announcements);
+        return toDtoList(announcements);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<AnnouncementDTO> getActiveAnnouncementsByProfessorId(Long professorId) {
         List<Announcement> announcements = announcementRepository.findActiveByProfessorId(professorId);
-        return announcementMapper.toDtoList(announcements);
+        return toDtoList(announcements);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<AnnouncementDTO> getAnnouncementsByDepartment(String department) {
         List<Announcement> announcements = announcementRepository.findByDepartment(department);
-        return announcementMapper.toDtoList(announcements);
+        return toDtoList(announcements);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<AnnouncementDTO> getActiveAnnouncementsByDepartment(String department) {
         List<Announcement> announcements = announcementRepository.findActiveByDepartment(department);
-        return announcementMapper.toDtoList(announcements);
+        return toDtoList(announcements);
     }
 
     @Override
@@ -679,11 +777,13 @@ public class AnnouncementServiceImpl implements AnnouncementService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public void incrementViewCount(Long announcementId) {
-        Announcement announcement = announcementRepository.findById(announcementId)
-                .orElseThrow(() -> AnnouncementNotFoundException.withId(announcementId));
-        announcement.incrementViewCount();
-        announcementRepository.save(announcement);
+        if (!announcementRepository.existsById(announcementId)) {
+            throw AnnouncementNotFoundException.withId(announcementId);
+        }
+        // Buffered and written in batches by AnnouncementViewCounter
+        announcementViewCounter.record(announcementId);
     }
 
     @Override
@@ -696,6 +796,7 @@ public class AnnouncementServiceImpl implements AnnouncementService {
         announcement.setArchiveReason(archiveReason);
         announcement.setUpdatedAt(LocalDateTime.now());
         announcementRepository.save(announcement);
+        announcementChanged(announcement);
     }
 
     @Override
@@ -708,6 +809,7 @@ public class AnnouncementServiceImpl implements AnnouncementService {
         announcement.setArchiveReason(null);
         announcement.setUpdatedAt(LocalDateTime.now());
         announcementRepository.save(announcement);
+        announcementChanged(announcement);
     }
 
     @Override
@@ -717,6 +819,7 @@ public class AnnouncementServiceImpl implements AnnouncementService {
         announcement.setIsPinned(true);
         announcement.setUpdatedAt(LocalDateTime.now());
         announcementRepository.save(announcement);
+        announcementChanged(announcement);
     }
 
     @Override
@@ -726,6 +829,7 @@ public class AnnouncementServiceImpl implements AnnouncementService {
         announcement.setIsPinned(false);
         announcement.setUpdatedAt(LocalDateTime.now());
         announcementRepository.save(announcement);
+        announcementChanged(announcement);
     }
 
     @Override
@@ -735,6 +839,7 @@ public class AnnouncementServiceImpl implements AnnouncementService {
         announcement.setIsUrgent(true);
         announcement.setUpdatedAt(LocalDateTime.now());
         announcementRepository.save(announcement);
+        announcementChanged(announcement);
     }
 
     @Override
@@ -744,6 +849,7 @@ public class AnnouncementServiceImpl implements AnnouncementService {
         announcement.setIsUrgent(false);
         announcement.setUpdatedAt(LocalDateTime.now());
         announcementRepository.save(announcement);
+        announcementChanged(announcement);
     }
 
     @Override
@@ -754,6 +860,7 @@ public class AnnouncementServiceImpl implements AnnouncementService {
         announcement.setPublishDate(LocalDateTime.now());
         announcement.setUpdatedAt(LocalDateTime.now());
         announcementRepository.save(announcement);
+        announcementChanged(announcement);
     }
 
     @Override
@@ -763,6 +870,7 @@ public class AnnouncementServiceImpl implements AnnouncementService {
         announcement.setStatus(AnnouncementStatus.INACTIVE);
         announcement.setUpdatedAt(LocalDateTime.now());
         announcementRepository.save(announcement);
+        announcementChanged(announcement);
     }
 
     @Override
@@ -773,6 +881,7 @@ public class AnnouncementServiceImpl implements AnnouncementService {
         announcement.setScheduledDate(scheduledDate);
         announcement.setUpdatedAt(LocalDateTime.now());
         announcementRepository.save(announcement);
+        announcementChanged(announcement);
     }
 
     @Override
@@ -783,5 +892,56 @@ public class AnnouncementServiceImpl implements AnnouncementService {
         announcement.setScheduledDate(null);
         announcement.setUpdatedAt(LocalDateTime.now());
         announcementRepository.save(announcement);
+        announcementChanged(announcement);
+    }
+
+    private void announcementChanged(Announcement announcement) {
+        if (announcement.getCourse() != null) {
+            announcementFeed.invalidate(announcement.getCourse().getId());
+        }
+        announcementVisibilityScheduler.track(announcement);
+        announcementTopViews.changed(announcement);
+    }
+
+    private static String attachmentName(String fileName) {
+        // Keep only the last path segment of whatever the client sent
+        String name = fileName != null ? fileName.substring(Math.max(fileName.lastIndexOf('/'), fileName.lastIndexOf('\\')) + 1).trim() : "";
+        if (name.isEmpty()) {
+            return "attachment";
+        }
+        if (name.length() <= MAX_ATTACHMENT_NAME_LENGTH) {
+            return name;
+        }
+        int dot = name.lastIndexOf('.');
+        String extension = dot > 0 && name.length() - dot <= 10 ? name.substring(dot) : "";
+        return name.substring(0, MAX_ATTACHMENT_NAME_LENGTH - extension.length()) + extension;
+    }
+
+    private AnnouncementDTO toDto(Announcement announcement) {
+        return withPendingViews(announcementMapper.toDto(announcement));
+    }
+
+    private AnnouncementDTO withPendingViews(AnnouncementDTO dto) {
+        if (dto != null && dto.getId() != null) {
+            // Include views still buffered in memory
+            long pending = announcementViewCounter.pending(dto.getId());
+            if (pending > 0) {
+                dto.setViewCount((int) ((dto.getViewCount() != null ? dto.getViewCount() : 0) + pending));
+            }
+        }
+        return dto;
+    }
+
+    /**
+     * Add unflushed views and re-sort, since they can overtake the stored order
+     */
+    private List<AnnouncementDTO> withPendingViews(List<AnnouncementDTO> announcements) {
+        announcements.forEach(this::withPendingViews);
+        announcements.sort(Comparator.comparing(AnnouncementDTO::getViewCount, Comparator.nullsLast(Comparator.reverseOrder())));
+        return announcements;
+    }
+
+    private List<AnnouncementDTO> toDtoList(List<Announcement> announcements) {
+        return announcements.stream().map(this::toDto).collect(Collectors.toList());
     }
-} 
\ No newline at end of file
+}
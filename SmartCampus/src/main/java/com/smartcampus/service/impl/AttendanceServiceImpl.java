@@ -1,6 +1,9 @@
 package com.smartcampus.service.impl;
 
 import com.smartcampus.dto.AttendanceDTO;
+import com.smartcampus.dto.RollCallEntry;
+import com.smartcampus.dto.RollCallRequest;
+import com.smartcampus.dto.RollCallResultDTO;
 import com.smartcampus.entity.Attendance;
 import com.smartcampus.entity.AttendanceStatus;
 import com.smartcampus.entity.Course;
@@ -9,17 +12,24 @@ import com.smartcampus.exception.AttendanceNotFoundException;
 import com.smartcampus.exception.CourseNotFoundException;
 import com.smartcampus.exception.StudentNotFoundException;
 import com.smartcampus.mapper.AttendanceMapper;
+import com.smartcampus.repository.AttendanceJdbcRepository;
 import com.smartcampus.repository.AttendanceRepository;
 import com.smartcampus.repository.CourseRepository;
 import com.smartcampus.repository.StudentRepository;
 import com.smartcampus.service.AttendanceService;
+import com.smartcampus.util.EntityStreams;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
 
 @Service
 @RequiredArgsConstructor
@@ -27,9 +37,11 @@ import java.util.List;
 public class AttendanceServiceImpl implements AttendanceService {
 
     private final AttendanceRepository attendanceRepository;
+    private final AttendanceJdbcRepository attendanceJdbcRepository;
     private final StudentRepository studentRepository;
     private final CourseRepository courseRepository;
     private final AttendanceMapper attendanceMapper;
+    private final EntityManager entityManager;
 
     @Override
     @Transactional(readOnly = true)
@@ -101,6 +113,57 @@ public class AttendanceServiceImpl implements AttendanceService {
         return attendanceMapper.toDto(savedAttendance);
     }
 
+    /**
+     * Record a whole section in a handful of statements: the course lookup, one IN query for known
+     * students, one for students already recorded that day, and one batched upsert. Unknown and
+     * repeated student ids are reported instead of failing the roll call.
+     */
+    @Override
+    public RollCallResultDTO recordRollCall(RollCallRequest request) {
+        if (!courseRepository.existsById(request.getCourseId())) {
+            throw CourseNotFoundException.withId(request.getCourseId());
+        }
+
+        Set<Long> seen = new HashSet<>();
+        List<RollCallEntry> candidates = new ArrayList<>();
+        List<Long> skipped = new ArrayList<>();
+        for (RollCallEntry entry : request.getEntries()) {
+            if (seen.add(entry.getStudentId())) {
+                candidates.add(entry);
+            } else {
+                skipped.add(entry.getStudentId());
+            }
+        }
+
+        Set<Long> students = attendanceJdbcRepository.findExistingStudentIds(seen);
+        List<RollCallEntry> entries = new ArrayList<>(candidates.size());
+        List<Long> invalid = new ArrayList<>();
+        for (RollCallEntry entry : candidates) {
+            if (!students.contains(entry.getStudentId())) {
+                invalid.add(entry.getStudentId());
+                continue;
+            }
+            entries.add(RollCallEntry.builder()
+                    .studentId(entry.getStudentId())
+                    .status(entry.getStatus() != null ? entry.getStatus() : AttendanceStatus.PRESENT)
+                    .notes(entry.getNotes())
+                    .lateMinutes(entry.getLateMinutes())
+                    .build());
+        }
+
+        Set<Long> recorded = attendanceJdbcRepository.findRecordedStudentIds(request.getCourseId(), request.getDate(), students);
+        attendanceJdbcRepository.batchUpsert(request.getCourseId(), request.getDate(), request.getSessionName(),
+                request.getSessionType(), entries, LocalDateTime.now());
+
+        return RollCallResultDTO.builder()
+                .requested(request.getEntries().size())
+                .created(entries.size() - recorded.size())
+                .updated(recorded.size())
+                .skippedIds(skipped)
+                .invalidIds(invalid)
+                .build();
+    }
+
     @Override
     public AttendanceDTO updateAttendance(Long id, AttendanceDTO attendanceDTO) {
         Attendance existingAttendance = attendanceRepository.findById(id)
@@ -315,6 +378,29 @@ public class AttendanceServiceImpl implements AttendanceService {
         return attendanceMapper.toDtoList(attendances);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAttendanceByDateRange(LocalDate startDate, LocalDate endDate, Consumer<AttendanceDTO> action) {
+        EntityStreams.forEachDetached(entityManager, attendanceRepository.streamByDateBetween(startDate, endDate),
+                attendanceMapper::toDto, action);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAttendanceByStudentIdAndDateRange(Long studentId, LocalDate startDate, LocalDate endDate,
+                                                        Consumer<AttendanceDTO> action) {
+        EntityStreams.forEachDetached(entityManager, attendanceRepository.streamByStudentIdAndDateBetween(studentId, startDate, endDate),
+                attendanceMapper::toDto, action);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAttendanceByCourseIdAndDateRange(Long courseId, LocalDate startDate, LocalDate endDate,
+                                                       Consumer<AttendanceDTO> action) {
+        EntityStreams.forEachDetached(entityManager, attendanceRepository.streamByCourseIdAndDateBetween(courseId, startDate, endDate),
+                attendanceMapper::toDto, action);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<AttendanceDTO> getAttendanceByProfessorIdAndDateRange(Long professorId, LocalDate startDate, LocalDate endDate) {
@@ -1,5 +1,6 @@
 package com.smartcampus.service.impl;
 
+import com.smartcampus.config.CampusUserDetails;
 import com.smartcampus.config.JwtService;
 import com.smartcampus.dto.JwtResponse;
 import com.smartcampus.dto.LoginRequest;
@@ -8,62 +9,56 @@ import com.smartcampus.entity.Role;
 import com.smartcampus.entity.User;
 import com.smartcampus.repository.UserRepository;
 import com.smartcampus.service.AuthService;
+import com.smartcampus.service.CustomUserDetailsService;
+import com.smartcampus.service.LoginExecutor;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.util.UUID;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class AuthServiceImpl implements AuthService {
 
-    private final AuthenticationManager authenticationManager;
     private final JwtService jwtService;
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final CustomUserDetailsService userDetailsService;
+    private final LoginExecutor loginExecutor;
+
+    // Checked against when the email is unknown, so both outcomes cost one BCrypt check
+    private String dummyPasswordHash;
+
+    @PostConstruct
+    void initDummyPasswordHash() {
+        dummyPasswordHash = passwordEncoder.encode(UUID.randomUUID().toString());
+    }
 
     @Override
     public JwtResponse login(LoginRequest request) {
         log.info("Starting login process for email: {}", request.getEmail());
         
         try {
-            // First, check if user exists in database
-            User user = userRepository.findByEmail(request.getEmail())
-                    .orElse(null);
-            
-            if (user == null) {
-                log.warn("Login failed - User not found in database for email: {}", request.getEmail());
-                throw new RuntimeException("Invalid email or password");
-            }
-            
-            log.info("User found in database: {} (ID: {}) with role: {} and isActive: {}", 
-                    user.getName(), user.getId(), user.getRole(), user.getIsActive());
-            
-            // Check if user is active
-            if (user.getIsActive() == null || !user.getIsActive()) {
-                log.warn("Login failed - User account is inactive for email: {}", request.getEmail());
-                throw new RuntimeException("Account is inactive");
-            }
-            
-            // Attempt authentication
-            log.debug("Attempting authentication for email: {}", request.getEmail());
-            Authentication authentication = authenticationManager.authenticate(
-                    new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword())
-            );
+            // The lookup and BCrypt both run on the bounded login executor. A waiting request thread
+            // then holds no pooled database connection (open-in-view would keep it until the response).
+            User user = loginExecutor.execute(() -> authenticate(request));
 
             log.info("Authentication successful for email: {}", request.getEmail());
-            SecurityContextHolder.getContext().setAuthentication(authentication);
+            CampusUserDetails userDetails = userDetailsService.toUserDetails(user);
+            SecurityContextHolder.getContext().setAuthentication(
+                    new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities()));
             
-            // Generate JWT access token
-            log.debug("Generating JWT access token for email: {}", request.getEmail());
-            UserDetails userDetails = (UserDetails) authentication.getPrincipal();
+            // Generate JWT access and refresh tokens
+            log.debug("Generating JWT tokens for email: {}", request.getEmail());
             String accessToken = jwtService.generateAccessToken(userDetails);
+            String refreshToken = jwtService.generateRefreshToken(userDetails);
 
             log.info("Login successful for user: {} (ID: {}) with role: {}", 
                     user.getName(), user.getId(), user.getRole());
@@ -74,14 +69,46 @@ public class AuthServiceImpl implements AuthService {
                     .name(user.getName())
                     .email(user.getEmail())
                     .role(user.getRole())
+                    .refreshToken(refreshToken)
                     .build();
                     
         } catch (Exception e) {
-            log.error("Login failed for email: {} - Error: {}", request.getEmail(), e.getMessage(), e);
+            log.error("Login failed for email: {} - Error: {}", request.getEmail(), e.getMessage());
             throw e; // Re-throw to be handled by controller
         }
     }
 
+    /**
+     * Single user lookup plus password check for one attempt; the UserDetails are built from this entity
+     */
+    private User authenticate(LoginRequest request) {
+        User user = userRepository.findByEmail(request.getEmail())
+                .orElse(null);
+
+        if (user == null) {
+            // Same work as a wrong password, so response times don't reveal which emails exist
+            passwordEncoder.matches(request.getPassword(), dummyPasswordHash);
+            log.warn("Login failed - User not found in database for email: {}", request.getEmail());
+            throw new BadCredentialsException("Invalid email or password");
+        }
+
+        log.info("User found in database: {} (ID: {}) with role: {} and isActive: {}",
+                user.getName(), user.getId(), user.getRole(), user.getIsActive());
+
+        log.debug("Verifying password for email: {}", request.getEmail());
+        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
+            log.warn("Login failed - Bad credentials for email: {}", request.getEmail());
+            throw new BadCredentialsException("Invalid email or password");
+        }
+
+        // Checked after the password, so only the account's owner learns that it is inactive
+        if (user.getIsActive() == null || !user.getIsActive()) {
+            log.warn("Login failed - User account is inactive for email: {}", request.getEmail());
+            throw new RuntimeException("Account is inactive");
+        }
+        return user;
+    }
+
     @Override
     public User register(RegisterRequest request) {
         log.info("Starting registration process for email: {}", request.getEmail());
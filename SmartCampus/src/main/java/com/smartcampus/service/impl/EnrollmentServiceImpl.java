@@ -13,12 +13,15 @@ import com.smartcampus.repository.CourseRepository;
 import com.smartcampus.repository.EnrollmentRepository;
 import com.smartcampus.repository.StudentRepository;
 import com.smartcampus.service.EnrollmentService;
+import com.smartcampus.util.EntityStreams;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 @Service
 @RequiredArgsConstructor
@@ -29,6 +32,7 @@ public class EnrollmentServiceImpl implements EnrollmentService {
     private final StudentRepository studentRepository;
     private final CourseRepository courseRepository;
     private final EnrollmentMapper enrollmentMapper;
+    private final EntityManager entityManager;
 
     @Override
     @Transactional(readOnly = true)
@@ -37,6 +41,12 @@ public class EnrollmentServiceImpl implements EnrollmentService {
         return enrollmentMapper.toDtoList(enrollments);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAllEnrollments(Consumer<EnrollmentDTO> action) {
+        EntityStreams.forEachDetached(entityManager, enrollmentRepository.streamAll(), enrollmentMapper::toDto, action);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public EnrollmentDTO getEnrollmentById(Long id) {
@@ -0,0 +1,30 @@
+package com.smartcampus.service.impl;
+
+import com.smartcampus.dto.NotificationDTO;
+import com.smartcampus.service.NotificationSender;
+import com.smartcampus.service.NotificationStreamRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+/**
+ * In-app delivery: the notification is already in the user's inbox, so delivering it means
+ * pushing it to any open notification streams.
+ */
+@Service
+@RequiredArgsConstructor
+public class InAppNotificationSender implements NotificationSender {
+
+    public static final String CHANNEL = "IN_APP";
+
+    private final NotificationStreamRegistry notificationStreamRegistry;
+
+    @Override
+    public String getChannel() {
+        return CHANNEL;
+    }
+
+    @Override
+    public void send(NotificationDTO notification) {
+        notificationStreamRegistry.publishNotification(notification.getUserId(), notification);
+    }
+}
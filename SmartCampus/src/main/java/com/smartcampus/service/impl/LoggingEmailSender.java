@@ -0,0 +1,45 @@
+package com.smartcampus.service.impl;
+
+import com.smartcampus.dto.NotificationDTO;
+import com.smartcampus.exception.NotificationDeliveryException;
+import com.smartcampus.service.NotificationSender;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Stand-in email sender for local use: logs the message instead of talking to an SMTP server.
+ * Replace it by setting {@code notifications.delivery.email.sender} and providing another
+ * {@link NotificationSender} for the EMAIL channel.
+ */
+@Service
+@Slf4j
+@ConditionalOnProperty(name = "notifications.delivery.email.sender", havingValue = "log", matchIfMissing = true)
+public class LoggingEmailSender implements NotificationSender {
+
+    private final double failureRate;
+
+    public LoggingEmailSender(@Value("${notifications.delivery.stub.failure-rate:0.0}") double failureRate) {
+        this.failureRate = failureRate;
+    }
+
+    @Override
+    public String getChannel() {
+        return "EMAIL";
+    }
+
+    @Override
+    public void send(NotificationDTO notification) {
+        if (notification.getUserEmail() == null || notification.getUserEmail().isBlank()) {
+            throw NotificationDeliveryException.permanent("Recipient has no email address");
+        }
+        if (failureRate > 0 && ThreadLocalRandom.current().nextDouble() < failureRate) {
+            throw new NotificationDeliveryException("Simulated SMTP failure", true);
+        }
+        String subject = notification.getTitle() != null ? notification.getTitle() : "SmartCampus notification";
+        log.info("[email] to={} subject=\"{}\" notification={}", notification.getUserEmail(), subject, notification.getId());
+    }
+}
@@ -0,0 +1,50 @@
+package com.smartcampus.service.impl;
+
+import com.smartcampus.dto.NotificationDTO;
+import com.smartcampus.entity.User;
+import com.smartcampus.exception.NotificationDeliveryException;
+import com.smartcampus.repository.UserRepository;
+import com.smartcampus.service.NotificationSender;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Stand-in SMS sender for local use: logs the message instead of calling an SMS gateway.
+ * Replace it by setting {@code notifications.delivery.sms.sender} and providing another
+ * {@link NotificationSender} for the SMS channel.
+ */
+@Service
+@Slf4j
+@ConditionalOnProperty(name = "notifications.delivery.sms.sender", havingValue = "log", matchIfMissing = true)
+public class LoggingSmsSender implements NotificationSender {
+
+    private final UserRepository userRepository;
+    private final double failureRate;
+
+    public LoggingSmsSender(UserRepository userRepository,
+                            @Value("${notifications.delivery.stub.failure-rate:0.0}") double failureRate) {
+        this.userRepository = userRepository;
+        this.failureRate = failureRate;
+    }
+
+    @Override
+    public String getChannel() {
+        return "SMS";
+    }
+
+    @Override
+    public void send(NotificationDTO notification) {
+        String phoneNumber = userRepository.findById(notification.getUserId())
+                .map(User::getPhoneNumber)
+                .filter(number -> !number.isBlank())
+                .orElseThrow(() -> NotificationDeliveryException.permanent("Recipient has no phone number"));
+        if (failureRate > 0 && ThreadLocalRandom.current().nextDouble() < failureRate) {
+            throw new NotificationDeliveryException("Simulated SMS gateway failure", true);
+        }
+        log.info("[sms] to={} notification={}", phoneNumber, notification.getId());
+    }
+}
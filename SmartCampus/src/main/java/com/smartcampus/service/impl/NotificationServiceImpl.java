@@ -1,33 +1,80 @@
 package com.smartcampus.service.impl;
 
+import com.smartcampus.dto.BroadcastJobDTO;
+import com.smartcampus.dto.BulkSendResultDTO;
+import com.smartcampus.dto.CursorPageDTO;
 import com.smartcampus.dto.NotificationDTO;
+import com.smartcampus.dto.NotificationRequest;
+import com.smartcampus.dto.NotificationStatsDTO;
+import com.smartcampus.dto.TemplateSendRequest;
 import com.smartcampus.entity.Notification;
+import com.smartcampus.entity.NotificationHistory;
 import com.smartcampus.entity.NotificationPriority;
 import com.smartcampus.entity.NotificationType;
 import com.smartcampus.entity.User;
 import com.smartcampus.exception.NotificationNotFoundException;
+import com.smartcampus.exception.ResourceNotFoundException;
 import com.smartcampus.exception.UserNotFoundException;
 import com.smartcampus.mapper.NotificationMapper;
+import com.smartcampus.repository.NotificationHistoryRepository;
 import com.smartcampus.repository.NotificationRepository;
 import com.smartcampus.repository.UserRepository;
+import com.smartcampus.service.NotificationBroadcastEngine;
+import com.smartcampus.service.NotificationCoalescer;
+import com.smartcampus.service.NotificationDeliveryPipeline;
+import com.smartcampus.service.NotificationDigestService;
+import com.smartcampus.service.NotificationInboxTrimmer;
+import com.smartcampus.service.NotificationRetentionService;
+import com.smartcampus.service.NotificationScheduler;
 import com.smartcampus.service.NotificationService;
+import com.smartcampus.service.NotificationStatsStore;
+import com.smartcampus.service.NotificationStreamRegistry;
+import com.smartcampus.service.NotificationTemplateService;
+import com.smartcampus.service.SharedBroadcastService;
+import com.smartcampus.service.UnreadCountStore;
+import com.smartcampus.util.CompiledTemplate;
+import com.smartcampus.util.EntityStreams;
+import com.smartcampus.util.KeysetCursor;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 @Service
 @RequiredArgsConstructor
 @Transactional
 public class NotificationServiceImpl implements NotificationService {
 
+    private static final int MAX_INBOX_PAGE_SIZE = 100;
+
     private final NotificationRepository notificationRepository;
     private final UserRepository userRepository;
     private final NotificationMapper notificationMapper;
+    private final NotificationBroadcastEngine notificationBroadcastEngine;
+    private final UnreadCountStore unreadCountStore;
+    private final NotificationStreamRegistry notificationStreamRegistry;
+    private final NotificationScheduler notificationScheduler;
+    private final NotificationDeliveryPipeline notificationDeliveryPipeline;
+    private final NotificationRetentionService notificationRetentionService;
+    private final NotificationStatsStore notificationStatsStore;
+    private final NotificationCoalescer notificationCoalescer;
+    private final NotificationDigestService notificationDigestService;
+    private final NotificationTemplateService notificationTemplateService;
+    private final SharedBroadcastService sharedBroadcastService;
+    private final NotificationInboxTrimmer notificationInboxTrimmer;
+    private final NotificationHistoryRepository notificationHistoryRepository;
+    private final EntityManager entityManager;
 
     @Override
     @Transactional(readOnly = true)
@@ -36,6 +83,12 @@ public class NotificationServiceImpl implements NotificationService {
         return notificationMapper.toDtoList(notifications);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAllNotifications(Consumer<NotificationDTO> action) {
+        EntityStreams.forEachDetached(entityManager, notificationRepository.streamAll(), notificationMapper::toDto, action);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Page<NotificationDTO> getAllNotificationsPaginated(Pageable pageable) {
@@ -61,50 +114,31 @@ public class NotificationServiceImpl implements NotificationService {
         notification.setUser(user);
         
         // Set default values
-        if (notification.getIsRead() == null) {
-            notification.setIsRead(false);
-        }
-        if (notification.getType() == null) {
-            notification.setType(NotificationType.GENERAL);
-        }
-        if (notification.getPriority() == null) {
-            notification.setPriority(NotificationPriority.NORMAL);
-        }
-        if (notification.getIsDismissible() == null) {
-            notification.setIsDismissible(true);
-        }
-        if (notification.getIsUrgent() == null) {
-            notification.setIsUrgent(false);
-        }
-        if (notification.getIsSilent() == null) {
-            notification.setIsSilent(false);
-        }
-        if (notification.getIsArchived() == null) {
-            notification.setIsArchived(false);
-        }
-        if (notification.getIsSystem() == null) {
-            notification.setIsSystem(false);
-        }
-        if (notification.getIsBroadcast() == null) {
-            notification.setIsBroadcast(false);
+        notification.applyDefaults();
+
+        // A burst of duplicates becomes one row with a count
+        Long coalescedInto = notificationCoalescer.absorb(notification);
+        if (coalescedInto != null) {
+            List<Notification> existing = notificationRepository.findAllWithUserByIdIn(List.of(coalescedInto));
+            if (!existing.isEmpty()) {
+                return notificationMapper.toDto(existing.get(0));
+            }
         }
-        if (notification.getIsRecurring() == null) {
-            notification.setIsRecurring(false);
-        }
-        if (notification.getIsTemplate() == null) {
-            notification.setIsTemplate(false);
-        }
-        if (notification.getIsScheduled() == null) {
-            notification.setIsScheduled(false);
-        }
-        if (notification.getIsSent() == null) {
-            notification.setIsSent(false);
-        }
-        if (notification.getRetryCount() == null) {
-            notification.setRetryCount(0);
-        }
-        if (notification.getMaxRetries() == null) {
-            notification.setMaxRetries(3);
+
+        boolean digested = notificationDigestService.defersDelivery(notification);
+        // Templates are never delivered themselves, only the notifications rendered from them
+        if (!notification.isBroadcast() && !notification.isTemplate()) {
+            if (notification.getDeliveryMethod() == null) {
+                notification.setDeliveryMethod(InAppNotificationSender.CHANNEL);
+            }
+            notification.setDeliveryStatus(digested
+                    ? NotificationDigestService.STATUS_DIGEST_PENDING
+                    : NotificationDeliveryPipeline.STATUS_PENDING);
+            if (!digested && !notification.isScheduled()) {
+                // This node delivers it after commit; recovery elsewhere leaves it alone while the claim is fresh
+                notification.setClaimedBy(notificationDeliveryPipeline.getNodeId());
+                notification.setClaimedAt(LocalDateTime.now());
+            }
         }
         
         // Set audit fields
@@ -112,13 +146,35 @@ public class NotificationServiceImpl implements NotificationService {
         notification.setUpdatedAt(LocalDateTime.now());
         
         Notification savedNotification = notificationRepository.save(notification);
-        return notificationMapper.toDto(savedNotification);
+        notificationStatsStore.added(savedNotification, 1);
+        // Scheduled notifications are counted by the scheduler when they are sent
+        if (savedNotification.countsAsUnread()) {
+            unreadCountStore.adjust(user.getId(), 1);
+        }
+        notificationInboxTrimmer.touched(user.getId());
+        NotificationDTO savedDTO = notificationMapper.toDto(savedNotification);
+        if (savedNotification.isScheduled() && savedNotification.getScheduledSendDate() != null) {
+            // Pushed to the user by the scheduler when it falls due
+            notificationScheduler.track(savedNotification.getId(), savedNotification.getScheduledSendDate());
+        } else if (!savedNotification.isBroadcast() && !savedNotification.isTemplate() && !digested) {
+            notificationDeliveryPipeline.enqueue(savedDTO);
+        }
+        notificationCoalescer.open(savedNotification);
+        if (savedNotification.isTemplate()) {
+            notificationTemplateService.invalidate(savedNotification.getTemplateName());
+        }
+        return savedDTO;
     }
 
     @Override
     public NotificationDTO updateNotification(Long id, NotificationDTO notificationDTO) {
         Notification existingNotification = notificationRepository.findById(id)
                 .orElseThrow(() -> NotificationNotFoundException.withId(id));
+        NotificationStatsStore.StatsKey statsBefore = notificationStatsStore.keyOf(existingNotification);
+        boolean countedBefore = existingNotification.countsAsUnread();
+        if (existingNotification.isTemplate()) {
+            notificationTemplateService.invalidate(existingNotification.getTemplateName());
+        }
 
         // Update fields
         if (notificationDTO.getMessage() != null) {
@@ -221,6 +277,14 @@ public class NotificationServiceImpl implements NotificationService {
         existingNotification.setUpdatedAt(LocalDateTime.now());
 
         Notification updatedNotification = notificationRepository.save(existingNotification);
+        notificationStatsStore.changed(statsBefore, updatedNotification);
+        adjustUnreadCount(updatedNotification, countedBefore);
+        if (updatedNotification.isTemplate()) {
+            notificationTemplateService.invalidate(updatedNotification.getTemplateName());
+        }
+        if (updatedNotification.isScheduled() && updatedNotification.getScheduledSendDate() != null) {
+            notificationScheduler.track(updatedNotification.getId(), updatedNotification.getScheduledSendDate());
+        }
         return notificationMapper.toDto(updatedNotification);
     }
 
@@ -229,13 +293,29 @@ public class NotificationServiceImpl implements NotificationService {
         Notification notification = notificationRepository.findById(id)
                 .orElseThrow(() -> NotificationNotFoundException.withId(id));
         notificationRepository.delete(notification);
+        notificationStatsStore.removed(notification);
+        if (notification.isTemplate()) {
+            notificationTemplateService.invalidate(notification.getTemplateName());
+        }
+        if (notification.countsAsUnread()) {
+            unreadCountStore.adjust(notification.getUser().getId(), -1);
+            notificationStreamRegistry.publishUnreadCount(notification.getUser().getId());
+        }
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<NotificationDTO> getNotificationsByUserId(Long userId) {
         List<Notification> notifications = notificationRepository.findByUserId(userId);
-        return notificationMapper.toDtoList(notifications);
+        List<NotificationDTO> shared = sharedBroadcastService.findForUser(userId);
+        if (shared.isEmpty()) {
+            return notificationMapper.toDtoList(notifications);
+        }
+        // Broadcasts stored once are merged in among the personal rows, newest first
+        List<NotificationDTO> merged = new ArrayList<>(notificationMapper.toDtoList(notifications));
+        merged.addAll(shared);
+        merged.sort(Comparator.comparing(NotificationDTO::getCreatedAt, Comparator.nullsLast(Comparator.reverseOrder())));
+        return merged;
     }
 
     @Override
@@ -245,6 +325,13 @@ public class NotificationServiceImpl implements NotificationService {
         return notifications.map(notificationMapper::toDto);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Page<NotificationDTO> getNotificationHistoryByUserId(Long userId, Pageable pageable) {
+        Page<NotificationHistory> history = notificationHistoryRepository.findByUserIdOrderByCreatedAtDescIdDesc(userId, pageable);
+        return history.map(notificationMapper::toDto);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<NotificationDTO> getNotificationsByUserIdAndIsRead(Long userId, Boolean isRead) {
@@ -259,6 +346,39 @@ public class NotificationServiceImpl implements NotificationService {
         return notifications.map(notificationMapper::toDto);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDTO<NotificationDTO> getInbox(Long userId, Boolean isRead, String after, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_INBOX_PAGE_SIZE));
+        // One extra row tells us whether there is another page, without a COUNT query
+        Limit fetch = Limit.of(pageSize + 1);
+        KeysetCursor cursor = after != null && !after.isBlank() ? KeysetCursor.decode(after) : null;
+        List<Notification> notifications;
+        if (cursor == null) {
+            notifications = isRead == null
+                    ? notificationRepository.findInbox(userId, fetch)
+                    : notificationRepository.findInboxByIsRead(userId, isRead, fetch);
+        } else {
+            notifications = isRead == null
+                    ? notificationRepository.findInboxAfter(userId, cursor.getCreatedAt(), cursor.getId(), fetch)
+                    : notificationRepository.findInboxByIsReadAfter(userId, isRead, cursor.getCreatedAt(), cursor.getId(), fetch);
+        }
+
+        boolean hasMore = notifications.size() > pageSize;
+        List<Notification> page = hasMore ? notifications.subList(0, pageSize) : notifications;
+        String nextCursor = null;
+        if (hasMore) {
+            Notification last = page.get(page.size() - 1);
+            nextCursor = new KeysetCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return CursorPageDTO.<NotificationDTO>builder()
+                .items(notificationMapper.toDtoList(page))
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .limit(pageSize)
+                .build();
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<NotificationDTO> getNotificationsByUserIdAndType(Long userId, NotificationType type) {
@@ -602,6 +722,12 @@ public class NotificationServiceImpl implements NotificationService {
         return notificationRepository.countByUserIdAndIsRead(userId, isRead);
     }
 
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Long getUnreadCountByUserId(Long userId) {
+        return unreadCountStore.get(userId) + sharedBroadcastService.countUnread(userId);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Long getNotificationCountByUserIdAndType(Long userId, NotificationType type) {
@@ -652,39 +778,39 @@ public class NotificationServiceImpl implements NotificationService {
 
     // System-wide count queries
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Long getNotificationCountByIsRead(Boolean isRead) {
-        return notificationRepository.countByIsRead(isRead);
+        return notificationStatsStore.countByIsRead(isRead);
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Long getNotificationCountByType(NotificationType type) {
-        return notificationRepository.countByType(type);
+        return notificationStatsStore.countByType(type);
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Long getNotificationCountByPriority(NotificationPriority priority) {
-        return notificationRepository.countByPriority(priority);
+        return notificationStatsStore.countByPriority(priority);
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Long getNotificationCountByIsUrgent(Boolean isUrgent) {
-        return notificationRepository.countByIsUrgent(isUrgent);
+        return notificationStatsStore.countByIsUrgent(isUrgent);
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Long getNotificationCountByIsArchived(Boolean isArchived) {
-        return notificationRepository.countByIsArchived(isArchived);
+        return notificationStatsStore.countByIsArchived(isArchived);
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Long getNotificationCountByIsSystem(Boolean isSystem) {
-        return notificationRepository.countByIsSystem(isSystem);
+        return notificationStatsStore.countByIsSystem(isSystem);
     }
 
     @Override
@@ -706,15 +832,15 @@ public class NotificationServiceImpl implements NotificationService {
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Long getNotificationCountByCategory(String category) {
-        return notificationRepository.countByCategory(category);
+        return notificationStatsStore.countByCategory(category);
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Long getNotificationCountBySource(String source) {
-        return notificationRepository.countBySource(source);
+        return notificationStatsStore.countBySource(source);
     }
 
     @Override
@@ -759,73 +885,120 @@ public class NotificationServiceImpl implements NotificationService {
         return notificationRepository.countTemplates();
     }
 
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public NotificationStatsDTO getNotificationStatistics() {
+        return notificationStatsStore.getSnapshot();
+    }
+
     // Action methods
     @Override
     public void markAsRead(Long notificationId, String readBy) {
         Notification notification = notificationRepository.findById(notificationId)
                 .orElseThrow(() -> NotificationNotFoundException.withId(notificationId));
+        NotificationStatsStore.StatsKey statsBefore = notificationStatsStore.keyOf(notification);
+        boolean wasUnread = notification.countsAsUnread();
         notification.markAsRead(readBy);
         notificationRepository.save(notification);
+        notificationStatsStore.changed(statsBefore, notification);
+        if (wasUnread) {
+            unreadCountStore.adjust(notification.getUser().getId(), -1);
+            notificationStreamRegistry.publishUnreadCount(notification.getUser().getId());
+        }
     }
 
     @Override
     public void markAsUnread(Long notificationId) {
         Notification notification = notificationRepository.findById(notificationId)
                 .orElseThrow(() -> NotificationNotFoundException.withId(notificationId));
+        NotificationStatsStore.StatsKey statsBefore = notificationStatsStore.keyOf(notification);
+        boolean wasRead = notification.isRead();
         notification.markAsUnread();
         notificationRepository.save(notification);
+        notificationStatsStore.changed(statsBefore, notification);
+        if (wasRead && notification.countsAsUnread()) {
+            unreadCountStore.adjust(notification.getUser().getId(), 1);
+            notificationStreamRegistry.publishUnreadCount(notification.getUser().getId());
+        }
+    }
+
+    @Override
+    public int markAllAsReadByUserId(Long userId, String readBy) {
+        int updated = notificationRepository.markAllAsReadByUserId(userId, readBy, LocalDateTime.now());
+        if (updated > 0) {
+            notificationStatsStore.markStale();
+            unreadCountStore.adjust(userId, -updated);
+        }
+        int sharedRead = sharedBroadcastService.markAllRead(userId);
+        if (updated + sharedRead > 0) {
+            notificationStreamRegistry.publishUnreadCount(userId);
+        }
+        return updated + sharedRead;
     }
 
     @Override
-    public void markAllAsReadByUserId(Long userId, String readBy) {
-        List<Notification> notifications = notificationRepository.findByUserIdAndIsRead(userId, false);
-        for (Notification notification : notifications) {
-            notification.markAsRead(readBy);
+    public int markAllAsUnreadByUserId(Long userId) {
+        int updated = notificationRepository.markAllAsUnreadByUserId(userId, LocalDateTime.now());
+        if (updated > 0) {
+            notificationStatsStore.markStale();
+            unreadCountStore.adjust(userId, updated);
+            notificationStreamRegistry.publishUnreadCount(userId);
         }
-        notificationRepository.saveAll(notifications);
+        return updated;
     }
 
     @Override
-    public void markAllAsUnreadByUserId(Long userId) {
-        List<Notification> notifications = notificationRepository.findByUserIdAndIsRead(userId, true);
-        for (Notification notification : notifications) {
-            notification.markAsUnread();
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public void markBroadcastAsRead(Long broadcastId, Long userId) {
+        if (sharedBroadcastService.markRead(broadcastId, userId)) {
+            notificationStreamRegistry.publishUnreadCount(userId);
+        }
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public void dismissBroadcast(Long broadcastId, Long userId) {
+        if (sharedBroadcastService.dismiss(broadcastId, userId)) {
+            notificationStreamRegistry.publishUnreadCount(userId);
         }
-        notificationRepository.saveAll(notifications);
     }
 
     @Override
     public void archiveNotification(Long notificationId, String archivedBy, String archiveReason) {
         Notification notification = notificationRepository.findById(notificationId)
                 .orElseThrow(() -> NotificationNotFoundException.withId(notificationId));
+        NotificationStatsStore.StatsKey statsBefore = notificationStatsStore.keyOf(notification);
         notification.archive(archivedBy, archiveReason);
         notificationRepository.save(notification);
+        notificationStatsStore.changed(statsBefore, notification);
     }
 
     @Override
     public void unarchiveNotification(Long notificationId) {
         Notification notification = notificationRepository.findById(notificationId)
                 .orElseThrow(() -> NotificationNotFoundException.withId(notificationId));
+        NotificationStatsStore.StatsKey statsBefore = notificationStatsStore.keyOf(notification);
         notification.unarchive();
         notificationRepository.save(notification);
+        notificationStatsStore.changed(statsBefore, notification);
     }
 
     @Override
-    public void archiveAllByUserId(Long userId, String archivedBy, String archiveReason) {
-        List<Notification> notifications = notificationRepository.findByUserIdAndIsArchived(userId, false);
-        for (Notification notification : notifications) {
-            notification.archive(archivedBy, archiveReason);
+    public int archiveAllByUserId(Long userId, String archivedBy, String archiveReason) {
+        int updated = notificationRepository.archiveAllByUserId(userId, archivedBy, archiveReason, LocalDateTime.now());
+        if (updated > 0) {
+            notificationStatsStore.markStale();
         }
-        notificationRepository.saveAll(notifications);
+        return updated;
     }
 
     @Override
-    public void unarchiveAllByUserId(Long userId) {
-        List<Notification> notifications = notificationRepository.findByUserIdAndIsArchived(userId, true);
-        for (Notification notification : notifications) {
-            notification.unarchive();
+    public int unarchiveAllByUserId(Long userId) {
+        int updated = notificationRepository.unarchiveAllByUserId(userId, LocalDateTime.now());
+        if (updated > 0) {
+            notificationStatsStore.markStale();
         }
-        notificationRepository.saveAll(notifications);
+        return updated;
     }
 
     @Override
@@ -861,18 +1034,63 @@ public class NotificationServiceImpl implements NotificationService {
 
     @Override
     public void sendNotificationToUsers(List<Long> userIds, NotificationDTO notificationDTO) {
-        for (Long userId : userIds) {
-            sendNotificationToUser(userId, notificationDTO);
+        notificationBroadcastEngine.sendToUsers(notificationDTO, userIds);
+    }
+
+    @Override
+    public BulkSendResultDTO sendBulkNotification(NotificationRequest request) {
+        NotificationDTO notificationDTO = NotificationDTO.builder()
+                .title(request.getTitle())
+                .message(request.getMessage())
+                .type(request.getType())
+                .priority(request.getPriority())
+                .source(request.getRelatedEntityType())
+                .sourceId(request.getRelatedEntityId() != null ? request.getRelatedEntityId().toString() : null)
+                .actionUrl(request.getActionUrl())
+                .icon(request.getIcon())
+                .expiryDate(request.getExpiryDate())
+                .sentBy(request.getSenderId() != null ? request.getSenderId().toString() : null)
+                .build();
+        return notificationBroadcastEngine.bulkSend(notificationDTO, request.getRecipientIds());
+    }
+
+    @Override
+    public BulkSendResultDTO sendTemplatedNotification(String templateName, TemplateSendRequest request) {
+        NotificationTemplateService.Template template = notificationTemplateService.get(templateName);
+        if (!template.isPersonalized()) {
+            return notificationBroadcastEngine.bulkSend(template.getPrototype(), request.getRecipientIds());
         }
+        Map<String, String> shared = request.getVariables() != null ? request.getVariables() : Map.of();
+        Map<Long, Map<String, String>> personal = request.getRecipientVariables() != null
+                ? request.getRecipientVariables() : Map.of();
+        return notificationBroadcastEngine.bulkSend(template.getPrototype(), request.getRecipientIds(),
+                new NotificationBroadcastEngine.RecipientRenderer() {
+                    @Override
+                    public String title(Long userId) {
+                        return template.renderTitle(valuesFor(userId));
+                    }
+
+                    @Override
+                    public String message(Long userId) {
+                        return template.renderMessage(valuesFor(userId));
+                    }
+
+                    private CompiledTemplate.VariableSource valuesFor(Long userId) {
+                        Map<String, String> own = personal.get(userId);
+                        if (own == null) {
+                            return shared::get;
+                        }
+                        return name -> {
+                            String value = own.get(name);
+                            return value != null ? value : shared.get(name);
+                        };
+                    }
+                });
     }
 
     @Override
-    public void sendBroadcastNotification(NotificationDTO notificationDTO, String target) {
-        notificationDTO.setIsBroadcast(true);
-        notificationDTO.setBroadcastTarget(target);
-        // This would typically involve finding all users matching the target
-        // For now, we'll create a broadcast notification without specific users
-        createNotification(notificationDTO);
+    public BroadcastJobDTO sendBroadcastNotification(NotificationDTO notificationDTO, String target) {
+        return notificationBroadcastEngine.submit(notificationDTO, target);
     }
 
     @Override
@@ -889,13 +1107,18 @@ public class NotificationServiceImpl implements NotificationService {
 
     @Override
     public void sendSystemNotificationToUsers(List<Long> userIds, String message, NotificationType type, NotificationPriority priority) {
-        for (Long userId : userIds) {
-            sendSystemNotification(userId, message, type, priority);
-        }
+        NotificationDTO notificationDTO = NotificationDTO.builder()
+                .message(message)
+                .type(type)
+                .priority(priority)
+                .isSystem(true)
+                .source("SYSTEM")
+                .build();
+        sendNotificationToUsers(userIds, notificationDTO);
     }
 
     @Override
-    public void sendSystemBroadcastNotification(String message, NotificationType type, NotificationPriority priority, String target) {
+    public BroadcastJobDTO sendSystemBroadcastNotification(String message, NotificationType type, NotificationPriority priority, String target) {
         NotificationDTO notificationDTO = NotificationDTO.builder()
                 .message(message)
                 .type(type)
@@ -904,7 +1127,14 @@ public class NotificationServiceImpl implements NotificationService {
                 .isBroadcast(true)
                 .source("SYSTEM")
                 .build();
-        sendBroadcastNotification(notificationDTO, target);
+        return sendBroadcastNotification(notificationDTO, target);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BroadcastJobDTO getBroadcastJob(String jobId) {
+        return notificationBroadcastEngine.getJob(jobId)
+                .orElseThrow(() -> new ResourceNotFoundException("Broadcast job not found with id: " + jobId));
     }
 
     @Override
@@ -928,61 +1158,48 @@ public class NotificationServiceImpl implements NotificationService {
     public void cancelScheduledNotification(Long notificationId) {
         Notification notification = notificationRepository.findById(notificationId)
                 .orElseThrow(() -> NotificationNotFoundException.withId(notificationId));
+        boolean countedBefore = notification.countsAsUnread();
         notification.setIsScheduled(false);
         notification.setScheduledSendDate(null);
         notification.setUpdatedAt(LocalDateTime.now());
         notificationRepository.save(notification);
+        adjustUnreadCount(notification, countedBefore);
     }
 
     // Processing methods
     @Override
-    public void processScheduledNotifications() {
-        List<Notification> scheduledNotifications = notificationRepository.findScheduledForSending(LocalDateTime.now());
-        for (Notification notification : scheduledNotifications) {
-            notification.setIsScheduled(false);
-            notification.setIsSent(true);
-            notification.setSentAt(LocalDateTime.now());
-            notification.setUpdatedAt(LocalDateTime.now());
-        }
-        notificationRepository.saveAll(scheduledNotifications);
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int processScheduledNotifications() {
+        return notificationScheduler.processDue();
     }
 
     @Override
-    public void processRecurringNotifications() {
-        List<Notification> expiredRecurringNotifications = notificationRepository.findExpiredRecurring(LocalDateTime.now());
-        for (Notification notification : expiredRecurringNotifications) {
-            notification.setIsRecurring(false);
-            notification.setUpdatedAt(LocalDateTime.now());
-        }
-        notificationRepository.saveAll(expiredRecurringNotifications);
+    public int processRecurringNotifications() {
+        return notificationRepository.endExpiredRecurring(LocalDateTime.now());
     }
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void processRetryNotifications() {
-        List<Notification> retryNotifications = notificationRepository.findReadyForRetry(LocalDateTime.now());
-        for (Notification notification : retryNotifications) {
-            notification.incrementRetryCount();
-            // Set next retry date (exponential backoff)
-            LocalDateTime nextRetry = LocalDateTime.now().plusMinutes((long) Math.pow(2, notification.getRetryCount()));
-            notification.setNextRetryDate(nextRetry);
-        }
-        notificationRepository.saveAll(retryNotifications);
+        // Retries are driven by the delivery pipeline's delay queue; this only picks up deliveries it lost track of
+        notificationDeliveryPipeline.recoverUndelivered();
     }
 
     @Override
-    public void cleanupExpiredNotifications() {
-        List<Notification> expiredNotifications = notificationRepository.findExpired(LocalDateTime.now());
-        notificationRepository.deleteAll(expiredNotifications);
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int cleanupExpiredNotifications() {
+        return (int) notificationRetentionService.purgeExpired();
     }
 
     @Override
-    public void cleanupOldNotifications(int daysToKeep) {
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int cleanupOldNotifications(int daysToKeep) {
         LocalDateTime cutoffDate = LocalDateTime.now().minusDays(daysToKeep);
-        notificationRepository.deleteByCreatedAtBefore(cutoffDate);
+        return (int) notificationRetentionService.purgeCreatedBefore(cutoffDate);
     }
 
     @Override
-    public void deleteTestNotifications() {
+    public int deleteTestNotifications() {
         // Delete notifications that match test patterns
         // Look for common test messages and delete them
         List<String> testMessages = List.of(
@@ -993,8 +1210,25 @@ public class NotificationServiceImpl implements NotificationService {
             "Your profile has been updated successfully."
         );
         
+        int deleted = 0;
         for (String testMessage : testMessages) {
-            notificationRepository.deleteByMessageContaining(testMessage);
+            deleted += notificationRepository.deleteByMessageContaining(testMessage);
+        }
+        if (deleted > 0) {
+            unreadCountStore.invalidateAll();
+            notificationStatsStore.markStale();
+        }
+        return deleted;
+    }
+
+    /**
+     * Keep the unread count in step when an edit changes whether a notification counts, e.g. it stops being scheduled
+     */
+    private void adjustUnreadCount(Notification notification, boolean countedBefore) {
+        boolean countedAfter = notification.countsAsUnread();
+        if (countedBefore != countedAfter && notification.getUser() != null) {
+            unreadCountStore.adjust(notification.getUser().getId(), countedAfter ? 1 : -1);
+            notificationStreamRegistry.publishUnreadCount(notification.getUser().getId());
         }
     }
 } 
\ No newline at end of file
@@ -10,6 +10,8 @@ import com.smartcampus.exception.PasswordChangeException;
 import com.smartcampus.exception.ResourceNotFoundException;
 import com.smartcampus.repository.UserRepository;
 import com.smartcampus.service.UserService;
+import com.smartcampus.util.EntityStreams;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -17,6 +19,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 @Service
 @RequiredArgsConstructor
@@ -25,6 +28,7 @@ public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final EntityManager entityManager;
 
     @Override
     public User registerUser(RegisterRequest request) {
@@ -85,6 +89,12 @@ public class UserServiceImpl implements UserService {
                 .toList();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAllUsers(Consumer<UserDTO> action) {
+        EntityStreams.forEachDetached(entityManager, userRepository.streamAll(), this::convertToDTO, action);
+    }
+
     @Override
     public UserDTO updateUserProfile(Long userId, UpdateProfileDTO updateProfileDTO) {
         User user = userRepository.findById(userId)
@@ -0,0 +1,63 @@
+package com.smartcampus.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque cursor for the announcement feed, which is ordered by pinned, priority, {@code createdAt}
+ * and id, all descending. Like {@link KeysetCursor} it carries the sort key of the last item returned.
+ */
+public final class AnnouncementFeedCursor {
+
+    private final boolean pinned;
+    private final int priorityRank;
+    private final LocalDateTime createdAt;
+    private final Long id;
+
+    public AnnouncementFeedCursor(boolean pinned, int priorityRank, LocalDateTime createdAt, Long id) {
+        this.pinned = pinned;
+        this.priorityRank = priorityRank;
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    public boolean isPinned() {
+        return pinned;
+    }
+
+    public int getPriorityRank() {
+        return priorityRank;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String encode() {
+        String raw = (pinned ? 1 : 0) + "," + priorityRank + "," + createdAt + "," + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the token was not produced by {@link #encode()}
+     */
+    public static AnnouncementFeedCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(",");
+            if (parts.length != 4) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new AnnouncementFeedCursor("1".equals(parts[0]), Integer.parseInt(parts[1]),
+                    LocalDateTime.parse(parts[2]), Long.parseLong(parts[3]));
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.smartcampus.util;
+
+import com.smartcampus.entity.Role;
+import lombok.Getter;
+
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Parsed form of a notification broadcast target such as {@code ALL}, {@code STUDENTS},
+ * {@code DEPARTMENT_Computer Science} or {@code COURSE_42}.
+ */
+@Getter
+public class BroadcastAudience {
+
+    public enum Kind {
+        ALL,
+        ROLE,
+        DEPARTMENT,
+        COURSE
+    }
+
+    private static final String DEPARTMENT_PREFIX = "DEPARTMENT_";
+    private static final String COURSE_PREFIX = "COURSE_";
+
+    private final Kind kind;
+    private final Role role;
+    private final String department;
+    private final Long courseId;
+    private final String target;
+
+    private BroadcastAudience(Kind kind, Role role, String department, Long courseId, String target) {
+        this.kind = kind;
+        this.role = role;
+        this.department = department;
+        this.courseId = courseId;
+        this.target = target;
+    }
+
+    /**
+     * Whether a user belongs to this audience; mirrors the queries that resolve audiences for fan-out
+     */
+    public boolean includes(Role userRole, String userDepartment, boolean active, Set<Long> enrolledCourseIds) {
+        if (!active) {
+            return false;
+        }
+        switch (kind) {
+            case ROLE:
+                return role == userRole;
+            case DEPARTMENT:
+                return department.equals(userDepartment);
+            case COURSE:
+                return enrolledCourseIds != null && enrolledCourseIds.contains(courseId);
+            case ALL:
+            default:
+                return true;
+        }
+    }
+
+    /**
+     * Parse a broadcast target string
+     * @throws IllegalArgumentException if the target is blank or not recognised
+     */
+    public static BroadcastAudience parse(String target) {
+        if (target == null || target.trim().isEmpty()) {
+            throw new IllegalArgumentException("Broadcast target is required");
+        }
+        String value = target.trim();
+        String upper = value.toUpperCase(Locale.ROOT);
+
+        if (upper.equals("ALL")) {
+            return new BroadcastAudience(Kind.ALL, null, null, null, "ALL");
+        }
+        if (upper.startsWith(DEPARTMENT_PREFIX)) {
+            String department = value.substring(DEPARTMENT_PREFIX.length()).trim();
+            if (department.isEmpty()) {
+                throw new IllegalArgumentException("Department broadcast target is missing a department name");
+            }
+            return new BroadcastAudience(Kind.DEPARTMENT, null, department, null, DEPARTMENT_PREFIX + department);
+        }
+        if (upper.startsWith(COURSE_PREFIX)) {
+            try {
+                Long courseId = Long.valueOf(value.substring(COURSE_PREFIX.length()).trim());
+                return new BroadcastAudience(Kind.COURSE, null, null, courseId, COURSE_PREFIX + courseId);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid course broadcast target: " + value);
+            }
+        }
+
+        // STUDENTS / PROFESSORS / ADMINS as well as the plain role names
+        String roleName = upper.endsWith("S") ? upper.substring(0, upper.length() - 1) : upper;
+        for (Role role : Role.values()) {
+            if (role.name().equals(roleName)) {
+                return new BroadcastAudience(Kind.ROLE, role, null, null, role.name() + "S");
+            }
+        }
+        throw new IllegalArgumentException("Unknown broadcast target: " + value);
+    }
+}
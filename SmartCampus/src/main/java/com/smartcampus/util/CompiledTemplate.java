@@ -0,0 +1,107 @@
+package com.smartcampus.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A notification template parsed once into literal segments and {@code {{variable}}} slots.
+ * Rendering only appends to a builder, so the same compiled template can be rendered for every
+ * recipient of a fan-out without re-parsing. Unknown variables render as an empty string and an
+ * unterminated placeholder is kept as literal text. Instances are immutable and thread-safe.
+ */
+public final class CompiledTemplate {
+
+    private static final String OPEN = "{{";
+    private static final String CLOSE = "}}";
+
+    // literals.length == variables.length + 1; output is literals[0] var[0] literals[1] ... literals[n]
+    private final String[] literals;
+    private final String[] variables;
+    private final int literalLength;
+
+    private CompiledTemplate(String[] literals, String[] variables) {
+        this.literals = literals;
+        this.variables = variables;
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    public static CompiledTemplate compile(String source) {
+        if (source == null) {
+            return null;
+        }
+        List<String> literals = new ArrayList<>();
+        List<String> variables = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        int position = 0;
+        while (position < source.length()) {
+            int open = source.indexOf(OPEN, position);
+            int close = open < 0 ? -1 : source.indexOf(CLOSE, open + OPEN.length());
+            if (close < 0) {
+                literal.append(source, position, source.length());
+                break;
+            }
+            String name = source.substring(open + OPEN.length(), close).trim();
+            literal.append(source, position, open);
+            if (name.isEmpty()) {
+                literal.append(source, open, close + CLOSE.length());
+            } else {
+                literals.add(literal.toString());
+                variables.add(name);
+                literal.setLength(0);
+            }
+            position = close + CLOSE.length();
+        }
+        literals.add(literal.toString());
+        return new CompiledTemplate(literals.toArray(new String[0]), variables.toArray(new String[0]));
+    }
+
+    public String render(Map<String, ?> values) {
+        return render(values::get);
+    }
+
+    public String render(VariableSource values) {
+        if (variables.length == 0) {
+            return literals[0];
+        }
+        StringBuilder out = new StringBuilder(literalLength + 16 * variables.length);
+        renderTo(out, values);
+        return out.toString();
+    }
+
+    /**
+     * Append the rendered text to {@code out}, e.g. a builder reused across recipients
+     */
+    public void renderTo(StringBuilder out, VariableSource values) {
+        out.append(literals[0]);
+        for (int i = 0; i < variables.length; i++) {
+            Object value = values.get(variables[i]);
+            if (value != null) {
+                out.append(value);
+            }
+            out.append(literals[i + 1]);
+        }
+    }
+
+    public boolean hasVariables() {
+        return variables.length > 0;
+    }
+
+    public Set<String> getVariables() {
+        Set<String> names = new LinkedHashSet<>();
+        Collections.addAll(names, variables);
+        return names;
+    }
+
+    @FunctionalInterface
+    public interface VariableSource {
+        Object get(String name);
+    }
+}
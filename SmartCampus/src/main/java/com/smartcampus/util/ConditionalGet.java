@@ -0,0 +1,48 @@
+package com.smartcampus.util;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.function.Supplier;
+
+/**
+ * Conditional GET responses for versioned collections.
+ */
+public final class ConditionalGet {
+
+    // Clients may keep the body but must revalidate it on every use
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    private ConditionalGet() {
+    }
+
+    /**
+     * 304 when the request's {@code If-None-Match} (or {@code If-Modified-Since}) matches
+     * {@code version}, otherwise 200 with the body built by {@code body}. The supplier is not called
+     * for a 304, so neither the query nor the serialization runs.
+     */
+    public static <T> ResponseEntity<T> respond(WebRequest request, ResourceVersion version, Supplier<T> body) {
+        return respond(request, version, null, body);
+    }
+
+    /**
+     * As {@link #respond(WebRequest, ResourceVersion, Supplier)}, with the content type set on the
+     * 200 response, for bodies (such as streamed ones) that no message converter describes.
+     */
+    public static <T> ResponseEntity<T> respond(WebRequest request, ResourceVersion version, MediaType contentType,
+                                                Supplier<T> body) {
+        // For a GET, checkNotModified sets the ETag and Last-Modified headers whether or not they match;
+        // repeating them here would send them twice on streamed bodies
+        if (request.checkNotModified(version.getETag(), version.getLastModified())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(REVALIDATE).build();
+        }
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok().cacheControl(REVALIDATE);
+        if (contentType != null) {
+            ok.contentType(contentType);
+        }
+        return ok.body(body.get());
+    }
+}
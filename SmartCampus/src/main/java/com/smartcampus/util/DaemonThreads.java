@@ -0,0 +1,34 @@
+package com.smartcampus.util;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Daemon threads for the background services, so none of them keeps the JVM alive on shutdown.
+ */
+public final class DaemonThreads {
+
+    private DaemonThreads() {
+    }
+
+    /**
+     * Daemon threads named {@code name}, or {@code name1}, {@code name2}, ... when the name ends with '-'
+     */
+    public static ThreadFactory factory(String name) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name.endsWith("-") ? name + counter.incrementAndGet() : name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Single daemon thread for a service's periodic jobs
+     */
+    public static ScheduledExecutorService scheduler(String name) {
+        return Executors.newSingleThreadScheduledExecutor(factory(name));
+    }
+}
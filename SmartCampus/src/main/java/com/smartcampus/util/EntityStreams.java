@@ -0,0 +1,44 @@
+package com.smartcampus.util;
+
+import jakarta.persistence.EntityManager;
+
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Helpers for walking large query results without holding them in the persistence context.
+ */
+public final class EntityStreams {
+
+    /**
+     * JDBC fetch size for streamed queries. MySQL only honours it with {@code useCursorFetch=true}
+     * on the connection URL; otherwise the driver reads the whole result up front.
+     */
+    public static final String FETCH_SIZE = "500";
+
+    private static final int CLEAR_INTERVAL = 500;
+
+    private EntityStreams() {
+    }
+
+    /**
+     * Map each row and hand it to {@code action}, clearing the persistence context every
+     * {@link #CLEAR_INTERVAL} rows so loaded entities (and whatever they fetched) can be collected.
+     * Must run inside a read-only transaction that has no other managed entities to keep.
+     * The stream is closed when done.
+     */
+    public static <E, D> void forEachDetached(EntityManager entityManager, Stream<E> rows,
+                                              Function<? super E, ? extends D> mapper, Consumer<? super D> action) {
+        try (rows) {
+            int sinceClear = 0;
+            for (E row : (Iterable<E>) rows::iterator) {
+                action.accept(mapper.apply(row));
+                if (++sinceClear == CLEAR_INTERVAL) {
+                    entityManager.clear();
+                    sinceClear = 0;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.smartcampus.util;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Set;
+
+/**
+ * Writes a stored file to the response with conditional and partial GET support.
+ * {@code If-None-Match} answers 304, a single {@code Range} (optionally guarded by
+ * {@code If-Range}) answers 206 or 416, and anything else gets the whole file. Tomcat's sendfile
+ * hands the file region to the kernel when the connector supports it; otherwise the file channel is
+ * transferred to the response stream, which copies it through a small buffer.
+ * Only types on a short allowlist are shown inline. Anything else, HTML and SVG included, is sent
+ * as a download under a sandboxing Content-Security-Policy, since the stored type comes from the uploader.
+ */
+public final class FileDownload {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+    private static final String CACHE_CONTROL = CacheControl.noCache().cachePrivate().getHeaderValue();
+    private static final Set<String> INLINE_TYPES = Set.of(
+            "application/pdf", "text/plain",
+            "image/png", "image/jpeg", "image/gif", "image/webp",
+            "audio/mpeg", "audio/ogg", "audio/wav", "audio/webm",
+            "video/mp4", "video/ogg", "video/webm");
+
+    private FileDownload() {
+    }
+
+    /**
+     * @param cached the file's contents when already in memory, otherwise {@code null}
+     */
+    public static void send(HttpServletRequest request, HttpServletResponse response, Path file, long size,
+                            byte[] cached, String eTag, String contentType, String fileName) throws IOException {
+        if (new ServletWebRequest(request, response).checkNotModified(eTag)) {
+            // Status and ETag were set by checkNotModified
+            response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+            return;
+        }
+        response.setHeader(HttpHeaders.ETAG, eTag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setContentType(contentType != null ? contentType : "application/octet-stream");
+        response.setHeader("X-Content-Type-Options", "nosniff");
+        boolean inline = isInlineType(contentType);
+        if (!inline) {
+            response.setHeader("Content-Security-Policy", "sandbox");
+        }
+        ContentDisposition.Builder disposition = inline ? ContentDisposition.inline() : ContentDisposition.attachment();
+        if (fileName != null) {
+            // Plain ASCII names go out as-is; others also get an RFC 5987 filename*
+            disposition = StandardCharsets.US_ASCII.newEncoder().canEncode(fileName)
+                    ? disposition.filename(fileName) : disposition.filename(fileName, StandardCharsets.UTF_8);
+        }
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, disposition.build().toString());
+
+        long start = 0;
+        long end = size - 1;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (range != null && (ifRange == null || ifRange.equals(eTag))) {
+            long[] bounds = parseRange(range, size);
+            if (bounds == null) {
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                return;
+            }
+            if (bounds.length == 2) {
+                start = bounds[0];
+                end = bounds[1];
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+            }
+        }
+        long length = end - start + 1;
+        response.setContentLengthLong(length);
+        if (HttpMethod.HEAD.matches(request.getMethod()) || length == 0) {
+            return;
+        }
+
+        if (cached != null) {
+            response.getOutputStream().write(cached, (int) start, (int) length);
+        } else if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            // Tomcat writes the region itself once the request completes; the end offset is exclusive
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+        } else {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+                long position = start;
+                long remaining = length;
+                while (remaining > 0) {
+                    long written = channel.transferTo(position, remaining, out);
+                    if (written <= 0) {
+                        break;
+                    }
+                    position += written;
+                    remaining -= written;
+                }
+            }
+        }
+    }
+
+    /**
+     * Whether a file of this type may be rendered by the browser rather than downloaded
+     */
+    static boolean isInlineType(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        try {
+            MediaType mediaType = MediaType.parseMediaType(contentType);
+            return INLINE_TYPES.contains(mediaType.getType() + "/" + mediaType.getSubtype());
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Bounds of a single {@code bytes=} range as {@code {start, end}} (inclusive), an empty array
+     * when the header should be ignored (multiple ranges, other units, malformed), or {@code null}
+     * when the range cannot be satisfied.
+     */
+    static long[] parseRange(String header, long size) {
+        if (!header.startsWith("bytes=") || header.indexOf(',') >= 0) {
+            return new long[0];
+        }
+        String spec = header.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return new long[0];
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            if (first.isEmpty()) {
+                // Suffix range: the final n bytes
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0 || size == 0) {
+                    return null;
+                }
+                return new long[]{Math.max(0, size - suffix), size - 1};
+            }
+            long start = Long.parseLong(first);
+            if (!last.isEmpty() && Long.parseLong(last) < start) {
+                return new long[0];
+            }
+            if (start >= size) {
+                return null;
+            }
+            long end = last.isEmpty() ? size - 1 : Math.min(Long.parseLong(last), size - 1);
+            return new long[]{start, end};
+        } catch (NumberFormatException e) {
+            return new long[0];
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.smartcampus.util;
+
+/**
+ * Snapshot of a collection's version: a strong, quoted ETag and the time of the last change in
+ * epoch milliseconds, truncated to whole seconds as HTTP dates are.
+ */
+public final class ResourceVersion {
+
+    private final String eTag;
+    private final long lastModified;
+
+    public ResourceVersion(String eTag, long lastModified) {
+        this.eTag = eTag;
+        this.lastModified = lastModified;
+    }
+
+    public String getETag() {
+        return eTag;
+    }
+
+    public long getLastModified() {
+        return lastModified;
+    }
+}
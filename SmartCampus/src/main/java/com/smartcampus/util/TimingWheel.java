@@ -0,0 +1,119 @@
+package com.smartcampus.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel for near-term timers.
+ * The innermost wheel has {@code wheelSize} buckets of {@code tickMillis} each; timers further
+ * out go to lazily created overflow wheels whose tick is the full span of the wheel below.
+ * When an overflow bucket comes due its timers cascade down into finer buckets, so scheduling
+ * and expiring are O(1) per timer no matter how far ahead they are.
+ * Due times are rounded up to the next tick, so a timer never fires early and at most one tick late.
+ * Callers drive time forward with {@link #advance(long)}; the class is thread-safe.
+ */
+public class TimingWheel<T> {
+
+    private final long tickMillis;
+    private final Level<T> root;
+    private int size;
+
+    public TimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        this.tickMillis = tickMillis;
+        this.root = new Level<>(tickMillis, wheelSize, startMillis);
+    }
+
+    /**
+     * Add a timer. Returns false if it is already due, in which case the caller should fire it now.
+     */
+    public synchronized boolean schedule(T item, long dueAtMillis) {
+        long roundedDueAt = Math.floorDiv(dueAtMillis + tickMillis - 1, tickMillis) * tickMillis;
+        boolean added = root.add(new Timer<>(item, roundedDueAt));
+        if (added) {
+            size++;
+        }
+        return added;
+    }
+
+    /**
+     * Move the clock to {@code nowMillis} and return every timer that has come due
+     */
+    public synchronized List<T> advance(long nowMillis) {
+        List<Timer<T>> collected = new ArrayList<>();
+        root.advance(nowMillis, collected);
+        if (collected.isEmpty()) {
+            return List.of();
+        }
+        List<T> expired = new ArrayList<>();
+        for (Timer<T> timer : collected) {
+            // Timers from coarse buckets either fire now or cascade into a finer bucket
+            if (!root.add(timer)) {
+                expired.add(timer.item);
+                size--;
+            }
+        }
+        return expired;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private static final class Timer<T> {
+        private final T item;
+        private final long dueAt;
+
+        private Timer(T item, long dueAt) {
+            this.item = item;
+            this.dueAt = dueAt;
+        }
+    }
+
+    private static final class Level<T> {
+        private final long tickMillis;
+        private final int wheelSize;
+        private final long span;
+        private final List<List<Timer<T>>> buckets;
+        private long currentTime;
+        private Level<T> overflow;
+
+        private Level(long tickMillis, int wheelSize, long startMillis) {
+            this.tickMillis = tickMillis;
+            this.wheelSize = wheelSize;
+            this.span = tickMillis * wheelSize;
+            this.currentTime = startMillis - (startMillis % tickMillis);
+            this.buckets = new ArrayList<>(wheelSize);
+            for (int i = 0; i < wheelSize; i++) {
+                buckets.add(new ArrayList<>());
+            }
+        }
+
+        private boolean add(Timer<T> timer) {
+            if (timer.dueAt < currentTime + tickMillis) {
+                return false;
+            }
+            if (timer.dueAt < currentTime + span) {
+                buckets.get((int) ((timer.dueAt / tickMillis) % wheelSize)).add(timer);
+                return true;
+            }
+            if (overflow == null) {
+                overflow = new Level<>(span, wheelSize, currentTime);
+            }
+            return overflow.add(timer);
+        }
+
+        private void advance(long nowMillis, List<Timer<T>> collected) {
+            while (nowMillis >= currentTime + tickMillis) {
+                currentTime += tickMillis;
+                List<Timer<T>> bucket = buckets.get((int) ((currentTime / tickMillis) % wheelSize));
+                if (!bucket.isEmpty()) {
+                    collected.addAll(bucket);
+                    bucket.clear();
+                }
+                if (overflow != null) {
+                    overflow.advance(currentTime, collected);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.smartcampus.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compact set of user ids, laid out like a roaring bitmap.
+ * Ids are split into a 16-bit high part selecting a container and a 16-bit low part stored in it.
+ * A container holds a sorted {@code char[]} while it has at most 4096 entries (two bytes per id)
+ * and switches to a 64 Kbit bitset (8 KB) beyond that, so both sparse and dense audiences stay
+ * small. Not thread-safe.
+ */
+public final class UserIdBitmap {
+
+    private static final int ARRAY_LIMIT = 4096;
+    private static final int BITSET_WORDS = 1024;
+    private static final byte FORMAT_VERSION = 1;
+
+    private final TreeMap<Integer, Container> containers = new TreeMap<>();
+
+    public static UserIdBitmap fromBytes(byte[] bytes) {
+        UserIdBitmap bitmap = new UserIdBitmap();
+        if (bytes == null || bytes.length == 0) {
+            return bitmap;
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            byte version = in.readByte();
+            if (version != FORMAT_VERSION) {
+                throw new IllegalArgumentException("Unsupported bitmap format " + version);
+            }
+            int count = in.readInt();
+            for (int c = 0; c < count; c++) {
+                int key = in.readChar();
+                int cardinality = in.readInt();
+                Container container = new Container();
+                if (cardinality > ARRAY_LIMIT) {
+                    container.bits = new long[BITSET_WORDS];
+                    for (int w = 0; w < BITSET_WORDS; w++) {
+                        container.bits[w] = in.readLong();
+                    }
+                } else {
+                    container.values = new char[Math.max(cardinality, 4)];
+                    for (int v = 0; v < cardinality; v++) {
+                        container.values[v] = in.readChar();
+                    }
+                }
+                container.cardinality = cardinality;
+                bitmap.containers.put(key, container);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bitmap;
+    }
+
+    /**
+     * @return true if the id was not already present
+     */
+    public boolean add(long userId) {
+        int id = checkedId(userId);
+        return containers.computeIfAbsent(id >>> 16, key -> new Container()).add((char) id);
+    }
+
+    public boolean contains(long userId) {
+        if (userId < 0 || userId > Integer.MAX_VALUE) {
+            return false;
+        }
+        int id = (int) userId;
+        Container container = containers.get(id >>> 16);
+        return container != null && container.contains((char) id);
+    }
+
+    /**
+     * Add every id of {@code other} to this bitmap
+     */
+    public void or(UserIdBitmap other) {
+        for (Map.Entry<Integer, Container> entry : other.containers.entrySet()) {
+            Container source = entry.getValue();
+            Container target = containers.computeIfAbsent(entry.getKey(), key -> new Container());
+            if (source.bits != null) {
+                for (int w = 0; w < BITSET_WORDS; w++) {
+                    long word = source.bits[w];
+                    while (word != 0) {
+                        int bit = Long.numberOfTrailingZeros(word);
+                        target.add((char) (w * 64 + bit));
+                        word &= word - 1;
+                    }
+                }
+            } else {
+                for (int v = 0; v < source.cardinality; v++) {
+                    target.add(source.values[v]);
+                }
+            }
+        }
+    }
+
+    public long cardinality() {
+        long total = 0;
+        for (Container container : containers.values()) {
+            total += container.cardinality;
+        }
+        return total;
+    }
+
+    public boolean isEmpty() {
+        return cardinality() == 0;
+    }
+
+    public byte[] toBytes() {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(sizeInBytes());
+        try (DataOutputStream out = new DataOutputStream(buffer)) {
+            out.writeByte(FORMAT_VERSION);
+            out.writeInt(containers.size());
+            for (Map.Entry<Integer, Container> entry : containers.entrySet()) {
+                Container container = entry.getValue();
+                out.writeChar(entry.getKey());
+                out.writeInt(container.cardinality);
+                if (container.bits != null) {
+                    for (long word : container.bits) {
+                        out.writeLong(word);
+                    }
+                } else {
+                    for (int v = 0; v < container.cardinality; v++) {
+                        out.writeChar(container.values[v]);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+
+    /**
+     * Serialized size, for monitoring
+     */
+    public int sizeInBytes() {
+        int size = 5;
+        for (Container container : containers.values()) {
+            size += 6 + (container.bits != null ? BITSET_WORDS * 8 : container.cardinality * 2);
+        }
+        return size;
+    }
+
+    private static int checkedId(long userId) {
+        if (userId < 0 || userId > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("User id out of bitmap range: " + userId);
+        }
+        return (int) userId;
+    }
+
+    private static final class Container {
+        private char[] values = new char[4];
+        private long[] bits;
+        private int cardinality;
+
+        private boolean contains(char low) {
+            if (bits != null) {
+                return (bits[low >>> 6] & (1L << low)) != 0;
+            }
+            return Arrays.binarySearch(values, 0, cardinality, low) >= 0;
+        }
+
+        private boolean add(char low) {
+            if (bits != null) {
+                long mask = 1L << low;
+                int word = low >>> 6;
+                if ((bits[word] & mask) != 0) {
+                    return false;
+                }
+                bits[word] |= mask;
+                cardinality++;
+                return true;
+            }
+            int index = Arrays.binarySearch(values, 0, cardinality, low);
+            if (index >= 0) {
+                return false;
+            }
+            if (cardinality == ARRAY_LIMIT) {
+                toBitset();
+                return add(low);
+            }
+            int insertAt = -index - 1;
+            if (cardinality == values.length) {
+                values = Arrays.copyOf(values, Math.min(ARRAY_LIMIT, values.length * 2));
+            }
+            System.arraycopy(values, insertAt, values, insertAt + 1, cardinality - insertAt);
+            values[insertAt] = low;
+            cardinality++;
+            return true;
+        }
+
+        private void toBitset() {
+            bits = new long[BITSET_WORDS];
+            for (int v = 0; v < cardinality; v++) {
+                char low = values[v];
+                bits[low >>> 6] |= 1L << low;
+            }
+            values = null;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+-- Schema upgrade for databases created before the notification and announcement changes.
+-- The prod profile runs with ddl-auto=validate, so apply this once (MySQL 8) before deploying.
+-- Rows written before these columns existed are backfilled by the application: month_bucket by
+-- the retention job and visibility by the announcement visibility reconcile sweep.
+
+-- Notifications: delivery claims, coalescing and retention buckets
+ALTER TABLE notifications
+    ADD COLUMN claimed_by varchar(100),
+    ADD COLUMN claimed_at datetime(6),
+    ADD COLUMN coalesced_count integer DEFAULT 1,
+    ADD COLUMN month_bucket integer;
+
+CREATE INDEX idx_notifications_inbox ON notifications (user_id, created_at, id);
+CREATE INDEX idx_notifications_inbox_read ON notifications (user_id, is_read, created_at, id);
+CREATE INDEX idx_notifications_schedule ON notifications (is_scheduled, scheduled_send_date);
+CREATE INDEX idx_notifications_delivery ON notifications (delivery_status, id);
+CREATE INDEX idx_notifications_retention ON notifications (month_bucket, type);
+CREATE INDEX idx_notifications_expiry ON notifications (expiry_date);
+
+-- Announcements: materialized visibility and content-addressed attachments
+ALTER TABLE announcements
+    ADD COLUMN attachment_hash varchar(64),
+    ADD COLUMN visibility enum('SCHEDULED','LIVE','EXPIRED'),
+    ADD COLUMN visibility_changes_at datetime(6);
+
+CREATE INDEX idx_announcements_visibility ON announcements (course_id, visibility);
+CREATE INDEX idx_announcements_active ON announcements (is_active, course_id);
+CREATE INDEX idx_announcements_visibility_changes ON announcements (visibility_changes_at);
+CREATE INDEX idx_announcements_views ON announcements (view_count);
+CREATE INDEX idx_announcements_course_views ON announcements (course_id, view_count);
+
+CREATE TABLE notification_history (
+    id bigint NOT NULL,
+    user_id bigint NOT NULL,
+    message TEXT NOT NULL,
+    title varchar(255),
+    description varchar(500),
+    type enum('GENERAL','COURSE_UPDATE','GRADE_UPDATE','ATTENDANCE_ALERT','ANNOUNCEMENT','ASSIGNMENT_DUE','EXAM_REMINDER','SYSTEM_MAINTENANCE','SECURITY_ALERT','WELCOME','ACCOUNT_UPDATE','PASSWORD_RESET','EMAIL_VERIFICATION','COURSE_ENROLLMENT','COURSE_DROP','PROFESSOR_ASSIGNMENT','STUDENT_REGISTRATION','PAYMENT_REMINDER','LIBRARY_DUE','EVENT_REMINDER','MEETING_SCHEDULE','FEEDBACK_REQUEST','SURVEY_INVITATION','CERTIFICATE_READY','GRADUATION_REMINDER','INTERNSHIP_OPPORTUNITY','JOB_ANNOUNCEMENT','SCHOLARSHIP_DEADLINE','RESEARCH_OPPORTUNITY','CONFERENCE_INVITATION'),
+    priority enum('LOW','NORMAL','HIGH','URGENT','CRITICAL'),
+    category varchar(100),
+    source varchar(100),
+    source_id varchar(200),
+    action_url varchar(500),
+    is_broadcast bit,
+    coalesced_count integer,
+    read_at datetime(6),
+    read_by varchar(100),
+    created_at datetime(6) NOT NULL,
+    month_bucket integer,
+    moved_at datetime(6) NOT NULL,
+    PRIMARY KEY (id),
+    INDEX idx_notification_history_user (user_id, created_at, id),
+    INDEX idx_notification_history_retention (month_bucket, type)
+) ENGINE=InnoDB;
+
+CREATE TABLE shared_broadcasts (
+    id bigint NOT NULL AUTO_INCREMENT,
+    target varchar(150) NOT NULL,
+    message TEXT NOT NULL,
+    title varchar(200),
+    description varchar(500),
+    type enum('GENERAL','COURSE_UPDATE','GRADE_UPDATE','ATTENDANCE_ALERT','ANNOUNCEMENT','ASSIGNMENT_DUE','EXAM_REMINDER','SYSTEM_MAINTENANCE','SECURITY_ALERT','WELCOME','ACCOUNT_UPDATE','PASSWORD_RESET','EMAIL_VERIFICATION','COURSE_ENROLLMENT','COURSE_DROP','PROFESSOR_ASSIGNMENT','STUDENT_REGISTRATION','PAYMENT_REMINDER','LIBRARY_DUE','EVENT_REMINDER','MEETING_SCHEDULE','FEEDBACK_REQUEST','SURVEY_INVITATION','CERTIFICATE_READY','GRADUATION_REMINDER','INTERNSHIP_OPPORTUNITY','JOB_ANNOUNCEMENT','SCHOLARSHIP_DEADLINE','RESEARCH_OPPORTUNITY','CONFERENCE_INVITATION'),
+    priority enum('LOW','NORMAL','HIGH','URGENT','CRITICAL'),
+    category varchar(100),
+    action_url varchar(500),
+    action_text varchar(100),
+    icon varchar(100),
+    color varchar(50),
+    is_urgent bit,
+    is_dismissible bit,
+    is_system bit,
+    source varchar(100),
+    source_id varchar(100),
+    sent_by varchar(100),
+    expiry_date datetime(6),
+    recipient_estimate bigint,
+    read_bitmap longblob,
+    dismissed_bitmap longblob,
+    created_at datetime(6) NOT NULL,
+    updated_at datetime(6),
+    PRIMARY KEY (id),
+    INDEX idx_shared_broadcasts_expiry (expiry_date)
+) ENGINE=InnoDB;
+
+CREATE TABLE stream_tickets (
+    ticket_hash varchar(64) NOT NULL,
+    user_id bigint NOT NULL,
+    email varchar(100) NOT NULL,
+    authorities varchar(200) NOT NULL,
+    expires_at datetime(6) NOT NULL,
+    PRIMARY KEY (ticket_hash),
+    INDEX idx_stream_tickets_expires (expires_at)
+) ENGINE=InnoDB;
+
+CREATE TABLE collection_versions (
+    name varchar(32) NOT NULL,
+    version bigint NOT NULL,
+    updated_at datetime(6) NOT NULL,
+    PRIMARY KEY (name)
+) ENGINE=InnoDB;
+
+CREATE TABLE broadcast_jobs (
+    id varchar(36) NOT NULL,
+    target varchar(150) NOT NULL,
+    payload text NOT NULL,
+    status varchar(16) NOT NULL,
+    last_user_id bigint NOT NULL,
+    expected_recipients bigint,
+    processed_recipients bigint NOT NULL,
+    inserted_notifications bigint NOT NULL,
+    chunks_committed integer NOT NULL,
+    error varchar(500),
+    shared_broadcast_id bigint,
+    claimed_by varchar(100),
+    claimed_at datetime(6),
+    submitted_at datetime(6) NOT NULL,
+    started_at datetime(6),
+    completed_at datetime(6),
+    PRIMARY KEY (id),
+    INDEX idx_broadcast_jobs_status (status, submitted_at),
+    INDEX idx_broadcast_jobs_completed (completed_at)
+) ENGINE=InnoDB;
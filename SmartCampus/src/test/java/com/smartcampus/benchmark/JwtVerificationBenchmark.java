@@ -0,0 +1,79 @@
+package com.smartcampus.benchmark;
+
+import com.smartcampus.config.CampusUserDetails;
+import com.smartcampus.config.JwtService;
+import com.smartcampus.config.VerifiedAccessToken;
+import com.smartcampus.config.VerifiedTokenCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Access token verification as done by JwtAuthenticationFilter on every request, with the
+ * verified token cache warm and with a cache that keeps nothing, so every call parses and
+ * checks the signature. Run {@link #main(String[])} from the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtVerificationBenchmark {
+
+    private JwtService cachedService;
+    private JwtService uncachedService;
+    private String cachedToken;
+    private String uncachedToken;
+
+    @Setup
+    public void setUp() {
+        cachedService = jwtService(10_000);
+        uncachedService = jwtService(0);
+        cachedToken = cachedService.generateAccessToken(user());
+        uncachedToken = uncachedService.generateAccessToken(user());
+        cachedService.verifyAccessToken(cachedToken);
+    }
+
+    @Benchmark
+    public VerifiedAccessToken verifyCached() {
+        return cachedService.verifyAccessToken(cachedToken);
+    }
+
+    @Benchmark
+    public VerifiedAccessToken verifyUncached() {
+        return uncachedService.verifyAccessToken(uncachedToken);
+    }
+
+    private static JwtService jwtService(int cacheEntries) {
+        JwtService service = new JwtService(new VerifiedTokenCache(new SimpleMeterRegistry(), cacheEntries, 300_000L));
+        ReflectionTestUtils.setField(service, "jwtSecret", "your-secret-key-here");
+        ReflectionTestUtils.setField(service, "accessTokenExpiration", 900_000L);
+        return service;
+    }
+
+    private static CampusUserDetails user() {
+        return new CampusUserDetails("student@smartcampus.edu", "", List.of(new SimpleGrantedAuthority("ROLE_STUDENT")),
+                42L, 7L, null);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(JwtVerificationBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,82 @@
+package com.smartcampus.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VerifiedTokenCacheTest {
+
+    private static final long HOUR = 3_600_000L;
+
+    @Test
+    void evictsLeastRecentlyUsedTokenWhenFull() {
+        VerifiedTokenCache cache = cache(2, HOUR);
+        cache.put("a", verified("a", inOneHour()));
+        cache.put("b", verified("b", inOneHour()));
+        assertThat(cache.get("a")).isNotNull();
+
+        cache.put("c", verified("c", inOneHour()));
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get("b")).isNull();
+        assertThat(cache.get("a")).isNotNull();
+        assertThat(cache.get("c")).isNotNull();
+    }
+
+    @Test
+    void expiresEntriesAfterMaxTtl() throws InterruptedException {
+        VerifiedTokenCache cache = cache(10, 50);
+        cache.put("a", verified("a", inOneHour()));
+        assertThat(cache.get("a")).isNotNull();
+
+        Thread.sleep(100);
+
+        assertThat(cache.get("a")).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void expiresEntriesAtTokenExpBeforeMaxTtl() throws InterruptedException {
+        VerifiedTokenCache cache = cache(10, HOUR);
+        cache.put("a", verified("a", System.currentTimeMillis() + 50));
+
+        Thread.sleep(100);
+
+        assertThat(cache.get("a")).isNull();
+    }
+
+    @Test
+    void doesNotStoreExpiredTokens() {
+        VerifiedTokenCache cache = cache(10, HOUR);
+        cache.put("a", verified("a", System.currentTimeMillis() - 1));
+
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void countsHitsAndMisses() {
+        VerifiedTokenCache cache = cache(10, HOUR);
+        cache.put("a", verified("a", inOneHour()));
+
+        cache.get("a");
+        cache.get("b");
+
+        assertThat(cache.getHitCount()).isEqualTo(1);
+        assertThat(cache.getMissCount()).isEqualTo(1);
+    }
+
+    private static VerifiedTokenCache cache(int maxEntries, long maxTtl) {
+        return new VerifiedTokenCache(new SimpleMeterRegistry(), maxEntries, maxTtl);
+    }
+
+    private static VerifiedAccessToken verified(String email, long expiresAt) {
+        return new VerifiedAccessToken(email, List.of("ROLE_STUDENT"), 1L, 1L, null, expiresAt);
+    }
+
+    private static long inOneHour() {
+        return System.currentTimeMillis() + HOUR;
+    }
+}
@@ -0,0 +1,72 @@
+package com.smartcampus.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompiledTemplateTest {
+
+    @Test
+    void substitutesVariables() {
+        CompiledTemplate template = CompiledTemplate.compile("Hi {{name}}, {{course}} starts at {{ time }}.");
+
+        assertThat(template.render(Map.of("name", "Ana", "course", "CS101", "time", "9:00")))
+                .isEqualTo("Hi Ana, CS101 starts at 9:00.");
+        assertThat(template.getVariables()).containsExactly("name", "course", "time");
+    }
+
+    @Test
+    void rendersMissingAndNullVariablesAsEmpty() {
+        CompiledTemplate template = CompiledTemplate.compile("[{{a}}|{{b}}]");
+        Map<String, Object> values = new HashMap<>();
+        values.put("b", null);
+
+        assertThat(template.render(values)).isEqualTo("[|]");
+    }
+
+    @Test
+    void doesNotExpandPlaceholdersInsideValues() {
+        CompiledTemplate template = CompiledTemplate.compile("Note: {{note}}");
+
+        assertThat(template.render(Map.of("note", "{{secret}} & <b>bold</b>", "secret", "leak")))
+                .isEqualTo("Note: {{secret}} & <b>bold</b>");
+    }
+
+    @Test
+    void keepsEmptyAndUnterminatedPlaceholdersAsLiteralText() {
+        assertThat(CompiledTemplate.compile("a {{}} b {{ }} c").render(Map.of()))
+                .isEqualTo("a {{}} b {{ }} c");
+        assertThat(CompiledTemplate.compile("Hi {{name}}, see {{unclosed").render(Map.of("name", "Ana")))
+                .isEqualTo("Hi Ana, see {{unclosed");
+        assertThat(CompiledTemplate.compile("single { braces } stay").hasVariables()).isFalse();
+    }
+
+    @Test
+    void repeatsVariablesAndHandlesAdjacentSlots() {
+        CompiledTemplate template = CompiledTemplate.compile("{{x}}{{y}}{{x}}");
+
+        assertThat(template.render(Map.of("x", "1", "y", "2"))).isEqualTo("121");
+        assertThat(template.getVariables()).containsExactly("x", "y");
+    }
+
+    @Test
+    void rendersIntoAReusedBuilder() {
+        CompiledTemplate template = CompiledTemplate.compile("#{{n}};");
+        StringBuilder out = new StringBuilder();
+
+        for (int n = 1; n <= 3; n++) {
+            int value = n;
+            template.renderTo(out, name -> value);
+        }
+
+        assertThat(out.toString()).isEqualTo("#1;#2;#3;");
+    }
+
+    @Test
+    void returnsNullForNullSource() {
+        assertThat(CompiledTemplate.compile(null)).isNull();
+    }
+}
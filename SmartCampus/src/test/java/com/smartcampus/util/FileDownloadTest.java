@@ -0,0 +1,69 @@
+package com.smartcampus.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FileDownloadTest {
+
+    private static final long SIZE = 1000;
+
+    @Test
+    void parsesClosedRanges() {
+        assertThat(FileDownload.parseRange("bytes=0-99", SIZE)).containsExactly(0, 99);
+        assertThat(FileDownload.parseRange("bytes=999-999", SIZE)).containsExactly(999, 999);
+    }
+
+    @Test
+    void clampsRangesThatRunPastTheEnd() {
+        assertThat(FileDownload.parseRange("bytes=900-5000", SIZE)).containsExactly(900, 999);
+    }
+
+    @Test
+    void parsesOpenEndedRanges() {
+        assertThat(FileDownload.parseRange("bytes=500-", SIZE)).containsExactly(500, 999);
+    }
+
+    @Test
+    void parsesSuffixRanges() {
+        assertThat(FileDownload.parseRange("bytes=-100", SIZE)).containsExactly(900, 999);
+        assertThat(FileDownload.parseRange("bytes=-5000", SIZE)).containsExactly(0, 999);
+    }
+
+    @Test
+    void rejectsRangesThatCannotBeSatisfied() {
+        assertThat(FileDownload.parseRange("bytes=1000-", SIZE)).isNull();
+        assertThat(FileDownload.parseRange("bytes=1000-1100", SIZE)).isNull();
+        assertThat(FileDownload.parseRange("bytes=-0", SIZE)).isNull();
+        assertThat(FileDownload.parseRange("bytes=-10", 0)).isNull();
+    }
+
+    @Test
+    void ignoresInvertedRanges() {
+        assertThat(FileDownload.parseRange("bytes=100-50", SIZE)).isEmpty();
+    }
+
+    @Test
+    void ignoresMultipleRanges() {
+        assertThat(FileDownload.parseRange("bytes=0-1,5-6", SIZE)).isEmpty();
+    }
+
+    @Test
+    void ignoresOtherUnitsAndMalformedHeaders() {
+        assertThat(FileDownload.parseRange("items=0-1", SIZE)).isEmpty();
+        assertThat(FileDownload.parseRange("bytes=100", SIZE)).isEmpty();
+        assertThat(FileDownload.parseRange("bytes=a-b", SIZE)).isEmpty();
+        assertThat(FileDownload.parseRange("bytes=-", SIZE)).isEmpty();
+    }
+
+    @Test
+    void showsOnlyAllowlistedTypesInline() {
+        assertThat(FileDownload.isInlineType("application/pdf")).isTrue();
+        assertThat(FileDownload.isInlineType("IMAGE/PNG")).isTrue();
+        assertThat(FileDownload.isInlineType("text/plain; charset=UTF-8")).isTrue();
+        assertThat(FileDownload.isInlineType("text/html")).isFalse();
+        assertThat(FileDownload.isInlineType("image/svg+xml")).isFalse();
+        assertThat(FileDownload.isInlineType("not a type")).isFalse();
+        assertThat(FileDownload.isInlineType(null)).isFalse();
+    }
+}
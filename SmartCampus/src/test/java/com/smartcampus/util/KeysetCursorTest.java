@@ -0,0 +1,68 @@
+package com.smartcampus.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeysetCursorTest {
+
+    @Test
+    void roundTripsThroughItsToken() {
+        LocalDateTime createdAt = LocalDateTime.of(2024, 3, 1, 12, 30, 15, 123_456_000);
+        KeysetCursor cursor = KeysetCursor.decode(new KeysetCursor(createdAt, 987_654_321L).encode());
+
+        assertThat(cursor.getCreatedAt()).isEqualTo(createdAt);
+        assertThat(cursor.getId()).isEqualTo(987_654_321L);
+    }
+
+    @Test
+    void roundTripsWholeSecondTimestamps() {
+        LocalDateTime createdAt = LocalDateTime.of(2024, 3, 1, 12, 0);
+        KeysetCursor cursor = KeysetCursor.decode(new KeysetCursor(createdAt, 1L).encode());
+
+        assertThat(cursor.getCreatedAt()).isEqualTo(createdAt);
+    }
+
+    @Test
+    void tokenIsUrlSafe() {
+        String token = new KeysetCursor(LocalDateTime.of(2024, 12, 31, 23, 59, 59), Long.MAX_VALUE).encode();
+
+        assertThat(token).matches("[A-Za-z0-9_-]+");
+    }
+
+    @Test
+    void rejectsTokensThatAreNotBase64() {
+        assertThatThrownBy(() -> KeysetCursor.decode("not a cursor!"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid cursor");
+    }
+
+    @Test
+    void rejectsTamperedPayloads() {
+        assertInvalid("2024-03-01T12:00,abc");
+        assertInvalid("yesterday,42");
+        assertInvalid("2024-03-01T12:00");
+        assertInvalid("2024-03-01T12:00,");
+        assertInvalid("");
+    }
+
+    @Test
+    void rejectsTruncatedTokens() {
+        String token = new KeysetCursor(LocalDateTime.of(2024, 3, 1, 12, 0), 42L).encode();
+
+        assertThatThrownBy(() -> KeysetCursor.decode(token.substring(0, token.length() / 2)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static void assertInvalid(String raw) {
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        assertThatThrownBy(() -> KeysetCursor.decode(token))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid cursor");
+    }
+}
@@ -0,0 +1,76 @@
+package com.smartcampus.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimingWheelTest {
+
+    // 8 buckets of 10 ms: the first level spans 80 ms, the second 640 ms, the third 5120 ms
+    private final TimingWheel<String> wheel = new TimingWheel<>(10, 8, 0);
+
+    @Test
+    void firesOnTheTickAtOrAfterTheDueTime() {
+        assertThat(wheel.schedule("a", 15)).isTrue();
+
+        assertThat(wheel.advance(19)).isEmpty();
+        assertThat(wheel.advance(20)).containsExactly("a");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void cascadesTimersDownFromOverflowLevels() {
+        wheel.schedule("second-level", 300);
+        wheel.schedule("third-level", 1000);
+        assertThat(wheel.size()).isEqualTo(2);
+
+        List<String> fired = new ArrayList<>();
+        for (long now = 10; now <= 1000; now += 10) {
+            List<String> expired = wheel.advance(now);
+            if (now < 300) {
+                assertThat(expired).isEmpty();
+            } else if (now == 300) {
+                assertThat(expired).containsExactly("second-level");
+            } else if (now < 1000) {
+                assertThat(expired).isEmpty();
+            }
+            fired.addAll(expired);
+        }
+
+        assertThat(fired).containsExactly("second-level", "third-level");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void firesEverythingDueWhenTheClockJumps() {
+        wheel.schedule("near", 30);
+        wheel.schedule("far", 4000);
+        wheel.schedule("later", 9000);
+
+        assertThat(wheel.advance(5000)).containsExactlyInAnyOrder("near", "far");
+        assertThat(wheel.size()).isEqualTo(1);
+        assertThat(wheel.advance(9000)).containsExactly("later");
+    }
+
+    @Test
+    void refusesTimersThatAreAlreadyDue() {
+        wheel.advance(100);
+
+        assertThat(wheel.schedule("past", 50)).isFalse();
+        assertThat(wheel.schedule("now", 100)).isFalse();
+        assertThat(wheel.schedule("next-tick", 101)).isTrue();
+        assertThat(wheel.size()).isEqualTo(1);
+    }
+
+    @Test
+    void schedulesRelativeToTheAdvancedClock() {
+        wheel.advance(75);
+        wheel.schedule("a", 150);
+
+        assertThat(wheel.advance(149)).isEmpty();
+        assertThat(wheel.advance(150)).containsExactly("a");
+    }
+}
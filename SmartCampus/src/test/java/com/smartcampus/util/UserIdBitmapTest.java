@@ -0,0 +1,106 @@
+package com.smartcampus.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UserIdBitmapTest {
+
+    @Test
+    void setsBitsAcrossWordAndContainerBoundaries() {
+        UserIdBitmap bitmap = new UserIdBitmap();
+        long[] ids = {0, 63, 64, 127, 128, 65_535, 65_536, 131_071, Integer.MAX_VALUE};
+        for (long id : ids) {
+            assertThat(bitmap.add(id)).isTrue();
+        }
+
+        for (long id : ids) {
+            assertThat(bitmap.contains(id)).isTrue();
+        }
+        assertThat(bitmap.contains(1)).isFalse();
+        assertThat(bitmap.contains(62)).isFalse();
+        assertThat(bitmap.contains(65)).isFalse();
+        assertThat(bitmap.contains(65_537)).isFalse();
+        assertThat(bitmap.cardinality()).isEqualTo(ids.length);
+    }
+
+    @Test
+    void ignoresDuplicates() {
+        UserIdBitmap bitmap = new UserIdBitmap();
+        bitmap.add(42);
+
+        assertThat(bitmap.add(42)).isFalse();
+        assertThat(bitmap.cardinality()).isEqualTo(1);
+    }
+
+    @Test
+    void switchesToABitsetWhenAContainerFillsUp() {
+        UserIdBitmap bitmap = new UserIdBitmap();
+        for (int id = 0; id < 10_000; id += 2) {
+            bitmap.add(id);
+        }
+
+        assertThat(bitmap.cardinality()).isEqualTo(5_000);
+        assertThat(bitmap.sizeInBytes()).isEqualTo(5 + 6 + 8 * 1024);
+        for (int id = 0; id < 10_000; id++) {
+            assertThat(bitmap.contains(id)).isEqualTo(id % 2 == 0);
+        }
+        assertThat(bitmap.add(0)).isFalse();
+    }
+
+    @Test
+    void orIteratesEveryWordOfTheSource() {
+        UserIdBitmap dense = new UserIdBitmap();
+        for (int id = 0; id < 5_000; id++) {
+            dense.add(id);
+        }
+        UserIdBitmap sparse = new UserIdBitmap();
+        sparse.add(63);
+        sparse.add(64);
+        sparse.add(70_000);
+
+        UserIdBitmap union = new UserIdBitmap();
+        union.or(dense);
+        union.or(sparse);
+
+        assertThat(union.cardinality()).isEqualTo(5_001);
+        assertThat(union.contains(4_999)).isTrue();
+        assertThat(union.contains(5_000)).isFalse();
+        assertThat(union.contains(70_000)).isTrue();
+    }
+
+    @Test
+    void roundTripsThroughBytes() {
+        UserIdBitmap bitmap = new UserIdBitmap();
+        for (int id = 100_000; id < 105_000; id++) {
+            bitmap.add(id);
+        }
+        bitmap.add(7);
+        bitmap.add(200_000);
+
+        UserIdBitmap copy = UserIdBitmap.fromBytes(bitmap.toBytes());
+
+        assertThat(copy.cardinality()).isEqualTo(bitmap.cardinality());
+        assertThat(copy.contains(7)).isTrue();
+        assertThat(copy.contains(104_999)).isTrue();
+        assertThat(copy.contains(105_000)).isFalse();
+        assertThat(copy.contains(200_000)).isTrue();
+        assertThat(copy.add(200_001)).isTrue();
+    }
+
+    @Test
+    void readsEmptyInputAsAnEmptyBitmap() {
+        assertThat(UserIdBitmap.fromBytes(null).isEmpty()).isTrue();
+        assertThat(UserIdBitmap.fromBytes(new byte[0]).isEmpty()).isTrue();
+    }
+
+    @Test
+    void rejectsIdsOutsideItsRange() {
+        UserIdBitmap bitmap = new UserIdBitmap();
+
+        assertThatThrownBy(() -> bitmap.add(-1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> bitmap.add(Integer.MAX_VALUE + 1L)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(bitmap.contains(-1)).isFalse();
+    }
+}